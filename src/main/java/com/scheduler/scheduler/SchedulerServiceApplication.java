@@ -13,6 +13,7 @@ import com.fasterxml.jackson.databind.JsonMappingException;
 @SpringBootApplication(scanBasePackageClasses = { SchedulerServiceApplication.class })
 @PropertySource({ "classpath:application.properties" })
 @EnableEurekaClient
+@EnableScheduling
 public class SchedulerServiceApplication {
 	
 	public static void main(String[] args) throws JsonMappingException, JsonProcessingException, SchedulerException {
@@ -0,0 +1,83 @@
+package com.scheduler.scheduler.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.TaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.scheduler.scheduler.util.Constants;
+
+@Configuration
+public class ExecutorConfig {
+
+	@Value("${scheduler.bulk.parallelism:0}")
+	private int bulkParallelism;
+
+	@Value("${scheduler.tickets.workers:4}")
+	private int ticketWorkers;
+
+	@Value("${scheduler.tickets.queue-capacity:100}")
+	private int ticketQueueCapacity;
+
+	/**
+	 * Boot only creates its default executor when no other Executor bean exists, so it is declared
+	 * here explicitly; Spring MVC runs async and streaming responses on it.
+	 */
+	@Lazy
+	@Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+	public ThreadPoolTaskExecutor applicationTaskExecutor(TaskExecutorBuilder builder) {
+		return builder.build();
+	}
+
+	/**
+	 * Computes visibility windows for bulk slot imports, one task per slot.
+	 * When the queue is full the submitting request thread computes the slot itself.
+	 */
+	@Bean(name = Constants.BEAN_SLOT_BULK_EXECUTOR)
+	public ThreadPoolTaskExecutor slotBulkExecutor() {
+		int threads = bulkParallelism > 0 ? bulkParallelism : Runtime.getRuntime().availableProcessors();
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(threads);
+		executor.setMaxPoolSize(threads);
+		executor.setQueueCapacity(threads * 64);
+		executor.setThreadNamePrefix("slot-bulk-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		return executor;
+	}
+
+	/**
+	 * Runs async scheduling requests. Submissions beyond the queue capacity are rejected
+	 * (TaskRejectedException) so callers are told to back off instead of piling up work.
+	 */
+	@Bean(name = Constants.BEAN_SCHEDULE_TICKET_EXECUTOR)
+	public ThreadPoolTaskExecutor scheduleTicketExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(ticketWorkers);
+		executor.setMaxPoolSize(ticketWorkers);
+		executor.setQueueCapacity(ticketQueueCapacity);
+		executor.setThreadNamePrefix("schedule-ticket-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		return executor;
+	}
+
+	/**
+	 * Single thread running the outbox relay loop; shutdown waits for the current batch to finish.
+	 */
+	@Bean(name = Constants.BEAN_OUTBOX_RELAY_EXECUTOR)
+	public ThreadPoolTaskExecutor outboxRelayExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(1);
+		executor.setMaxPoolSize(1);
+		executor.setThreadNamePrefix("outbox-relay-");
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		executor.setAwaitTerminationSeconds(30);
+		return executor;
+	}
+}
@@ -1,9 +1,14 @@
 package com.scheduler.scheduler.config;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -12,6 +17,10 @@ import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import com.scheduler.scheduler.kafka.PooledKafkaTemplate;
 
 @EnableKafka
 @Configuration
@@ -19,23 +28,88 @@ public class KafkaSenderConfig {
 	@Value("${kafka.bootstrap-servers}")
 	private String bootstrapServers;
 
+	@Value("${kafka.producer.acks:}")
+	private String acks;
+
+	@Value("${kafka.producer.enable-idempotence:}")
+	private String enableIdempotence;
+
+	@Value("${kafka.producer.compression-type:}")
+	private String compressionType;
+
+	@Value("${kafka.producer.linger-ms:}")
+	private String lingerMs;
+
+	@Value("${kafka.producer.batch-size:}")
+	private String batchSize;
+
+	@Value("${kafka.producer.buffer-memory:}")
+	private String bufferMemory;
+
+	@Value("${kafka.producer.max-in-flight-requests-per-connection:}")
+	private String maxInFlightRequestsPerConnection;
+
+	@Value("${kafka.producer.pool-size:1}")
+	private int poolSize;
+
+	/**
+	 * Kafka's producer defaults, with each kafka.producer.* setting that is configured applied on
+	 * top. The performance profile tunes them for bursts of slot events: batches linger briefly and
+	 * are compressed, and idempotence with acks=all keeps retries from duplicating or reordering records.
+	 */
 	@Bean
 	public Map<String, Object> producerConfig() {
 		Map<String, Object> props = new HashMap<>();
 		props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, this.bootstrapServers);
-		props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-		props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, org.springframework.kafka.support.serializer.JsonSerializer.class);
+		putIfSet(props, ProducerConfig.ACKS_CONFIG, this.acks);
+		putIfSet(props, ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, this.enableIdempotence);
+		putIfSet(props, ProducerConfig.COMPRESSION_TYPE_CONFIG, this.compressionType);
+		putIfSet(props, ProducerConfig.LINGER_MS_CONFIG, this.lingerMs);
+		putIfSet(props, ProducerConfig.BATCH_SIZE_CONFIG, this.batchSize);
+		putIfSet(props, ProducerConfig.BUFFER_MEMORY_CONFIG, this.bufferMemory);
+		putIfSet(props, ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, this.maxInFlightRequestsPerConnection);
 		return props;
 	}
 
+	private static void putIfSet(Map<String, Object> props, String key, String value) {
+		if (value != null && !value.trim().isEmpty()) {
+			props.put(key, value.trim());
+		}
+	}
+
 	@Bean
 	public ProducerFactory<String, Object> producerFactorys() {
-		return new DefaultKafkaProducerFactory<>(this.producerConfig());
+		return this.newProducerFactory();
 	}
 
+	/**
+	 * A single template over the shared producer, or with kafka.producer.pool-size above 1 a
+	 * template spreading sends over that many producers.
+	 */
 	@Bean
 	public KafkaTemplate<String, Object> kafkaTemplates() {
-		return new KafkaTemplate<>(this.producerFactorys());
+		if (this.poolSize <= 1) {
+			return new KafkaTemplate<>(this.producerFactorys());
+		}
+		List<ProducerFactory<String, Object>> factories = new ArrayList<>(this.poolSize);
+		factories.add(this.producerFactorys());
+		for (int i = 1; i < this.poolSize; i++) {
+			factories.add(this.newProducerFactory());
+		}
+		return new PooledKafkaTemplate<>(factories);
+	}
+
+	/**
+	 * Values already serialized to JSON (precompiled slot payloads, outbox rows) are sent as they
+	 * are; any other value is serialized with Jackson.
+	 */
+	@SuppressWarnings("rawtypes")
+	private ProducerFactory<String, Object> newProducerFactory() {
+		Map<Class<?>, Serializer> valueSerializers = new LinkedHashMap<>();
+		valueSerializers.put(byte[].class, new ByteArraySerializer());
+		valueSerializers.put(Object.class, new JsonSerializer<>());
+		return new DefaultKafkaProducerFactory<>(this.producerConfig(), new StringSerializer(),
+				new DelegatingByTypeSerializer(valueSerializers, true));
 	}
 
 }
@@ -8,12 +8,14 @@ import javax.sql.DataSource;
 import org.quartz.Scheduler;
 import org.quartz.SchedulerException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.quartz.QuartzProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.quartz.SchedulerFactoryBean;
 
 import com.scheduler.scheduler.factory.QuartzJobFactory;
+import com.scheduler.scheduler.listener.OutboxJobListener;
 import com.scheduler.scheduler.util.Constants;
 
 @Configuration
@@ -28,12 +30,15 @@ public class SchedulerConfig {
 	@Autowired
 	private QuartzJobFactory jobFactory;
 
+	@Value("${scheduler.outbox.enabled:false}")
+	private boolean outboxEnabled;
 
 	@Bean
 	public SchedulerFactoryBean schedulerFactoryBean() throws IOException {
 		Properties properties = new Properties();
 		properties.putAll(quartzProperties.getProperties());
-		properties.put(Constants.QUARTZ_DRIVER_DELEGATE, Constants.QUARTZ_POSTGRESQL_DELEGATE);
+		// The performance profile swaps in SchedulerJobStore and SchedulerPostgreSQLDelegate
+		properties.putIfAbsent(Constants.QUARTZ_DRIVER_DELEGATE, Constants.QUARTZ_POSTGRESQL_DELEGATE);
 		SchedulerFactoryBean factory = new SchedulerFactoryBean();
 		factory.setOverwriteExistingJobs(true);
 		factory.setDataSource(dataSource);
@@ -42,6 +47,9 @@ public class SchedulerConfig {
 		factory.setWaitForJobsToCompleteOnShutdown(true);
 		factory.setOverwriteExistingJobs(false);
 		factory.setStartupDelay(1);
+		if (outboxEnabled) {
+			factory.setGlobalJobListeners(new OutboxJobListener());
+		}
 		return factory;
 	}
 	
@@ -1,19 +1,38 @@
 package com.scheduler.scheduler.controller;
 
+import com.scheduler.scheduler.model.dto.AcquisitionStatus;
+import com.scheduler.scheduler.model.dto.FireLagStatus;
+import com.scheduler.scheduler.model.dto.FireTimesPage;
 import com.scheduler.scheduler.model.dto.GenericScheduleRequest;
 import com.scheduler.scheduler.model.dto.JobScheduleRequest;
+import com.scheduler.scheduler.model.dto.MisfireReplayStatus;
 import com.scheduler.scheduler.model.dto.ScheduleResponse;
+import com.scheduler.scheduler.model.dto.ScheduleTicket;
 import com.scheduler.scheduler.model.dto.SlotAddRequest;
 import com.scheduler.scheduler.model.dto.SlotScheduleRequest;
+import com.scheduler.scheduler.model.dto.WorkerPoolStatus;
+import com.scheduler.scheduler.service.ScheduleTicketService;
+import com.scheduler.scheduler.service.SchedulerAdminService;
 import com.scheduler.scheduler.service.SchedulerService;
+import com.scheduler.scheduler.service.SlotBulkImportService;
 import com.scheduler.scheduler.util.ApiMapping;
+import com.scheduler.scheduler.util.Constants;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.function.Supplier;
+
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -24,16 +43,44 @@ public class SchedulerController {
 	@Autowired
 	private SchedulerService schedulerService;
 
+	private static final int TICKET_RETRY_AFTER_SECONDS = 5;
+
+	@Autowired
+	private SlotBulkImportService slotBulkImportService;
+
+	@Autowired
+	private ScheduleTicketService scheduleTicketService;
+
+	@Autowired
+	private SchedulerAdminService schedulerAdminService;
+
 	/**
 	 * Add a slot and schedule its visibility (Wheel of Fortune).
 	 * Uses schedule config: validFrom/validTo, daysOfWeek, timeSlots, exclusionDates.
+	 * A stored slot is updated in place, writing only its changed windows, with the performance
+	 * profile's job store; otherwise it is replaced as a whole.
 	 */
 	@PostMapping(ApiMapping.SLOTS)
-	public ResponseEntity<ScheduleResponse> addSlot(@RequestBody SlotAddRequest request) {
-		ScheduleResponse response = schedulerService.scheduleSlotVisibility(request);
-		return response.isSuccess()
-				? ResponseEntity.ok(response)
-				: ResponseEntity.badRequest().body(response);
+	public ResponseEntity<?> addSlot(
+			@RequestBody SlotAddRequest request,
+			@RequestParam(value = "includeScheduledTimes", defaultValue = "false") boolean includeScheduledTimes,
+			@RequestParam(value = "async", defaultValue = "false") boolean async) {
+		return schedule(() -> schedulerService.scheduleSlotVisibility(request, includeScheduledTimes), includeScheduledTimes, async);
+	}
+
+	/**
+	 * Add many slots from an NDJSON body (one SlotAddRequest per line). Results are streamed back
+	 * as NDJSON, one ScheduleResponse per input line in the same order, as each batch is stored.
+	 * Batches stream their triggers into the store chunk by chunk only with the performance
+	 * profile's job store; otherwise each batch's triggers are built in memory first.
+	 */
+	@PostMapping(value = ApiMapping.SLOTS_BULK, consumes = MediaType.APPLICATION_NDJSON_VALUE,
+			produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> addSlotsBulk(HttpServletRequest request) throws IOException {
+		InputStream body = request.getInputStream();
+		return ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.body(out -> slotBulkImportService.importSlots(body, out));
 	}
 
 	/**
@@ -41,20 +88,36 @@ public class SchedulerController {
 	 * Slots can be daily, weekly, or monthly.
 	 */
 	@PostMapping(ApiMapping.SLOT)
-	public ResponseEntity<ScheduleResponse> scheduleSlot(@RequestBody SlotScheduleRequest request) {
-		ScheduleResponse response = schedulerService.scheduleSlot(request);
-		return response.isSuccess()
-				? ResponseEntity.ok(response)
-				: ResponseEntity.badRequest().body(response);
+	public ResponseEntity<?> scheduleSlot(
+			@RequestBody SlotScheduleRequest request,
+			@RequestParam(value = "includeScheduledTimes", defaultValue = "false") boolean includeScheduledTimes,
+			@RequestParam(value = "async", defaultValue = "false") boolean async) {
+		return schedule(() -> schedulerService.scheduleSlot(request, includeScheduledTimes), includeScheduledTimes, async);
 	}
 
 	/**
 	 * Schedule a job with start/end time, recurring option, and work/pause cycles.
 	 * Example: work 2hr, pause 1hr, work 2hr until end time or date change.
+	 * Replacing a job and all its triggers takes one job-store transaction with the performance
+	 * profile; otherwise the triggers of a longer earlier version are removed in a second one.
 	 */
 	@PostMapping(ApiMapping.JOB)
-	public ResponseEntity<ScheduleResponse> scheduleJob(@RequestBody JobScheduleRequest request) {
-		ScheduleResponse response = schedulerService.scheduleJob(request);
+	public ResponseEntity<?> scheduleJob(
+			@RequestBody JobScheduleRequest request,
+			@RequestParam(value = "includeScheduledTimes", defaultValue = "false") boolean includeScheduledTimes,
+			@RequestParam(value = "async", defaultValue = "false") boolean async) {
+		return schedule(() -> schedulerService.scheduleJob(request, includeScheduledTimes), includeScheduledTimes, async);
+	}
+
+	/**
+	 * Preview a job request: number of triggers it would create and its first windows.
+	 * Nothing is scheduled.
+	 */
+	@PostMapping(ApiMapping.JOB_PREVIEW)
+	public ResponseEntity<ScheduleResponse> previewJob(
+			@RequestBody JobScheduleRequest request,
+			@RequestParam(value = "limit", defaultValue = "10") int limit) {
+		ScheduleResponse response = schedulerService.previewJob(request, limit);
 		return response.isSuccess()
 				? ResponseEntity.ok(response)
 				: ResponseEntity.badRequest().body(response);
@@ -65,11 +128,100 @@ public class SchedulerController {
 	 * Supports one-time or recurring jobs with work/pause cycles.
 	 */
 	@PostMapping(ApiMapping.GENERIC)
-	public ResponseEntity<ScheduleResponse> scheduleGeneric(@Valid @RequestBody GenericScheduleRequest request) {
-		ScheduleResponse response = schedulerService.scheduleGeneric(request);
-		return response.isSuccess()
-				? ResponseEntity.ok(response)
-				: ResponseEntity.badRequest().body(response);
+	public ResponseEntity<?> scheduleGeneric(
+			@Valid @RequestBody GenericScheduleRequest request,
+			@RequestParam(value = "includeScheduledTimes", defaultValue = "false") boolean includeScheduledTimes,
+			@RequestParam(value = "async", defaultValue = "false") boolean async) {
+		return schedule(() -> schedulerService.scheduleGeneric(request, includeScheduledTimes), includeScheduledTimes, async);
+	}
+
+	/**
+	 * Page through a scheduled job's upcoming fire times, computed from its stored triggers.
+	 * Start with the fireTimesCursor of the schedule response (or no cursor for the next fire)
+	 * and pass each page's nextCursor to get the following one.
+	 */
+	@GetMapping(ApiMapping.JOB_FIRE_TIMES)
+	public ResponseEntity<FireTimesPage> listFireTimes(
+			@PathVariable("name") String jobName,
+			@PathVariable("group") String jobGroup,
+			@RequestParam(value = "cursor", required = false) String cursor,
+			@RequestParam(value = "limit", defaultValue = "100") int limit,
+			@RequestParam(value = "timezone", required = false) String timezone) {
+		FireTimesPage page = schedulerService.listFireTimes(jobName, jobGroup, cursor, limit, timezone);
+		return page.isSuccess()
+				? ResponseEntity.ok(page)
+				: ResponseEntity.badRequest().body(page);
+	}
+
+	/**
+	 * Status of a request submitted with async=true; carries the ScheduleResponse once finished.
+	 */
+	@GetMapping(ApiMapping.TICKET)
+	public ResponseEntity<ScheduleTicket> getTicket(@PathVariable("id") String ticketId) {
+		ScheduleTicket ticket = scheduleTicketService.getTicket(ticketId);
+		return ticket != null
+				? ResponseEntity.ok(ticket)
+				: ResponseEntity.notFound().build();
+	}
+
+	/**
+	 * Current trigger acquisition batch size and fire-ahead window, and the recent adaptive changes.
+	 */
+	@GetMapping(ApiMapping.ADMIN_ACQUISITION)
+	public ResponseEntity<AcquisitionStatus> getAcquisitionStatus() {
+		AcquisitionStatus status = schedulerAdminService.getAcquisitionStatus();
+		return status != null
+				? ResponseEntity.ok(status)
+				: ResponseEntity.notFound().build();
+	}
+
+	/**
+	 * How late (or early) jobs started relative to their scheduled fire times on this node.
+	 */
+	@GetMapping(ApiMapping.ADMIN_FIRE_LAG)
+	public ResponseEntity<FireLagStatus> getFireLagStatus() {
+		FireLagStatus status = schedulerAdminService.getFireLagStatus();
+		return status != null
+				? ResponseEntity.ok(status)
+				: ResponseEntity.notFound().build();
+	}
+
+	/**
+	 * Worker pool size, bounds, load and the recent resizes.
+	 */
+	@GetMapping(ApiMapping.ADMIN_WORKER_POOL)
+	public ResponseEntity<WorkerPoolStatus> getWorkerPoolStatus() {
+		WorkerPoolStatus status = schedulerAdminService.getWorkerPoolStatus();
+		return status != null
+				? ResponseEntity.ok(status)
+				: ResponseEntity.notFound().build();
+	}
+
+	/**
+	 * Resizes the worker pool or changes its bounds live; parameters left out are unchanged.
+	 */
+	@PutMapping(ApiMapping.ADMIN_WORKER_POOL)
+	public ResponseEntity<WorkerPoolStatus> updateWorkerPool(
+			@RequestParam(value = "size", required = false) Integer size,
+			@RequestParam(value = "min", required = false) Integer minSize,
+			@RequestParam(value = "max", required = false) Integer maxSize,
+			@RequestParam(value = "autoscale", required = false) Boolean autoscale) {
+		WorkerPoolStatus status = schedulerAdminService.updateWorkerPool(size, minSize, maxSize, autoscale);
+		return status != null
+				? ResponseEntity.ok(status)
+				: ResponseEntity.notFound().build();
+	}
+
+	/**
+	 * Missed windows dropped or collapsed, pacing of fires caught up after misfires and recovery, and
+	 * how long the queued backlog lasts.
+	 */
+	@GetMapping(ApiMapping.ADMIN_MISFIRE_REPLAY)
+	public ResponseEntity<MisfireReplayStatus> getMisfireReplayStatus() {
+		MisfireReplayStatus status = schedulerAdminService.getMisfireReplayStatus();
+		return status != null
+				? ResponseEntity.ok(status)
+				: ResponseEntity.notFound().build();
 	}
 
 	@DeleteMapping(ApiMapping.DELETE_JOB)
@@ -82,6 +234,36 @@ public class SchedulerController {
 		}
 		return new ResponseEntity<>(response,HttpStatus.BAD_REQUEST);
 	}
+
+	/**
+	 * Runs a scheduling request inline, or with async=true queues it and answers 202 with a ticket
+	 * (429 when the worker queue is full) so the request thread is released immediately.
+	 */
+	private ResponseEntity<?> schedule(Supplier<ScheduleResponse> work, boolean includeScheduledTimes, boolean async) {
+		Supplier<ScheduleResponse> task = () -> {
+			ScheduleResponse response = work.get();
+			response.setIncludeScheduledTimes(includeScheduledTimes);
+			return response;
+		};
+		if (async) {
+			ScheduleTicket ticket = scheduleTicketService.submit(task);
+			if (ticket == null) {
+				return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+						.header(HttpHeaders.RETRY_AFTER, String.valueOf(TICKET_RETRY_AFTER_SECONDS))
+						.body(ScheduleResponse.builder()
+								.success(false)
+								.message(Constants.MSG_TICKET_QUEUE_FULL)
+								.build());
+			}
+			return ResponseEntity.accepted()
+					.location(URI.create(ApiMapping.BASE_PATH + ApiMapping.TICKETS + "/" + ticket.getTicketId()))
+					.body(ticket);
+		}
+		ScheduleResponse response = task.get();
+		return response.isSuccess()
+				? ResponseEntity.ok(response)
+				: ResponseEntity.badRequest().body(response);
+	}
 	
 	
 }
@@ -4,8 +4,10 @@ import org.quartz.Job;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
+
+import com.scheduler.scheduler.outbox.FiredEventPublisher;
+
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 
@@ -15,7 +17,7 @@ import lombok.extern.slf4j.Slf4j;
 public class NewJobClass implements Job {
 	
 	@Autowired
-	private KafkaTemplate<String, Object> kafkaTemplate;
+	private FiredEventPublisher firedEventPublisher;
 	
 	private Class<? extends Job> newJobClass = NewJobClass.class;
 	
@@ -28,7 +30,8 @@ public class NewJobClass implements Job {
 	@Override
 	public void execute(JobExecutionContext context) throws JobExecutionException {
 		log.info("Sending Kafka Topic : "+ context.getJobDetail().getKey().getGroup()); 
-		kafkaTemplate.send(context.getJobDetail().getKey().getGroup(),1);
+		// Unkeyed, as before the outbox, so the topic's partitioning does not change
+		firedEventPublisher.publish(context, context.getJobDetail().getKey().getGroup(), null, 1);
 	}
 
 }
@@ -1,12 +1,17 @@
 package com.scheduler.scheduler.job;
 
+import java.time.Instant;
+
 import org.quartz.Job;
 import org.quartz.JobDataMap;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.kafka.core.KafkaTemplate;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.scheduler.scheduler.kafka.SlotEventKeys;
+import com.scheduler.scheduler.kafka.SlotPayloadTemplates;
+import com.scheduler.scheduler.outbox.FiredEventPublisher;
 import com.scheduler.scheduler.util.Constants;
 
 import lombok.extern.slf4j.Slf4j;
@@ -21,12 +26,17 @@ public class SlotExecutionJob implements Job {
 
 
     @Autowired
-    private KafkaTemplate<String, Object> kafkaTemplate;
+    private FiredEventPublisher firedEventPublisher;
+
+    @Autowired
+    private SlotPayloadTemplates slotPayloadTemplates;
+
+    @Autowired
+    private SlotEventKeys slotEventKeys;
 
     @Override
     public void execute(JobExecutionContext context) throws JobExecutionException {
         JobDataMap dataMap = context.getJobDetail().getJobDataMap();
-        String slotAddRequestJson = dataMap.getString(Constants.KEY_SLOT_ADD_REQUEST_JSON);
 
         String gameCode = dataMap.getString(Constants.KEY_GAME_CODE);
         if (gameCode == null) {
@@ -40,22 +50,17 @@ public class SlotExecutionJob implements Job {
         log.info("Executing slot visibility: productCode={}, gameCode={}", productCode, gameCode);
 
         String topic = Constants.KAFKA_TOPIC_PREFIX_SLOT_SCHEDULE + (gameCode != null ? gameCode.toLowerCase() : Constants.KAFKA_TOPIC_DEFAULT);
-        Object payload = buildSlotPayload(dataMap, slotAddRequestJson);
-        kafkaTemplate.send(topic, payload);
-    }
-
-    private Object buildSlotPayload(JobDataMap dataMap, String slotAddRequestJson) {
-        java.util.Map<String, Object> payload = new java.util.HashMap<>();
-        dataMap.forEach((k, v) -> {
-            if (v != null && !Constants.KEY_SLOT_ADD_REQUEST_JSON.equals(k)) {
-                payload.put(k, v);
-            }
-        });
-        if (slotAddRequestJson != null) {
-            payload.put(Constants.KEY_SLOT_CONFIG, slotAddRequestJson);
+        String key = slotEventKeys.keyFor(context.getJobDetail());
+        if (!slotPayloadTemplates.isEnabled()) {
+            firedEventPublisher.publish(context, topic, key, slotPayloadTemplates.payload(dataMap, Instant.now()));
+            return;
+        }
+        byte[] payload;
+        try {
+            payload = slotPayloadTemplates.template(context.getJobDetail()).render(System.currentTimeMillis());
+        } catch (JsonProcessingException e) {
+            throw new JobExecutionException("Cannot build slot payload for " + context.getJobDetail().getKey(), e);
         }
-        payload.put(Constants.KEY_EXECUTION_TIME, java.time.Instant.now().toString());
-        payload.put(Constants.KEY_ACTION, Constants.ACTION_SLOT_VISIBILITY_START);
-        return payload;
+        firedEventPublisher.publishJson(context, topic, key, payload, SlotPayloadTemplates.PAYLOAD_TYPE);
     }
 }
@@ -0,0 +1,29 @@
+package com.scheduler.scheduler.job;
+
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.scheduler.scheduler.service.SchedulerService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Internal job that extends rolling-horizon slot jobs (schedule.horizonHours) so that
+ * only the windows of the next horizon are kept as triggers in the job store.
+ */
+@Slf4j
+@DisallowConcurrentExecution
+public class SlotHorizonRefillJob implements Job {
+
+    @Autowired
+    private SchedulerService schedulerService;
+
+    @Override
+    public void execute(JobExecutionContext context) throws JobExecutionException {
+        log.info("Refilling slot visibility horizons");
+        schedulerService.refillSlotHorizons();
+    }
+}
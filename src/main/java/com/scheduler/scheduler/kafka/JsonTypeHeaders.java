@@ -0,0 +1,44 @@
+package com.scheduler.scheduler.kafka;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.kafka.support.mapping.DefaultJackson2JavaTypeMapper;
+import org.springframework.kafka.support.mapping.Jackson2JavaTypeMapper;
+import org.springframework.util.ClassUtils;
+
+import com.fasterxml.jackson.databind.type.TypeFactory;
+
+/**
+ * The type headers ({@code __TypeId__} and, for maps and collections, its key and content type)
+ * that Spring's JsonSerializer adds to a record, for values sent already serialized, so consumers
+ * deserializing by type header see the same record as for the original object.
+ */
+public final class JsonTypeHeaders {
+
+	private static final Jackson2JavaTypeMapper TYPE_MAPPER = new DefaultJackson2JavaTypeMapper();
+
+	private JsonTypeHeaders() {
+	}
+
+	public static Headers of(Class<?> valueType) {
+		Headers headers = new RecordHeaders();
+		if (valueType != null) {
+			TYPE_MAPPER.fromJavaType(TypeFactory.defaultInstance().constructType(valueType), headers);
+		}
+		return headers;
+	}
+
+	/**
+	 * @return the headers for the named class; none when the name is null or the class is unknown
+	 */
+	public static Headers of(String valueTypeName) {
+		if (valueTypeName == null) {
+			return new RecordHeaders();
+		}
+		try {
+			return of(ClassUtils.forName(valueTypeName, JsonTypeHeaders.class.getClassLoader()));
+		} catch (ClassNotFoundException | LinkageError e) {
+			return new RecordHeaders();
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package com.scheduler.scheduler.kafka;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import com.scheduler.scheduler.util.Constants;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Loads topic metadata into every producer at startup, so the first slot fired after a restart
+ * does not block on a metadata fetch.
+ *
+ * The topics are the configured ones plus {@code slot-schedule-<gameCode>} for every slot job group
+ * already in the scheduler. Runs in the background because fetching metadata for a topic that does
+ * not exist yet blocks for up to {@code max.block.ms}.
+ */
+@Slf4j
+@Component
+public class KafkaProducerWarmup {
+
+	@Autowired
+	private KafkaTemplate<String, Object> kafkaTemplate;
+
+	@Autowired
+	private Scheduler scheduler;
+
+	@Autowired
+	@Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+	private TaskExecutor taskExecutor;
+
+	@Value("${kafka.producer.warm-up.enabled:true}")
+	private boolean enabled;
+
+	@Value("${kafka.producer.warm-up.topics:}")
+	private List<String> configuredTopics;
+
+	@SuppressWarnings("unchecked")
+	@EventListener(ApplicationReadyEvent.class)
+	public void warmUp() {
+		if (!enabled) {
+			return;
+		}
+		taskExecutor.execute(() -> {
+			long started = System.currentTimeMillis();
+			Set<String> topics = topics();
+			List<KafkaTemplate<String, Object>> producers = kafkaTemplate instanceof PooledKafkaTemplate
+					? ((PooledKafkaTemplate<String, Object>) kafkaTemplate).getMembers()
+					: Collections.singletonList(kafkaTemplate);
+			int warmed = 0;
+			for (String topic : topics) {
+				try {
+					for (KafkaTemplate<String, Object> producer : producers) {
+						producer.partitionsFor(topic);
+					}
+					warmed++;
+				} catch (RuntimeException e) {
+					log.warn("Kafka warm-up could not load metadata for topic {}: {}", topic, e.getMessage());
+				}
+			}
+			log.info("Kafka warm-up loaded metadata for {} of {} topic(s) on {} producer(s) in {} ms",
+					warmed, topics.size(), producers.size(), System.currentTimeMillis() - started);
+		});
+	}
+
+	private Set<String> topics() {
+		Set<String> topics = new TreeSet<>();
+		for (String topic : configuredTopics) {
+			if (!topic.trim().isEmpty()) {
+				topics.add(topic.trim());
+			}
+		}
+		try {
+			for (String group : scheduler.getJobGroupNames()) {
+				if (group.startsWith(Constants.JOB_GROUP_PREFIX_SLOTS)) {
+					String gameCode = group.substring(Constants.JOB_GROUP_PREFIX_SLOTS.length());
+					topics.add(Constants.KAFKA_TOPIC_PREFIX_SLOT_SCHEDULE + gameCode.toLowerCase());
+				}
+			}
+		} catch (SchedulerException e) {
+			log.warn("Kafka warm-up could not list slot job groups: {}", e.getMessage());
+		}
+		return topics;
+	}
+}
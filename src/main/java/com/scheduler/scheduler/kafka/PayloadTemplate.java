@@ -0,0 +1,85 @@
+package com.scheduler.scheduler.kafka;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JSON payload serialized once, with the execution time appended on each render.
+ *
+ * The template holds the bytes of every field up to the opening quote of the execution time value;
+ * rendering copies them into a new array and writes the time as fixed-width ISO-8601 UTC with
+ * milliseconds ({@code 2026-01-01T10:00:00.000Z}) straight into it, so a fire costs one array copy
+ * and no serialization.
+ */
+public final class PayloadTemplate {
+
+	private static final int TIMESTAMP_LENGTH = 24;
+	private static final byte[] TAIL = "\"}".getBytes(StandardCharsets.US_ASCII);
+	private static final long MILLIS_PER_DAY = 86_400_000L;
+
+	private final byte[] head;
+
+	/**
+	 * @param fieldsJson JSON object of the fixed fields; the execution time becomes its last field
+	 * @param executionTimeField name of the field receiving the execution time
+	 */
+	PayloadTemplate(byte[] fieldsJson, String executionTimeField) {
+		byte[] field = ("\"" + executionTimeField + "\":\"").getBytes(StandardCharsets.UTF_8);
+		// Drop the closing brace; keep a comma unless the object is empty
+		int bodyLength = fieldsJson.length - 1;
+		boolean empty = bodyLength == 1;
+		head = new byte[bodyLength + (empty ? 0 : 1) + field.length];
+		System.arraycopy(fieldsJson, 0, head, 0, bodyLength);
+		if (!empty) {
+			head[bodyLength] = ',';
+		}
+		System.arraycopy(field, 0, head, head.length - field.length, field.length);
+	}
+
+	public byte[] render(long executionTimeMillis) {
+		byte[] out = new byte[head.length + TIMESTAMP_LENGTH + TAIL.length];
+		System.arraycopy(head, 0, out, 0, head.length);
+		writeTimestamp(out, head.length, executionTimeMillis);
+		System.arraycopy(TAIL, 0, out, head.length + TIMESTAMP_LENGTH, TAIL.length);
+		return out;
+	}
+
+	/**
+	 * Writes {@code yyyy-MM-ddTHH:mm:ss.SSSZ} for the UTC instant (civil-from-days conversion).
+	 */
+	static void writeTimestamp(byte[] out, int offset, long epochMillis) {
+		long days = Math.floorDiv(epochMillis, MILLIS_PER_DAY);
+		int millisOfDay = (int) Math.floorMod(epochMillis, MILLIS_PER_DAY);
+
+		long z = days + 719_468;
+		long era = Math.floorDiv(z, 146_097);
+		long dayOfEra = z - era * 146_097;
+		long yearOfEra = (dayOfEra - dayOfEra / 1_460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+		long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+		long mp = (5 * dayOfYear + 2) / 153;
+		int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+		int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+		int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+
+		writeDigits(out, offset, year, 4);
+		out[offset + 4] = '-';
+		writeDigits(out, offset + 5, month, 2);
+		out[offset + 7] = '-';
+		writeDigits(out, offset + 8, day, 2);
+		out[offset + 10] = 'T';
+		writeDigits(out, offset + 11, millisOfDay / 3_600_000, 2);
+		out[offset + 13] = ':';
+		writeDigits(out, offset + 14, millisOfDay / 60_000 % 60, 2);
+		out[offset + 16] = ':';
+		writeDigits(out, offset + 17, millisOfDay / 1_000 % 60, 2);
+		out[offset + 19] = '.';
+		writeDigits(out, offset + 20, millisOfDay % 1_000, 3);
+		out[offset + 23] = 'Z';
+	}
+
+	private static void writeDigits(byte[] out, int offset, int value, int width) {
+		for (int i = offset + width - 1; i >= offset; i--) {
+			out[i] = (byte) ('0' + value % 10);
+			value /= 10;
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package com.scheduler.scheduler.kafka;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.util.concurrent.ListenableFuture;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * KafkaTemplate that spreads sends over several producers, each with its own connections, buffer
+ * and sender thread, for the fan-out at peak fire times where a single producer's sender thread
+ * becomes the bottleneck.
+ *
+ * Keyed records always go to the same producer, so per-key ordering is kept; records without a key
+ * carry no ordering guarantee in Kafka anyway and are spread round-robin.
+ */
+@Slf4j
+public class PooledKafkaTemplate<K, V> extends KafkaTemplate<K, V> {
+
+	private final List<KafkaTemplate<K, V>> members;
+	private final List<ProducerFactory<K, V>> factories;
+	private final AtomicInteger next = new AtomicInteger();
+
+	/**
+	 * @param factories one factory per pooled producer; the pool owns and destroys them
+	 */
+	public PooledKafkaTemplate(List<ProducerFactory<K, V>> factories) {
+		super(factories.get(0));
+		this.factories = new ArrayList<>(factories);
+		List<KafkaTemplate<K, V>> templates = new ArrayList<>(factories.size());
+		for (ProducerFactory<K, V> factory : factories) {
+			templates.add(new KafkaTemplate<>(factory));
+		}
+		this.members = Collections.unmodifiableList(templates);
+	}
+
+	@Override
+	protected ListenableFuture<SendResult<K, V>> doSend(ProducerRecord<K, V> producerRecord) {
+		return member(producerRecord.key()).send(producerRecord);
+	}
+
+	@Override
+	public void flush() {
+		for (KafkaTemplate<K, V> member : members) {
+			member.flush();
+		}
+	}
+
+	@Override
+	public void destroy() {
+		for (ProducerFactory<K, V> factory : factories) {
+			if (factory instanceof DisposableBean) {
+				try {
+					((DisposableBean) factory).destroy();
+				} catch (Exception e) {
+					log.warn("Error closing pooled Kafka producer: {}", e.getMessage());
+				}
+			}
+		}
+		super.destroy();
+	}
+
+	/**
+	 * The pooled templates, for warming every producer up.
+	 */
+	public List<KafkaTemplate<K, V>> getMembers() {
+		return members;
+	}
+
+	private KafkaTemplate<K, V> member(K key) {
+		int index = key != null
+				? Math.floorMod(key.hashCode(), members.size())
+				: Math.floorMod(next.getAndIncrement(), members.size());
+		return members.get(index);
+	}
+}
@@ -0,0 +1,18 @@
+package com.scheduler.scheduler.kafka;
+
+/**
+ * Which job data value becomes the Kafka record key of a slot event. Events sharing a key land on
+ * the same partition and are consumed in order.
+ */
+public enum SlotEventKeyStrategy {
+	/** No key: Kafka's sticky partitioner fills a batch per partition and moves on, without ordering; the default. */
+	NONE,
+	/** One ordered stream per product. */
+	PRODUCT_CODE,
+	/** One ordered stream per game; every event of a game's topic goes to one partition. */
+	GAME_CODE,
+	/** One ordered stream per slot job (product and game). */
+	JOB_ID,
+	/** The job data value named by kafka.slot-events.key-field. */
+	FIELD
+}
@@ -0,0 +1,53 @@
+package com.scheduler.scheduler.kafka;
+
+import org.quartz.JobDataMap;
+import org.quartz.JobDetail;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.scheduler.scheduler.util.Constants;
+
+/**
+ * Derives the record key of a slot event from its job according to the configured
+ * {@link SlotEventKeyStrategy}. Legacy slot jobs (productSlotId / gameType) are keyed by their
+ * equivalent fields.
+ */
+@Component
+public class SlotEventKeys {
+
+	@Value("${kafka.slot-events.key-strategy:NONE}")
+	private SlotEventKeyStrategy strategy;
+
+	@Value("${kafka.slot-events.key-field:}")
+	private String keyField;
+
+	/**
+	 * @return the record key, or null when events are unkeyed or the job has no value for the configured field
+	 */
+	public String keyFor(JobDetail jobDetail) {
+		JobDataMap dataMap = jobDetail.getJobDataMap();
+		switch (strategy) {
+			case NONE:
+				return null;
+			case GAME_CODE:
+				return firstString(dataMap, Constants.KEY_GAME_CODE, Constants.KEY_GAME_TYPE);
+			case JOB_ID:
+				String jobId = dataMap.getString(Constants.KEY_JOB_ID);
+				return jobId != null ? jobId : jobDetail.getKey().getName();
+			case FIELD:
+				Object value = keyField.isEmpty() ? null : dataMap.get(keyField);
+				return value != null ? value.toString() : null;
+			case PRODUCT_CODE:
+			default:
+				return firstString(dataMap, Constants.KEY_PRODUCT_CODE, Constants.KEY_PRODUCT_SLOT_ID);
+		}
+	}
+
+	private static String firstString(JobDataMap dataMap, String key, String legacyKey) {
+		Object value = dataMap.get(key);
+		if (value == null) {
+			value = dataMap.get(legacyKey);
+		}
+		return value != null ? value.toString() : null;
+	}
+}
@@ -0,0 +1,121 @@
+package com.scheduler.scheduler.kafka;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.quartz.JobDataMap;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scheduler.scheduler.util.Constants;
+
+/**
+ * Slot-visibility payloads: built as a map per fire, or with {@code scheduler.payload-templates.enabled}
+ * compiled into a {@link PayloadTemplate} cached per job.
+ *
+ * A slot job's payload only changes when the slot is rescheduled, which stamps a new
+ * {@link Constants#KEY_PAYLOAD_VERSION} into its job data; the cached template is reused as long as
+ * the version matches. Jobs scheduled before versions existed are compiled on every fire.
+ *
+ * Both forms hold the same fields, but a template always writes the execution time with
+ * milliseconds ({@code 2026-01-01T10:00:00.000Z}), where the map's {@link Instant#toString()}
+ * leaves out a zero fraction ({@code 2026-01-01T10:00:00Z}) and writes micro- or nanoseconds when
+ * the clock has them.
+ */
+@Component
+public class SlotPayloadTemplates {
+
+	/** Type the records of template payloads announce in their headers, that of the map payload. */
+	public static final Class<?> PAYLOAD_TYPE = HashMap.class;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${scheduler.payload-templates.enabled:false}")
+	private boolean enabled;
+
+	@Value("${scheduler.payload-templates.max-cached:100000}")
+	private int maxCached;
+
+	private final Map<JobKey, Compiled> templates = new ConcurrentHashMap<>();
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * @return the payload of one fire as a map, for JsonSerializer
+	 */
+	public Map<String, Object> payload(JobDataMap dataMap, Instant executionTime) {
+		Map<String, Object> payload = new HashMap<>(fields(dataMap));
+		payload.put(Constants.KEY_EXECUTION_TIME, executionTime.toString());
+		return payload;
+	}
+
+	/**
+	 * @return the template for the job, compiling and caching it when missing or outdated
+	 */
+	public PayloadTemplate template(JobDetail jobDetail) throws JsonProcessingException {
+		JobDataMap dataMap = jobDetail.getJobDataMap();
+		Object version = dataMap.get(Constants.KEY_PAYLOAD_VERSION);
+		if (version == null) {
+			return compile(dataMap);
+		}
+		Compiled cached = templates.get(jobDetail.getKey());
+		if (cached != null && cached.version.equals(version)) {
+			return cached.template;
+		}
+		PayloadTemplate template = compile(dataMap);
+		if (templates.size() >= maxCached) {
+			// Slots are rescheduled rarely; starting over is cheaper than tracking recency on every fire
+			templates.clear();
+		}
+		templates.put(jobDetail.getKey(), new Compiled(version, template));
+		return template;
+	}
+
+	private PayloadTemplate compile(JobDataMap dataMap) throws JsonProcessingException {
+		return new PayloadTemplate(objectMapper.writeValueAsBytes(fields(dataMap)), Constants.KEY_EXECUTION_TIME);
+	}
+
+	/**
+	 * @return every payload field but the execution time, in a stable order
+	 */
+	private static Map<String, Object> fields(JobDataMap dataMap) {
+		Map<String, Object> fields = new LinkedHashMap<>();
+		dataMap.forEach((k, v) -> {
+			if (v != null && !Constants.KEY_SLOT_ADD_REQUEST_JSON.equals(k)
+					&& !Constants.KEY_MATERIALIZED_UNTIL.equals(k)
+					&& !Constants.KEY_NEXT_TRIGGER_INDEX.equals(k)
+					&& !Constants.KEY_PAYLOAD_VERSION.equals(k)
+					&& !Constants.KEY_TRIGGER_PRIORITY.equals(k)
+					&& !Constants.KEY_EXECUTION_TIME.equals(k)) {
+				fields.put(k, v);
+			}
+		});
+		String slotAddRequestJson = dataMap.getString(Constants.KEY_SLOT_ADD_REQUEST_JSON);
+		if (slotAddRequestJson != null) {
+			fields.put(Constants.KEY_SLOT_CONFIG, slotAddRequestJson);
+		}
+		fields.put(Constants.KEY_ACTION, Constants.ACTION_SLOT_VISIBILITY_START);
+		return fields;
+	}
+
+	private static final class Compiled {
+		private final Object version;
+		private final PayloadTemplate template;
+
+		private Compiled(Object version, PayloadTemplate template) {
+			this.version = version;
+			this.template = template;
+		}
+	}
+}
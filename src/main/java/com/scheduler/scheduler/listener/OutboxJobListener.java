@@ -0,0 +1,33 @@
+package com.scheduler.scheduler.listener;
+
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.JobListener;
+
+import com.scheduler.scheduler.outbox.Outbox;
+
+/**
+ * Starts every job execution with an empty {@link Outbox} on its worker thread. A job refired
+ * immediately runs again before its trigger is completed, so without this the events of the
+ * failed attempt would be written along with those of the retry.
+ */
+public class OutboxJobListener implements JobListener {
+
+	@Override
+	public String getName() {
+		return getClass().getSimpleName();
+	}
+
+	@Override
+	public void jobToBeExecuted(JobExecutionContext context) {
+		Outbox.clear();
+	}
+
+	@Override
+	public void jobExecutionVetoed(JobExecutionContext context) {
+	}
+
+	@Override
+	public void jobWasExecuted(JobExecutionContext context, JobExecutionException jobException) {
+	}
+}
@@ -0,0 +1,56 @@
+package com.scheduler.scheduler.model.dao;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import com.scheduler.scheduler.outbox.Outbox;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Row of the fired-job event outbox. Written with plain JDBC by the job store and the relay;
+ * mapped here so the schema is maintained with the other tables.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = Outbox.TABLE, indexes = @Index(name = "idx_scheduler_outbox_pending", columnList = "published_at, id"))
+public class OutboxEventRecord {
+	@Id
+	@Column(name = "id")
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "topic", nullable = false)
+	private String topic;
+
+	@Column(name = "message_key")
+	private String messageKey;
+
+	@Column(name = "payload", nullable = false, columnDefinition = "text")
+	private String payload;
+
+	/** Class the payload was serialized from, announced in the record's type headers. */
+	@Column(name = "value_type")
+	private String valueType;
+
+	@Column(name = "created_at", nullable = false)
+	private long createdAt;
+
+	/** Transaction that wrote the row; the relay publishes only rows of finished transactions. */
+	@Column(name = "tx_id", nullable = false)
+	private long txId;
+
+	@Column(name = "published_at")
+	private Long publishedAt;
+}
@@ -0,0 +1,46 @@
+package com.scheduler.scheduler.model.dao;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import com.scheduler.scheduler.service.ScheduleTicketService;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Row of an async scheduling ticket. Written with plain JDBC by {@link ScheduleTicketService};
+ * mapped here so the schema is maintained with the other tables.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = ScheduleTicketService.TABLE, indexes = @Index(name = "idx_scheduler_ticket_submitted", columnList = "submitted_at"))
+public class ScheduleTicketRecord {
+	@Id
+	@Column(name = "ticket_id", length = 36)
+	private String ticketId;
+
+	@Column(name = "status", nullable = false, length = 16)
+	private String status;
+
+	@Column(name = "submitted_at", nullable = false)
+	private long submittedAt;
+
+	@Column(name = "started_at")
+	private Long startedAt;
+
+	@Column(name = "completed_at")
+	private Long completedAt;
+
+	/** The final {@link com.scheduler.scheduler.model.dto.ScheduleResponse} as JSON. */
+	@Column(name = "response", columnDefinition = "text")
+	private String response;
+}
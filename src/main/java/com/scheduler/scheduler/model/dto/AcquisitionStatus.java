@@ -0,0 +1,29 @@
+package com.scheduler.scheduler.model.dto;
+
+import com.scheduler.scheduler.quartz.AcquisitionDecision;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Current trigger acquisition settings of this node and the recent adaptive changes to them.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AcquisitionStatus {
+    private String schedulerName;
+    private boolean adaptive;
+    private int batchSize;
+    private long fireAheadMillis;
+    private int maxBatchSize;
+    private long maxFireAheadMillis;
+    private long lagThresholdMillis;
+    private long lastLagMillis;
+    private int lastAcquired;
+    private List<AcquisitionDecision> decisions;
+}
@@ -0,0 +1,30 @@
+package com.scheduler.scheduler.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * How far job starts on this node were from their scheduled fire times since startup.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FireLagStatus {
+    private String schedulerName;
+    private long count;
+    private long earlyCount;
+    private double meanLagMillis;
+    private long maxLateMillis;
+    private long maxEarlyMillis;
+    private Map<String, Long> lateBuckets;
+
+    /**
+     * Jobs already fired in the job store and waiting in the timing wheel for their fire time.
+     */
+    private int heldCount;
+}
@@ -0,0 +1,48 @@
+package com.scheduler.scheduler.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Position in a job's merged fire-time sequence: the next page starts at {@code fireTimeMillis},
+ * skipping the first {@code skip} fires at exactly that instant (several triggers may share it).
+ * Encoded as {@code <fireTimeMillis>:<skip>}.
+ */
+@Data
+@AllArgsConstructor
+public class FireTimeCursor {
+
+    private static final char SEPARATOR = ':';
+
+    private long fireTimeMillis;
+    private int skip;
+
+    public String encode() {
+        return fireTimeMillis + String.valueOf(SEPARATOR) + skip;
+    }
+
+    public static FireTimeCursor decode(String cursor) {
+        int separator = cursor.indexOf(SEPARATOR);
+        try {
+            if (separator < 0) {
+                return new FireTimeCursor(Long.parseLong(cursor.trim()), 0);
+            }
+            int skip = Integer.parseInt(cursor.substring(separator + 1).trim());
+            if (skip < 0) {
+                throw new IllegalArgumentException("Invalid fire times cursor: " + cursor);
+            }
+            return new FireTimeCursor(Long.parseLong(cursor.substring(0, separator).trim()), skip);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid fire times cursor: " + cursor);
+        }
+    }
+
+    static String format(long epochMillis, ZoneId zoneId) {
+        return ZonedDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zoneId).format(DateTimeFormatter.ISO_DATE_TIME);
+    }
+}
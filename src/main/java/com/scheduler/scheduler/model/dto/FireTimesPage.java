@@ -0,0 +1,28 @@
+package com.scheduler.scheduler.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a job's upcoming fire times, computed from its stored triggers.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FireTimesPage {
+    private String jobName;
+    private String jobGroup;
+    private boolean success;
+    private String message;
+    private List<String> fireTimes;
+
+    /**
+     * Cursor for the following page; null when this page is the last one.
+     */
+    private String nextCursor;
+}
@@ -79,11 +79,23 @@ public class GenericScheduleRequest {
 
     private String timezone;
 
+    /**
+     * Store work windows as a few native interval triggers instead of one trigger per window.
+     */
+    @Builder.Default
+    private boolean compactTriggers = false;
+
     /**
      * Optional description for audit/tracking.
      */
     private String description;
 
+    /**
+     * Optional Quartz trigger priority (default 5). Higher runs first among triggers due at the same
+     * time and among jobs waiting in the same execution lane.
+     */
+    private Integer priority;
+
     public enum RecurrenceType {
         DAILY,
         WEEKLY,
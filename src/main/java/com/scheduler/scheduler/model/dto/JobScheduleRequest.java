@@ -93,6 +93,20 @@ public class JobScheduleRequest {
      */
     private String timezone;
 
+    /**
+     * If true, work windows are stored as a few native interval triggers computed lazily by Quartz
+     * instead of one trigger per window. Falls back to one trigger per window when the schedule
+     * has no fixed calendar interval (recurring work/pause cycles without endOnDateChange).
+     */
+    @Builder.Default
+    private boolean compactTriggers = false;
+
+    /**
+     * Optional Quartz trigger priority (default 5). Higher runs first among triggers due at the same
+     * time and among jobs waiting in the same execution lane.
+     */
+    private Integer priority;
+
     public enum RecurrenceFrequency {
         DAILY,
         WEEKLY,
@@ -0,0 +1,37 @@
+package com.scheduler.scheduler.model.dto;
+
+import com.scheduler.scheduler.quartz.ReplayOrder;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Handling of missed and recovered fires on this node: windows dropped as stale or collapsed,
+ * pacing of the rest and the catch-up backlog still queued.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MisfireReplayStatus {
+    private String schedulerName;
+    private boolean windowAware;
+    private long staleWindowsDropped;
+    private long windowsCollapsed;
+    private long windowsCaughtUp;
+    private boolean enabled;
+    private double ratePerSecond;
+    private int burst;
+    private double groupRatePerSecond;
+    private Map<String, Double> groupRates;
+    private ReplayOrder order;
+    private int replayPriority;
+    private long replayed;
+    private long delayed;
+    private Instant backlogUntil;
+    private Map<String, Instant> groupBacklogUntil;
+}
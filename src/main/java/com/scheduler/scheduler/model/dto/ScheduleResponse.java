@@ -1,10 +1,15 @@
 package com.scheduler.scheduler.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.scheduler.scheduler.util.EpochMillisBuffer;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 @Data
@@ -18,5 +23,72 @@ public class ScheduleResponse {
     private boolean success;
     private String message;
     private int triggerCount;
+
+    /**
+     * Every scheduled fire time; only present when explicitly requested. Large schedules should be
+     * paged through the fire-times endpoint starting at {@link #fireTimesCursor} instead.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<String> scheduledTimes;
+
+    private String firstFireTime;
+    private String lastFireTime;
+
+    /**
+     * Cursor for the first page of the job's fire times.
+     */
+    private String fireTimesCursor;
+
+    /**
+     * Time spent writing the job and its triggers to the job store, in milliseconds.
+     */
+    private long persistenceMillis;
+
+    /**
+     * Scheduled fire times as epoch millis. They are only formatted into
+     * {@link #getScheduledTimes()} when the response is read, e.g. during serialization.
+     */
+    @JsonIgnore
+    private EpochMillisBuffer scheduledMillis;
+
+    /**
+     * Zone used to format {@link #scheduledMillis}.
+     */
+    @JsonIgnore
+    private ZoneId zoneId;
+
+    /**
+     * When false (the default) only the summary fields are derived from {@link #scheduledMillis}.
+     */
+    @JsonIgnore
+    private boolean includeScheduledTimes;
+
+    public List<String> getScheduledTimes() {
+        if (scheduledTimes == null && includeScheduledTimes && scheduledMillis != null
+                && scheduledMillis.retainsValues()) {
+            scheduledTimes = scheduledMillis.format(zoneId, DateTimeFormatter.ISO_DATE_TIME);
+        }
+        return scheduledTimes;
+    }
+
+    public String getFirstFireTime() {
+        if (firstFireTime == null && scheduledMillis != null && !scheduledMillis.isEmpty()) {
+            firstFireTime = FireTimeCursor.format(scheduledMillis.min(), zoneId);
+        }
+        return firstFireTime;
+    }
+
+    public String getLastFireTime() {
+        if (lastFireTime == null && scheduledMillis != null && !scheduledMillis.isEmpty()) {
+            lastFireTime = FireTimeCursor.format(scheduledMillis.max(), zoneId);
+        }
+        return lastFireTime;
+    }
+
+    public String getFireTimesCursor() {
+        if (fireTimesCursor == null && scheduledMillis != null && !scheduledMillis.isEmpty()) {
+            fireTimesCursor = new FireTimeCursor(scheduledMillis.min(), 0).encode();
+        }
+        return fireTimesCursor;
+    }
 }
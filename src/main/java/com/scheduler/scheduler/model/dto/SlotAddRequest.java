@@ -49,6 +49,12 @@ public class SlotAddRequest {
      */
     private String timezone;
 
+    /**
+     * Optional Quartz trigger priority (default 5). Higher runs first among triggers due at the same
+     * time and among jobs waiting in the same execution lane.
+     */
+    private Integer priority;
+
     /**
      * Schedule configuration for slot visibility windows.
      */
@@ -77,6 +83,14 @@ public class SlotAddRequest {
          * Dates to exclude. e.g. ["2026-01-14"]
          */
         private List<String> exclusionDates;
+
+        /**
+         * Optional rolling horizon in hours. When set, only the windows starting within the next
+         * horizonHours are stored as triggers; a background refiller extends the horizon over time.
+         * e.g. 72 keeps three days of windows scheduled. Null schedules every window up to validTo.
+         */
+        @Min(1)
+        private Integer horizonHours;
     }
 
     @Data
@@ -73,11 +73,23 @@ public class SlotScheduleRequest {
      */
     private String timezone;
 
+    /**
+     * Store slot windows as a few native interval triggers instead of one trigger per window.
+     */
+    @Builder.Default
+    private boolean compactTriggers = false;
+
     /**
      * Additional slot/campaign metadata passed to the job
      */
     private Map<String, Object> metadata;
 
+    /**
+     * Optional Quartz trigger priority (default 5). Higher runs first among triggers due at the same
+     * time and among jobs waiting in the same execution lane.
+     */
+    private Integer priority;
+
     public enum SlotType {
         DAILY,
         WEEKLY,
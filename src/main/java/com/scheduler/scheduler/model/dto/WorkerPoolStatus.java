@@ -0,0 +1,30 @@
+package com.scheduler.scheduler.model.dto;
+
+import com.scheduler.scheduler.quartz.ExecutionLaneStatus;
+import com.scheduler.scheduler.quartz.PoolSizeDecision;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Current size and load of this node's Quartz worker pool, per execution lane, and its recent resizes.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkerPoolStatus {
+    private String schedulerName;
+    private int poolSize;
+    private int minPoolSize;
+    private int maxPoolSize;
+    private boolean autoscale;
+    private int busyCount;
+    private int queuedCount;
+    private int heldCount;
+    private List<ExecutionLaneStatus> lanes;
+    private List<PoolSizeDecision> decisions;
+}
@@ -0,0 +1,77 @@
+package com.scheduler.scheduler.outbox;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.SchedulerException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scheduler.scheduler.kafka.JsonTypeHeaders;
+import com.scheduler.scheduler.quartz.QuartzRuntime;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Publishes the event of a fired job. With the outbox enabled the event is staged and written to
+ * the outbox table together with the trigger completion, so it is neither lost on a broker outage
+ * nor sent for a fire that did not complete; otherwise it is sent to Kafka directly.
+ */
+@Slf4j
+@Component
+public class FiredEventPublisher {
+
+	@Autowired
+	private KafkaTemplate<String, Object> kafkaTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${scheduler.outbox.enabled:false}")
+	private boolean outboxEnabled;
+
+	public void publish(JobExecutionContext context, String topic, String key, Object payload)
+			throws JobExecutionException {
+		if (outboxEnabled && completesThroughJobStore(context)) {
+			try {
+				Outbox.stage(new OutboxEvent(topic, key, objectMapper.writeValueAsString(payload),
+						payload.getClass().getName()));
+			} catch (JsonProcessingException e) {
+				throw new JobExecutionException("Cannot serialize event for topic " + topic, e);
+			}
+			return;
+		}
+		kafkaTemplate.send(topic, key, payload).addCallback(
+				result -> { },
+				e -> log.error("Failed to send event to topic {}: {}", topic, e.getMessage()));
+	}
+
+	/**
+	 * Publishes an already serialized JSON payload; the bytes become the record value unchanged and
+	 * the record carries the type headers JsonSerializer would add for a value of valueType.
+	 */
+	public void publishJson(JobExecutionContext context, String topic, String key, byte[] json, Class<?> valueType) {
+		if (outboxEnabled && completesThroughJobStore(context)) {
+			Outbox.stage(new OutboxEvent(topic, key, new String(json, StandardCharsets.UTF_8), valueType.getName()));
+			return;
+		}
+		ProducerRecord<String, Object> record = new ProducerRecord<>(topic, null, key, json, JsonTypeHeaders.of(valueType));
+		kafkaTemplate.send(record).addCallback(
+				result -> { },
+				e -> log.error("Failed to send event to topic {}: {}", topic, e.getMessage()));
+	}
+
+	private boolean completesThroughJobStore(JobExecutionContext context) {
+		try {
+			return QuartzRuntime.jobStore(context.getScheduler().getSchedulerName()) != null;
+		} catch (SchedulerException e) {
+			return false;
+		}
+	}
+}
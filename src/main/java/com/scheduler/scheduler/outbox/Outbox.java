@@ -0,0 +1,65 @@
+package com.scheduler.scheduler.outbox;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Events staged by a running job until its trigger is completed.
+ *
+ * Quartz completes a trigger on the same worker thread that ran the job, so jobs stage their events
+ * in a thread-local list and {@link com.scheduler.scheduler.quartz.SchedulerJobStore} inserts them
+ * into the outbox table in the transaction that completes the trigger. The relay is woken once that
+ * transaction has committed. The list is cleared when each execution starts
+ * ({@link com.scheduler.scheduler.listener.OutboxJobListener}), as a job refired immediately runs
+ * again before its trigger is completed.
+ */
+public final class Outbox {
+
+	public static final String TABLE = "scheduler_outbox";
+
+	private static final ThreadLocal<List<OutboxEvent>> STAGED = ThreadLocal.withInitial(ArrayList::new);
+
+	private static final Object SIGNAL = new Object();
+	private static boolean signalled;
+
+	private Outbox() {
+	}
+
+	public static void stage(OutboxEvent event) {
+		STAGED.get().add(event);
+	}
+
+	/**
+	 * @return the events staged on this thread; they stay staged until {@link #clear()}
+	 */
+	public static List<OutboxEvent> staged() {
+		return Collections.unmodifiableList(STAGED.get());
+	}
+
+	public static void clear() {
+		STAGED.remove();
+	}
+
+	/**
+	 * Tells the relay that new events have been committed.
+	 */
+	public static void signal() {
+		synchronized (SIGNAL) {
+			signalled = true;
+			SIGNAL.notifyAll();
+		}
+	}
+
+	/**
+	 * Waits until {@link #signal()} is called or the timeout passes.
+	 */
+	static void await(long timeoutMillis) throws InterruptedException {
+		synchronized (SIGNAL) {
+			if (!signalled) {
+				SIGNAL.wait(timeoutMillis);
+			}
+			signalled = false;
+		}
+	}
+}
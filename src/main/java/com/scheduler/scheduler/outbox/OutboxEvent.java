@@ -0,0 +1,17 @@
+package com.scheduler.scheduler.outbox;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A Kafka record waiting in the outbox; the payload is already serialized to JSON, and valueType
+ * names the class it was serialized from, for the record's type headers.
+ */
+@Getter
+@AllArgsConstructor
+public class OutboxEvent {
+	private final String topic;
+	private final String key;
+	private final String payload;
+	private final String valueType;
+}
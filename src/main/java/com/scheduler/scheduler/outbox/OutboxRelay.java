@@ -0,0 +1,211 @@
+package com.scheduler.scheduler.outbox;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.annotation.PreDestroy;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.scheduler.scheduler.kafka.JsonTypeHeaders;
+import com.scheduler.scheduler.util.Constants;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Publishes outbox rows to Kafka in id order and marks them published.
+ *
+ * Only one relay in the cluster publishes at a time: each round takes a transaction-scoped
+ * advisory lock and ends at once when another node holds it, since relays taking disjoint batches
+ * concurrently would reorder events. The round reads the oldest unpublished rows, sends them all,
+ * waits for every acknowledgement and then marks the batch published in the same transaction.
+ *
+ * Ids are allocated when a row is inserted, not when its transaction commits, so a row may commit
+ * after rows with higher ids have been published. Each row therefore records the id of the
+ * transaction that wrote it, and a round takes only rows written by transactions older than every
+ * transaction still running (the xmin of its snapshot): those have all committed or rolled back, so
+ * nothing can still appear below that watermark. A rolled-back completion leaves an id that never
+ * shows up and holds nothing back; a completion still committing holds back only rows of
+ * transactions that began after it, until it ends.
+ *
+ * A failed send rolls the batch back and it is retried after a pause; with the idempotent producer
+ * a retried batch is not duplicated by producer retries, though a relay that dies after sending
+ * but before committing will resend.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+	private static final long RELAY_LOCK_ID = 0x6f7574626f78L;
+	private static final String TRY_RELAY_LOCK = "SELECT pg_try_advisory_xact_lock(?)";
+	// Read before the round writes anything, so the relay's own transaction has no id to hold back the watermark
+	private static final String SELECT_PENDING = "SELECT id, topic, message_key, payload, value_type FROM " + Outbox.TABLE
+			+ " WHERE published_at IS NULL AND tx_id < txid_snapshot_xmin(txid_current_snapshot()) ORDER BY id LIMIT ?";
+	private static final String MARK_PUBLISHED = "UPDATE " + Outbox.TABLE + " SET published_at = ? WHERE id = ?";
+	private static final String PURGE_PUBLISHED = "DELETE FROM " + Outbox.TABLE
+			+ " WHERE published_at IS NOT NULL AND published_at < ?";
+	private static final long PURGE_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private KafkaTemplate<String, Object> kafkaTemplate;
+
+	@Autowired
+	@Qualifier(Constants.BEAN_OUTBOX_RELAY_EXECUTOR)
+	private ThreadPoolTaskExecutor executor;
+
+	@Value("${scheduler.outbox.enabled:false}")
+	private boolean enabled;
+
+	@Value("${scheduler.outbox.batch-size:500}")
+	private int batchSize;
+
+	@Value("${scheduler.outbox.poll-interval-ms:200}")
+	private long pollIntervalMillis;
+
+	@Value("${scheduler.outbox.send-timeout-ms:30000}")
+	private long sendTimeoutMillis;
+
+	@Value("${scheduler.outbox.retention-hours:24}")
+	private long retentionHours;
+
+	private volatile boolean running;
+	private long lastPurge;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		if (!enabled) {
+			return;
+		}
+		running = true;
+		executor.execute(this::relay);
+	}
+
+	@PreDestroy
+	public void stop() {
+		running = false;
+		Outbox.signal();
+	}
+
+	private void relay() {
+		log.info("Outbox relay started");
+		while (running) {
+			try {
+				int published = publishBatch();
+				if (published < batchSize) {
+					purgePublished();
+					Outbox.await(pollIntervalMillis);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (RuntimeException e) {
+				log.error("Outbox relay round failed, retrying: {}", e.getMessage());
+				try {
+					Thread.sleep(Math.max(pollIntervalMillis, 1000L));
+				} catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+		log.info("Outbox relay stopped");
+	}
+
+	/**
+	 * @return the number of rows published
+	 */
+	int publishBatch() {
+		Integer published = transactionTemplate.execute(status -> {
+			if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(TRY_RELAY_LOCK, Boolean.class, RELAY_LOCK_ID))) {
+				// Another node is relaying
+				return 0;
+			}
+			List<PendingEvent> batch = new ArrayList<>(batchSize);
+			jdbcTemplate.query(SELECT_PENDING, (RowCallbackHandler) rs -> batch.add(
+					new PendingEvent(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5))),
+					batchSize);
+			if (batch.isEmpty()) {
+				return 0;
+			}
+			List<Future<SendResult<String, Object>>> sends = new ArrayList<>(batch.size());
+			for (PendingEvent event : batch) {
+				sends.add(kafkaTemplate.send(new ProducerRecord<String, Object>(event.topic, null, event.key,
+						event.payload.getBytes(StandardCharsets.UTF_8), JsonTypeHeaders.of(event.valueType))));
+			}
+			awaitAll(sends);
+			long now = System.currentTimeMillis();
+			List<Object[]> marks = new ArrayList<>(batch.size());
+			for (PendingEvent event : batch) {
+				marks.add(new Object[] {now, event.id});
+			}
+			jdbcTemplate.batchUpdate(MARK_PUBLISHED, marks);
+			return batch.size();
+		});
+		return published != null ? published : 0;
+	}
+
+	private void awaitAll(List<Future<SendResult<String, Object>>> sends) {
+		long deadline = System.currentTimeMillis() + sendTimeoutMillis;
+		for (Future<SendResult<String, Object>> send : sends) {
+			try {
+				send.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while publishing outbox batch", e);
+			} catch (ExecutionException | TimeoutException e) {
+				throw new IllegalStateException("Outbox batch not acknowledged by Kafka: " + e.getMessage(), e);
+			}
+		}
+	}
+
+	private void purgePublished() {
+		long now = System.currentTimeMillis();
+		if (now - lastPurge < PURGE_INTERVAL_MILLIS) {
+			return;
+		}
+		lastPurge = now;
+		int purged = jdbcTemplate.update(PURGE_PUBLISHED, now - TimeUnit.HOURS.toMillis(retentionHours));
+		if (purged > 0) {
+			log.info("Purged {} published outbox row(s)", purged);
+		}
+	}
+
+	private static final class PendingEvent {
+		private final long id;
+		private final String topic;
+		private final String key;
+		private final String payload;
+		private final String valueType;
+
+		private PendingEvent(long id, String topic, String key, String payload, String valueType) {
+			this.id = id;
+			this.topic = topic;
+			this.key = key;
+			this.payload = payload;
+			this.valueType = valueType;
+		}
+	}
+}
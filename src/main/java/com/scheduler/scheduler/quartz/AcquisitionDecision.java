@@ -0,0 +1,18 @@
+package com.scheduler.scheduler.quartz;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One change of the acquisition settings made by {@link AdaptiveAcquisition}, with what caused it.
+ */
+@Getter
+@AllArgsConstructor
+public class AcquisitionDecision {
+	private final long decidedAtMillis;
+	private final String reason;
+	private final int batchSize;
+	private final long fireAheadMillis;
+	private final int acquired;
+	private final long lagMillis;
+}
@@ -0,0 +1,121 @@
+package com.scheduler.scheduler.quartz;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.quartz.spi.OperableTrigger;
+
+/**
+ * Sizes each trigger acquisition from what the previous ones returned, in place of Quartz's fixed
+ * {@code batchTriggerAcquisitionMaxCount} and {@code batchTriggerAcquisitionFireAheadTimeWindow}.
+ *
+ * When a batch comes back full (more triggers are waiting) or its triggers are already later than
+ * {@code lagThresholdMillis}, batch size and fire-ahead window double up to their maximums, so a
+ * top-of-the-hour burst is drained in a few large batches. When acquisitions come back mostly empty
+ * both halve back towards their minimums. Only the scheduler thread records results; the current
+ * settings and the recent decisions can be read from any thread.
+ */
+public class AdaptiveAcquisition {
+
+	private static final int MAX_DECISIONS = 50;
+	private static final long MIN_FIRE_AHEAD_STEP_MILLIS = 50L;
+
+	private final int maxBatchSize;
+	private final long maxFireAheadMillis;
+	private final long lagThresholdMillis;
+
+	private volatile int batchSize = 1;
+	private volatile long fireAheadMillis;
+	private volatile long lastLagMillis;
+	private volatile int lastAcquired;
+
+	private final Deque<AcquisitionDecision> decisions = new ArrayDeque<>();
+
+	AdaptiveAcquisition(int maxBatchSize, long maxFireAheadMillis, long lagThresholdMillis) {
+		this.maxBatchSize = Math.max(1, maxBatchSize);
+		this.maxFireAheadMillis = Math.max(0, maxFireAheadMillis);
+		this.lagThresholdMillis = lagThresholdMillis;
+	}
+
+	/**
+	 * Adjusts the settings after an acquisition of up to {@code requested} triggers.
+	 */
+	void record(int requested, List<OperableTrigger> acquired, long now) {
+		long lag = 0;
+		for (OperableTrigger trigger : acquired) {
+			lag = Math.max(lag, now - trigger.getNextFireTime().getTime());
+		}
+		lastLagMillis = lag;
+		lastAcquired = acquired.size();
+
+		int batch = batchSize;
+		long fireAhead = fireAheadMillis;
+		String reason;
+		if (lag > lagThresholdMillis) {
+			reason = "lag";
+		} else if (!acquired.isEmpty() && acquired.size() >= requested) {
+			reason = "backlog";
+		} else if (acquired.size() * 4 <= requested) {
+			reason = "idle";
+		} else {
+			return;
+		}
+		if ("idle".equals(reason)) {
+			batch = Math.max(1, batch / 2);
+			fireAhead = fireAhead / 2 < MIN_FIRE_AHEAD_STEP_MILLIS ? 0 : fireAhead / 2;
+		} else {
+			batch = (int) Math.min(maxBatchSize, batch * 2L);
+			fireAhead = Math.min(maxFireAheadMillis, Math.max(MIN_FIRE_AHEAD_STEP_MILLIS, fireAhead * 2));
+		}
+		if (batch == batchSize && fireAhead == fireAheadMillis) {
+			return;
+		}
+		batchSize = batch;
+		fireAheadMillis = fireAhead;
+		synchronized (decisions) {
+			if (decisions.size() == MAX_DECISIONS) {
+				decisions.removeFirst();
+			}
+			decisions.addLast(new AcquisitionDecision(now, reason, batch, fireAhead, acquired.size(), lag));
+		}
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	public long getFireAheadMillis() {
+		return fireAheadMillis;
+	}
+
+	public int getMaxBatchSize() {
+		return maxBatchSize;
+	}
+
+	public long getMaxFireAheadMillis() {
+		return maxFireAheadMillis;
+	}
+
+	public long getLagThresholdMillis() {
+		return lagThresholdMillis;
+	}
+
+	public long getLastLagMillis() {
+		return lastLagMillis;
+	}
+
+	public int getLastAcquired() {
+		return lastAcquired;
+	}
+
+	/**
+	 * @return the most recent setting changes, oldest first
+	 */
+	public List<AcquisitionDecision> getDecisions() {
+		synchronized (decisions) {
+			return new ArrayList<>(decisions);
+		}
+	}
+}
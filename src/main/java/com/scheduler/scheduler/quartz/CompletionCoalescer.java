@@ -0,0 +1,112 @@
+package com.scheduler.scheduler.quartz;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Group commit for work submitted by many threads at once.
+ *
+ * A submitting thread queues its item and, if no write is in progress, becomes the writer: it takes
+ * everything queued so far (up to {@code maxBatchSize}) and hands it to the writer callback as one
+ * batch, while threads arriving meanwhile queue up for the next batch. Every submitter returns only
+ * once its own item has been written. A lone submitter writes immediately, so nothing waits for a
+ * batch to fill; batches form exactly when completions coincide, such as jobs fired at the same
+ * instant.
+ *
+ * When the writer callback throws, no item of that batch counts as written: the writing thread
+ * rethrows the failure and every other submitter of the batch throws an
+ * {@link IllegalStateException} caused by it.
+ */
+final class CompletionCoalescer<T> {
+
+	private final int maxBatchSize;
+	private final Consumer<List<T>> writer;
+
+	private final Object lock = new Object();
+	private final ArrayDeque<Pending<T>> queue = new ArrayDeque<>();
+	private boolean writing;
+
+	CompletionCoalescer(int maxBatchSize, Consumer<List<T>> writer) {
+		this.maxBatchSize = Math.max(1, maxBatchSize);
+		this.writer = writer;
+	}
+
+	/**
+	 * Returns once the item has been written, by this thread or another.
+	 *
+	 * @throws IllegalStateException when another thread failed to write the batch holding the item
+	 */
+	void submit(T item) {
+		Pending<T> pending = new Pending<>(item);
+		boolean interrupted = false;
+		try {
+			while (true) {
+				List<Pending<T>> batch;
+				synchronized (lock) {
+					if (!pending.queued) {
+						queue.add(pending);
+						pending.queued = true;
+					}
+					while (writing && !pending.done) {
+						try {
+							lock.wait();
+						} catch (InterruptedException e) {
+							// The item is queued and will be written; finish waiting for it
+							interrupted = true;
+						}
+					}
+					if (pending.done) {
+						if (pending.failure != null) {
+							throw new IllegalStateException("Coalesced write failed: " + pending.failure.getMessage(),
+									pending.failure);
+						}
+						return;
+					}
+					writing = true;
+					batch = new ArrayList<>(Math.min(queue.size(), maxBatchSize));
+					while (!queue.isEmpty() && batch.size() < maxBatchSize) {
+						batch.add(queue.poll());
+					}
+				}
+				List<T> values = new ArrayList<>(batch.size());
+				for (Pending<T> p : batch) {
+					values.add(p.item);
+				}
+				Throwable failure = null;
+				try {
+					writer.accept(values);
+				} catch (RuntimeException | Error e) {
+					failure = e;
+					throw e;
+				} finally {
+					synchronized (lock) {
+						for (Pending<T> p : batch) {
+							p.failure = failure;
+							p.done = true;
+						}
+						writing = false;
+						lock.notifyAll();
+					}
+				}
+			}
+		} finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private static final class Pending<T> {
+		private final T item;
+		private boolean queued;
+		private boolean done;
+		/** Why the batch holding the item was not written; null once it was. */
+		private Throwable failure;
+
+		private Pending(T item) {
+			this.item = item;
+		}
+	}
+}
@@ -0,0 +1,31 @@
+package com.scheduler.scheduler.quartz;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Settings and current load of one execution lane of a {@link TimingWheelThreadPool}.
+ */
+@Getter
+@AllArgsConstructor
+public class ExecutionLaneStatus {
+	private final String name;
+	/** Job group and job class patterns, separated by {@code |}; empty for the catch-all lane. */
+	private final String match;
+	private final int weight;
+	/** Workers the lane may use at once at the current pool size; 0 when unlimited. */
+	private final int maxConcurrency;
+	/** Workers one job group of the lane may use at once; 0 when unlimited. */
+	private final int groupMaxConcurrency;
+	private final int running;
+	/** Jobs due and waiting for a worker or for room in the lane. */
+	private final int queued;
+	/** Jobs handed over and not finished yet, including those waiting for their fire time. */
+	private final int pending;
+	private final long started;
+	private final double meanLagMillis;
+	private final long maxLateMillis;
+	private final Map<String, Long> lateBuckets;
+}
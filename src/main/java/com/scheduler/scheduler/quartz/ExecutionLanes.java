@@ -0,0 +1,398 @@
+package com.scheduler.scheduler.quartz;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Due jobs of a {@link TimingWheelThreadPool}, queued per execution lane so that a burst in one kind
+ * of job cannot starve the others of workers.
+ *
+ * A job goes to the first lane with a {@code match} pattern equal to its job group or job class name
+ * (a pattern ending in {@code *} matches by prefix); jobs no lane matches go to the lane without
+ * patterns, or to an implicit lane {@code other} with weight 1 and no limit. A free worker takes from
+ * the lane using the fewest workers for its {@code weight}, skipping lanes at their {@code max}
+ * (a count, or a percentage of the pool size). With {@code groupMax}, each job group of the lane may
+ * use at most that many workers and the lane takes from its groups round-robin. Within a group,
+ * jobs start by trigger priority, then in the order they became due.
+ *
+ * For the scheduler's thread accounting a lane counts as busy only as many workers as it can use at
+ * once, so triggers of other lanes are still acquired while it works off a burst; beyond
+ * {@code queueCapacity} jobs waiting for room in a lane, each further job counts again, which bounds
+ * how far the scheduler runs ahead of a saturated lane.
+ */
+final class ExecutionLanes {
+
+	static final String CATCH_ALL_LANE = "other";
+
+	private static final Comparator<TimingWheel.Entry> START_ORDER = Comparator
+			.comparingInt((TimingWheel.Entry entry) -> -entry.priority)
+			.thenComparingLong(entry -> entry.sequence);
+
+	private final Lane[] lanes;
+	private final Lane catchAll;
+	private final int queueCapacity;
+	private final IntSupplier poolSize;
+	private long sequence;
+
+	/**
+	 * @param spec lanes separated by {@code ;}, each {@code name:setting=value,...} with the settings
+	 *        {@code match} (patterns separated by {@code |}), {@code weight}, {@code max} and
+	 *        {@code groupMax}, e.g. {@code slots:match=slots-*,weight=1,max=50%,groupMax=4}
+	 * @throws IllegalArgumentException when the spec is malformed
+	 */
+	ExecutionLanes(String spec, int queueCapacity, IntSupplier poolSize) {
+		List<Lane> parsed = parse(spec);
+		Lane configuredCatchAll = null;
+		for (Lane lane : parsed) {
+			if (lane.match.isEmpty()) {
+				if (configuredCatchAll != null) {
+					throw new IllegalArgumentException("Lanes " + configuredCatchAll.name + " and " + lane.name
+							+ " both have no match patterns");
+				}
+				configuredCatchAll = lane;
+			}
+		}
+		if (configuredCatchAll == null) {
+			configuredCatchAll = new Lane(CATCH_ALL_LANE, Collections.emptyList(), 1, 0, 0, 0);
+			parsed.add(configuredCatchAll);
+		}
+		this.lanes = parsed.toArray(new Lane[0]);
+		this.catchAll = configuredCatchAll;
+		this.queueCapacity = Math.max(0, queueCapacity);
+		this.poolSize = poolSize;
+	}
+
+	private static List<Lane> parse(String spec) {
+		List<Lane> parsed = new ArrayList<>();
+		if (spec == null || spec.trim().isEmpty()) {
+			return parsed;
+		}
+		Set<String> names = new HashSet<>();
+		for (String laneSpec : spec.split(";")) {
+			if (laneSpec.trim().isEmpty()) {
+				continue;
+			}
+			int colon = laneSpec.indexOf(':');
+			String name = (colon < 0 ? laneSpec : laneSpec.substring(0, colon)).trim();
+			if (name.isEmpty() || !names.add(name)) {
+				throw new IllegalArgumentException("Missing or duplicate lane name in '" + laneSpec.trim() + "'");
+			}
+			List<String> match = Collections.emptyList();
+			int weight = 1;
+			int max = 0;
+			int maxPercent = 0;
+			int groupMax = 0;
+			for (String setting : colon < 0 ? new String[0] : laneSpec.substring(colon + 1).split(",")) {
+				if (setting.trim().isEmpty()) {
+					continue;
+				}
+				int separator = setting.indexOf('=');
+				String key = separator > 0 ? setting.substring(0, separator).trim() : "";
+				String value = separator > 0 ? setting.substring(separator + 1).trim() : "";
+				try {
+					switch (key) {
+						case "match":
+							match = new ArrayList<>();
+							for (String pattern : value.split("\\|")) {
+								if (!pattern.trim().isEmpty()) {
+									match.add(pattern.trim());
+								}
+							}
+							break;
+						case "weight":
+							weight = Integer.parseInt(value);
+							break;
+						case "max":
+							if (value.endsWith("%")) {
+								maxPercent = Integer.parseInt(value.substring(0, value.length() - 1).trim());
+							} else {
+								max = Integer.parseInt(value);
+							}
+							break;
+						case "groupMax":
+							groupMax = Integer.parseInt(value);
+							break;
+						default:
+							throw new IllegalArgumentException("Unknown setting '" + setting.trim() + "' of lane " + name);
+					}
+				} catch (NumberFormatException e) {
+					throw new IllegalArgumentException("Invalid number in '" + setting.trim() + "' of lane " + name, e);
+				}
+			}
+			if (weight < 1 || max < 0 || maxPercent < 0 || maxPercent > 100 || groupMax < 0) {
+				throw new IllegalArgumentException("Out of range setting in lane " + name);
+			}
+			parsed.add(new Lane(name, match, weight, max, maxPercent, groupMax));
+		}
+		return parsed;
+	}
+
+	/**
+	 * Assigns a job handed over by the scheduler to its lane and group queue; call once per job,
+	 * before {@link #add}.
+	 *
+	 * @param group the job group, or null when the runnable is not a Quartz job
+	 * @return the change in workers counted as busy
+	 */
+	synchronized int admit(TimingWheel.Entry entry, String group, String jobClass, int priority) {
+		Lane lane = laneFor(group, jobClass);
+		String key = lane.groupMax > 0 && group != null ? group : "";
+		GroupQueue queue = lane.groups.get(key);
+		if (queue == null) {
+			queue = new GroupQueue(lane, key);
+			lane.groups.put(key, queue);
+		}
+		if (queue.pending < groupCap(lane)) {
+			lane.sharable++;
+		}
+		queue.pending++;
+		lane.pending++;
+		entry.queue = queue;
+		entry.priority = priority;
+		entry.sequence = ++sequence;
+		return recharge(lane);
+	}
+
+	/**
+	 * Queues an admitted job that is due now.
+	 */
+	synchronized void add(TimingWheel.Entry entry) {
+		GroupQueue queue = entry.queue;
+		queue.entries.add(entry);
+		queue.lane.queued++;
+		schedule(queue);
+		notify();
+	}
+
+	/**
+	 * @return the next job to run, or null when none may start within the timeout
+	 */
+	synchronized TimingWheel.Entry take(long timeoutMillis) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		while (true) {
+			TimingWheel.Entry entry = poll();
+			if (entry != null) {
+				return entry;
+			}
+			long remaining = deadline - System.nanoTime();
+			if (remaining <= 0) {
+				return null;
+			}
+			TimeUnit.NANOSECONDS.timedWait(this, remaining);
+		}
+	}
+
+	private TimingWheel.Entry poll() {
+		int size = poolSize.getAsInt();
+		Lane next = null;
+		for (Lane lane : lanes) {
+			if (lane.ready.isEmpty() || lane.running >= maxConcurrency(lane, size)) {
+				continue;
+			}
+			// Fewest workers for its weight; earlier lanes win ties
+			if (next == null || (long) lane.running * next.weight < (long) next.running * lane.weight) {
+				next = lane;
+			}
+		}
+		if (next == null) {
+			return null;
+		}
+		GroupQueue queue = next.ready.poll();
+		queue.scheduled = false;
+		TimingWheel.Entry entry = queue.entries.poll();
+		queue.running++;
+		next.running++;
+		next.queued--;
+		next.started++;
+		// Back to the end of the lane's round-robin when it still has jobs it may start
+		schedule(queue);
+		return entry;
+	}
+
+	/**
+	 * Called once for every admitted job: when it finished running, or when it is dropped without.
+	 *
+	 * @return the change in workers counted as busy
+	 */
+	synchronized int finished(TimingWheel.Entry entry, boolean ran) {
+		GroupQueue queue = entry.queue;
+		Lane lane = queue.lane;
+		if (ran) {
+			queue.running--;
+			lane.running--;
+		}
+		queue.pending--;
+		lane.pending--;
+		if (queue.pending < groupCap(lane)) {
+			lane.sharable--;
+		}
+		if (queue.pending == 0) {
+			lane.groups.remove(queue.group);
+		} else {
+			schedule(queue);
+		}
+		if (!lane.ready.isEmpty()) {
+			notify();
+		}
+		return recharge(lane);
+	}
+
+	/**
+	 * Wakes waiting workers after the pool size changed, which can change a lane's limit.
+	 */
+	synchronized void poolResized() {
+		notifyAll();
+	}
+
+	private void schedule(GroupQueue queue) {
+		if (!queue.scheduled && !queue.entries.isEmpty() && queue.running < groupCap(queue.lane)) {
+			queue.scheduled = true;
+			queue.lane.ready.add(queue);
+		}
+	}
+
+	/**
+	 * Recomputes the workers the lane counts as busy: those it can use at once, plus every job waiting
+	 * beyond the queue capacity.
+	 */
+	private int recharge(Lane lane) {
+		int usable = Math.min(maxConcurrency(lane, poolSize.getAsInt()), lane.sharable);
+		int charged = usable + Math.max(0, lane.pending - usable - queueCapacity);
+		int change = charged - lane.charged;
+		lane.charged = charged;
+		return change;
+	}
+
+	private Lane laneFor(String group, String jobClass) {
+		for (Lane lane : lanes) {
+			for (String pattern : lane.match) {
+				if (matches(pattern, group) || matches(pattern, jobClass)) {
+					return lane;
+				}
+			}
+		}
+		return catchAll;
+	}
+
+	private static boolean matches(String pattern, String value) {
+		if (value == null) {
+			return false;
+		}
+		return pattern.endsWith("*") ? value.startsWith(pattern.substring(0, pattern.length() - 1)) : pattern.equals(value);
+	}
+
+	private static int maxConcurrency(Lane lane, int poolSize) {
+		if (lane.max > 0) {
+			return lane.max;
+		}
+		return lane.maxPercent > 0 ? Math.max(1, poolSize * lane.maxPercent / 100) : Integer.MAX_VALUE;
+	}
+
+	private static int groupCap(Lane lane) {
+		return lane.groupMax > 0 ? lane.groupMax : Integer.MAX_VALUE;
+	}
+
+	static void recordFireLag(TimingWheel.Entry entry, long lagMillis) {
+		entry.queue.lane.fireLag.record(lagMillis);
+	}
+
+	/**
+	 * @return jobs due and waiting for a worker or for room in their lane
+	 */
+	synchronized int getQueuedCount() {
+		int queued = 0;
+		for (Lane lane : lanes) {
+			queued += lane.queued;
+		}
+		return queued;
+	}
+
+	/**
+	 * @return jobs due that would start if there were a free worker, i.e. not held back by a lane limit
+	 */
+	synchronized int getStartableCount() {
+		int size = poolSize.getAsInt();
+		int startable = 0;
+		for (Lane lane : lanes) {
+			long laneStartable = 0;
+			for (GroupQueue queue : lane.ready) {
+				laneStartable += Math.min(queue.entries.size(), (long) groupCap(lane) - queue.running);
+			}
+			startable += (int) Math.min(laneStartable, Math.max(0, maxConcurrency(lane, size) - lane.running));
+		}
+		return startable;
+	}
+
+	synchronized List<ExecutionLaneStatus> status() {
+		int size = poolSize.getAsInt();
+		List<ExecutionLaneStatus> status = new ArrayList<>(lanes.length);
+		for (Lane lane : lanes) {
+			int max = maxConcurrency(lane, size);
+			status.add(new ExecutionLaneStatus(lane.name, String.join("|", lane.match), lane.weight,
+					max == Integer.MAX_VALUE ? 0 : max, lane.groupMax, lane.running, lane.queued, lane.pending,
+					lane.started, lane.fireLag.getMeanLagMillis(), lane.fireLag.getMaxLateMillis(),
+					lane.fireLag.getLateBuckets()));
+		}
+		return status;
+	}
+
+	/**
+	 * Guarded by the enclosing {@link ExecutionLanes}, apart from the lock-free fire lag metric.
+	 */
+	static final class Lane {
+		final String name;
+		final List<String> match;
+		final int weight;
+		final int max;
+		final int maxPercent;
+		final int groupMax;
+		final FireLagMetric fireLag = new FireLagMetric();
+
+		final Map<String, GroupQueue> groups = new HashMap<>();
+		/** Group queues with jobs they may start now, in round-robin order. */
+		final ArrayDeque<GroupQueue> ready = new ArrayDeque<>();
+		int pending;
+		int running;
+		int queued;
+		long started;
+		/** Sum over the groups of pending jobs up to the group limit. */
+		int sharable;
+		int charged;
+
+		Lane(String name, List<String> match, int weight, int max, int maxPercent, int groupMax) {
+			this.name = name;
+			this.match = match;
+			this.weight = weight;
+			this.max = max;
+			this.maxPercent = maxPercent;
+			this.groupMax = groupMax;
+		}
+	}
+
+	/**
+	 * Jobs of one job group within a lane, or of the whole lane when it has no group limit.
+	 */
+	static final class GroupQueue {
+		final Lane lane;
+		final String group;
+		final PriorityQueue<TimingWheel.Entry> entries = new PriorityQueue<>(START_ORDER);
+		int pending;
+		int running;
+		boolean scheduled;
+
+		GroupQueue(Lane lane, String group) {
+			this.lane = lane;
+			this.group = group;
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package com.scheduler.scheduler.quartz;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Difference between when jobs started running and their scheduled fire times, recorded by a
+ * {@link FireTimeThreadPool} as each job starts. Lock-free, allocation-free.
+ */
+public class FireLagMetric {
+
+	/**
+	 * Upper bounds (inclusive, in milliseconds) of the late-start buckets; the last bucket is unbounded.
+	 */
+	private static final long[] BUCKET_BOUNDS = {1, 5, 10, 50, 100, 500, 1_000};
+
+	private final LongAdder count = new LongAdder();
+	private final LongAdder early = new LongAdder();
+	private final LongAdder lagSum = new LongAdder();
+	private final LongAccumulator maxLate = new LongAccumulator(Math::max, 0);
+	private final LongAccumulator maxEarly = new LongAccumulator(Math::max, 0);
+	private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS.length + 1];
+
+	FireLagMetric() {
+		for (int i = 0; i < buckets.length; i++) {
+			buckets[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * @param lagMillis start time minus scheduled fire time; negative when the job started early
+	 */
+	void record(long lagMillis) {
+		count.increment();
+		lagSum.add(lagMillis);
+		if (lagMillis < 0) {
+			early.increment();
+			maxEarly.accumulate(-lagMillis);
+			return;
+		}
+		maxLate.accumulate(lagMillis);
+		int bucket = 0;
+		while (bucket < BUCKET_BOUNDS.length && lagMillis > BUCKET_BOUNDS[bucket]) {
+			bucket++;
+		}
+		buckets[bucket].increment();
+	}
+
+	public long getCount() {
+		return count.sum();
+	}
+
+	public long getEarlyCount() {
+		return early.sum();
+	}
+
+	public long getLagSumMillis() {
+		return lagSum.sum();
+	}
+
+	public double getMeanLagMillis() {
+		long n = count.sum();
+		return n == 0 ? 0 : (double) lagSum.sum() / n;
+	}
+
+	public long getMaxLateMillis() {
+		return maxLate.get();
+	}
+
+	public long getMaxEarlyMillis() {
+		return maxEarly.get();
+	}
+
+	/**
+	 * @return late-start counts per bucket, keyed by the bucket's upper bound label ("<=1ms" ... ">1000ms")
+	 */
+	public Map<String, Long> getLateBuckets() {
+		Map<String, Long> result = new LinkedHashMap<>();
+		for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+			result.put("<=" + BUCKET_BOUNDS[i] + "ms", buckets[i].sum());
+		}
+		result.put(">" + BUCKET_BOUNDS[BUCKET_BOUNDS.length - 1] + "ms", buckets[BUCKET_BOUNDS.length].sum());
+		return result;
+	}
+}
@@ -0,0 +1,17 @@
+package com.scheduler.scheduler.quartz;
+
+import org.quartz.spi.ThreadPool;
+
+/**
+ * Quartz thread pool that holds each job until its scheduled fire time and records how late jobs
+ * actually start.
+ */
+public interface FireTimeThreadPool extends ThreadPool {
+
+	FireLagMetric getFireLag();
+
+	/**
+	 * @return jobs handed over by the scheduler and still waiting for their fire time
+	 */
+	int getHeldCount();
+}
@@ -0,0 +1,267 @@
+package com.scheduler.scheduler.quartz;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.quartz.JobKey;
+import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+import org.quartz.spi.OperableTrigger;
+
+/**
+ * RAM-resident tier of triggers due within the next {@code horizonMillis}.
+ *
+ * Triggers get here already ACQUIRED in the database (with their fired-trigger record written),
+ * so the tier is only a cache of work this node has claimed: if the node dies, cluster recovery
+ * or the startup recovery of the JDBC store puts them back to WAITING.
+ *
+ * A promoted trigger is held, by key, until it fires or is released. When the store writes or
+ * removes a trigger with the same key, the held copy is evicted and released in that transaction;
+ * a copy already handed to the scheduler thread is remembered as evicted and not fired. Held
+ * triggers that are more than the misfire threshold late are expired, so that the misfire handler,
+ * which only sees WAITING triggers, handles them. When triggers due within the horizon are stored
+ * while the tier is full, the latest queued triggers due after them are displaced back to the
+ * database so that the next promotion has room for the sooner ones.
+ *
+ * The set is ordered like Quartz's own acquisition (fire time, then priority, then key) and is
+ * lock-free; it is only drained by the scheduler thread.
+ */
+class HotTriggerTier {
+
+	private final ConcurrentSkipListSet<OperableTrigger> triggers =
+			new ConcurrentSkipListSet<>(new Trigger.TriggerTimeComparator());
+
+	/** Promoted triggers not fired or released yet, queued or handed out. */
+	private final Map<TriggerKey, OperableTrigger> held = new ConcurrentHashMap<>();
+
+	/** Fire instance ids of handed-out triggers evicted before they fired; already released. */
+	private final Set<String> evicted = ConcurrentHashMap.newKeySet();
+
+	private final long horizonMillis;
+	private final int capacity;
+	private final long promoteIntervalMillis;
+
+	private volatile long lastPromotion;
+	private volatile boolean stale = true;
+
+	/** Triggers due within the horizon stored since the last promotion, and the earliest fire time among them. */
+	private final AtomicInteger storedDue = new AtomicInteger();
+	private final AtomicLong earliestStored = new AtomicLong(Long.MAX_VALUE);
+
+	private final AtomicLong promotions = new AtomicLong();
+	private final AtomicLong servedFromMemory = new AtomicLong();
+
+	HotTriggerTier(long horizonMillis, int capacity, long promoteIntervalMillis) {
+		this.horizonMillis = horizonMillis;
+		this.capacity = capacity;
+		this.promoteIntervalMillis = promoteIntervalMillis;
+	}
+
+	boolean isEnabled() {
+		return horizonMillis > 0 && capacity > 0;
+	}
+
+	long getHorizonMillis() {
+		return horizonMillis;
+	}
+
+	/**
+	 * Promotion runs when the interval has passed, when the tier is empty, or when a trigger
+	 * due within the horizon was stored since the last promotion.
+	 */
+	boolean promotionDue(long now) {
+		return stale || triggers.isEmpty() || now - lastPromotion >= promoteIntervalMillis;
+	}
+
+	/**
+	 * Number of triggers that can still be promoted; also records that a promotion is starting.
+	 */
+	int beginPromotion(long now) {
+		stale = false;
+		lastPromotion = now;
+		return capacity - triggers.size();
+	}
+
+	void promote(Collection<OperableTrigger> acquired) {
+		for (OperableTrigger trigger : acquired) {
+			held.put(trigger.getKey(), trigger);
+			triggers.add(trigger);
+		}
+		promotions.addAndGet(acquired.size());
+	}
+
+	/**
+	 * Called when a trigger is stored; one due within the horizon should be promoted soon.
+	 */
+	void triggerStored(OperableTrigger trigger, long now) {
+		if (trigger.getNextFireTime() != null && trigger.getNextFireTime().getTime() <= now + horizonMillis) {
+			storedDue.incrementAndGet();
+			earliestStored.accumulateAndGet(trigger.getNextFireTime().getTime(), Math::min);
+			stale = true;
+		}
+	}
+
+	/**
+	 * Makes room for the triggers stored since the last promotion that do not fit into the tier:
+	 * removes up to that many queued triggers, latest first, as long as they are due after the
+	 * earliest stored one. Called before {@link #beginPromotion}, whose acquisition then claims the
+	 * soonest triggers in the database, the stored ones included.
+	 *
+	 * @return the displaced triggers, to be released back to the database
+	 */
+	List<OperableTrigger> displaceForStored() {
+		int stored = storedDue.getAndSet(0);
+		long earliest = earliestStored.getAndSet(Long.MAX_VALUE);
+		int wanted = stored - (capacity - triggers.size());
+		List<OperableTrigger> displaced = new ArrayList<>();
+		while (displaced.size() < wanted) {
+			OperableTrigger last = triggers.isEmpty() ? null : triggers.last();
+			if (last == null || last.getNextFireTime().getTime() <= earliest) {
+				break;
+			}
+			if (triggers.remove(last)) {
+				forget(last);
+				displaced.add(last);
+			}
+		}
+		return displaced;
+	}
+
+	/**
+	 * Forgets the held trigger with the given key, which the store is about to overwrite or remove.
+	 *
+	 * @return the evicted trigger, to be released in the store's transaction, or null when none is held
+	 */
+	OperableTrigger evict(TriggerKey key) {
+		OperableTrigger trigger = held.remove(key);
+		if (trigger != null && !triggers.remove(trigger)) {
+			// Already handed out: the scheduler thread must not fire this copy
+			evicted.add(trigger.getFireInstanceId());
+		}
+		return trigger;
+	}
+
+	/**
+	 * Evicts every held trigger of the job, see {@link #evict(TriggerKey)}.
+	 */
+	List<OperableTrigger> evictJob(JobKey jobKey) {
+		List<OperableTrigger> evictedTriggers = new ArrayList<>();
+		for (OperableTrigger trigger : held.values()) {
+			if (jobKey.equals(trigger.getJobKey()) && evict(trigger.getKey()) != null) {
+				evictedTriggers.add(trigger);
+			}
+		}
+		return evictedTriggers;
+	}
+
+	/**
+	 * Called for each handed-out trigger about to fire.
+	 *
+	 * @return false when the trigger was evicted after it was handed out and must not fire
+	 */
+	boolean claim(OperableTrigger trigger) {
+		if (evicted.contains(trigger.getFireInstanceId())) {
+			return false;
+		}
+		forget(trigger);
+		return true;
+	}
+
+	/**
+	 * Called when a trigger acquired by this node is released back to the database.
+	 *
+	 * @return false when it was evicted and already released with the store's change
+	 */
+	boolean released(OperableTrigger trigger) {
+		if (evicted.remove(trigger.getFireInstanceId())) {
+			return false;
+		}
+		forget(trigger);
+		return true;
+	}
+
+	private void forget(OperableTrigger trigger) {
+		// A newer copy promoted under the same key compares equal; remove only this instance
+		held.computeIfPresent(trigger.getKey(), (key, current) -> current == trigger ? null : current);
+	}
+
+	/**
+	 * Removes queued triggers due before misfireTime, except those ignoring misfires; in fire
+	 * time order, so only the late head of the queue is looked at.
+	 *
+	 * @return the expired triggers, to be released to WAITING for the misfire handler
+	 */
+	List<OperableTrigger> expire(long misfireTime) {
+		List<OperableTrigger> expired = new ArrayList<>();
+		for (Iterator<OperableTrigger> it = triggers.iterator(); it.hasNext();) {
+			OperableTrigger next = it.next();
+			if (next.getNextFireTime().getTime() >= misfireTime) {
+				break;
+			}
+			if (next.getMisfireInstruction() != Trigger.MISFIRE_INSTRUCTION_IGNORE_MISFIRE_POLICY && triggers.remove(next)) {
+				forget(next);
+				expired.add(next);
+			}
+		}
+		return expired;
+	}
+
+	/**
+	 * Hands out due triggers with the same batching rule as the JDBC store: the first trigger must
+	 * be due by noLaterThan, the rest within timeWindow of the first (or of now, if that is later).
+	 */
+	List<OperableTrigger> take(long noLaterThan, int maxCount, long timeWindow) {
+		List<OperableTrigger> taken = new ArrayList<>();
+		long batchEnd = noLaterThan;
+		while (taken.size() < maxCount) {
+			OperableTrigger next = triggers.isEmpty() ? null : triggers.first();
+			if (next == null || next.getNextFireTime().getTime() > batchEnd) {
+				break;
+			}
+			if (!triggers.remove(next)) {
+				// Evicted meanwhile
+				continue;
+			}
+			if (taken.isEmpty()) {
+				batchEnd = Math.max(next.getNextFireTime().getTime(), System.currentTimeMillis()) + timeWindow;
+			}
+			taken.add(next);
+		}
+		servedFromMemory.addAndGet(taken.size());
+		return taken;
+	}
+
+	/**
+	 * Empties the tier, returning the triggers so they can be released back to the database.
+	 */
+	List<OperableTrigger> drain() {
+		List<OperableTrigger> drained = new ArrayList<>();
+		OperableTrigger next;
+		while ((next = triggers.pollFirst()) != null) {
+			forget(next);
+			drained.add(next);
+		}
+		stale = true;
+		return drained;
+	}
+
+	int size() {
+		return triggers.size();
+	}
+
+	long getPromotions() {
+		return promotions.get();
+	}
+
+	long getServedFromMemory() {
+		return servedFromMemory.get();
+	}
+}
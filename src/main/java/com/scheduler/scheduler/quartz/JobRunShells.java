@@ -0,0 +1,65 @@
+package com.scheduler.scheduler.quartz;
+
+import java.lang.reflect.Field;
+import java.util.Date;
+
+import org.quartz.core.JobRunShell;
+import org.quartz.spi.TriggerFiredBundle;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reads the fired trigger bundle (scheduled fire time, job, trigger) of the runnables Quartz hands
+ * to its thread pool.
+ */
+@Slf4j
+final class JobRunShells {
+
+	static final long UNKNOWN = Long.MIN_VALUE;
+
+	private static final Field FIRED_TRIGGER_BUNDLE = firedTriggerBundleField();
+
+	private JobRunShells() {
+	}
+
+	/**
+	 * @return the scheduled fire time of a Quartz job run shell, or {@link #UNKNOWN} for anything else
+	 */
+	static long scheduledFireTime(Runnable runnable) {
+		return scheduledFireTime(firedTriggerBundle(runnable));
+	}
+
+	static long scheduledFireTime(TriggerFiredBundle bundle) {
+		Date scheduled = bundle != null ? bundle.getScheduledFireTime() : null;
+		return scheduled != null ? scheduled.getTime() : UNKNOWN;
+	}
+
+	/**
+	 * @return the bundle of a Quartz job run shell, or null for anything else
+	 */
+	static TriggerFiredBundle firedTriggerBundle(Runnable runnable) {
+		if (FIRED_TRIGGER_BUNDLE == null || !(runnable instanceof JobRunShell)) {
+			return null;
+		}
+		try {
+			return (TriggerFiredBundle) FIRED_TRIGGER_BUNDLE.get(runnable);
+		} catch (IllegalAccessException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * JobRunShell keeps its bundle in a protected field without an accessor.
+	 */
+	private static Field firedTriggerBundleField() {
+		try {
+			Field field = JobRunShell.class.getDeclaredField("firedTriggerBundle");
+			field.setAccessible(true);
+			return field;
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			log.warn("Cannot read scheduled fire times from job run shells, jobs will start on hand-over: {}",
+					e.getMessage());
+			return null;
+		}
+	}
+}
@@ -0,0 +1,216 @@
+package com.scheduler.scheduler.quartz;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Paces the fires Quartz catches up on after an outage or restart: triggers that missed their fire
+ * time and fire now under their misfire instruction, and jobs recovered with {@code requestRecovery}.
+ *
+ * Instead of letting the whole backlog fire at once, {@link SchedulerJobStore} hands each pass of
+ * missed fires to {@link #plan}, which gives every fire a release time from a token bucket: one for
+ * all replays ({@code ratePerSecond}, {@code burst}) and one per job group ({@code groupRatePerSecond},
+ * or a rate from {@code groupRates}, with one second's worth of burst). The store then moves the
+ * trigger's next fire time to its release time, so the backlog stays queued in the database and
+ * survives another restart. Fires of a pass are released oldest-first or newest-first.
+ *
+ * Only one-shot fires are paced. A repeating trigger moved to a later release would skip every
+ * regular fire up to it, so it keeps the fire time its misfire instruction gave it.
+ *
+ * On-time fires are never delayed: the buckets only hold back replays, and replays are stored with
+ * {@code replayPriority}, below the default trigger priority, so an on-time trigger due at the same
+ * instant is acquired first.
+ *
+ * Buckets are kept per node; in a cluster each node paces the misfires it handles.
+ */
+public class MisfireReplayController {
+
+	private final double ratePerSecond;
+	private final int burst;
+	private final double groupRatePerSecond;
+	private final Map<String, Double> groupRates;
+	private final ReplayOrder order;
+	private final int replayPriority;
+
+	private final TokenBucket bucket;
+	private final Map<String, TokenBucket> groupBuckets = new HashMap<>();
+
+	private long replayed;
+	private long delayed;
+
+	MisfireReplayController(double ratePerSecond, int burst, double groupRatePerSecond,
+			Map<String, Double> groupRates, ReplayOrder order, int replayPriority) {
+		this.ratePerSecond = ratePerSecond;
+		this.burst = Math.max(1, burst);
+		this.groupRatePerSecond = groupRatePerSecond;
+		this.groupRates = groupRates;
+		this.order = order;
+		this.replayPriority = replayPriority;
+		this.bucket = ratePerSecond > 0 ? new TokenBucket(ratePerSecond, this.burst) : null;
+	}
+
+	/**
+	 * Parses {@code group=rate} pairs separated by commas; a group ending in {@code *} matches every
+	 * group starting with the rest, e.g. {@code slots-*=20}.
+	 *
+	 * @throws IllegalArgumentException when a pair is malformed
+	 */
+	static Map<String, Double> parseGroupRates(String spec) {
+		Map<String, Double> rates = new LinkedHashMap<>();
+		if (spec == null || spec.trim().isEmpty()) {
+			return rates;
+		}
+		for (String pair : spec.split(",")) {
+			int separator = pair.indexOf('=');
+			if (separator <= 0) {
+				throw new IllegalArgumentException("Expected group=rate but got '" + pair.trim() + "'");
+			}
+			try {
+				rates.put(pair.substring(0, separator).trim(), Double.parseDouble(pair.substring(separator + 1).trim()));
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Invalid rate in '" + pair.trim() + "'", e);
+			}
+		}
+		return rates;
+	}
+
+	/**
+	 * Removes the fires of repeating triggers, which are not paced, then orders the remaining
+	 * replays and sets the release time of each, leaving the list sorted by it; a release time of
+	 * {@code now} means the fire is within the burst and goes out immediately.
+	 */
+	synchronized void plan(List<MissedFire> replays, long now) {
+		replays.removeIf(replay -> !replay.oneShot);
+		Comparator<MissedFire> byDueTime = Comparator.comparingLong(replay -> replay.dueMillis);
+		replays.sort(order == ReplayOrder.NEWEST_FIRST ? byDueTime.reversed() : byDueTime);
+		// Group limits first: a slow group's backlog must not hold up the shared bucket for the others
+		for (MissedFire replay : replays) {
+			TokenBucket groupBucket = groupBucket(replay.group());
+			replay.releaseAt = now;
+			if (groupBucket != null) {
+				replay.releaseAt = groupBucket.availableAt(now);
+				groupBucket.take(replay.releaseAt);
+			}
+		}
+		// Then the shared bucket, taken in release order (stable, so each group keeps its order)
+		replays.sort(Comparator.comparingLong(replay -> replay.releaseAt));
+		for (MissedFire replay : replays) {
+			if (bucket != null) {
+				replay.releaseAt = Math.max(replay.releaseAt, bucket.availableAt(now));
+				bucket.take(replay.releaseAt);
+			}
+			replayed++;
+			if (replay.releaseAt > now) {
+				delayed++;
+			}
+		}
+		// Buckets whose backlog has drained are full again; drop them rather than keep every group seen
+		for (Iterator<TokenBucket> it = groupBuckets.values().iterator(); it.hasNext();) {
+			if (it.next().drainedAt() < now) {
+				it.remove();
+			}
+		}
+	}
+
+	private TokenBucket groupBucket(String group) {
+		TokenBucket groupBucket = groupBuckets.get(group);
+		if (groupBucket == null) {
+			double rate = groupRate(group);
+			if (rate <= 0) {
+				return null;
+			}
+			groupBucket = new TokenBucket(rate, (int) Math.ceil(rate));
+			groupBuckets.put(group, groupBucket);
+		}
+		return groupBucket;
+	}
+
+	/**
+	 * @return the rate configured for the group: an exact entry, else the longest matching prefix
+	 *         entry, else the default per-group rate
+	 */
+	double groupRate(String group) {
+		Double exact = groupRates.get(group);
+		if (exact != null) {
+			return exact;
+		}
+		String bestPrefix = null;
+		for (String pattern : groupRates.keySet()) {
+			if (pattern.endsWith("*")) {
+				String prefix = pattern.substring(0, pattern.length() - 1);
+				if (group.startsWith(prefix) && (bestPrefix == null || prefix.length() > bestPrefix.length())) {
+					bestPrefix = prefix;
+				}
+			}
+		}
+		return bestPrefix != null ? groupRates.get(bestPrefix + "*") : groupRatePerSecond;
+	}
+
+	public double getRatePerSecond() {
+		return ratePerSecond;
+	}
+
+	public int getBurst() {
+		return burst;
+	}
+
+	public double getGroupRatePerSecond() {
+		return groupRatePerSecond;
+	}
+
+	public Map<String, Double> getGroupRates() {
+		return Collections.unmodifiableMap(groupRates);
+	}
+
+	public ReplayOrder getOrder() {
+		return order;
+	}
+
+	public int getReplayPriority() {
+		return replayPriority;
+	}
+
+	/**
+	 * @return missed fires paced since startup, including those released immediately
+	 */
+	public synchronized long getReplayed() {
+		return replayed;
+	}
+
+	/**
+	 * @return missed fires given a release time later than when they were handled
+	 */
+	public synchronized long getDelayed() {
+		return delayed;
+	}
+
+	/**
+	 * @return when the last queued replay is released, or 0 when nothing is queued
+	 */
+	public synchronized long getBacklogUntil(long now) {
+		long until = bucket != null ? bucket.drainedAt() : 0;
+		for (TokenBucket groupBucket : groupBuckets.values()) {
+			until = Math.max(until, groupBucket.drainedAt());
+		}
+		return until > now ? until : 0;
+	}
+
+	/**
+	 * @return per job group, when its last queued replay is released; groups without a backlog are left out
+	 */
+	public synchronized Map<String, Long> getGroupBacklogUntil(long now) {
+		Map<String, Long> backlog = new HashMap<>();
+		for (Map.Entry<String, TokenBucket> entry : groupBuckets.entrySet()) {
+			long until = entry.getValue().drainedAt();
+			if (until > now) {
+				backlog.put(entry.getKey(), until);
+			}
+		}
+		return backlog;
+	}
+}
@@ -0,0 +1,37 @@
+package com.scheduler.scheduler.quartz;
+
+import java.util.Date;
+
+import org.quartz.spi.OperableTrigger;
+
+/**
+ * A fire Quartz is about to catch up on, collected during a misfire or recovery pass: the trigger as
+ * stored to fire now and when it was originally due.
+ */
+final class MissedFire {
+
+	final OperableTrigger trigger;
+	final long dueMillis;
+	final boolean oneShot;
+
+	/** Set by {@link MisfireReplayController#plan}. */
+	long releaseAt;
+
+	MissedFire(OperableTrigger trigger, long dueMillis, boolean oneShot) {
+		this.trigger = trigger;
+		this.dueMillis = dueMillis;
+		this.oneShot = oneShot;
+	}
+
+	String group() {
+		return trigger.getJobKey().getGroup();
+	}
+
+	/**
+	 * @return the end of the window a one-shot trigger opens (its end time), or 0 when it has none
+	 */
+	long windowEndMillis() {
+		Date end = trigger.getEndTime();
+		return oneShot && end != null ? end.getTime() : 0;
+	}
+}
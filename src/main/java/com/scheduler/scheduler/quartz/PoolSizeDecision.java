@@ -0,0 +1,20 @@
+package com.scheduler.scheduler.quartz;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One resize of the worker pool, automatic or manual, with the load seen when it was made.
+ */
+@Getter
+@AllArgsConstructor
+public class PoolSizeDecision {
+	private final long decidedAtMillis;
+	private final String reason;
+	private final int fromSize;
+	private final int toSize;
+	private final int queued;
+	private final double meanLagMillis;
+	private final double meanRunMillis;
+	private final double utilization;
+}
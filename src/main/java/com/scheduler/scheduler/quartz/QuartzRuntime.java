@@ -0,0 +1,47 @@
+package com.scheduler.scheduler.quartz;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Quartz instantiates its SPI objects (job store, thread pool) from properties, outside the Spring
+ * context. They register here under their scheduler name so Spring components can reach them.
+ */
+public final class QuartzRuntime {
+
+	private static final Map<String, SchedulerJobStore> JOB_STORES = new ConcurrentHashMap<>();
+	private static final Map<String, FireTimeThreadPool> THREAD_POOLS = new ConcurrentHashMap<>();
+
+	private QuartzRuntime() {
+	}
+
+	/**
+	 * @return the job store of the named scheduler, or null when it does not use {@link SchedulerJobStore}
+	 */
+	public static SchedulerJobStore jobStore(String schedulerName) {
+		return JOB_STORES.get(schedulerName);
+	}
+
+	/**
+	 * @return the thread pool of the named scheduler, or null when it does not use a {@link FireTimeThreadPool}
+	 */
+	public static FireTimeThreadPool threadPool(String schedulerName) {
+		return THREAD_POOLS.get(schedulerName);
+	}
+
+	static void register(String schedulerName, SchedulerJobStore jobStore) {
+		JOB_STORES.put(schedulerName, jobStore);
+	}
+
+	static void unregister(String schedulerName, SchedulerJobStore jobStore) {
+		JOB_STORES.remove(schedulerName, jobStore);
+	}
+
+	static void register(String schedulerName, FireTimeThreadPool threadPool) {
+		THREAD_POOLS.put(schedulerName, threadPool);
+	}
+
+	static void unregister(String schedulerName, FireTimeThreadPool threadPool) {
+		THREAD_POOLS.remove(schedulerName, threadPool);
+	}
+}
@@ -0,0 +1,11 @@
+package com.scheduler.scheduler.quartz;
+
+/**
+ * Order in which a catch-up backlog of missed fires is released by {@link MisfireReplayController}.
+ */
+public enum ReplayOrder {
+	/** Missed fires are released in the order they were originally due. */
+	OLDEST_FIRST,
+	/** The most recently missed fires are released first, the oldest last. */
+	NEWEST_FIRST
+}
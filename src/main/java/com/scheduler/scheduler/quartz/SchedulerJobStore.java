@@ -0,0 +1,1141 @@
+package com.scheduler.scheduler.quartz;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.JobPersistenceException;
+import org.quartz.SchedulerConfigException;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger.CompletedExecutionInstruction;
+import org.quartz.TriggerKey;
+import org.quartz.impl.jdbcjobstore.FiredTriggerRecord;
+import org.quartz.impl.jdbcjobstore.NoSuchDelegateException;
+import org.quartz.impl.jdbcjobstore.SchedulerStateRecord;
+import org.quartz.impl.jdbcjobstore.StdJDBCConstants;
+import org.quartz.impl.jdbcjobstore.StdJDBCDelegate;
+import org.quartz.impl.jdbcjobstore.TriggerPersistenceDelegate;
+import org.quartz.impl.jdbcjobstore.Util;
+import org.quartz.spi.ClassLoadHelper;
+import org.quartz.spi.OperableTrigger;
+import org.quartz.spi.SchedulerSignaler;
+import org.quartz.spi.TriggerFiredBundle;
+import org.quartz.spi.TriggerFiredResult;
+import org.springframework.scheduling.quartz.LocalDataSourceJobStore;
+
+import com.scheduler.scheduler.outbox.Outbox;
+import com.scheduler.scheduler.outbox.OutboxEvent;
+
+/**
+ * Spring's DataSource-backed job store with operations the scheduler service needs beyond the
+ * Quartz {@link org.quartz.Scheduler} API. Configured as {@code org.quartz.jobStore.class} in the
+ * performance profile and reachable through {@link QuartzRuntime}. Without it the scheduler service
+ * falls back to the plain Quartz API: a job and its new triggers are still stored in one call, but
+ * triggers are built in memory instead of streamed in chunks, stored jobs are replaced instead of
+ * reconciled window by window, and old triggers beyond the new set are removed in a second transaction.
+ *
+ * Triggers due within {@code hotTierHorizonMillis} are promoted into a {@link HotTriggerTier} in
+ * batches and handed to the scheduler thread from memory; far-future triggers stay in the database.
+ * Promotion, firing and completion still write through to the database, so durability is unchanged.
+ * Storing or removing a promoted trigger evicts and releases its promoted copy in the same
+ * transaction, and promoted triggers later than the misfire threshold are released to the misfire
+ * handler. Set the horizon to 0 (default) to acquire every trigger from the database as before.
+ * The hot tier is refused on a clustered store, since only this node's writes evict its copies.
+ *
+ * With {@code acquireTriggersSkipLocked} and {@link SchedulerPostgreSQLDelegate} the database
+ * acquisition runs without the {@code TRIGGER_ACCESS} lock row: the delegate row-locks the selected triggers with
+ * {@code SKIP LOCKED}, so cluster nodes claim disjoint batches concurrently instead of taking turns.
+ *
+ * When clustered with {@code shardCount > 0}, job groups are hashed into that many buckets and each
+ * live node (per {@code qrtz_scheduler_state}) acquires only the buckets assigned to it by
+ * {@link ShardAssignment}. Membership is re-read every cluster check-in interval, so buckets move
+ * to the remaining nodes when one leaves and are shared out again when one joins.
+ *
+ * With {@code adaptiveAcquisition}, batch size and fire-ahead window of each acquisition are chosen
+ * by {@link AdaptiveAcquisition} instead of the scheduler's own batch settings.
+ *
+ * Events a job staged in the {@link Outbox} are inserted into the outbox table in the transaction
+ * that completes its trigger, so an event exists exactly when its fire completed.
+ *
+ * With {@code coalesceFires} the jobs of a fired batch are loaded in one query, and completions of
+ * jobs finishing together are group-committed by a {@link CompletionCoalescer}.
+ *
+ * With {@code replayRatePerSecond} or a per-group replay rate set, one-shot fires caught up after misfires and
+ * job recovery are released at that pace by a {@link MisfireReplayController} instead of all at once.
+ * Before that, with {@code windowAwareMisfires}, a {@link WindowMisfirePolicy} drops missed window
+ * triggers whose window has ended and collapses several missed windows of a job into one fire.
+ */
+public class SchedulerJobStore extends LocalDataSourceJobStore {
+
+	private long hotTierHorizonMillis;
+	private int hotTierCapacity = 10_000;
+	private long hotTierPromoteIntervalMillis = 5_000L;
+	private boolean acquireTriggersSkipLocked;
+	private int shardCount;
+	private boolean adaptiveAcquisition;
+	private int acquisitionMaxBatchSize = 100;
+	private long acquisitionMaxFireAheadMillis = 1_000L;
+	private long acquisitionLagThresholdMillis = 250L;
+	private boolean coalesceFires;
+	private int coalesceMaxBatchSize = 100;
+	private double replayRatePerSecond;
+	private int replayBurst = 1;
+	private double replayGroupRatePerSecond;
+	private String replayGroupRates;
+	private String replayOrder = ReplayOrder.OLDEST_FIRST.name();
+	private int replayPriority = 1;
+	private boolean windowAwareMisfires;
+
+	private AdaptiveAcquisition acquisition;
+
+	private volatile List<String> clusterMembers = Collections.emptyList();
+	private volatile int[] ownedShards;
+	private volatile long lastMembershipRefresh;
+
+	private HotTriggerTier hotTier;
+
+	private CompletionCoalescer<Completion> completions;
+
+	private MisfireReplayController replay;
+
+	private WindowMisfirePolicy windowPolicy;
+
+	private SchedulerSignaler signaler;
+
+	private static final ThreadLocal<FiredJobs> FIRED_JOBS = new ThreadLocal<>();
+
+	private static final ThreadLocal<MisfirePass> MISFIRE_PASS = new ThreadLocal<>();
+
+	private static final String INSERT_OUTBOX_EVENT = "INSERT INTO " + Outbox.TABLE
+			+ " (topic, message_key, payload, value_type, created_at, tx_id) VALUES (?, ?, ?, ?, ?, txid_current())";
+
+	private static final String SELECT_TRIGGER_STARTS = "SELECT "
+			+ COL_TRIGGER_NAME + ", " + COL_TRIGGER_GROUP + ", " + COL_TRIGGER_TYPE + ", " + COL_START_TIME + ", " + COL_END_TIME
+			+ ", " + COL_PRIORITY + " FROM " + StdJDBCConstants.TABLE_PREFIX_SUBST + TABLE_TRIGGERS
+			+ " WHERE " + COL_SCHEDULER_NAME + " = " + StdJDBCConstants.SCHED_NAME_SUBST
+			+ " AND " + COL_JOB_NAME + " = ? AND " + COL_JOB_GROUP + " = ?";
+
+	private static final String SELECT_JOB_TRIGGER_KEYS = "SELECT "
+			+ COL_TRIGGER_NAME + ", " + COL_TRIGGER_GROUP + " FROM " + StdJDBCConstants.TABLE_PREFIX_SUBST + TABLE_TRIGGERS
+			+ " WHERE " + COL_SCHEDULER_NAME + " = " + StdJDBCConstants.SCHED_NAME_SUBST
+			+ " AND " + COL_JOB_NAME + " = ? AND " + COL_JOB_GROUP + " = ?";
+
+	private static final String ORDER_BY_NEXT_FIRE_TIME = " ORDER BY " + COL_NEXT_FIRE_TIME + ", " + COL_TRIGGER_NAME
+			+ ", " + COL_TRIGGER_GROUP;
+
+	private static final String SELECT_TRIGGER_KEYS_FROM_FIRE_TIME = SELECT_JOB_TRIGGER_KEYS
+			+ " AND " + COL_NEXT_FIRE_TIME + " >= ?" + ORDER_BY_NEXT_FIRE_TIME;
+
+	private static final String SELECT_TRIGGER_KEYS_AFTER_TRIGGER = SELECT_JOB_TRIGGER_KEYS
+			+ " AND (" + COL_NEXT_FIRE_TIME + " > ? OR (" + COL_NEXT_FIRE_TIME + " = ? AND (" + COL_TRIGGER_NAME + " > ?"
+			+ " OR (" + COL_TRIGGER_NAME + " = ? AND " + COL_TRIGGER_GROUP + " > ?))))" + ORDER_BY_NEXT_FIRE_TIME;
+
+	private static final String SELECT_TRIGGER_KEYS_REPEATING_PAST = SELECT_JOB_TRIGGER_KEYS
+			+ " AND " + COL_NEXT_FIRE_TIME + " > 0 AND " + COL_NEXT_FIRE_TIME + " < ?"
+			+ " AND (" + COL_END_TIME + " IS NULL OR " + COL_END_TIME + " = 0 OR " + COL_END_TIME + " >= ?)"
+			+ " AND NOT EXISTS (SELECT 1 FROM " + StdJDBCConstants.TABLE_PREFIX_SUBST + TABLE_SIMPLE_TRIGGERS + " s"
+			+ " WHERE s." + COL_SCHEDULER_NAME + " = " + StdJDBCConstants.SCHED_NAME_SUBST
+			+ " AND s." + COL_TRIGGER_NAME + " = " + StdJDBCConstants.TABLE_PREFIX_SUBST + TABLE_TRIGGERS + "." + COL_TRIGGER_NAME
+			+ " AND s." + COL_TRIGGER_GROUP + " = " + StdJDBCConstants.TABLE_PREFIX_SUBST + TABLE_TRIGGERS + "." + COL_TRIGGER_GROUP
+			+ " AND s." + COL_REPEAT_COUNT + " = 0)";
+
+	private static final String UPDATE_REPLAY_TRIGGER = "UPDATE "
+			+ StdJDBCConstants.TABLE_PREFIX_SUBST + TABLE_TRIGGERS
+			+ " SET " + COL_NEXT_FIRE_TIME + " = ?, " + COL_PRIORITY + " = ?"
+			+ " WHERE " + COL_SCHEDULER_NAME + " = " + StdJDBCConstants.SCHED_NAME_SUBST
+			+ " AND " + COL_TRIGGER_NAME + " = ? AND " + COL_TRIGGER_GROUP + " = ?";
+
+	@Override
+	public void initialize(ClassLoadHelper loadHelper, SchedulerSignaler signaler) throws SchedulerConfigException {
+		super.initialize(loadHelper, signaler);
+		this.signaler = signaler;
+		if (hotTierHorizonMillis > 0 && isClustered()) {
+			// Writes on another node cannot evict this node's promoted copies, which would then fire stale
+			throw new SchedulerConfigException("hotTierHorizonMillis > 0 is not supported on a clustered job store");
+		}
+		if (acquireTriggersSkipLocked) {
+			try {
+				if (getDelegate() instanceof SchedulerPostgreSQLDelegate) {
+					((SchedulerPostgreSQLDelegate) getDelegate()).setSkipLocked(true);
+				}
+			} catch (NoSuchDelegateException e) {
+				throw new SchedulerConfigException("Couldn't create the driver delegate: " + e.getMessage(), e);
+			}
+		}
+		hotTier = new HotTriggerTier(hotTierHorizonMillis, hotTierCapacity, hotTierPromoteIntervalMillis);
+		if (adaptiveAcquisition) {
+			acquisition = new AdaptiveAcquisition(acquisitionMaxBatchSize, acquisitionMaxFireAheadMillis,
+					acquisitionLagThresholdMillis);
+		}
+		if (coalesceFires) {
+			completions = new CompletionCoalescer<>(coalesceMaxBatchSize, this::completeAll);
+		}
+		if (replayRatePerSecond > 0 || replayGroupRatePerSecond > 0
+				|| (replayGroupRates != null && !replayGroupRates.trim().isEmpty())) {
+			try {
+				replay = new MisfireReplayController(replayRatePerSecond, replayBurst, replayGroupRatePerSecond,
+						MisfireReplayController.parseGroupRates(replayGroupRates),
+						ReplayOrder.valueOf(replayOrder.trim().toUpperCase()), replayPriority);
+			} catch (IllegalArgumentException e) {
+				throw new SchedulerConfigException("Invalid misfire replay settings: " + e.getMessage(), e);
+			}
+		}
+		if (windowAwareMisfires) {
+			windowPolicy = new WindowMisfirePolicy();
+		}
+		QuartzRuntime.register(getInstanceName(), this);
+	}
+
+	@Override
+	public void shutdown() {
+		QuartzRuntime.unregister(getInstanceName(), this);
+		releaseHotTier();
+		super.shutdown();
+	}
+
+	@Override
+	public void schedulerPaused() {
+		super.schedulerPaused();
+		releaseHotTier();
+	}
+
+	/**
+	 * maxCount is already capped by Quartz at the number of free worker threads; the adaptive batch
+	 * size only ever lowers it, while its fire-ahead window replaces the configured one.
+	 */
+	@Override
+	public List<OperableTrigger> acquireNextTriggers(long noLaterThan, int maxCount, long timeWindow)
+			throws JobPersistenceException {
+		if (acquisition == null) {
+			return acquire(noLaterThan, maxCount, timeWindow);
+		}
+		int batchSize = Math.min(maxCount, acquisition.getBatchSize());
+		List<OperableTrigger> acquired = acquire(noLaterThan, batchSize, acquisition.getFireAheadMillis());
+		acquisition.record(batchSize, acquired, System.currentTimeMillis());
+		return acquired;
+	}
+
+	private List<OperableTrigger> acquire(long noLaterThan, int maxCount, long timeWindow)
+			throws JobPersistenceException {
+		if (!hotTier.isEnabled()) {
+			return acquireFromDatabase(noLaterThan, maxCount, timeWindow);
+		}
+		long now = System.currentTimeMillis();
+		for (OperableTrigger expired : hotTier.expire(now - getMisfireThreshold())) {
+			releaseAcquiredTrigger(expired);
+		}
+		if (hotTier.promotionDue(now)) {
+			for (OperableTrigger displaced : hotTier.displaceForStored()) {
+				releaseAcquiredTrigger(displaced);
+			}
+			int room = hotTier.beginPromotion(now);
+			if (room > 0) {
+				// Claims (ACQUIRED + fired-trigger record) the triggers due within the horizon in one transaction
+				long horizon = hotTier.getHorizonMillis();
+				hotTier.promote(acquireFromDatabase(now + horizon, room, horizon));
+			}
+		}
+		return hotTier.take(noLaterThan, maxCount, timeWindow);
+	}
+
+	private List<OperableTrigger> acquireFromDatabase(final long noLaterThan, final int maxCount, final long timeWindow)
+			throws JobPersistenceException {
+		if (!acquireTriggersSkipLocked || !(getDelegate() instanceof SchedulerPostgreSQLDelegate)) {
+			return super.acquireNextTriggers(noLaterThan, maxCount, timeWindow);
+		}
+		if (isClustered() && shardCount > 0) {
+			refreshShards();
+		}
+		// No lock row: the candidate rows stay locked by this transaction until it commits
+		return executeInNonManagedTXLock(null,
+				conn -> acquireNextTrigger(conn, noLaterThan, maxCount, timeWindow),
+				(conn, acquired) -> {
+					// Commit failed: the batch is ours only if its fired-trigger records were written
+					try {
+						Set<String> fireInstanceIds = new HashSet<>();
+						for (FiredTriggerRecord record : getDelegate().selectInstancesFiredTriggerRecords(conn, getInstanceId())) {
+							fireInstanceIds.add(record.getFireInstanceId());
+						}
+						for (OperableTrigger trigger : acquired) {
+							if (fireInstanceIds.contains(trigger.getFireInstanceId())) {
+								return true;
+							}
+						}
+						return false;
+					} catch (SQLException e) {
+						throw new JobPersistenceException("Couldn't validate trigger acquisition: " + e.getMessage(), e);
+					}
+				});
+	}
+
+	@Override
+	protected void storeTrigger(Connection conn, OperableTrigger newTrigger, JobDetail job, boolean replaceExisting,
+			String state, boolean forceState, boolean recovering) throws JobPersistenceException {
+		if (hotTier != null && replaceExisting) {
+			evictHot(conn, newTrigger.getKey());
+		}
+		super.storeTrigger(conn, newTrigger, job, replaceExisting, state, forceState, recovering);
+		long now = System.currentTimeMillis();
+		if (hotTier != null) {
+			hotTier.triggerStored(newTrigger, now);
+		}
+		MisfirePass pass = MISFIRE_PASS.get();
+		Date nextFireTime = newTrigger.getNextFireTime();
+		if (pass != null && STATE_WAITING.equals(state) && nextFireTime != null && nextFireTime.getTime() <= now) {
+			// Fires now: a misfire handled with a fire-now instruction or a recovered job
+			Long missedAt = pass.missedAt.get(newTrigger.getKey());
+			pass.missed.add(new MissedFire(newTrigger, missedAt != null ? missedAt : nextFireTime.getTime(),
+					newTrigger.getFireTimeAfter(nextFireTime) == null));
+		}
+	}
+
+	/**
+	 * Remembers when each trigger handled by a misfire pass was originally due, before Quartz
+	 * updates it for the misfire.
+	 */
+	@Override
+	protected OperableTrigger retrieveTrigger(Connection conn, TriggerKey key) throws JobPersistenceException {
+		OperableTrigger trigger = super.retrieveTrigger(conn, key);
+		MisfirePass pass = MISFIRE_PASS.get();
+		if (pass != null && trigger != null && trigger.getNextFireTime() != null) {
+			pass.missedAt.put(key, trigger.getNextFireTime().getTime());
+		}
+		return trigger;
+	}
+
+	/**
+	 * Startup recovery: misfired triggers and recovered jobs are handled together, as one backlog.
+	 */
+	@Override
+	protected void recoverJobs(Connection conn) throws JobPersistenceException {
+		if ((replay == null && windowPolicy == null) || MISFIRE_PASS.get() != null) {
+			super.recoverJobs(conn);
+			return;
+		}
+		MisfirePass pass = new MisfirePass();
+		MISFIRE_PASS.set(pass);
+		try {
+			super.recoverJobs(conn);
+			finishMisfirePass(conn, pass);
+		} finally {
+			MISFIRE_PASS.remove();
+		}
+	}
+
+	@Override
+	protected RecoverMisfiredJobsResult recoverMisfiredJobs(Connection conn, boolean recovering)
+			throws JobPersistenceException, SQLException {
+		if ((replay == null && windowPolicy == null) || MISFIRE_PASS.get() != null) {
+			return super.recoverMisfiredJobs(conn, recovering);
+		}
+		MisfirePass pass = new MisfirePass();
+		MISFIRE_PASS.set(pass);
+		try {
+			RecoverMisfiredJobsResult result = super.recoverMisfiredJobs(conn, recovering);
+			finishMisfirePass(conn, pass);
+			return result;
+		} finally {
+			MISFIRE_PASS.remove();
+		}
+	}
+
+	/**
+	 * Applies the window policy to the fires the pass stored to fire now, then paces the rest; both in
+	 * the pass's transaction. A window fire paced to a release at or after its window end is dropped.
+	 */
+	private void finishMisfirePass(Connection conn, MisfirePass pass) throws JobPersistenceException {
+		if (pass.missed.isEmpty()) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		if (windowPolicy != null) {
+			dropMissedFires(conn, windowPolicy.apply(pass.missed, now),
+					"Dropped {} missed window fire(s) that ended or were superseded by a later window");
+		}
+		if (replay != null && !pass.missed.isEmpty()) {
+			replay.plan(pass.missed, now);
+			if (windowPolicy != null) {
+				dropMissedFires(conn, windowPolicy.dropReleasedAfterEnd(pass.missed),
+						"Dropped {} missed window fire(s) whose replay would start after the window ended");
+			}
+			releaseReplays(conn, pass.missed, now);
+		}
+	}
+
+	private void dropMissedFires(Connection conn, List<MissedFire> dropped, String message) throws JobPersistenceException {
+		for (MissedFire fire : dropped) {
+			removeTrigger(conn, fire.trigger.getKey());
+			signaler.notifySchedulerListenersFinalized(fire.trigger);
+		}
+		if (!dropped.isEmpty()) {
+			getLog().info(message, dropped.size());
+		}
+	}
+
+	/**
+	 * Moves the fire time of each planned one-shot missed fire to its release time.
+	 */
+	private void releaseReplays(Connection conn, List<MissedFire> missed, long now) throws JobPersistenceException {
+		if (missed.isEmpty()) {
+			return;
+		}
+		String sql = Util.rtp(UPDATE_REPLAY_TRIGGER, getTablePrefix(), "'" + getInstanceName() + "'");
+		long lastRelease = now;
+		try (PreparedStatement ps = conn.prepareStatement(sql)) {
+			for (MissedFire fire : missed) {
+				ps.setLong(1, fire.releaseAt);
+				ps.setInt(2, replay.getReplayPriority());
+				ps.setString(3, fire.trigger.getKey().getName());
+				ps.setString(4, fire.trigger.getKey().getGroup());
+				ps.addBatch();
+				lastRelease = Math.max(lastRelease, fire.releaseAt);
+			}
+			ps.executeBatch();
+		} catch (SQLException e) {
+			throw new JobPersistenceException("Couldn't queue missed fires for replay: " + e.getMessage(), e);
+		}
+		getLog().info("Queued {} missed fires for replay, released over {} ms", missed.size(), lastRelease - now);
+	}
+
+	@Override
+	protected boolean removeTrigger(Connection conn, TriggerKey key) throws JobPersistenceException {
+		if (hotTier != null) {
+			evictHot(conn, key);
+		}
+		return super.removeTrigger(conn, key);
+	}
+
+	@Override
+	protected boolean removeJob(Connection conn, JobKey jobKey) throws JobPersistenceException {
+		if (hotTier != null) {
+			for (OperableTrigger evicted : hotTier.evictJob(jobKey)) {
+				releaseAcquiredTrigger(conn, evicted);
+			}
+		}
+		return super.removeJob(conn, jobKey);
+	}
+
+	/**
+	 * Drops the promoted copy of a trigger being overwritten or removed and deletes its fired-trigger
+	 * record, so the old copy cannot fire after the change commits.
+	 */
+	private void evictHot(Connection conn, TriggerKey key) throws JobPersistenceException {
+		OperableTrigger evicted = hotTier.evict(key);
+		if (evicted != null) {
+			releaseAcquiredTrigger(conn, evicted);
+		}
+	}
+
+	@Override
+	public void releaseAcquiredTrigger(OperableTrigger trigger) {
+		if (hotTier == null || hotTier.released(trigger)) {
+			super.releaseAcquiredTrigger(trigger);
+		}
+	}
+
+	/**
+	 * Hot triggers evicted after they were handed to the scheduler thread are not fired.
+	 */
+	@Override
+	public List<TriggerFiredResult> triggersFired(List<OperableTrigger> triggers) throws JobPersistenceException {
+		if (!hotTier.isEnabled()) {
+			return fire(triggers);
+		}
+		List<OperableTrigger> claimed = new ArrayList<>(triggers.size());
+		for (OperableTrigger trigger : triggers) {
+			if (hotTier.claim(trigger)) {
+				claimed.add(trigger);
+			}
+		}
+		if (claimed.size() == triggers.size()) {
+			return fire(triggers);
+		}
+		// Evicted copies get no bundle; the scheduler thread then releases them, which is a no-op
+		Iterator<TriggerFiredResult> fired = fire(claimed).iterator();
+		List<TriggerFiredResult> results = new ArrayList<>(triggers.size());
+		int next = 0;
+		for (OperableTrigger trigger : triggers) {
+			if (next < claimed.size() && claimed.get(next) == trigger) {
+				results.add(fired.next());
+				next++;
+			} else {
+				results.add(new TriggerFiredResult((TriggerFiredBundle) null));
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Re-reads live instances from the scheduler state table once per check-in interval and, when
+	 * membership changed, recomputes the owned buckets.
+	 */
+	private void refreshShards() throws JobPersistenceException {
+		long now = System.currentTimeMillis();
+		if (ownedShards != null && now - lastMembershipRefresh < getClusterCheckinInterval()) {
+			return;
+		}
+		lastMembershipRefresh = now;
+		List<String> members = executeWithoutLock(conn -> {
+			try {
+				List<String> live = new ArrayList<>();
+				for (SchedulerStateRecord record : getDelegate().selectSchedulerStateRecords(conn, null)) {
+					if (record.getSchedulerInstanceId().equals(getInstanceId()) || calcFailedIfAfter(record) >= now) {
+						live.add(record.getSchedulerInstanceId());
+					}
+				}
+				Collections.sort(live);
+				return live;
+			} catch (SQLException e) {
+				throw new JobPersistenceException("Couldn't read cluster membership: " + e.getMessage(), e);
+			}
+		});
+		if (members.equals(clusterMembers) && ownedShards != null) {
+			return;
+		}
+		int[] owned = ShardAssignment.ownedBuckets(members, getInstanceId(), shardCount);
+		((SchedulerPostgreSQLDelegate) getDelegate()).setOwnedShards(shardCount, owned);
+		clusterMembers = members;
+		ownedShards = owned;
+		getLog().info("Cluster members {}: instance {} owns {} of {} job-group shards", members, getInstanceId(),
+				owned.length, shardCount);
+	}
+
+	/**
+	 * Loads the jobs of the whole batch with one query (through {@link #retrieveJob}) instead of one
+	 * query per trigger.
+	 */
+	private List<TriggerFiredResult> fire(List<OperableTrigger> triggers) throws JobPersistenceException {
+		if (triggers.isEmpty()) {
+			return new ArrayList<>();
+		}
+		if (!coalesceFires || triggers.size() < 2 || !(getDelegate() instanceof SchedulerPostgreSQLDelegate)) {
+			return super.triggersFired(triggers);
+		}
+		FIRED_JOBS.set(new FiredJobs(triggers));
+		try {
+			return super.triggersFired(triggers);
+		} finally {
+			FIRED_JOBS.remove();
+		}
+	}
+
+	@Override
+	protected JobDetail retrieveJob(Connection conn, JobKey key) throws JobPersistenceException {
+		FiredJobs fired = FIRED_JOBS.get();
+		if (fired == null) {
+			return super.retrieveJob(conn, key);
+		}
+		if (fired.loadedWith != conn) {
+			// First job of the batch, or the fire transaction is being retried on a new connection
+			fired.loadedWith = conn;
+			try {
+				fired.jobs = ((SchedulerPostgreSQLDelegate) getDelegate()).selectJobDetails(conn, fired.keys,
+						getClassLoadHelper());
+			} catch (ClassNotFoundException | IOException e) {
+				// One unreadable job; load them one by one so only that trigger fails
+				getLog().warn("Couldn't load fired jobs in one query, loading them one by one: " + e.getMessage());
+				fired.jobs = new HashMap<>();
+			} catch (SQLException e) {
+				throw new JobPersistenceException("Couldn't retrieve jobs: " + e.getMessage(), e);
+			}
+		}
+		// Each fire gets its own instance; a job fired twice in one batch is loaded again
+		JobDetail job = fired.jobs.remove(key);
+		return job != null ? job : super.retrieveJob(conn, key);
+	}
+
+	/**
+	 * Completions arriving together (jobs fired at the same instant finish together) are written in
+	 * one transaction; each trigger is still completed individually within it.
+	 */
+	@Override
+	public void triggeredJobComplete(OperableTrigger trigger, JobDetail jobDetail,
+			CompletedExecutionInstruction triggerInstCode) {
+		Completion completion = new Completion(trigger, jobDetail, triggerInstCode, new ArrayList<>(Outbox.staged()));
+		Outbox.clear();
+		if (completions != null) {
+			completions.submit(completion);
+		} else {
+			completeAlone(completion);
+		}
+		if (!completion.events.isEmpty()) {
+			Outbox.signal();
+		}
+	}
+
+	private void completeAll(List<Completion> batch) {
+		if (batch.size() == 1) {
+			completeAlone(batch.get(0));
+			return;
+		}
+		try {
+			executeInNonManagedTXLock(LOCK_TRIGGER_ACCESS, conn -> {
+				for (Completion completion : batch) {
+					complete(conn, completion);
+				}
+				return null;
+			}, null);
+		} catch (JobPersistenceException | RuntimeException e) {
+			// Rolled back as a whole; complete each on its own so one bad completion cannot hold the others
+			getLog().warn("Coalesced completion of " + batch.size() + " jobs failed, completing them one by one: "
+					+ e.getMessage());
+			for (Completion completion : batch) {
+				completeAlone(completion);
+			}
+		}
+	}
+
+	/**
+	 * Retries until the completion is written, like Quartz's own triggeredJobComplete.
+	 */
+	private void completeAlone(Completion completion) {
+		retryExecuteInNonManagedTXLock(LOCK_TRIGGER_ACCESS, conn -> {
+			complete(conn, completion);
+			return null;
+		});
+	}
+
+	/**
+	 * Completes the trigger and inserts the events its job staged in the {@link Outbox}; a retried
+	 * completion inserts them again in its new transaction.
+	 */
+	private void complete(Connection conn, Completion completion) throws JobPersistenceException {
+		triggeredJobComplete(conn, completion.trigger, completion.jobDetail, completion.instruction);
+		if (completion.events.isEmpty()) {
+			return;
+		}
+		try (PreparedStatement ps = conn.prepareStatement(INSERT_OUTBOX_EVENT)) {
+			long now = System.currentTimeMillis();
+			for (OutboxEvent event : completion.events) {
+				ps.setString(1, event.getTopic());
+				ps.setString(2, event.getKey());
+				ps.setString(3, event.getPayload());
+				ps.setString(4, event.getValueType());
+				ps.setLong(5, now);
+				ps.addBatch();
+			}
+			ps.executeBatch();
+		} catch (SQLException e) {
+			throw new JobPersistenceException("Couldn't write outbox events for job " + completion.jobDetail.getKey()
+					+ ": " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Returns promoted triggers to WAITING so this node does not hold them while not firing.
+	 */
+	private void releaseHotTier() {
+		if (hotTier == null) {
+			return;
+		}
+		for (OperableTrigger trigger : hotTier.drain()) {
+			releaseAcquiredTrigger(trigger);
+		}
+	}
+
+	public int getHotTierSize() {
+		return hotTier != null ? hotTier.size() : 0;
+	}
+
+	public long getHotTierPromotions() {
+		return hotTier != null ? hotTier.getPromotions() : 0;
+	}
+
+	public long getHotTierServed() {
+		return hotTier != null ? hotTier.getServedFromMemory() : 0;
+	}
+
+	/**
+	 * @return the adaptive acquisition controller, or null when it is disabled
+	 */
+	public AdaptiveAcquisition getAcquisition() {
+		return acquisition;
+	}
+
+	/**
+	 * @return the misfire replay controller, or null when missed fires are not paced
+	 */
+	public MisfireReplayController getReplay() {
+		return replay;
+	}
+
+	/**
+	 * @return the window misfire policy, or null when it is disabled
+	 */
+	public WindowMisfirePolicy getWindowPolicy() {
+		return windowPolicy;
+	}
+
+	public List<String> getClusterMembers() {
+		return clusterMembers;
+	}
+
+	/**
+	 * @return the job-group buckets this node acquires, or null when acquisition is not sharded
+	 */
+	public int[] getOwnedShards() {
+		int[] owned = ownedShards;
+		return owned != null ? owned.clone() : null;
+	}
+
+	/**
+	 * Triggers due within this many milliseconds are kept in memory; 0 (default) disables the hot tier.
+	 */
+	public void setHotTierHorizonMillis(long hotTierHorizonMillis) {
+		this.hotTierHorizonMillis = hotTierHorizonMillis;
+	}
+
+	public void setHotTierCapacity(int hotTierCapacity) {
+		this.hotTierCapacity = hotTierCapacity;
+	}
+
+	public void setHotTierPromoteIntervalMillis(long hotTierPromoteIntervalMillis) {
+		this.hotTierPromoteIntervalMillis = hotTierPromoteIntervalMillis;
+	}
+
+	/**
+	 * Acquire without the trigger lock row when the delegate supports SKIP LOCKED; false by default.
+	 */
+	public void setAcquireTriggersSkipLocked(boolean acquireTriggersSkipLocked) {
+		this.acquireTriggersSkipLocked = acquireTriggersSkipLocked;
+	}
+
+	/**
+	 * Number of job-group hash buckets split between clustered nodes; 0 (default) lets every node acquire any trigger.
+	 */
+	public void setShardCount(int shardCount) {
+		this.shardCount = shardCount;
+	}
+
+	public void setAdaptiveAcquisition(boolean adaptiveAcquisition) {
+		this.adaptiveAcquisition = adaptiveAcquisition;
+	}
+
+	public void setAcquisitionMaxBatchSize(int acquisitionMaxBatchSize) {
+		this.acquisitionMaxBatchSize = acquisitionMaxBatchSize;
+	}
+
+	public void setAcquisitionMaxFireAheadMillis(long acquisitionMaxFireAheadMillis) {
+		this.acquisitionMaxFireAheadMillis = acquisitionMaxFireAheadMillis;
+	}
+
+	/**
+	 * Acquired triggers already this late make the next batch and fire-ahead window grow.
+	 */
+	public void setAcquisitionLagThresholdMillis(long acquisitionLagThresholdMillis) {
+		this.acquisitionLagThresholdMillis = acquisitionLagThresholdMillis;
+	}
+
+	/**
+	 * Load the jobs of a fired batch in one query and write simultaneous completions in one
+	 * transaction; false by default.
+	 */
+	public void setCoalesceFires(boolean coalesceFires) {
+		this.coalesceFires = coalesceFires;
+	}
+
+	public void setCoalesceMaxBatchSize(int coalesceMaxBatchSize) {
+		this.coalesceMaxBatchSize = coalesceMaxBatchSize;
+	}
+
+	/**
+	 * Missed fires released per second across all groups; 0 (default) leaves the total unlimited.
+	 */
+	public void setReplayRatePerSecond(double replayRatePerSecond) {
+		this.replayRatePerSecond = replayRatePerSecond;
+	}
+
+	public void setReplayBurst(int replayBurst) {
+		this.replayBurst = replayBurst;
+	}
+
+	/**
+	 * Missed fires released per second for each job group without an entry in {@code replayGroupRates}.
+	 */
+	public void setReplayGroupRatePerSecond(double replayGroupRatePerSecond) {
+		this.replayGroupRatePerSecond = replayGroupRatePerSecond;
+	}
+
+	/**
+	 * Per-group replay rates as {@code group=rate,prefix*=rate}.
+	 */
+	public void setReplayGroupRates(String replayGroupRates) {
+		this.replayGroupRates = replayGroupRates;
+	}
+
+	/**
+	 * OLDEST_FIRST (default) or NEWEST_FIRST.
+	 */
+	public void setReplayOrder(String replayOrder) {
+		this.replayOrder = replayOrder;
+	}
+
+	public void setReplayPriority(int replayPriority) {
+		this.replayPriority = replayPriority;
+	}
+
+	/**
+	 * Drop missed window triggers whose window has ended and keep one catch-up fire per job; false by default.
+	 */
+	public void setWindowAwareMisfires(boolean windowAwareMisfires) {
+		this.windowAwareMisfires = windowAwareMisfires;
+	}
+
+	/**
+	 * Lists the key, type, start and end time of every trigger of the job in a single query,
+	 * instead of loading each trigger.
+	 */
+	public List<TriggerStart> retrieveTriggerStarts(final JobKey jobKey) throws JobPersistenceException {
+		return executeWithoutLock(conn -> selectTriggerStarts(conn, jobKey));
+	}
+
+	private List<TriggerStart> selectTriggerStarts(Connection conn, JobKey jobKey) throws JobPersistenceException {
+		List<TriggerStart> starts = new ArrayList<>();
+		String sql = Util.rtp(SELECT_TRIGGER_STARTS, getTablePrefix(), "'" + getInstanceName() + "'");
+		try (PreparedStatement ps = conn.prepareStatement(sql)) {
+			ps.setString(1, jobKey.getName());
+			ps.setString(2, jobKey.getGroup());
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) {
+					starts.add(new TriggerStart(
+							new TriggerKey(rs.getString(COL_TRIGGER_NAME), rs.getString(COL_TRIGGER_GROUP)),
+							rs.getString(COL_TRIGGER_TYPE),
+							rs.getLong(COL_START_TIME),
+							rs.getLong(COL_END_TIME),
+							rs.getInt(COL_PRIORITY)));
+				}
+			}
+		} catch (SQLException e) {
+			throw new JobPersistenceException("Couldn't retrieve trigger start times for job " + jobKey
+					+ ": " + e.getMessage(), e);
+		}
+		return starts;
+	}
+
+	/**
+	 * Keyset page of the job's triggers in order of next fire time, then key: those due at or after
+	 * fromMillis or, when afterKey is given, those after the trigger with that key due at fromMillis.
+	 * Lets a schedule be read page by page without loading all of its triggers.
+	 */
+	public List<OperableTrigger> retrieveTriggersByNextFireTime(final JobKey jobKey, final long fromMillis,
+			final TriggerKey afterKey, final int limit) throws JobPersistenceException {
+		return executeWithoutLock(conn -> {
+			String sql = afterKey == null ? SELECT_TRIGGER_KEYS_FROM_FIRE_TIME : SELECT_TRIGGER_KEYS_AFTER_TRIGGER;
+			try (PreparedStatement ps = conn.prepareStatement(Util.rtp(sql, getTablePrefix(), "'" + getInstanceName() + "'"))) {
+				ps.setString(1, jobKey.getName());
+				ps.setString(2, jobKey.getGroup());
+				if (afterKey == null) {
+					// Quartz stores -1 once a trigger will not fire again and reads anything below 1 as no fire time
+					ps.setLong(3, Math.max(fromMillis, 1));
+				} else {
+					ps.setLong(3, fromMillis);
+					ps.setLong(4, fromMillis);
+					ps.setString(5, afterKey.getName());
+					ps.setString(6, afterKey.getName());
+					ps.setString(7, afterKey.getGroup());
+				}
+				ps.setMaxRows(limit);
+				return retrieveTriggers(conn, ps);
+			} catch (SQLException e) {
+				throw new JobPersistenceException("Couldn't retrieve triggers of job " + jobKey + ": " + e.getMessage(), e);
+			}
+		});
+	}
+
+	/**
+	 * Triggers of the job due before fromMillis that may still fire at or after it; leaves out one-shot
+	 * simple triggers and triggers ending before fromMillis, which make up most of a bulk schedule.
+	 */
+	public List<OperableTrigger> retrieveTriggersRepeatingPast(final JobKey jobKey, final long fromMillis)
+			throws JobPersistenceException {
+		return executeWithoutLock(conn -> {
+			String sql = Util.rtp(SELECT_TRIGGER_KEYS_REPEATING_PAST, getTablePrefix(), "'" + getInstanceName() + "'");
+			try (PreparedStatement ps = conn.prepareStatement(sql)) {
+				ps.setString(1, jobKey.getName());
+				ps.setString(2, jobKey.getGroup());
+				ps.setLong(3, fromMillis);
+				ps.setLong(4, fromMillis);
+				return retrieveTriggers(conn, ps);
+			} catch (SQLException e) {
+				throw new JobPersistenceException("Couldn't retrieve triggers of job " + jobKey + ": " + e.getMessage(), e);
+			}
+		});
+	}
+
+	private List<OperableTrigger> retrieveTriggers(Connection conn, PreparedStatement ps)
+			throws SQLException, JobPersistenceException {
+		List<TriggerKey> keys = new ArrayList<>();
+		try (ResultSet rs = ps.executeQuery()) {
+			while (rs.next()) {
+				keys.add(new TriggerKey(rs.getString(COL_TRIGGER_NAME), rs.getString(COL_TRIGGER_GROUP)));
+			}
+		}
+		List<OperableTrigger> triggers = new ArrayList<>(keys.size());
+		for (TriggerKey key : keys) {
+			OperableTrigger trigger = retrieveTrigger(conn, key);
+			// Removed since the keys were read
+			if (trigger != null) {
+				triggers.add(trigger);
+			}
+		}
+		return triggers;
+	}
+
+	/**
+	 * @return those of the given jobs that are stored, looked up on one connection
+	 */
+	public Set<JobKey> retrieveExistingJobKeys(final Collection<JobKey> jobKeys) throws JobPersistenceException {
+		return executeWithoutLock(conn -> {
+			Set<JobKey> existing = new HashSet<>();
+			try {
+				for (JobKey jobKey : jobKeys) {
+					if (getDelegate().jobExists(conn, jobKey)) {
+						existing.add(jobKey);
+					}
+				}
+			} catch (SQLException e) {
+				throw new JobPersistenceException("Couldn't check job existence: " + e.getMessage(), e);
+			}
+			return existing;
+		});
+	}
+
+	/**
+	 * Updates the job detail, adds the given triggers and removes the given trigger keys in one
+	 * transaction under the trigger lock, so the job is never left without its triggers and other
+	 * readers see either the old or the new schedule.
+	 */
+	public void storeJobAndReplaceTriggers(final JobDetail job, final Collection<OperableTrigger> add,
+			final Collection<TriggerKey> remove) throws SchedulerException {
+		validateNewTriggers(add);
+		executeInNonManagedTXLock(LOCK_TRIGGER_ACCESS, conn -> {
+			storeJob(conn, job, true);
+			long earliestFireTime = Long.MAX_VALUE;
+			for (OperableTrigger trigger : add) {
+				storeTrigger(conn, trigger, job, true, STATE_WAITING, false, false);
+				earliestFireTime = Math.min(earliestFireTime, trigger.getNextFireTime().getTime());
+			}
+			for (TriggerKey key : remove) {
+				removeTrigger(conn, key);
+			}
+			if (!add.isEmpty()) {
+				// Wake the scheduler thread after commit in case a new trigger fires before its current wait ends
+				signalSchedulingChangeOnTxCompletion(earliestFireTime);
+			}
+			return null;
+		}, null);
+	}
+
+	/**
+	 * Stores the job with the given triggers as its only ones, in one transaction under the trigger
+	 * lock: triggers whose key already exists are overwritten and the job's other triggers removed.
+	 * A failure leaves the previous version in place, and no reader sees the job without triggers.
+	 */
+	public void replaceJob(final JobDetail job, final Collection<OperableTrigger> triggers) throws SchedulerException {
+		storeJobWithTriggerChunks(job, Collections.singletonList(triggers).iterator(), true);
+	}
+
+	/**
+	 * Stores the job and the triggers of every chunk in one transaction under the trigger lock.
+	 * Chunks are pulled and validated one at a time inside the transaction, so only one is held in
+	 * memory however long the schedule is, and the job detail is stored again after the last chunk
+	 * for changes made while generating them. With replaceOthers the job's triggers not in any
+	 * chunk are removed in the same transaction.
+	 */
+	public void storeJobWithTriggerChunks(final JobDetail job, final Iterator<? extends Collection<OperableTrigger>> chunks,
+			final boolean replaceOthers) throws JobPersistenceException {
+		executeInNonManagedTXLock(LOCK_TRIGGER_ACCESS, conn -> {
+			long earliestFireTime = storeJobWithTriggerChunks(conn, job, chunks, replaceOthers);
+			if (earliestFireTime != Long.MAX_VALUE) {
+				signalSchedulingChangeOnTxCompletion(earliestFireTime);
+			}
+			return null;
+		}, null);
+	}
+
+	/**
+	 * Adds the trigger chunks and stores the job as {@link #storeJobWithTriggerChunks} does without
+	 * replaceOthers, but only while the stored job data still holds the expected values. The check
+	 * runs in the same transaction under the trigger lock, so a job rescheduled since its data was
+	 * read is never overwritten with that stale data.
+	 *
+	 * @return false, with nothing written, when the job is gone or one of the expected values changed
+	 */
+	public boolean storeJobWithTriggerChunksIfUnchanged(final JobDetail job, final Map<String, ?> expected,
+			final Iterator<? extends Collection<OperableTrigger>> chunks) throws JobPersistenceException {
+		return executeInNonManagedTXLock(LOCK_TRIGGER_ACCESS, conn -> {
+			JobDetail stored = retrieveJob(conn, job.getKey());
+			if (stored == null) {
+				return false;
+			}
+			for (Map.Entry<String, ?> entry : expected.entrySet()) {
+				if (!Objects.equals(stored.getJobDataMap().get(entry.getKey()), entry.getValue())) {
+					return false;
+				}
+			}
+			long earliestFireTime = storeJobWithTriggerChunks(conn, job, chunks, false);
+			if (earliestFireTime != Long.MAX_VALUE) {
+				signalSchedulingChangeOnTxCompletion(earliestFireTime);
+			}
+			return true;
+		}, null);
+	}
+
+	/**
+	 * Replaces each job and its triggers as {@link #storeJobWithTriggerChunks} does with replaceOthers,
+	 * all in one transaction, so a failure leaves every job of the batch at its previous version.
+	 * Chunks are pulled one job after the other, so only one chunk of the batch is held in memory.
+	 *
+	 * @param chunksByJob the trigger chunks of each job; a job may appear only once in a batch
+	 */
+	public void replaceJobs(final Collection<JobDetail> jobs,
+			final Map<JobKey, ? extends Iterator<? extends Collection<OperableTrigger>>> chunksByJob)
+			throws JobPersistenceException {
+		Set<JobKey> keys = new HashSet<>();
+		for (JobDetail job : jobs) {
+			if (!keys.add(job.getKey())) {
+				throw new JobPersistenceException("Job " + job.getKey() + " appears more than once in the batch.");
+			}
+		}
+		executeInNonManagedTXLock(LOCK_TRIGGER_ACCESS, conn -> {
+			long earliestFireTime = Long.MAX_VALUE;
+			for (JobDetail job : jobs) {
+				Iterator<? extends Collection<OperableTrigger>> chunks = chunksByJob.get(job.getKey());
+				earliestFireTime = Math.min(earliestFireTime, storeJobWithTriggerChunks(conn, job,
+						chunks != null ? chunks : Collections.<Collection<OperableTrigger>>emptyIterator(), true));
+			}
+			if (earliestFireTime != Long.MAX_VALUE) {
+				// Wake the scheduler thread after commit in case a new trigger fires before its current wait ends
+				signalSchedulingChangeOnTxCompletion(earliestFireTime);
+			}
+			return null;
+		}, null);
+	}
+
+	/**
+	 * @return the earliest fire time of the stored triggers, or Long.MAX_VALUE when none was stored
+	 */
+	private long storeJobWithTriggerChunks(Connection conn, JobDetail job, Iterator<? extends Collection<OperableTrigger>> chunks,
+			boolean replaceOthers) throws JobPersistenceException {
+		Map<TriggerKey, String> previous = new HashMap<>();
+		for (TriggerStart start : selectTriggerStarts(conn, job.getKey())) {
+			previous.put(start.getKey(), start.getType());
+		}
+		storeJob(conn, job, true);
+		long earliestFireTime = Long.MAX_VALUE;
+		boolean chunked = false;
+		while (chunks.hasNext()) {
+			Collection<OperableTrigger> chunk = chunks.next();
+			try {
+				validateNewTriggers(chunk);
+			} catch (SchedulerException e) {
+				throw new JobPersistenceException(e.getMessage(), e);
+			}
+			for (OperableTrigger trigger : chunk) {
+				String previousType = previous.remove(trigger.getKey());
+				if (previousType != null && !previousType.equals(triggerType(trigger))) {
+					// An update keeps the old type's extension row; replace the trigger as a whole
+					deleteTriggerRow(conn, trigger.getKey());
+				}
+				storeTrigger(conn, trigger, job, true, STATE_WAITING, false, false);
+				earliestFireTime = Math.min(earliestFireTime, trigger.getNextFireTime().getTime());
+			}
+			chunked = true;
+		}
+		if (chunked) {
+			storeJob(conn, job, true);
+		}
+		if (replaceOthers) {
+			for (TriggerKey key : previous.keySet()) {
+				removeTrigger(conn, key);
+			}
+		}
+		return earliestFireTime;
+	}
+
+	private static void validateNewTriggers(Collection<OperableTrigger> triggers) throws SchedulerException {
+		for (OperableTrigger trigger : triggers) {
+			trigger.validate();
+			Date firstFireTime = trigger.computeFirstFireTime(null);
+			if (firstFireTime == null) {
+				throw new SchedulerException("Trigger " + trigger.getKey() + " will never fire.");
+			}
+		}
+	}
+
+	/**
+	 * Jobs of the batch being fired on this thread, loaded on first use.
+	 */
+	private static final class FiredJobs {
+		private final Set<JobKey> keys = new HashSet<>();
+		private Connection loadedWith;
+		private Map<JobKey, JobDetail> jobs;
+
+		private FiredJobs(List<OperableTrigger> triggers) {
+			for (OperableTrigger trigger : triggers) {
+				keys.add(trigger.getJobKey());
+			}
+		}
+	}
+
+	/**
+	 * Fires collected on the thread running a misfire or recovery pass; handled when the pass ends.
+	 */
+	private static final class MisfirePass {
+		private final Map<TriggerKey, Long> missedAt = new HashMap<>();
+		private final List<MissedFire> missed = new ArrayList<>();
+	}
+
+	/**
+	 * Type discriminator the delegate stores for the trigger, or null when it cannot tell.
+	 */
+	private String triggerType(OperableTrigger trigger) {
+		try {
+			if (!(getDelegate() instanceof StdJDBCDelegate)) {
+				return null;
+			}
+			TriggerPersistenceDelegate persistence = ((StdJDBCDelegate) getDelegate()).findTriggerPersistenceDelegate(trigger);
+			return persistence != null ? persistence.getHandledTriggerTypeDiscriminator() : TTYPE_BLOB;
+		} catch (NoSuchDelegateException e) {
+			return null;
+		}
+	}
+
+	private void deleteTriggerRow(Connection conn, TriggerKey key) throws JobPersistenceException {
+		try {
+			getDelegate().deleteTrigger(conn, key);
+		} catch (SQLException e) {
+			throw new JobPersistenceException("Couldn't delete trigger " + key + ": " + e.getMessage(), e);
+		}
+	}
+
+	private static final class Completion {
+		private final OperableTrigger trigger;
+		private final JobDetail jobDetail;
+		private final CompletedExecutionInstruction instruction;
+		private final List<OutboxEvent> events;
+
+		private Completion(OperableTrigger trigger, JobDetail jobDetail, CompletedExecutionInstruction instruction,
+				List<OutboxEvent> events) {
+			this.trigger = trigger;
+			this.jobDetail = jobDetail;
+			this.instruction = instruction;
+			this.events = events;
+		}
+	}
+}
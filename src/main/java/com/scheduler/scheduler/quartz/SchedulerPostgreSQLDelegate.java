@@ -0,0 +1,214 @@
+package com.scheduler.scheduler.quartz;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.quartz.Job;
+import org.quartz.JobDataMap;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.TriggerKey;
+import org.quartz.impl.JobDetailImpl;
+import org.quartz.impl.jdbcjobstore.PostgreSQLDelegate;
+import org.quartz.spi.ClassLoadHelper;
+
+/**
+ * PostgreSQL delegate that, once {@link SchedulerJobStore} switches it on with {@link #setSkipLocked},
+ * row-locks the triggers it selects for acquisition with {@code FOR UPDATE SKIP LOCKED}. Until then
+ * the acquisition and misfire queries are Quartz's own.
+ *
+ * Rows already being claimed by another node are skipped instead of waited on, so when
+ * {@link SchedulerJobStore} acquires without the {@code TRIGGER_ACCESS} lock several nodes claim
+ * disjoint batches at the same time. The filter and order match Quartz's own query, which is what
+ * {@code idx_qrtz_t_nft_st (sched_name, trigger_state, next_fire_time)} serves.
+ *
+ * The misfire handler still runs under the lock row, so the triggers it selects are row-locked with
+ * {@code SKIP LOCKED} as well (see {@link #hasMisfiredTriggersInState}): a trigger is either being
+ * acquired or being updated for its misfire, never both.
+ *
+ * In a sharded cluster the query is further limited to the job-group hash buckets this node owns
+ * (see {@link #setOwnedShards}), so nodes stop competing for the same rows altogether.
+ *
+ * {@link #selectJobDetails} loads the jobs of a whole fired batch in one round trip.
+ */
+public class SchedulerPostgreSQLDelegate extends PostgreSQLDelegate {
+
+	private static final String SELECT_NEXT_TRIGGERS_TO_ACQUIRE_SKIP_LOCKED = "SELECT "
+			+ COL_TRIGGER_NAME + ", " + COL_TRIGGER_GROUP + " FROM "
+			+ TABLE_PREFIX_SUBST + TABLE_TRIGGERS + " WHERE "
+			+ COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
+			+ " AND " + COL_TRIGGER_STATE + " = ? AND " + COL_NEXT_FIRE_TIME + " <= ?"
+			+ " AND (" + COL_MISFIRE_INSTRUCTION + " = -1 OR " + COL_NEXT_FIRE_TIME + " >= ?)"
+			+ " ORDER BY " + COL_NEXT_FIRE_TIME + " ASC, " + COL_PRIORITY + " DESC"
+			+ " LIMIT ? FOR UPDATE SKIP LOCKED";
+
+	private static final String SELECT_MISFIRED_TRIGGERS_IN_STATE_SKIP_LOCKED = SELECT_HAS_MISFIRED_TRIGGERS_IN_STATE
+			+ " LIMIT ? FOR UPDATE SKIP LOCKED";
+
+	private static final String SHARD_FILTER = " AND mod(abs(hashtext(" + COL_JOB_GROUP + ")::bigint), ?) = ANY(?)";
+
+	private static final String SELECT_NEXT_SHARD_TRIGGERS_TO_ACQUIRE_SKIP_LOCKED =
+			SELECT_NEXT_TRIGGERS_TO_ACQUIRE_SKIP_LOCKED.replace(" ORDER BY ", SHARD_FILTER + " ORDER BY ");
+
+	private static final String SELECT_JOB_DETAILS = "SELECT * FROM " + TABLE_PREFIX_SUBST + TABLE_JOB_DETAILS
+			+ " WHERE " + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
+			+ " AND " + COL_JOB_NAME + " = ANY(?) AND " + COL_JOB_GROUP + " = ANY(?)";
+
+	private volatile boolean skipLocked;
+	private volatile int shardCount;
+	private volatile Integer[] ownedShards;
+
+	/**
+	 * Selects triggers to acquire and misfired triggers with {@code FOR UPDATE SKIP LOCKED}; set by
+	 * the job store when it acquires without the lock row.
+	 */
+	public void setSkipLocked(boolean skipLocked) {
+		this.skipLocked = skipLocked;
+	}
+
+	/**
+	 * Limits acquisition to triggers whose job group hashes into one of the given buckets.
+	 * A null bucket array removes the limit.
+	 */
+	public void setOwnedShards(int shardCount, int[] buckets) {
+		Integer[] boxed = null;
+		if (buckets != null) {
+			boxed = new Integer[buckets.length];
+			for (int i = 0; i < buckets.length; i++) {
+				boxed[i] = buckets[i];
+			}
+		}
+		this.shardCount = shardCount;
+		this.ownedShards = boxed;
+	}
+
+	@Override
+	public List<TriggerKey> selectTriggerToAcquire(Connection conn, long noLaterThan, long noEarlierThan,
+			int maxCount) throws SQLException {
+		if (!skipLocked) {
+			return super.selectTriggerToAcquire(conn, noLaterThan, noEarlierThan, maxCount);
+		}
+		List<TriggerKey> nextTriggers = new ArrayList<>();
+		Integer[] shards = ownedShards;
+		if (shards != null && shards.length == 0) {
+			return nextTriggers;
+		}
+		String sql = shards != null ? SELECT_NEXT_SHARD_TRIGGERS_TO_ACQUIRE_SKIP_LOCKED : SELECT_NEXT_TRIGGERS_TO_ACQUIRE_SKIP_LOCKED;
+		try (PreparedStatement ps = conn.prepareStatement(rtp(sql))) {
+			int index = 1;
+			ps.setString(index++, STATE_WAITING);
+			ps.setBigDecimal(index++, new BigDecimal(String.valueOf(noLaterThan)));
+			ps.setBigDecimal(index++, new BigDecimal(String.valueOf(noEarlierThan)));
+			if (shards != null) {
+				ps.setInt(index++, shardCount);
+				ps.setArray(index++, conn.createArrayOf("integer", shards));
+			}
+			ps.setInt(index, Math.max(maxCount, 1));
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) {
+					nextTriggers.add(new TriggerKey(rs.getString(COL_TRIGGER_NAME), rs.getString(COL_TRIGGER_GROUP)));
+				}
+			}
+		}
+		return nextTriggers;
+	}
+
+	/**
+	 * Selects misfired triggers like Quartz does, but keeps them row-locked until the misfire
+	 * transaction commits and skips rows an acquiring node holds. Acquisition does not take the
+	 * lock row, so without this a trigger claimed near the misfire threshold could be rewritten to
+	 * WAITING by the misfire handler and be acquired a second time.
+	 */
+	@Override
+	public boolean hasMisfiredTriggersInState(Connection conn, String state1, long ts, int count,
+			List<TriggerKey> resultList) throws SQLException {
+		if (!skipLocked) {
+			return super.hasMisfiredTriggersInState(conn, state1, ts, count, resultList);
+		}
+		try (PreparedStatement ps = conn.prepareStatement(rtp(SELECT_MISFIRED_TRIGGERS_IN_STATE_SKIP_LOCKED))) {
+			ps.setBigDecimal(1, new BigDecimal(String.valueOf(ts)));
+			ps.setString(2, state1);
+			// One row past count tells whether the limit was reached; a negative count means no limit
+			if (count < 0) {
+				ps.setNull(3, Types.INTEGER);
+			} else {
+				ps.setInt(3, count + 1);
+			}
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) {
+					if (resultList.size() == count) {
+						return true;
+					}
+					resultList.add(new TriggerKey(rs.getString(COL_TRIGGER_NAME), rs.getString(COL_TRIGGER_GROUP)));
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Loads several jobs in one query, for firing a batch of triggers.
+	 *
+	 * @return the jobs found, by key; missing jobs are absent
+	 */
+	public Map<JobKey, JobDetail> selectJobDetails(Connection conn, Collection<JobKey> jobKeys,
+			ClassLoadHelper loadHelper) throws ClassNotFoundException, IOException, SQLException {
+		Set<String> names = new HashSet<>();
+		Set<String> groups = new HashSet<>();
+		for (JobKey jobKey : jobKeys) {
+			names.add(jobKey.getName());
+			groups.add(jobKey.getGroup());
+		}
+		Map<JobKey, JobDetail> jobs = new HashMap<>(jobKeys.size() * 2);
+		try (PreparedStatement ps = conn.prepareStatement(rtp(SELECT_JOB_DETAILS))) {
+			ps.setArray(1, conn.createArrayOf("varchar", names.toArray()));
+			ps.setArray(2, conn.createArrayOf("varchar", groups.toArray()));
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) {
+					JobKey jobKey = new JobKey(rs.getString(COL_JOB_NAME), rs.getString(COL_JOB_GROUP));
+					// Names and groups are matched separately, so the rows can include other combinations
+					if (!jobKeys.contains(jobKey)) {
+						continue;
+					}
+					JobDetailImpl job = new JobDetailImpl();
+					job.setKey(jobKey);
+					job.setDescription(rs.getString(COL_DESCRIPTION));
+					job.setJobClass(loadHelper.loadClass(rs.getString(COL_JOB_CLASS), Job.class));
+					job.setDurability(getBoolean(rs, COL_IS_DURABLE));
+					job.setRequestsRecovery(getBoolean(rs, COL_REQUESTS_RECOVERY));
+					Map<?, ?> map = canUseProperties() ? jobDataFromProperties(rs) : (Map<?, ?>) getObjectFromBlob(rs, COL_JOB_DATAMAP);
+					if (map != null) {
+						job.setJobDataMap(new JobDataMap(map));
+					}
+					jobs.put(jobKey, job);
+				}
+			}
+		}
+		return jobs;
+	}
+
+	private Map<?, ?> jobDataFromProperties(ResultSet rs) throws ClassNotFoundException, IOException, SQLException {
+		try (InputStream is = (InputStream) getJobDataFromBlob(rs, COL_JOB_DATAMAP)) {
+			if (is == null) {
+				return null;
+			}
+			Properties properties = new Properties();
+			properties.load(is);
+			return convertFromProperty(properties);
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package com.scheduler.scheduler.quartz;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Splits job-group hash buckets between live scheduler instances by rendezvous hashing: every
+ * bucket goes to the instance with the highest weight for it. Each node computes the same answer
+ * from the same membership, and when a node joins or leaves only the buckets it wins or held move.
+ */
+final class ShardAssignment {
+
+	private ShardAssignment() {
+	}
+
+	/**
+	 * @return the buckets in {@code [0, shardCount)} owned by {@code self}, in ascending order
+	 */
+	static int[] ownedBuckets(Collection<String> liveInstances, String self, int shardCount) {
+		List<Integer> owned = new ArrayList<>();
+		for (int bucket = 0; bucket < shardCount; bucket++) {
+			String owner = self;
+			long best = weight(self, bucket);
+			for (String instance : liveInstances) {
+				long w = weight(instance, bucket);
+				if (w > best || (w == best && instance.compareTo(owner) < 0)) {
+					best = w;
+					owner = instance;
+				}
+			}
+			if (owner.equals(self)) {
+				owned.add(bucket);
+			}
+		}
+		int[] buckets = new int[owned.size()];
+		for (int i = 0; i < buckets.length; i++) {
+			buckets[i] = owned.get(i);
+		}
+		return buckets;
+	}
+
+	private static long weight(String instance, int bucket) {
+		// String.hashCode is specified, so all nodes agree; the mix spreads nearby instance ids apart
+		long h = ((long) instance.hashCode() << 32) ^ bucket;
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+}
@@ -0,0 +1,182 @@
+package com.scheduler.scheduler.quartz;
+
+/**
+ * Hierarchical hashed timing wheel keyed by absolute tick numbers.
+ *
+ * Level {@code L} has {@code 2^bits} slots of {@code 2^(bits*L)} ticks each. An entry is put on the
+ * lowest level whose current rotation contains its deadline; when the clock reaches the slot it was
+ * put in on a higher level, it is re-added and so moves down until it sits in level 0, where the
+ * slot of the current tick holds exactly the entries due now. Advancing one tick touches one
+ * level-0 slot plus, at rotation boundaries, one slot per higher level, and allocates nothing;
+ * entries are intrusive list nodes. Not thread-safe; callers synchronize.
+ */
+final class TimingWheel {
+
+	/**
+	 * Intrusive list node carrying the task and its due time.
+	 */
+	static final class Entry {
+		final Runnable task;
+		final long dueMillis;
+		long deadlineTick;
+		Entry next;
+
+		/** Set by {@link ExecutionLanes#admit}: the queue the entry waits in once due, and its order there. */
+		ExecutionLanes.GroupQueue queue;
+		int priority;
+		long sequence;
+
+		Entry(Runnable task, long dueMillis) {
+			this.task = task;
+			this.dueMillis = dueMillis;
+		}
+	}
+
+	private final int bits;
+	private final int mask;
+	private final Entry[][] slots;
+	private Entry overflow;
+	private long currentTick;
+	private int size;
+
+	TimingWheel(int levels, int bits, long startTick) {
+		this.bits = bits;
+		this.mask = (1 << bits) - 1;
+		this.slots = new Entry[levels][1 << bits];
+		this.currentTick = startTick;
+	}
+
+	long currentTick() {
+		return currentTick;
+	}
+
+	int size() {
+		return size;
+	}
+
+	/**
+	 * @return false when the entry is already due and was not added
+	 */
+	boolean add(Entry entry, long deadlineTick) {
+		if (deadlineTick <= currentTick) {
+			return false;
+		}
+		entry.deadlineTick = deadlineTick;
+		place(entry);
+		size++;
+		return true;
+	}
+
+	/**
+	 * Moves the clock one tick forward.
+	 *
+	 * @return the entries due at the new tick, linked through {@link Entry#next}, or null
+	 */
+	Entry advance() {
+		long tick = ++currentTick;
+		int levels = slots.length;
+		if ((tick & ((1L << (bits * levels)) - 1)) == 0) {
+			Entry pending = overflow;
+			overflow = null;
+			replace(pending);
+		}
+		for (int level = levels - 1; level > 0; level--) {
+			if ((tick & ((1L << (bits * level)) - 1)) == 0) {
+				int index = (int) ((tick >>> (bits * level)) & mask);
+				Entry cascading = slots[level][index];
+				slots[level][index] = null;
+				replace(cascading);
+			}
+		}
+		int index = (int) (tick & mask);
+		Entry due = slots[0][index];
+		slots[0][index] = null;
+		for (Entry e = due; e != null; e = e.next) {
+			size--;
+		}
+		return due;
+	}
+
+	/**
+	 * First tick at which {@link #advance()} returns entries or moves them down a level: the start of
+	 * the next occupied slot of each level, or the next rotation of the top level for the overflow.
+	 *
+	 * @return that tick, or {@link Long#MAX_VALUE} when the wheel is empty
+	 */
+	long nextEventTick() {
+		if (size == 0) {
+			return Long.MAX_VALUE;
+		}
+		int levels = slots.length;
+		int span = bits * levels;
+		long next = overflow != null ? ((currentTick >>> span) + 1) << span : Long.MAX_VALUE;
+		for (int level = 0; level < levels; level++) {
+			int shift = bits * level;
+			// Occupied slots of a level always lie after the current one within its rotation
+			for (int index = (int) ((currentTick >>> shift) & mask) + 1; index <= mask; index++) {
+				if (slots[level][index] != null) {
+					long rotation = (currentTick >>> (shift + bits)) << (shift + bits);
+					next = Math.min(next, rotation | ((long) index << shift));
+					break;
+				}
+			}
+		}
+		return next;
+	}
+
+	/**
+	 * Moves the clock towards tick without stepping through the ticks at which nothing happens;
+	 * stops before {@link #nextEventTick()} so {@link #advance()} still handles that one.
+	 */
+	void skip(long tick) {
+		long limit = Math.min(tick, nextEventTick() - 1);
+		if (limit > currentTick) {
+			currentTick = limit;
+		}
+	}
+
+	/**
+	 * Removes and returns every entry regardless of its deadline.
+	 */
+	Entry drain() {
+		Entry all = overflow;
+		overflow = null;
+		for (Entry[] level : slots) {
+			for (int i = 0; i < level.length; i++) {
+				Entry e = level[i];
+				level[i] = null;
+				while (e != null) {
+					Entry next = e.next;
+					e.next = all;
+					all = e;
+					e = next;
+				}
+			}
+		}
+		size = 0;
+		return all;
+	}
+
+	private void replace(Entry list) {
+		while (list != null) {
+			Entry next = list.next;
+			place(list);
+			list = next;
+		}
+	}
+
+	private void place(Entry entry) {
+		long deadline = entry.deadlineTick;
+		for (int level = 0; level < slots.length; level++) {
+			int shift = bits * (level + 1);
+			if ((deadline >>> shift) == (currentTick >>> shift)) {
+				int index = (int) ((deadline >>> (bits * level)) & mask);
+				entry.next = slots[level][index];
+				slots[level][index] = entry;
+				return;
+			}
+		}
+		entry.next = overflow;
+		overflow = entry;
+	}
+}
@@ -0,0 +1,532 @@
+package com.scheduler.scheduler.quartz;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.quartz.SchedulerConfigException;
+import org.quartz.Trigger;
+import org.quartz.spi.TriggerFiredBundle;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Quartz thread pool that starts each job at its scheduled fire time instead of when the scheduler
+ * thread hands it over.
+ *
+ * Quartz fires an acquired batch as soon as its first trigger is due, so the other triggers of the
+ * batch (everything within the fire-ahead window) would start early. This pool parks such jobs in a
+ * {@link TimingWheel} with a resolution of {@code tickMillis} and releases each to a worker at its
+ * own fire time; the timer thread only wakes when a slot of the wheel is due. Jobs held in the
+ * wheel count as busy threads, so the scheduler never acquires more triggers than there are
+ * workers to run them on time. Start lag of every job is recorded in a {@link FireLagMetric}.
+ *
+ * The number of workers can change at runtime between {@code minThreadCount} and
+ * {@code maxThreadCount}: a {@link WorkerPoolAutoscaler} resizes the pool every
+ * {@code autoscaleIntervalMillis} from queue depth, start lag and job run time, and operators can
+ * resize it through {@link WorkerPoolMXBean} (JMX) or the admin API. Added workers start at once;
+ * surplus workers retire when next idle. Every resize is logged and kept in the recent decisions.
+ *
+ * Due jobs wait in {@link ExecutionLanes}: {@code lanes} splits them by job group or job class into
+ * lanes with their own weighted share of the workers, concurrency limit and, per job group, a limit
+ * of their own, so a burst of one kind of job leaves workers for the others. Within a lane, jobs
+ * start by trigger priority. Without {@code lanes}, every job shares one lane.
+ *
+ * Configured with {@code org.quartz.threadPool.class} and the usual {@code threadCount} (the
+ * initial size), plus {@code tickMillis}, {@code wheelBits}, {@code wheelLevels},
+ * {@code minThreadCount}, {@code maxThreadCount}, {@code autoscaleIntervalMillis},
+ * {@code autoscaleLagThresholdMillis}, {@code lanes} and {@code laneQueueCapacity}. The pool only
+ * autoscales when max is above min; both default to {@code threadCount}.
+ */
+@Slf4j
+public class TimingWheelThreadPool implements FireTimeThreadPool, WorkerPoolMXBean {
+
+	private static final long WORKER_POLL_MILLIS = 100L;
+
+	private volatile int threadCount = 10;
+	private long tickMillis = 1L;
+	private int wheelBits = 9;
+	private int wheelLevels = 3;
+	private boolean makeThreadsDaemons;
+	private volatile int minThreadCount;
+	private volatile int maxThreadCount;
+	private long autoscaleIntervalMillis = 5_000L;
+	private long autoscaleLagThresholdMillis = 100L;
+	private volatile boolean autoscale;
+	private String lanes;
+	private int laneQueueCapacity = 1_000;
+
+	private String instanceName;
+	private String instanceId;
+
+	private final Object availability = new Object();
+	private int busy;
+	private int workerCount;
+	private volatile boolean halted;
+
+	private TimingWheel wheel;
+	private long originMillis;
+	private ExecutionLanes executionLanes;
+	private final Set<Thread> workers = ConcurrentHashMap.newKeySet();
+	private final AtomicInteger workerSequence = new AtomicInteger();
+	private Thread timer;
+	/** When the timer thread wakes next for the wheel; written with the wheel lock held. */
+	private volatile long wakeMillis = Long.MAX_VALUE;
+	private final FireLagMetric fireLag = new FireLagMetric();
+
+	private final LongAdder runs = new LongAdder();
+	private final LongAdder runNanos = new LongAdder();
+	private final LongAdder saturations = new LongAdder();
+	private WorkerPoolAutoscaler autoscaler;
+	private long nextAutoscaleMillis;
+	private ObjectName objectName;
+
+	@Override
+	public void initialize() throws SchedulerConfigException {
+		if (threadCount <= 0) {
+			throw new SchedulerConfigException("Thread count must be > 0");
+		}
+		if (tickMillis <= 0 || wheelBits <= 0 || wheelLevels <= 0 || wheelBits * wheelLevels > 62) {
+			throw new SchedulerConfigException("Invalid timing wheel settings: tickMillis=" + tickMillis
+					+ ", wheelBits=" + wheelBits + ", wheelLevels=" + wheelLevels);
+		}
+		minThreadCount = minThreadCount > 0 ? Math.min(minThreadCount, threadCount) : threadCount;
+		maxThreadCount = Math.max(maxThreadCount, threadCount);
+		autoscale = maxThreadCount > minThreadCount;
+		autoscaler = new WorkerPoolAutoscaler(autoscaleLagThresholdMillis);
+		originMillis = System.currentTimeMillis();
+		nextAutoscaleMillis = originMillis + autoscaleIntervalMillis;
+		wheel = new TimingWheel(wheelLevels, wheelBits, 0);
+		try {
+			executionLanes = new ExecutionLanes(lanes, laneQueueCapacity, () -> threadCount);
+		} catch (IllegalArgumentException e) {
+			throw new SchedulerConfigException("Invalid execution lanes: " + e.getMessage(), e);
+		}
+		synchronized (availability) {
+			for (int i = 0; i < threadCount; i++) {
+				startWorker();
+			}
+		}
+		timer = new Thread(this::tick, (instanceName != null ? instanceName : "Quartz") + "_TimingWheel");
+		timer.setDaemon(true);
+		timer.start();
+		QuartzRuntime.register(instanceName, this);
+		registerMBean();
+	}
+
+	@Override
+	public boolean runInThread(Runnable runnable) {
+		if (runnable == null || halted) {
+			return false;
+		}
+		TriggerFiredBundle bundle = JobRunShells.firedTriggerBundle(runnable);
+		long dueMillis = JobRunShells.scheduledFireTime(bundle);
+		TimingWheel.Entry entry = new TimingWheel.Entry(runnable, dueMillis);
+		int change = bundle != null
+				? executionLanes.admit(entry, bundle.getJobDetail().getKey().getGroup(),
+						bundle.getJobDetail().getJobClass().getName(), bundle.getTrigger().getPriority())
+				: executionLanes.admit(entry, null, runnable.getClass().getName(), Trigger.DEFAULT_PRIORITY);
+		synchronized (availability) {
+			busy += change;
+		}
+		synchronized (wheel) {
+			if (dueMillis != JobRunShells.UNKNOWN && wheel.add(entry, toTick(dueMillis))) {
+				if (dueMillis < wakeMillis) {
+					wakeMillis = dueMillis;
+					LockSupport.unpark(timer);
+				}
+				return true;
+			}
+		}
+		executionLanes.add(entry);
+		return true;
+	}
+
+	@Override
+	public int blockForAvailableThreads() {
+		synchronized (availability) {
+			if (busy >= threadCount && !halted) {
+				saturations.increment();
+			}
+			while (busy >= threadCount && !halted) {
+				try {
+					availability.wait(500);
+				} catch (InterruptedException ignore) {
+				}
+			}
+			return threadCount - busy;
+		}
+	}
+
+	@Override
+	public int getPoolSize() {
+		return threadCount;
+	}
+
+	@Override
+	public void shutdown(boolean waitForJobsToComplete) {
+		halted = true;
+		timer.interrupt();
+		TimingWheel.Entry held;
+		synchronized (wheel) {
+			held = wheel.drain();
+		}
+		int dropped = 0;
+		for (TimingWheel.Entry e = held; e != null; ) {
+			TimingWheel.Entry next = e.next;
+			if (waitForJobsToComplete) {
+				// Jobs already fired in the job store; running them a little early beats losing them
+				executionLanes.add(e);
+			} else {
+				dropped++;
+				release(e, false);
+			}
+			e = next;
+		}
+		if (dropped > 0) {
+			log.warn("Dropped {} job(s) waiting for their fire time on shutdown", dropped);
+		}
+		if (waitForJobsToComplete) {
+			for (Thread worker : new ArrayList<>(workers)) {
+				try {
+					worker.join();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+			}
+		}
+		synchronized (availability) {
+			availability.notifyAll();
+		}
+		QuartzRuntime.unregister(instanceName, this);
+		unregisterMBean();
+	}
+
+	private void work() {
+		try {
+			runWorker();
+		} finally {
+			workers.remove(Thread.currentThread());
+		}
+	}
+
+	private void runWorker() {
+		while (true) {
+			if (retireSurplusWorker()) {
+				return;
+			}
+			TimingWheel.Entry entry;
+			try {
+				entry = executionLanes.take(WORKER_POLL_MILLIS);
+			} catch (InterruptedException e) {
+				entry = null;
+			}
+			if (entry == null) {
+				if (halted) {
+					return;
+				}
+				continue;
+			}
+			if (entry.dueMillis != JobRunShells.UNKNOWN) {
+				long lagMillis = System.currentTimeMillis() - entry.dueMillis;
+				fireLag.record(lagMillis);
+				ExecutionLanes.recordFireLag(entry, lagMillis);
+			}
+			long started = System.nanoTime();
+			try {
+				entry.task.run();
+			} catch (RuntimeException e) {
+				log.error("Error while executing the job", e);
+			} finally {
+				runNanos.add(System.nanoTime() - started);
+				runs.increment();
+				release(entry, true);
+			}
+		}
+	}
+
+	/**
+	 * Advances the wheel to the current time, queues every due entry and parks until the next
+	 * occupied slot or autoscale sample, whichever comes first; {@link #runInThread} unparks it when
+	 * it adds an entry due earlier.
+	 */
+	private void tick() {
+		while (!halted) {
+			long now = System.currentTimeMillis();
+			long targetTick = (now - originMillis) / tickMillis;
+			synchronized (wheel) {
+				wheel.skip(targetTick);
+				while (wheel.currentTick() < targetTick) {
+					for (TimingWheel.Entry due = wheel.advance(); due != null; ) {
+						TimingWheel.Entry next = due.next;
+						due.next = null;
+						executionLanes.add(due);
+						due = next;
+					}
+					wheel.skip(targetTick);
+				}
+				long nextEventTick = wheel.nextEventTick();
+				wakeMillis = nextEventTick == Long.MAX_VALUE ? Long.MAX_VALUE : originMillis + nextEventTick * tickMillis;
+			}
+			if (now >= nextAutoscaleMillis) {
+				nextAutoscaleMillis = now + autoscaleIntervalMillis;
+				autoscale();
+			}
+			long parkMillis = Math.min(wakeMillis, nextAutoscaleMillis) - System.currentTimeMillis();
+			if (parkMillis > 0) {
+				LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(parkMillis));
+			}
+		}
+	}
+
+	private void autoscale() {
+		// Sampled even while disabled so the first interval after enabling sees only its own load
+		PoolSizeDecision decision = autoscaler.evaluate(System.nanoTime(), fireLag.getCount(),
+				fireLag.getLagSumMillis(), runs.sum(), runNanos.sum(), saturations.sum(), executionLanes.getStartableCount(), threadCount,
+				minThreadCount, maxThreadCount);
+		if (!autoscale || decision == null) {
+			return;
+		}
+		resize(decision.getToSize());
+		autoscaler.record(decision);
+		log.info("Worker pool resized from {} to {} ({}: queued={}, meanLag={}ms, meanRun={}ms, utilization={})",
+				decision.getFromSize(), decision.getToSize(), decision.getReason(), decision.getQueued(),
+				Math.round(decision.getMeanLagMillis()), Math.round(decision.getMeanRunMillis()),
+				String.format("%.2f", decision.getUtilization()));
+	}
+
+	/**
+	 * Sets the target size; starts the missing workers now, surplus ones retire when next idle.
+	 */
+	private void resize(int size) {
+		synchronized (availability) {
+			threadCount = size;
+			while (workerCount < size && !halted) {
+				startWorker();
+			}
+			availability.notifyAll();
+		}
+		// Lane limits given as a share of the pool follow its size
+		executionLanes.poolResized();
+	}
+
+	/**
+	 * Called with the availability lock held.
+	 */
+	private void startWorker() {
+		Thread worker = new Thread(this::work,
+				(instanceName != null ? instanceName : "Quartz") + "_Worker-" + workerSequence.incrementAndGet());
+		worker.setDaemon(makeThreadsDaemons);
+		workerCount++;
+		workers.add(worker);
+		worker.start();
+	}
+
+	/**
+	 * @return true when this worker is surplus after a shrink and has been removed from the count
+	 */
+	private boolean retireSurplusWorker() {
+		synchronized (availability) {
+			if (workerCount > threadCount && !halted) {
+				workerCount--;
+				return true;
+			}
+			return false;
+		}
+	}
+
+	private void registerMBean() {
+		try {
+			objectName = new ObjectName("com.scheduler.scheduler:type=WorkerPool,scheduler="
+					+ ObjectName.quote(instanceName != null ? instanceName : "Quartz"));
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+		} catch (JMException | RuntimeException e) {
+			log.warn("Cannot register worker pool MBean: {}", e.getMessage());
+			objectName = null;
+		}
+	}
+
+	private void unregisterMBean() {
+		if (objectName == null) {
+			return;
+		}
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+		} catch (JMException | RuntimeException e) {
+			log.warn("Cannot unregister worker pool MBean: {}", e.getMessage());
+		}
+	}
+
+	private long toTick(long millis) {
+		// Round up so a job never starts before its fire time
+		return (millis - originMillis + tickMillis - 1) / tickMillis;
+	}
+
+	private void release(TimingWheel.Entry entry, boolean ran) {
+		int change = executionLanes.finished(entry, ran);
+		synchronized (availability) {
+			busy += change;
+			availability.notifyAll();
+		}
+	}
+
+	@Override
+	public FireLagMetric getFireLag() {
+		return fireLag;
+	}
+
+	@Override
+	public int getHeldCount() {
+		synchronized (wheel) {
+			return wheel.size();
+		}
+	}
+
+	@Override
+	public void setPoolSize(int size) {
+		int from;
+		int to;
+		synchronized (availability) {
+			from = threadCount;
+			to = Math.max(minThreadCount, Math.min(maxThreadCount, size));
+			resize(to);
+		}
+		autoscaler.record(new PoolSizeDecision(System.currentTimeMillis(), "manual", from, to,
+				executionLanes.getStartableCount(), 0, 0, 0));
+		log.info("Worker pool resized from {} to {} (manual, requested {})", from, to, size);
+	}
+
+	@Override
+	public int getMinPoolSize() {
+		return minThreadCount;
+	}
+
+	@Override
+	public void setMinPoolSize(int minPoolSize) {
+		synchronized (availability) {
+			minThreadCount = Math.max(1, Math.min(minPoolSize, maxThreadCount));
+		}
+		if (threadCount < minThreadCount) {
+			setPoolSize(minThreadCount);
+		}
+	}
+
+	@Override
+	public int getMaxPoolSize() {
+		return maxThreadCount;
+	}
+
+	@Override
+	public void setMaxPoolSize(int maxPoolSize) {
+		synchronized (availability) {
+			maxThreadCount = Math.max(maxPoolSize, minThreadCount);
+		}
+		if (threadCount > maxThreadCount) {
+			setPoolSize(maxThreadCount);
+		}
+	}
+
+	@Override
+	public boolean isAutoscale() {
+		return autoscale;
+	}
+
+	@Override
+	public void setAutoscale(boolean autoscale) {
+		this.autoscale = autoscale;
+	}
+
+	@Override
+	public int getBusyCount() {
+		synchronized (availability) {
+			return busy;
+		}
+	}
+
+	@Override
+	public int getQueuedCount() {
+		return executionLanes.getQueuedCount();
+	}
+
+	@Override
+	public List<ExecutionLaneStatus> getLanes() {
+		return executionLanes.status();
+	}
+
+	@Override
+	public List<PoolSizeDecision> getDecisions() {
+		return autoscaler.getDecisions();
+	}
+
+	public long getAutoscaleLagThresholdMillis() {
+		return autoscaleLagThresholdMillis;
+	}
+
+	public void setThreadCount(int threadCount) {
+		this.threadCount = threadCount;
+	}
+
+	public void setMinThreadCount(int minThreadCount) {
+		this.minThreadCount = minThreadCount;
+	}
+
+	public void setMaxThreadCount(int maxThreadCount) {
+		this.maxThreadCount = maxThreadCount;
+	}
+
+	public void setAutoscaleIntervalMillis(long autoscaleIntervalMillis) {
+		this.autoscaleIntervalMillis = autoscaleIntervalMillis;
+	}
+
+	public void setAutoscaleLagThresholdMillis(long autoscaleLagThresholdMillis) {
+		this.autoscaleLagThresholdMillis = autoscaleLagThresholdMillis;
+	}
+
+	public void setLanes(String lanes) {
+		this.lanes = lanes;
+	}
+
+	public void setLaneQueueCapacity(int laneQueueCapacity) {
+		this.laneQueueCapacity = laneQueueCapacity;
+	}
+
+	public void setTickMillis(long tickMillis) {
+		this.tickMillis = tickMillis;
+	}
+
+	public void setWheelBits(int wheelBits) {
+		this.wheelBits = wheelBits;
+	}
+
+	public void setWheelLevels(int wheelLevels) {
+		this.wheelLevels = wheelLevels;
+	}
+
+	public void setMakeThreadsDaemons(boolean makeThreadsDaemons) {
+		this.makeThreadsDaemons = makeThreadsDaemons;
+	}
+
+	@Override
+	public void setInstanceId(String schedInstId) {
+		this.instanceId = schedInstId;
+	}
+
+	@Override
+	public void setInstanceName(String schedName) {
+		this.instanceName = schedName;
+	}
+
+	public String getInstanceId() {
+		return instanceId;
+	}
+}
@@ -0,0 +1,42 @@
+package com.scheduler.scheduler.quartz;
+
+/**
+ * Token bucket that hands out release times instead of refusing: {@code burst} tokens are
+ * available at once and one more accrues every {@code 1 / ratePerSecond} seconds. Kept as the time
+ * the bucket will next be full (virtual scheduling), so a reservation is O(1) and a backlog of
+ * reservations simply pushes that time further out. Not thread-safe.
+ */
+final class TokenBucket {
+
+	private final double intervalMillis;
+	private final double toleranceMillis;
+
+	/** Release time the next reservation would get with an empty bucket. */
+	private double theoreticalArrival;
+
+	TokenBucket(double ratePerSecond, int burst) {
+		this.intervalMillis = 1000.0 / ratePerSecond;
+		this.toleranceMillis = (Math.max(1, burst) - 1) * intervalMillis;
+	}
+
+	/**
+	 * @return the earliest time, not before now, at which a token is available
+	 */
+	long availableAt(long now) {
+		return Math.max(now, (long) Math.ceil(theoreticalArrival - toleranceMillis));
+	}
+
+	/**
+	 * Takes a token at the given time, which must not be before {@link #availableAt}.
+	 */
+	void take(long at) {
+		theoreticalArrival = Math.max(theoreticalArrival, at) + intervalMillis;
+	}
+
+	/**
+	 * @return when the tokens reserved so far are all released, i.e. the end of the backlog
+	 */
+	long drainedAt() {
+		return (long) Math.ceil(theoreticalArrival - intervalMillis);
+	}
+}
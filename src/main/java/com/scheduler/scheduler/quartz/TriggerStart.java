@@ -0,0 +1,20 @@
+package com.scheduler.scheduler.quartz;
+
+import org.quartz.TriggerKey;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Key, type, start and end time (0 when none) and priority of a stored trigger, read without loading the
+ * trigger itself.
+ */
+@Getter
+@AllArgsConstructor
+public class TriggerStart {
+	private final TriggerKey key;
+	private final String type;
+	private final long startMillis;
+	private final long endMillis;
+	private final int priority;
+}
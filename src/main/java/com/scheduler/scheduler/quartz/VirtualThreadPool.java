@@ -0,0 +1,218 @@
+package com.scheduler.scheduler.quartz;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.quartz.SchedulerConfigException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Quartz thread pool that runs every fired job on its own virtual thread (Java 21).
+ *
+ * Jobs spend most of their time blocked on Kafka and JDBC, so instead of a fixed number of platform
+ * threads the pool admits up to {@code maxConcurrency} jobs at once, a limit chosen for what the
+ * broker and database can take rather than for thread cost. A job handed over before its fire time
+ * parks its virtual thread until then, which costs no carrier thread; parked jobs count towards the
+ * limit like running ones, so the scheduler never acquires more than can start on time.
+ *
+ * Virtual threads are created reflectively so the code base still builds for older targets; on a
+ * runtime without them {@link #initialize()} fails. Jobs are still instantiated and autowired by the
+ * scheduler's job factory before they are handed over, so Spring injection is unaffected.
+ *
+ * Configured with {@code org.quartz.threadPool.class} and {@code maxConcurrency}.
+ */
+@Slf4j
+public class VirtualThreadPool implements FireTimeThreadPool {
+
+	private static final long HELD_RECHECK_MILLIS = 100L;
+
+	private int maxConcurrency = 1000;
+
+	private String instanceName;
+	private String instanceId;
+
+	private final Object availability = new Object();
+	private int busy;
+	private volatile boolean halted;
+	private volatile boolean dropHeldJobs;
+
+	private ThreadFactory threadFactory;
+	private final Set<Thread> held = ConcurrentHashMap.newKeySet();
+	private final FireLagMetric fireLag = new FireLagMetric();
+
+	@Override
+	public void initialize() throws SchedulerConfigException {
+		if (maxConcurrency <= 0) {
+			throw new SchedulerConfigException("Max concurrency must be > 0");
+		}
+		threadFactory = virtualThreadFactory((instanceName != null ? instanceName : "Quartz") + "_VirtualWorker-");
+		QuartzRuntime.register(instanceName, this);
+	}
+
+	@Override
+	public boolean runInThread(Runnable runnable) {
+		if (runnable == null || halted) {
+			return false;
+		}
+		synchronized (availability) {
+			while (busy >= maxConcurrency && !halted) {
+				try {
+					availability.wait(500);
+				} catch (InterruptedException ignore) {
+				}
+			}
+			if (halted) {
+				return false;
+			}
+			busy++;
+		}
+		long dueMillis = JobRunShells.scheduledFireTime(runnable);
+		try {
+			threadFactory.newThread(() -> run(runnable, dueMillis)).start();
+		} catch (RuntimeException | Error e) {
+			release();
+			throw e;
+		}
+		return true;
+	}
+
+	@Override
+	public int blockForAvailableThreads() {
+		synchronized (availability) {
+			while (busy >= maxConcurrency && !halted) {
+				try {
+					availability.wait(500);
+				} catch (InterruptedException ignore) {
+				}
+			}
+			return maxConcurrency - busy;
+		}
+	}
+
+	@Override
+	public int getPoolSize() {
+		return maxConcurrency;
+	}
+
+	@Override
+	public void shutdown(boolean waitForJobsToComplete) {
+		// Jobs already fired in the job store; running them a little early beats losing them
+		dropHeldJobs = !waitForJobsToComplete;
+		halted = true;
+		for (Thread thread : held) {
+			LockSupport.unpark(thread);
+		}
+		synchronized (availability) {
+			availability.notifyAll();
+			while (waitForJobsToComplete && busy > 0) {
+				try {
+					availability.wait(500);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+			}
+		}
+		QuartzRuntime.unregister(instanceName, this);
+	}
+
+	private void run(Runnable runnable, long dueMillis) {
+		try {
+			if (dueMillis != JobRunShells.UNKNOWN && !awaitFireTime(dueMillis)) {
+				log.warn("Dropped a job waiting for its fire time on shutdown");
+				return;
+			}
+			if (dueMillis != JobRunShells.UNKNOWN) {
+				fireLag.record(System.currentTimeMillis() - dueMillis);
+			}
+			runnable.run();
+		} catch (RuntimeException e) {
+			log.error("Error while executing the job", e);
+		} finally {
+			release();
+		}
+	}
+
+	/**
+	 * Parks the calling virtual thread until the fire time.
+	 *
+	 * @return false when the pool was shut down without waiting for jobs in the meantime
+	 */
+	private boolean awaitFireTime(long dueMillis) {
+		Thread current = Thread.currentThread();
+		held.add(current);
+		try {
+			long remaining;
+			while ((remaining = dueMillis - System.currentTimeMillis()) > 0) {
+				if (halted) {
+					return !dropHeldJobs;
+				}
+				LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(Math.min(remaining, HELD_RECHECK_MILLIS)));
+			}
+			return true;
+		} finally {
+			held.remove(current);
+		}
+	}
+
+	private void release() {
+		synchronized (availability) {
+			busy--;
+			availability.notifyAll();
+		}
+	}
+
+	/**
+	 * {@code Thread.ofVirtual().name(prefix, 1).factory()}, looked up at runtime.
+	 */
+	private static ThreadFactory virtualThreadFactory(String prefix) throws SchedulerConfigException {
+		try {
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+			builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 1L);
+			return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			throw new SchedulerConfigException("Virtual threads are not available on Java "
+					+ System.getProperty("java.version") + "; VirtualThreadPool needs Java 21 or later", e);
+		}
+	}
+
+	@Override
+	public FireLagMetric getFireLag() {
+		return fireLag;
+	}
+
+	@Override
+	public int getHeldCount() {
+		return held.size();
+	}
+
+	public void setMaxConcurrency(int maxConcurrency) {
+		this.maxConcurrency = maxConcurrency;
+	}
+
+	/**
+	 * Ignored: Spring's SchedulerFactoryBean always supplies a thread count, but this pool has no
+	 * fixed threads; see {@link #setMaxConcurrency}.
+	 */
+	public void setThreadCount(int threadCount) {
+	}
+
+	@Override
+	public void setInstanceId(String schedInstId) {
+		this.instanceId = schedInstId;
+	}
+
+	@Override
+	public void setInstanceName(String schedName) {
+		this.instanceName = schedName;
+	}
+
+	public String getInstanceId() {
+		return instanceId;
+	}
+}
@@ -0,0 +1,110 @@
+package com.scheduler.scheduler.quartz;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.quartz.JobKey;
+
+/**
+ * Misfire policy for window triggers: one-shot triggers that open a window ending at the trigger's
+ * end time, such as slot visibility starts. Quartz's fire-now instruction ignores the end time, so
+ * after an outage every missed window would still fire, back to back.
+ *
+ * Of the fires a misfire or recovery pass is about to catch up on, this policy drops window fires
+ * whose window has already ended (stale) and, of the still-open windows of one job, keeps only the
+ * one that started last (the others are collapsed into it). When missed fires are paced, a kept
+ * fire whose release comes at or after its window end is dropped as stale too. Triggers without an
+ * end time, and repeating triggers, are left to their own misfire instruction.
+ */
+public class WindowMisfirePolicy {
+
+	private final AtomicLong staleDropped = new AtomicLong();
+	private final AtomicLong collapsed = new AtomicLong();
+	private final AtomicLong caughtUp = new AtomicLong();
+
+	/**
+	 * Removes the fires not worth catching up on from the pass.
+	 *
+	 * @return the removed fires, whose triggers the caller deletes
+	 */
+	List<MissedFire> apply(List<MissedFire> missed, long now) {
+		List<MissedFire> dropped = new ArrayList<>();
+		Map<JobKey, MissedFire> latestOpen = new HashMap<>();
+		for (MissedFire fire : missed) {
+			long windowEnd = fire.windowEndMillis();
+			if (windowEnd == 0) {
+				continue;
+			}
+			if (windowEnd <= now) {
+				dropped.add(fire);
+				staleDropped.incrementAndGet();
+				continue;
+			}
+			JobKey jobKey = fire.trigger.getJobKey();
+			MissedFire latest = latestOpen.get(jobKey);
+			if (latest == null) {
+				latestOpen.put(jobKey, fire);
+				continue;
+			}
+			if (fire.dueMillis > latest.dueMillis) {
+				latestOpen.put(jobKey, fire);
+				dropped.add(latest);
+			} else {
+				dropped.add(fire);
+			}
+			collapsed.incrementAndGet();
+		}
+		caughtUp.addAndGet(latestOpen.size());
+		if (!dropped.isEmpty()) {
+			missed.removeAll(new HashSet<>(dropped));
+		}
+		return dropped;
+	}
+
+	/**
+	 * Removes from a paced pass the window fires that would only be released once their window has
+	 * ended; counted as stale instead of caught up.
+	 *
+	 * @return the removed fires, whose triggers the caller deletes
+	 */
+	List<MissedFire> dropReleasedAfterEnd(List<MissedFire> missed) {
+		List<MissedFire> dropped = new ArrayList<>();
+		for (Iterator<MissedFire> it = missed.iterator(); it.hasNext();) {
+			MissedFire fire = it.next();
+			long windowEnd = fire.windowEndMillis();
+			if (windowEnd > 0 && fire.releaseAt >= windowEnd) {
+				it.remove();
+				dropped.add(fire);
+				staleDropped.incrementAndGet();
+				caughtUp.decrementAndGet();
+			}
+		}
+		return dropped;
+	}
+
+	/**
+	 * @return missed window fires dropped because their window had already ended
+	 */
+	public long getStaleDropped() {
+		return staleDropped.get();
+	}
+
+	/**
+	 * @return missed window fires dropped because a later window of the same job was caught up on instead
+	 */
+	public long getCollapsed() {
+		return collapsed.get();
+	}
+
+	/**
+	 * @return missed window fires kept as their job's single catch-up fire
+	 */
+	public long getCaughtUp() {
+		return caughtUp.get();
+	}
+}
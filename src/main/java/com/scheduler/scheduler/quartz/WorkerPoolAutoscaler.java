@@ -0,0 +1,121 @@
+package com.scheduler.scheduler.quartz;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Chooses the size of a {@link TimingWheelThreadPool} from its load over the last interval.
+ *
+ * The pool grows by at least half when due jobs are queued for a worker, when jobs started later
+ * than {@code lagThresholdMillis} while the scheduler was waiting for free threads, or when workers
+ * were busy running jobs more than {@value #TARGET_UTILIZATION} of the time; it doubles when jobs
+ * are starting late. It shrinks by up to a
+ * quarter when they were busy less than {@value #IDLE_UTILIZATION} of the time and nothing waited.
+ * Either way the new size is at least the number of threads the measured job run time needs at the
+ * target utilization (arrival rate times mean duration, Little's law). Only the pool's timer thread
+ * evaluates; the resizes applied, manual ones included, are recorded and can be read from any thread.
+ */
+public class WorkerPoolAutoscaler {
+
+	static final double TARGET_UTILIZATION = 0.75;
+	static final double IDLE_UTILIZATION = 0.3;
+	private static final int MAX_DECISIONS = 50;
+
+	private final long lagThresholdMillis;
+
+	private boolean sampled;
+	private long lastNanos;
+	private long lastFires;
+	private long lastLagSum;
+	private long lastRuns;
+	private long lastRunNanos;
+	private long lastSaturations;
+
+	private final Deque<PoolSizeDecision> decisions = new ArrayDeque<>();
+
+	WorkerPoolAutoscaler(long lagThresholdMillis) {
+		this.lagThresholdMillis = lagThresholdMillis;
+	}
+
+	/**
+	 * @param fires jobs started so far, and lagSumMillis their summed start lag
+	 * @param runs jobs finished so far, and runNanos their summed run time
+	 * @param saturations times the scheduler had to wait for a free worker so far
+	 * @param queued jobs currently due and waiting for a worker
+	 * @return the resize to make, or null to keep the current size
+	 */
+	PoolSizeDecision evaluate(long nowNanos, long fires, long lagSumMillis, long runs, long runNanos, long saturations,
+			int queued, int size, int minSize, int maxSize) {
+		if (!sampled) {
+			sampled = true;
+			remember(nowNanos, fires, lagSumMillis, runs, runNanos, saturations);
+			return null;
+		}
+		long elapsedNanos = Math.max(1, nowNanos - lastNanos);
+		long firesDelta = fires - lastFires;
+		long runsDelta = runs - lastRuns;
+		long runNanosDelta = runNanos - lastRunNanos;
+		boolean saturated = saturations > lastSaturations;
+		double meanLag = firesDelta > 0 ? (double) (lagSumMillis - lastLagSum) / firesDelta : 0;
+		double meanRunMillis = runsDelta > 0 ? runNanosDelta / 1e6 / runsDelta : 0;
+		double utilization = (double) runNanosDelta / elapsedNanos / size;
+		remember(nowNanos, fires, lagSumMillis, runs, runNanos, saturations);
+
+		int needed = (int) Math.ceil((double) runNanosDelta / elapsedNanos / TARGET_UTILIZATION);
+		String reason;
+		int target;
+		if (queued > 0 || (saturated && meanLag > lagThresholdMillis) || utilization >= TARGET_UTILIZATION) {
+			reason = queued > 0 ? "queue" : utilization >= TARGET_UTILIZATION ? "utilization" : "lag";
+			// Jobs already starting late: double rather than add half, to catch up within a few intervals
+			int step = meanLag > lagThresholdMillis ? size : Math.max(1, size / 2);
+			target = Math.min(maxSize, Math.max(needed, size + step));
+		} else if (!saturated && utilization < IDLE_UTILIZATION) {
+			reason = "idle";
+			target = Math.max(minSize, Math.max(needed, size - Math.max(1, size / 4)));
+		} else {
+			return null;
+		}
+		target = Math.max(minSize, Math.min(maxSize, target));
+		if (target == size) {
+			return null;
+		}
+		return new PoolSizeDecision(System.currentTimeMillis(), reason, size, target, queued, meanLag, meanRunMillis,
+				utilization);
+	}
+
+	/**
+	 * Keeps a resize that was applied, automatic or manual.
+	 */
+	void record(PoolSizeDecision decision) {
+		synchronized (decisions) {
+			if (decisions.size() == MAX_DECISIONS) {
+				decisions.removeFirst();
+			}
+			decisions.addLast(decision);
+		}
+	}
+
+	private void remember(long nowNanos, long fires, long lagSumMillis, long runs, long runNanos, long saturations) {
+		lastNanos = nowNanos;
+		lastFires = fires;
+		lastLagSum = lagSumMillis;
+		lastRuns = runs;
+		lastRunNanos = runNanos;
+		lastSaturations = saturations;
+	}
+
+	public long getLagThresholdMillis() {
+		return lagThresholdMillis;
+	}
+
+	/**
+	 * @return the most recent resizes, oldest first
+	 */
+	public List<PoolSizeDecision> getDecisions() {
+		synchronized (decisions) {
+			return new ArrayList<>(decisions);
+		}
+	}
+}
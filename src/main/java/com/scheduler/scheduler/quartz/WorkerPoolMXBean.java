@@ -0,0 +1,42 @@
+package com.scheduler.scheduler.quartz;
+
+import java.util.List;
+
+/**
+ * JMX view and live controls of a {@link TimingWheelThreadPool}, registered as
+ * {@code com.scheduler.scheduler:type=WorkerPool,scheduler=<scheduler name>}.
+ */
+public interface WorkerPoolMXBean {
+
+	int getPoolSize();
+
+	/**
+	 * Resizes the pool now, within the min/max bounds; the autoscaler, if on, continues from there.
+	 */
+	void setPoolSize(int size);
+
+	int getMinPoolSize();
+
+	void setMinPoolSize(int minPoolSize);
+
+	int getMaxPoolSize();
+
+	void setMaxPoolSize(int maxPoolSize);
+
+	boolean isAutoscale();
+
+	void setAutoscale(boolean autoscale);
+
+	int getBusyCount();
+
+	/**
+	 * @return jobs due and waiting for a free worker or for room in their execution lane
+	 */
+	int getQueuedCount();
+
+	int getHeldCount();
+
+	List<ExecutionLaneStatus> getLanes();
+
+	List<PoolSizeDecision> getDecisions();
+}
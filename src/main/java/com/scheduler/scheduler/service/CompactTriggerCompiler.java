@@ -0,0 +1,177 @@
+package com.scheduler.scheduler.service;
+
+import com.scheduler.scheduler.model.dto.JobScheduleRequest;
+import com.scheduler.scheduler.util.Constants;
+
+import org.quartz.CalendarIntervalScheduleBuilder;
+import org.quartz.DateBuilder.IntervalUnit;
+import org.quartz.JobDataMap;
+import org.quartz.JobDetail;
+import org.quartz.SimpleScheduleBuilder;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * Compiles a work/pause {@link JobScheduleRequest} into a handful of native Quartz triggers
+ * instead of one one-shot trigger per work window. Quartz then computes next fire times lazily.
+ *
+ * One-time requests become a single minute-interval {@link org.quartz.CalendarIntervalTrigger}.
+ * Recurring requests become one day/week/month-interval trigger per work window of the first day,
+ * so "work 120 / pause 60, daily for a year" is stored as 8 triggers rather than ~2,900.
+ *
+ * Recurring triggers keep the wall-clock time of each window across daylight saving changes,
+ * whereas the expanded windows are offset from the occurrence start on the instant time-line;
+ * the two differ only for windows after a DST transition on the transition day itself.
+ */
+public class CompactTriggerCompiler {
+
+    /**
+     * Builds the compact triggers for the request.
+     *
+     * @return the triggers (empty when no window fits the range), or null when the request
+     *         cannot be expressed compactly and every window has to be expanded instead
+     */
+    public static List<Trigger> compile(
+            JobScheduleRequest request,
+            JobDetail jobDetail,
+            ZonedDateTime startTime,
+            ZonedDateTime endTime,
+            ZoneId zoneId) {
+
+        if (request.isRecurring()) {
+            return compileRecurring(request, jobDetail, startTime, endTime, zoneId);
+        }
+        return compileOneTime(request, jobDetail, startTime, endTime, zoneId);
+    }
+
+    private static List<Trigger> compileOneTime(
+            JobScheduleRequest request,
+            JobDetail jobDetail,
+            ZonedDateTime startTime,
+            ZonedDateTime endTime,
+            ZoneId zoneId) {
+
+        ScheduleWindowArithmetic windows = ScheduleWindowArithmetic.of(request, startTime, endTime, zoneId);
+        if (windows.count() == 0) {
+            return Collections.emptyList();
+        }
+        if (windows.count() == 1) {
+            return Collections.singletonList(oneShotTrigger(jobDetail, 0, windows.nth(0)));
+        }
+
+        return Collections.singletonList(intervalTrigger(
+                jobDetail, 0, windows.nth(0), windows.nth(windows.count() - 1),
+                cycleMinutes(request), IntervalUnit.MINUTE, zoneId));
+    }
+
+    private static List<Trigger> compileRecurring(
+            JobScheduleRequest request,
+            JobDetail jobDetail,
+            ZonedDateTime rangeStart,
+            ZonedDateTime rangeEnd,
+            ZoneId zoneId) {
+
+        boolean hasCycle = request.getWorkDurationMinutes() != null && request.getWorkDurationMinutes() > 0;
+        // Without endOnDateChange every occurrence runs its cycle up to rangeEnd, so windows of
+        // consecutive occurrences overlap and do not repeat with a fixed calendar interval.
+        if (hasCycle && !request.isEndOnDateChange()) {
+            return null;
+        }
+
+        IntervalUnit unit = intervalUnit(request.getRecurrenceFrequency());
+        ZonedDateTime firstDayEnd = rangeStart.toLocalDate().atTime(23, 59, 59).atZone(zoneId);
+        List<ZonedDateTime> dayWindows = hasCycle
+                ? ScheduleWindowCalculator.calculateWorkWindows(request, rangeStart, firstDayEnd)
+                : Collections.singletonList(rangeStart);
+
+        // A window only counts when it finishes before rangeEnd, which caps the last start time
+        ZonedDateTime lastStart = hasCycle ? rangeEnd.minusMinutes(request.getWorkDurationMinutes()) : rangeEnd;
+
+        List<Trigger> triggers = new ArrayList<>();
+        int triggerIndex = 0;
+        for (ZonedDateTime windowStart : dayWindows) {
+            if (windowStart.isAfter(lastStart)) {
+                break;
+            }
+            triggers.add(intervalTrigger(jobDetail, triggerIndex++, windowStart, lastStart, 1, unit, zoneId));
+        }
+        return triggers;
+    }
+
+    private static int cycleMinutes(JobScheduleRequest request) {
+        Integer pauseMinutes = request.getPauseDurationMinutes();
+        int pauseMinutesVal = (pauseMinutes == null || pauseMinutes < 0) ? 0 : pauseMinutes;
+        return request.getWorkDurationMinutes() + pauseMinutesVal;
+    }
+
+    private static IntervalUnit intervalUnit(JobScheduleRequest.RecurrenceFrequency frequency) {
+        if (frequency == null) return IntervalUnit.DAY;
+        switch (frequency) {
+            case WEEKLY: return IntervalUnit.WEEK;
+            case MONTHLY: return IntervalUnit.MONTH;
+            default: return IntervalUnit.DAY;
+        }
+    }
+
+    private static Trigger oneShotTrigger(JobDetail jobDetail, int triggerIndex, ZonedDateTime fireTime) {
+        return TriggerBuilder.newTrigger()
+                .forJob(jobDetail)
+                .withIdentity(triggerName(jobDetail, triggerIndex), triggerGroup(jobDetail))
+                .withPriority(triggerPriority(jobDetail))
+                .withDescription("Work window " + (triggerIndex + 1))
+                .startAt(Date.from(fireTime.toInstant()))
+                .withSchedule(SimpleScheduleBuilder.simpleSchedule().withMisfireHandlingInstructionFireNow())
+                .build();
+    }
+
+    private static Trigger intervalTrigger(
+            JobDetail jobDetail,
+            int triggerIndex,
+            ZonedDateTime firstFire,
+            ZonedDateTime lastFire,
+            int interval,
+            IntervalUnit unit,
+            ZoneId zoneId) {
+
+        return TriggerBuilder.newTrigger()
+                .forJob(jobDetail)
+                .withIdentity(triggerName(jobDetail, triggerIndex), triggerGroup(jobDetail))
+                .withPriority(triggerPriority(jobDetail))
+                .withDescription("Work windows every " + interval + " " + unit.name().toLowerCase())
+                .startAt(Date.from(firstFire.toInstant()))
+                // The end time is exclusive; a second past the last fire keeps it and no later one
+                .endAt(Date.from(lastFire.toInstant().plusSeconds(1)))
+                .withSchedule(CalendarIntervalScheduleBuilder.calendarIntervalSchedule()
+                        .withInterval(interval, unit)
+                        .inTimeZone(TimeZone.getTimeZone(zoneId))
+                        .preserveHourOfDayAcrossDaylightSavings(unit != IntervalUnit.MINUTE)
+                        .withMisfireHandlingInstructionFireAndProceed())
+                .build();
+    }
+
+    private static String triggerName(JobDetail jobDetail, int triggerIndex) {
+        return jobDetail.getKey().getName() + Constants.TRIGGER_NAME_SUFFIX + triggerIndex;
+    }
+
+    private static String triggerGroup(JobDetail jobDetail) {
+        return jobDetail.getKey().getGroup() + Constants.JOB_GROUP_SUFFIX_TRIGGERS;
+    }
+
+    /**
+     * Priority requested for the job's triggers, kept in its job data so refilled windows get it too.
+     */
+    static int triggerPriority(JobDetail jobDetail) {
+        JobDataMap dataMap = jobDetail.getJobDataMap();
+        return dataMap.containsKey(Constants.KEY_TRIGGER_PRIORITY)
+                ? dataMap.getIntValue(Constants.KEY_TRIGGER_PRIORITY)
+                : Trigger.DEFAULT_PRIORITY;
+    }
+}
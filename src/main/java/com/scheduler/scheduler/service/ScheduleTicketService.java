@@ -0,0 +1,165 @@
+package com.scheduler.scheduler.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scheduler.scheduler.model.dto.ScheduleResponse;
+import com.scheduler.scheduler.model.dto.ScheduleTicket;
+import com.scheduler.scheduler.util.Constants;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs scheduling requests in the background and tracks them by ticket id.
+ *
+ * Work goes to a bounded pool with a bounded queue; when both are full the request is refused
+ * instead of queued, so callers get immediate backpressure rather than a gateway timeout.
+ * Tickets are kept in the {@value #TABLE} table, so any node can answer for a ticket and they
+ * survive restarts; each status change replaces the row's status columns, so readers always see a
+ * consistent snapshot. Finished tickets are dropped after the retention period, when read and
+ * periodically; unfinished ones are never dropped, since their worker may still record a result.
+ */
+@Slf4j
+@Service
+public class ScheduleTicketService {
+
+	public static final String TABLE = "scheduler_schedule_ticket";
+
+	private static final String INSERT_TICKET = "INSERT INTO " + TABLE
+			+ " (ticket_id, status, submitted_at) VALUES (?, ?, ?)";
+	private static final String MARK_RUNNING = "UPDATE " + TABLE
+			+ " SET status = ?, started_at = ? WHERE ticket_id = ?";
+	private static final String MARK_COMPLETED = "UPDATE " + TABLE
+			+ " SET status = ?, completed_at = ?, response = ? WHERE ticket_id = ?";
+	private static final String SELECT_TICKET = "SELECT ticket_id, status, submitted_at, started_at, completed_at, response FROM "
+			+ TABLE + " WHERE ticket_id = ?";
+	private static final String DELETE_TICKET = "DELETE FROM " + TABLE + " WHERE ticket_id = ?";
+	private static final String DELETE_EXPIRED = "DELETE FROM " + TABLE + " WHERE completed_at < ?";
+
+	@Autowired
+	@Qualifier(Constants.BEAN_SCHEDULE_TICKET_EXECUTOR)
+	private ThreadPoolTaskExecutor executor;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${scheduler.tickets.retention-minutes:60}")
+	private long retentionMinutes;
+
+	/**
+	 * Queues the work and returns its ticket.
+	 *
+	 * @return the queued ticket, or null when the worker pool and its queue are full
+	 */
+	public ScheduleTicket submit(Supplier<ScheduleResponse> work) {
+		ScheduleTicket ticket = ScheduleTicket.builder()
+				.ticketId(UUID.randomUUID().toString())
+				.status(ScheduleTicket.Status.QUEUED)
+				.submittedAt(Instant.now())
+				.build();
+		jdbcTemplate.update(INSERT_TICKET, ticket.getTicketId(), ticket.getStatus().name(),
+				ticket.getSubmittedAt().toEpochMilli());
+		try {
+			executor.execute(() -> run(ticket.getTicketId(), work));
+		} catch (TaskRejectedException e) {
+			jdbcTemplate.update(DELETE_TICKET, ticket.getTicketId());
+			log.warn("Schedule ticket queue is full, rejecting request");
+			return null;
+		}
+		return ticket;
+	}
+
+	/**
+	 * @return the ticket, or null when it is unknown or past its retention
+	 */
+	public ScheduleTicket getTicket(String ticketId) {
+		List<ScheduleTicket> found = jdbcTemplate.query(SELECT_TICKET, (rs, row) -> toTicket(rs), ticketId);
+		if (found.isEmpty()) {
+			return null;
+		}
+		ScheduleTicket ticket = found.get(0);
+		if (ticket.getCompletedAt() != null
+				&& ticket.getCompletedAt().plus(retentionMinutes, ChronoUnit.MINUTES).isBefore(Instant.now())) {
+			jdbcTemplate.update(DELETE_TICKET, ticketId);
+			return null;
+		}
+		return ticket;
+	}
+
+	private void run(String ticketId, Supplier<ScheduleResponse> work) {
+		jdbcTemplate.update(MARK_RUNNING, ScheduleTicket.Status.RUNNING.name(), System.currentTimeMillis(), ticketId);
+		ScheduleResponse response;
+		try {
+			response = work.get();
+		} catch (RuntimeException e) {
+			log.error("Schedule ticket {} failed: {}", ticketId, e.getMessage());
+			response = ScheduleResponse.builder()
+					.success(false)
+					.message(Constants.MSG_FAILED_TO_SCHEDULE + e.getMessage())
+					.build();
+		}
+		String json;
+		try {
+			json = objectMapper.writeValueAsString(response);
+		} catch (JsonProcessingException e) {
+			log.error("Cannot serialize the response of schedule ticket {}: {}", ticketId, e.getMessage());
+			response = ScheduleResponse.builder()
+					.success(false)
+					.message(Constants.MSG_FAILED_TO_SCHEDULE + e.getMessage())
+					.build();
+			json = null;
+		}
+		jdbcTemplate.update(MARK_COMPLETED,
+				(response.isSuccess() ? ScheduleTicket.Status.SUCCEEDED : ScheduleTicket.Status.FAILED).name(),
+				System.currentTimeMillis(), json, ticketId);
+	}
+
+	@Scheduled(fixedDelayString = "${scheduler.tickets.evict-interval-ms:60000}")
+	public void evictExpired() {
+		long cutoff = Instant.now().minus(retentionMinutes, ChronoUnit.MINUTES).toEpochMilli();
+		int evicted = jdbcTemplate.update(DELETE_EXPIRED, cutoff);
+		if (evicted > 0) {
+			log.info("Evicted {} expired schedule ticket(s)", evicted);
+		}
+	}
+
+	private ScheduleTicket toTicket(ResultSet rs) throws SQLException {
+		String response = rs.getString("response");
+		try {
+			return ScheduleTicket.builder()
+					.ticketId(rs.getString("ticket_id"))
+					.status(ScheduleTicket.Status.valueOf(rs.getString("status")))
+					.submittedAt(Instant.ofEpochMilli(rs.getLong("submitted_at")))
+					.startedAt(toInstant(rs, "started_at"))
+					.completedAt(toInstant(rs, "completed_at"))
+					.response(response != null ? objectMapper.readValue(response, ScheduleResponse.class) : null)
+					.build();
+		} catch (JsonProcessingException e) {
+			throw new SQLException("Unreadable response of schedule ticket " + rs.getString("ticket_id"), e);
+		}
+	}
+
+	private static Instant toInstant(ResultSet rs, String column) throws SQLException {
+		long millis = rs.getLong(column);
+		return rs.wasNull() ? null : Instant.ofEpochMilli(millis);
+	}
+}
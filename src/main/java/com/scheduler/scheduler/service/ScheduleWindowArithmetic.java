@@ -0,0 +1,365 @@
+package com.scheduler.scheduler.service;
+
+import com.scheduler.scheduler.model.dto.JobScheduleRequest;
+import com.scheduler.scheduler.model.dto.JobScheduleRequest.RecurrenceFrequency;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Closed-form view of the windows produced by {@link ScheduleWindowCalculator}: the window count,
+ * the nth window and the windows inside an interval are answered without generating the schedule.
+ *
+ * Windows are grouped into segments of consecutive occurrences that all hold the same number of
+ * windows. For DAILY/WEEKLY schedules only the occurrences touched by a zone offset transition
+ * ({@link ZoneRules}) and the first/last occurrence are irregular, so a year-long daily schedule
+ * is a handful of segments; nth() is then a binary search over segments (O(log n)) and a window
+ * inside a segment is plain arithmetic. MONTHLY schedules and recurring work/pause cycles
+ * without endOnDateChange are still segmented one occurrence at a time (O(occurrences)),
+ * but never one window at a time.
+ */
+public class ScheduleWindowArithmetic {
+
+    private static final long NANOS_PER_MINUTE = 60_000_000_000L;
+    private static final LocalTime END_OF_DAY = LocalTime.of(23, 59, 59);
+
+    private final JobScheduleRequest request;
+    private final ZoneId zoneId;
+    private final boolean hasCycle;
+    private final long workNanos;
+    private final long cycleMinutes;
+    private final boolean sorted;
+    private final List<Segment> segments = new ArrayList<>();
+    private long count;
+
+    private ScheduleWindowArithmetic(JobScheduleRequest request, ZonedDateTime startTime,
+            ZonedDateTime endTime, ZoneId zoneId) {
+        this.request = request;
+        this.zoneId = zoneId;
+
+        Integer workMinutes = request.getWorkDurationMinutes();
+        Integer pauseMinutes = request.getPauseDurationMinutes();
+        int pauseMinutesVal = (pauseMinutes == null || pauseMinutes < 0) ? 0 : pauseMinutes;
+        this.hasCycle = workMinutes != null && workMinutes > 0;
+        this.workNanos = hasCycle ? workMinutes * NANOS_PER_MINUTE : 0;
+        this.cycleMinutes = hasCycle ? workMinutes + pauseMinutesVal : 0;
+        // Only overlapping per-occurrence cycles (recurring, no endOnDateChange) break time order
+        this.sorted = !request.isRecurring() || request.isEndOnDateChange() || !hasCycle;
+
+        if (!request.isRecurring()) {
+            addSingle(startTime, windowsInOccurrence(startTime, endTime));
+        } else if (startTime.isAfter(endTime)) {
+            return;
+        } else if (isRunnable(request.getRecurrenceFrequency(), startTime)) {
+            buildRuns(startTime, endTime);
+        } else {
+            buildOccurrences(startTime, endTime);
+        }
+    }
+
+    public static ScheduleWindowArithmetic of(JobScheduleRequest request, ZonedDateTime startTime,
+            ZonedDateTime endTime, ZoneId zoneId) {
+        return new ScheduleWindowArithmetic(request, startTime, endTime, zoneId);
+    }
+
+    /**
+     * @return total number of windows, i.e. the number of one-shot triggers the request would create
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * @return the window at the given 0-based position, in the order of the calculator's list
+     */
+    public ZonedDateTime nth(long n) {
+        if (n < 0 || n >= count) {
+            throw new IndexOutOfBoundsException("Window " + n + " of " + count);
+        }
+        int lo = 0;
+        int hi = segments.size() - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (segments.get(mid).firstWindow <= n) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        Segment segment = segments.get(lo);
+        return segment.windowAt(n - segment.firstWindow);
+    }
+
+    /**
+     * @return number of windows starting in [from, to)
+     */
+    public long countBetween(ZonedDateTime from, ZonedDateTime to) {
+        long total = 0;
+        for (Segment segment : segments) {
+            total += Math.max(0, segment.countBefore(to.toInstant()) - segment.countBefore(from.toInstant()));
+        }
+        return total;
+    }
+
+    /**
+     * Lazily yields the windows starting in [from, to), in the order of the calculator's list.
+     */
+    public Iterator<ZonedDateTime> windowsBetween(ZonedDateTime from, ZonedDateTime to) {
+        Instant fromInstant = from.toInstant();
+        Instant toInstant = to.toInstant();
+        return new WindowIterators.LookaheadIterator() {
+            private int segmentIndex = -1;
+            private long next;
+            private long end;
+
+            @Override
+            protected ZonedDateTime computeNext() {
+                while (next >= end) {
+                    if (++segmentIndex >= segments.size()) {
+                        return null;
+                    }
+                    Segment segment = segments.get(segmentIndex);
+                    if (sorted && segment.first().isAfter(toInstant)) {
+                        return null;
+                    }
+                    next = segment.countBefore(fromInstant);
+                    end = segment.countBefore(toInstant);
+                }
+                return segments.get(segmentIndex).windowAt(next++);
+            }
+        };
+    }
+
+    /**
+     * True when windows are in ascending time order (everything except recurring
+     * work/pause cycles without endOnDateChange, whose occurrences overlap).
+     */
+    public boolean isSorted() {
+        return sorted;
+    }
+
+    private boolean isRunnable(RecurrenceFrequency frequency, ZonedDateTime startTime) {
+        return (frequency == RecurrenceFrequency.DAILY || frequency == RecurrenceFrequency.WEEKLY)
+                && (request.isEndOnDateChange() || !hasCycle)
+                && startTime.getZone().equals(zoneId);
+    }
+
+    /**
+     * DAILY/WEEKLY: occurrences on dates without an offset transition hold identical windows
+     * and are collapsed into runs; transition dates, the first and the last occurrence are
+     * evaluated individually.
+     */
+    private void buildRuns(ZonedDateTime rangeStart, ZonedDateTime rangeEnd) {
+        boolean weekly = request.getRecurrenceFrequency() == RecurrenceFrequency.WEEKLY;
+        int stepDays = weekly ? 7 : 1;
+        LocalDate firstDate = rangeStart.toLocalDate();
+        LocalDate lastDate = rangeEnd.withZoneSameInstant(zoneId).toLocalDate();
+        long lastOccurrence = ChronoUnit.DAYS.between(firstDate, lastDate) / stepDays;
+
+        TreeSet<Long> irregular = new TreeSet<>();
+        irregular.add(0L);
+        irregular.add(lastOccurrence);
+        ZoneRules rules = zoneId.getRules();
+        Instant limit = rangeEnd.plusDays(2).toInstant();
+        ZoneOffsetTransition transition = rules.nextTransition(rangeStart.minusDays(2).toInstant());
+        while (transition != null && transition.getInstant().isBefore(limit)) {
+            LocalDate[] touched = {
+                    transition.getDateTimeBefore().toLocalDate().minusDays(1),
+                    transition.getDateTimeBefore().toLocalDate(),
+                    transition.getDateTimeAfter().toLocalDate()
+            };
+            for (LocalDate date : touched) {
+                long days = ChronoUnit.DAYS.between(firstDate, date);
+                if (days > 0 && days % stepDays == 0 && days / stepDays < lastOccurrence) {
+                    irregular.add(days / stepDays);
+                }
+            }
+            transition = rules.nextTransition(transition.getInstant());
+        }
+
+        // WEEKLY chains plusWeeks, so a start shifted by a DST gap keeps the shifted time of day
+        LocalTime timeOfDay = rangeStart.toLocalTime();
+        long occurrence = 0;
+        for (long irregularOccurrence : irregular) {
+            if (irregularOccurrence > occurrence) {
+                ZonedDateTime runStart = occurrenceAt(firstDate, occurrence, stepDays, timeOfDay);
+                long perOccurrence = windowsInOccurrence(runStart, occurrenceEnd(runStart, rangeEnd));
+                addRun(firstDate, occurrence, irregularOccurrence - occurrence, stepDays, timeOfDay, perOccurrence);
+            }
+            ZonedDateTime start = irregularOccurrence == 0
+                    ? rangeStart
+                    : occurrenceAt(firstDate, irregularOccurrence, stepDays, timeOfDay);
+            if (start.isAfter(rangeEnd)) {
+                break;
+            }
+            addSingle(start, windowsInOccurrence(start, occurrenceEnd(start, rangeEnd)));
+            if (weekly) {
+                timeOfDay = start.toLocalTime();
+            }
+            occurrence = irregularOccurrence + 1;
+        }
+    }
+
+    /**
+     * MONTHLY (clamped day-of-month drift) and overlapping cycles: one segment per occurrence.
+     */
+    private void buildOccurrences(ZonedDateTime rangeStart, ZonedDateTime rangeEnd) {
+        ZonedDateTime current = rangeStart;
+        while (!current.isAfter(rangeEnd)) {
+            addSingle(current, windowsInOccurrence(current, occurrenceEnd(current, rangeEnd)));
+            switch (request.getRecurrenceFrequency()) {
+                case DAILY:
+                    current = current.plusDays(1)
+                            .withHour(rangeStart.getHour())
+                            .withMinute(rangeStart.getMinute())
+                            .withSecond(rangeStart.getSecond());
+                    break;
+                case WEEKLY:
+                    current = current.plusWeeks(1);
+                    break;
+                case MONTHLY:
+                    current = current.plusMonths(1)
+                            .withHour(rangeStart.getHour())
+                            .withMinute(rangeStart.getMinute())
+                            .withSecond(rangeStart.getSecond());
+                    break;
+                default:
+                    current = current.plusDays(1);
+            }
+        }
+    }
+
+    private ZonedDateTime occurrenceEnd(ZonedDateTime occurrenceStart, ZonedDateTime rangeEnd) {
+        if (!request.isEndOnDateChange()) {
+            return rangeEnd;
+        }
+        ZonedDateTime endOfDay = occurrenceStart.toLocalDate().atTime(END_OF_DAY).atZone(zoneId);
+        return endOfDay.isAfter(rangeEnd) ? rangeEnd : endOfDay;
+    }
+
+    private ZonedDateTime occurrenceAt(LocalDate firstDate, long occurrence, int stepDays, LocalTime timeOfDay) {
+        return ZonedDateTime.of(firstDate.plusDays(occurrence * stepDays), timeOfDay, zoneId);
+    }
+
+    /**
+     * Number of windows {@link ScheduleWindowCalculator#calculateWorkWindows} yields for one occurrence.
+     */
+    private long windowsInOccurrence(ZonedDateTime start, ZonedDateTime end) {
+        if (!hasCycle) {
+            return start.isAfter(end) ? 0 : 1;
+        }
+        ZonedDateTime effectiveEnd = end;
+        if (request.isEndOnDateChange()) {
+            ZonedDateTime endOfStartDay = start.toLocalDate()
+                    .plusDays(1).atStartOfDay(start.getZone()).minusSeconds(1);
+            if (end.isAfter(endOfStartDay)) {
+                effectiveEnd = endOfStartDay;
+            }
+        }
+        long span = Duration.between(start, effectiveEnd).toNanos() - workNanos;
+        return span < 0 ? 0 : span / (cycleMinutes * NANOS_PER_MINUTE) + 1;
+    }
+
+    private void addSingle(ZonedDateTime start, long perOccurrence) {
+        addSegment(new Segment(null, 0, 1, 0, null, start, perOccurrence));
+    }
+
+    private void addRun(LocalDate firstDate, long firstOccurrence, long occurrences, int stepDays,
+            LocalTime timeOfDay, long perOccurrence) {
+        addSegment(new Segment(firstDate, firstOccurrence, occurrences, stepDays, timeOfDay, null, perOccurrence));
+    }
+
+    private void addSegment(Segment segment) {
+        if (segment.windows() == 0) {
+            return;
+        }
+        segment.firstWindow = count;
+        count += segment.windows();
+        segments.add(segment);
+    }
+
+    /**
+     * A run of consecutive occurrences holding the same number of windows each.
+     * A single occurrence keeps its exact start; a run derives each start from date and time of day.
+     */
+    private final class Segment {
+        private final LocalDate firstDate;
+        private final long firstOccurrence;
+        private final long occurrences;
+        private final int stepDays;
+        private final LocalTime timeOfDay;
+        private final ZonedDateTime fixedStart;
+        private final long perOccurrence;
+        private long firstWindow;
+
+        private Segment(LocalDate firstDate, long firstOccurrence, long occurrences, int stepDays,
+                LocalTime timeOfDay, ZonedDateTime fixedStart, long perOccurrence) {
+            this.firstDate = firstDate;
+            this.firstOccurrence = firstOccurrence;
+            this.occurrences = occurrences;
+            this.stepDays = stepDays;
+            this.timeOfDay = timeOfDay;
+            this.fixedStart = fixedStart;
+            this.perOccurrence = perOccurrence;
+        }
+
+        long windows() {
+            return occurrences * perOccurrence;
+        }
+
+        Instant first() {
+            return occurrenceStart(0).toInstant();
+        }
+
+        ZonedDateTime occurrenceStart(long occurrence) {
+            return fixedStart != null
+                    ? fixedStart
+                    : occurrenceAt(firstDate, firstOccurrence + occurrence, stepDays, timeOfDay);
+        }
+
+        ZonedDateTime windowAt(long index) {
+            ZonedDateTime start = occurrenceStart(index / perOccurrence);
+            long cycle = index % perOccurrence;
+            return cycle == 0 ? start : start.plusMinutes(cycle * cycleMinutes);
+        }
+
+        /**
+         * Number of this segment's windows starting before the instant (windows within a segment are ordered).
+         */
+        long countBefore(Instant instant) {
+            if (fixedStart != null) {
+                long nanos = Duration.between(fixedStart.toInstant(), instant).toNanos();
+                if (nanos <= 0) {
+                    return 0;
+                }
+                if (!hasCycle) {
+                    return 1;
+                }
+                long cycleNanos = cycleMinutes * NANOS_PER_MINUTE;
+                return Math.min(perOccurrence, (nanos + cycleNanos - 1) / cycleNanos);
+            }
+            long lo = 0;
+            long hi = windows();
+            while (lo < hi) {
+                long mid = (lo + hi) >>> 1;
+                if (windowAt(mid).toInstant().isBefore(instant)) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+}
@@ -2,16 +2,23 @@ package com.scheduler.scheduler.service;
 
 import com.scheduler.scheduler.model.dto.JobScheduleRequest;
 
-import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
-import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 /**
  * Calculates work windows for jobs with work/pause cycles.
  * Example: work 2hr, pause 1hr, work 2hr until end time or date change.
+ *
+ * Windows are produced lazily by the iterator/stream variants so that arbitrarily long
+ * schedules can be consumed in constant memory; the list variants collect them.
+ * The millis variants are the primitive core: each window is an epoch-millisecond start
+ * in the zone of the range start, and the ZonedDateTime variants are views over them.
  */
 public class ScheduleWindowCalculator {
 
@@ -27,56 +34,44 @@ public class ScheduleWindowCalculator {
             JobScheduleRequest request,
             ZonedDateTime startTime,
             ZonedDateTime endTime) {
+        return WindowIterators.toList(workWindowIterator(request, startTime, endTime));
+    }
 
-        List<ZonedDateTime> windows = new ArrayList<>();
+    /**
+     * Lazily yields the work window start times between startTime and endTime,
+     * in the same order as {@link #calculateWorkWindows}.
+     */
+    public static Iterator<ZonedDateTime> workWindowIterator(
+            JobScheduleRequest request,
+            ZonedDateTime startTime,
+            ZonedDateTime endTime) {
+        return WindowIterators.atZone(workWindowMillis(request, startTime, endTime), startTime.getZone());
+    }
+
+    /**
+     * Work window start times as epoch millis (millisecond precision, as stored by Quartz).
+     */
+    public static PrimitiveIterator.OfLong workWindowMillis(
+            JobScheduleRequest request,
+            ZonedDateTime startTime,
+            ZonedDateTime endTime) {
 
         Integer workMinutes = request.getWorkDurationMinutes();
-        Integer pauseMinutes = request.getPauseDurationMinutes();
 
         // No work/pause cycle - single trigger at start time
         if (workMinutes == null || workMinutes <= 0) {
-            if (!startTime.isAfter(endTime)) {
-                windows.add(startTime);
-            }
-            return windows;
-        }
-
-        int pauseMinutesVal = (pauseMinutes == null || pauseMinutes < 0) ? 0 : pauseMinutes;
-        int cycleDurationMinutes = workMinutes + pauseMinutesVal;
-
-        // When endOnDateChange, cap end time to end of start date (midnight)
-        ZonedDateTime effectiveEndTime = endTime;
-        if (request.isEndOnDateChange()) {
-            ZonedDateTime endOfStartDay = startTime.toLocalDate()
-                    .plusDays(1).atStartOfDay(ZoneId.from(startTime)).minusSeconds(1);
-            if (endTime.isAfter(endOfStartDay)) {
-                effectiveEndTime = endOfStartDay;
-            }
-        }
-
-        ZonedDateTime currentWindowStart = startTime;
-
-        while (!currentWindowStart.isAfter(effectiveEndTime)) {
-            // If endOnDateChange, don't schedule past midnight
-            if (request.isEndOnDateChange() && !currentWindowStart.toLocalDate().equals(startTime.toLocalDate())) {
-                break;
-            }
-
-            // Check if this window would end before effectiveEndTime
-            ZonedDateTime windowEnd = currentWindowStart.plusMinutes(workMinutes);
-            if (!windowEnd.isAfter(effectiveEndTime)) {
-                windows.add(currentWindowStart);
-            }
-
-            currentWindowStart = currentWindowStart.plusMinutes(cycleDurationMinutes);
-
-            // For endOnDateChange, stop at end of day
-            if (request.isEndOnDateChange() && currentWindowStart.toLocalDate().isAfter(startTime.toLocalDate())) {
-                break;
-            }
+            return startTime.isAfter(endTime)
+                    ? LongStream.empty().iterator()
+                    : LongStream.of(startTime.toInstant().toEpochMilli()).iterator();
         }
+        return new WorkWindowIterator(request, startTime, endTime);
+    }
 
-        return windows;
+    public static Stream<ZonedDateTime> streamWorkWindows(
+            JobScheduleRequest request,
+            ZonedDateTime startTime,
+            ZonedDateTime endTime) {
+        return WindowIterators.stream(workWindowIterator(request, startTime, endTime));
     }
 
     /**
@@ -90,57 +85,151 @@ public class ScheduleWindowCalculator {
             ZonedDateTime rangeStart,
             ZonedDateTime rangeEnd,
             ZoneId zoneId) {
+        return WindowIterators.toList(recurringWorkWindowIterator(request, rangeStart, rangeEnd, zoneId));
+    }
 
-        List<ZonedDateTime> allWindows = new ArrayList<>();
+    /**
+     * Lazily yields the recurring work windows, in the same order as {@link #calculateRecurringWorkWindows}.
+     */
+    public static Iterator<ZonedDateTime> recurringWorkWindowIterator(
+            JobScheduleRequest request,
+            ZonedDateTime rangeStart,
+            ZonedDateTime rangeEnd,
+            ZoneId zoneId) {
+        return WindowIterators.atZone(recurringWorkWindowMillis(request, rangeStart, rangeEnd, zoneId),
+                rangeStart.getZone());
+    }
 
-        ZonedDateTime currentOccurrenceStart = rangeStart;
+    public static PrimitiveIterator.OfLong recurringWorkWindowMillis(
+            JobScheduleRequest request,
+            ZonedDateTime rangeStart,
+            ZonedDateTime rangeEnd,
+            ZoneId zoneId) {
+        return new RecurringWorkWindowIterator(request, rangeStart, rangeEnd, zoneId);
+    }
 
-        while (!currentOccurrenceStart.isAfter(rangeEnd)) {
-            ZonedDateTime occurrenceEnd;
+    public static Stream<ZonedDateTime> streamRecurringWorkWindows(
+            JobScheduleRequest request,
+            ZonedDateTime rangeStart,
+            ZonedDateTime rangeEnd,
+            ZoneId zoneId) {
+        return WindowIterators.stream(recurringWorkWindowIterator(request, rangeStart, rangeEnd, zoneId));
+    }
+
+    /**
+     * Advances by N months. Java's plusMonths already handles end-of-month
+     * (e.g., Jan 31 + 1 month = Feb 28). Preserves time from template.
+     */
+    private static ZonedDateTime plusMonthsSameDay(ZonedDateTime current, int months, ZonedDateTime template) {
+        return current.plusMonths(months)
+                .withHour(template.getHour())
+                .withMinute(template.getMinute())
+                .withSecond(template.getSecond());
+    }
+
+    /**
+     * Walks one work/pause cycle at a time from startTime, in plain millisecond arithmetic.
+     * Minute offsets are exact on the instant time-line, so no date objects are needed per window.
+     */
+    private static final class WorkWindowIterator extends WindowIterators.LookaheadLongIterator {
+
+        private final long effectiveEndMillis;
+        private final long workMillis;
+        private final long cycleMillis;
+        private long currentWindowStart;
+
+        WorkWindowIterator(JobScheduleRequest request, ZonedDateTime startTime, ZonedDateTime endTime) {
+            Integer pauseMinutes = request.getPauseDurationMinutes();
+            int pauseMinutesVal = (pauseMinutes == null || pauseMinutes < 0) ? 0 : pauseMinutes;
+            int workMinutes = request.getWorkDurationMinutes();
+            this.workMillis = TimeUnit.MINUTES.toMillis(workMinutes);
+            this.cycleMillis = TimeUnit.MINUTES.toMillis(workMinutes + pauseMinutesVal);
+            this.currentWindowStart = startTime.toInstant().toEpochMilli();
+
+            // When endOnDateChange, cap end time to end of start date (midnight)
+            ZonedDateTime effectiveEnd = endTime;
             if (request.isEndOnDateChange()) {
-                occurrenceEnd = currentOccurrenceStart.toLocalDate()
-                        .atTime(23, 59, 59)
-                        .atZone(zoneId);
-                if (occurrenceEnd.isAfter(rangeEnd)) {
-                    occurrenceEnd = rangeEnd;
+                ZonedDateTime endOfStartDay = startTime.toLocalDate()
+                        .plusDays(1).atStartOfDay(ZoneId.from(startTime)).minusSeconds(1);
+                if (endTime.isAfter(endOfStartDay)) {
+                    effectiveEnd = endOfStartDay;
                 }
-            } else {
-                occurrenceEnd = rangeEnd;
             }
+            this.effectiveEndMillis = effectiveEnd.toInstant().toEpochMilli();
+        }
 
-            List<ZonedDateTime> dayWindows = calculateWorkWindows(
-                    request, currentOccurrenceStart, occurrenceEnd);
-            allWindows.addAll(dayWindows);
+        @Override
+        protected long computeNext() {
+            // Windows are evenly spaced, so once one overruns the effective end every later one does too.
+            // The effective end never passes the end of the start date, so this also stops at midnight.
+            long windowStart = currentWindowStart;
+            if (windowStart + workMillis > effectiveEndMillis) {
+                return DONE;
+            }
+            currentWindowStart += cycleMillis;
+            return windowStart;
+        }
+    }
 
+    /**
+     * Walks the occurrences of a recurring request, delegating each one to a {@link WorkWindowIterator}.
+     */
+    private static final class RecurringWorkWindowIterator extends WindowIterators.LookaheadLongIterator {
+
+        private final JobScheduleRequest request;
+        private final ZonedDateTime rangeStart;
+        private final ZonedDateTime rangeEnd;
+        private final ZoneId zoneId;
+        private ZonedDateTime currentOccurrenceStart;
+        private PrimitiveIterator.OfLong occurrenceWindows = LongStream.empty().iterator();
+
+        RecurringWorkWindowIterator(JobScheduleRequest request, ZonedDateTime rangeStart,
+                ZonedDateTime rangeEnd, ZoneId zoneId) {
+            this.request = request;
+            this.rangeStart = rangeStart;
+            this.rangeEnd = rangeEnd;
+            this.zoneId = zoneId;
+            this.currentOccurrenceStart = rangeStart;
+        }
+
+        @Override
+        protected long computeNext() {
+            while (!occurrenceWindows.hasNext()) {
+                if (currentOccurrenceStart.isAfter(rangeEnd)) {
+                    return DONE;
+                }
+                ZonedDateTime occurrenceEnd;
+                if (request.isEndOnDateChange()) {
+                    occurrenceEnd = currentOccurrenceStart.toLocalDate()
+                            .atTime(23, 59, 59)
+                            .atZone(zoneId);
+                    if (occurrenceEnd.isAfter(rangeEnd)) {
+                        occurrenceEnd = rangeEnd;
+                    }
+                } else {
+                    occurrenceEnd = rangeEnd;
+                }
+
+                occurrenceWindows = workWindowMillis(request, currentOccurrenceStart, occurrenceEnd);
+                currentOccurrenceStart = nextOccurrence(currentOccurrenceStart);
+            }
+            return occurrenceWindows.nextLong();
+        }
+
+        private ZonedDateTime nextOccurrence(ZonedDateTime current) {
             switch (request.getRecurrenceFrequency()) {
                 case DAILY:
-                    currentOccurrenceStart = currentOccurrenceStart.plusDays(1)
+                    return current.plusDays(1)
                             .withHour(rangeStart.getHour())
                             .withMinute(rangeStart.getMinute())
                             .withSecond(rangeStart.getSecond());
-                    break;
                 case WEEKLY:
-                    currentOccurrenceStart = currentOccurrenceStart.plusWeeks(1);
-                    break;
+                    return current.plusWeeks(1);
                 case MONTHLY:
-                    currentOccurrenceStart = plusMonthsSameDay(currentOccurrenceStart, 1, rangeStart);
-                    break;
+                    return plusMonthsSameDay(current, 1, rangeStart);
                 default:
-                    currentOccurrenceStart = currentOccurrenceStart.plusDays(1);
+                    return current.plusDays(1);
             }
         }
-
-        return allWindows;
-    }
-
-    /**
-     * Advances by N months. Java's plusMonths already handles end-of-month
-     * (e.g., Jan 31 + 1 month = Feb 28). Preserves time from template.
-     */
-    private static ZonedDateTime plusMonthsSameDay(ZonedDateTime current, int months, ZonedDateTime template) {
-        return current.plusMonths(months)
-                .withHour(template.getHour())
-                .withMinute(template.getMinute())
-                .withSecond(template.getSecond());
     }
 }
@@ -0,0 +1,212 @@
+package com.scheduler.scheduler.service;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.scheduler.scheduler.model.dto.AcquisitionStatus;
+import com.scheduler.scheduler.model.dto.FireLagStatus;
+import com.scheduler.scheduler.model.dto.MisfireReplayStatus;
+import com.scheduler.scheduler.model.dto.WorkerPoolStatus;
+import com.scheduler.scheduler.quartz.AdaptiveAcquisition;
+import com.scheduler.scheduler.quartz.FireLagMetric;
+import com.scheduler.scheduler.quartz.FireTimeThreadPool;
+import com.scheduler.scheduler.quartz.MisfireReplayController;
+import com.scheduler.scheduler.quartz.QuartzRuntime;
+import com.scheduler.scheduler.quartz.SchedulerJobStore;
+import com.scheduler.scheduler.quartz.TimingWheelThreadPool;
+import com.scheduler.scheduler.quartz.WindowMisfirePolicy;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * View of the scheduler's runtime tuning on this node, for operators; the worker pool can also be
+ * resized here.
+ */
+@Slf4j
+@Service
+public class SchedulerAdminService {
+
+	@Autowired
+	private Scheduler scheduler;
+
+	/**
+	 * @return the acquisition settings, or null when the scheduler does not run on {@link SchedulerJobStore}
+	 */
+	public AcquisitionStatus getAcquisitionStatus() {
+		String schedulerName = schedulerName();
+		if (schedulerName == null) {
+			return null;
+		}
+		SchedulerJobStore jobStore = QuartzRuntime.jobStore(schedulerName);
+		if (jobStore == null) {
+			log.warn("Scheduler {} does not use the scheduler job store", schedulerName);
+			return null;
+		}
+		AdaptiveAcquisition acquisition = jobStore.getAcquisition();
+		if (acquisition == null) {
+			return AcquisitionStatus.builder()
+					.schedulerName(schedulerName)
+					.adaptive(false)
+					.build();
+		}
+		return AcquisitionStatus.builder()
+				.schedulerName(schedulerName)
+				.adaptive(true)
+				.batchSize(acquisition.getBatchSize())
+				.fireAheadMillis(acquisition.getFireAheadMillis())
+				.maxBatchSize(acquisition.getMaxBatchSize())
+				.maxFireAheadMillis(acquisition.getMaxFireAheadMillis())
+				.lagThresholdMillis(acquisition.getLagThresholdMillis())
+				.lastLagMillis(acquisition.getLastLagMillis())
+				.lastAcquired(acquisition.getLastAcquired())
+				.decisions(acquisition.getDecisions())
+				.build();
+	}
+
+	/**
+	 * @return job start lag statistics, or null when the scheduler does not run on a {@link FireTimeThreadPool}
+	 */
+	public FireLagStatus getFireLagStatus() {
+		String schedulerName = schedulerName();
+		if (schedulerName == null) {
+			return null;
+		}
+		FireTimeThreadPool threadPool = QuartzRuntime.threadPool(schedulerName);
+		if (threadPool == null) {
+			log.warn("Scheduler {} does not use a fire-time thread pool", schedulerName);
+			return null;
+		}
+		FireLagMetric fireLag = threadPool.getFireLag();
+		return FireLagStatus.builder()
+				.schedulerName(schedulerName)
+				.count(fireLag.getCount())
+				.earlyCount(fireLag.getEarlyCount())
+				.meanLagMillis(fireLag.getMeanLagMillis())
+				.maxLateMillis(fireLag.getMaxLateMillis())
+				.maxEarlyMillis(fireLag.getMaxEarlyMillis())
+				.lateBuckets(fireLag.getLateBuckets())
+				.heldCount(threadPool.getHeldCount())
+				.build();
+	}
+
+	/**
+	 * @return the worker pool's size and recent resizes, or null when the scheduler does not run on
+	 *         {@link TimingWheelThreadPool}
+	 */
+	public WorkerPoolStatus getWorkerPoolStatus() {
+		TimingWheelThreadPool threadPool = workerPool();
+		if (threadPool == null) {
+			return null;
+		}
+		return WorkerPoolStatus.builder()
+				.schedulerName(schedulerName())
+				.poolSize(threadPool.getPoolSize())
+				.minPoolSize(threadPool.getMinPoolSize())
+				.maxPoolSize(threadPool.getMaxPoolSize())
+				.autoscale(threadPool.isAutoscale())
+				.busyCount(threadPool.getBusyCount())
+				.queuedCount(threadPool.getQueuedCount())
+				.heldCount(threadPool.getHeldCount())
+				.lanes(threadPool.getLanes())
+				.decisions(threadPool.getDecisions())
+				.build();
+	}
+
+	/**
+	 * Applies whichever of the settings are given: bounds first, then the size (clamped to them).
+	 *
+	 * @return the resulting status, or null when the scheduler does not run on {@link TimingWheelThreadPool}
+	 */
+	public WorkerPoolStatus updateWorkerPool(Integer size, Integer minSize, Integer maxSize, Boolean autoscale) {
+		TimingWheelThreadPool threadPool = workerPool();
+		if (threadPool == null) {
+			return null;
+		}
+		if (maxSize != null) {
+			threadPool.setMaxPoolSize(maxSize);
+		}
+		if (minSize != null) {
+			threadPool.setMinPoolSize(minSize);
+		}
+		if (size != null) {
+			threadPool.setPoolSize(size);
+		}
+		if (autoscale != null) {
+			threadPool.setAutoscale(autoscale);
+		}
+		return getWorkerPoolStatus();
+	}
+
+	/**
+	 * @return the window misfire counters, replay settings and backlog, or null when the scheduler does not run on
+	 *         {@link SchedulerJobStore}
+	 */
+	public MisfireReplayStatus getMisfireReplayStatus() {
+		String schedulerName = schedulerName();
+		if (schedulerName == null) {
+			return null;
+		}
+		SchedulerJobStore jobStore = QuartzRuntime.jobStore(schedulerName);
+		if (jobStore == null) {
+			log.warn("Scheduler {} does not use the scheduler job store", schedulerName);
+			return null;
+		}
+		MisfireReplayStatus.MisfireReplayStatusBuilder status = MisfireReplayStatus.builder()
+				.schedulerName(schedulerName);
+		WindowMisfirePolicy windowPolicy = jobStore.getWindowPolicy();
+		if (windowPolicy != null) {
+			status.windowAware(true)
+					.staleWindowsDropped(windowPolicy.getStaleDropped())
+					.windowsCollapsed(windowPolicy.getCollapsed())
+					.windowsCaughtUp(windowPolicy.getCaughtUp());
+		}
+		MisfireReplayController replay = jobStore.getReplay();
+		if (replay == null) {
+			return status.enabled(false).build();
+		}
+		long now = System.currentTimeMillis();
+		long backlogUntil = replay.getBacklogUntil(now);
+		Map<String, Instant> groupBacklogUntil = new HashMap<>();
+		replay.getGroupBacklogUntil(now).forEach((group, until) -> groupBacklogUntil.put(group, Instant.ofEpochMilli(until)));
+		return status.enabled(true)
+				.ratePerSecond(replay.getRatePerSecond())
+				.burst(replay.getBurst())
+				.groupRatePerSecond(replay.getGroupRatePerSecond())
+				.groupRates(replay.getGroupRates())
+				.order(replay.getOrder())
+				.replayPriority(replay.getReplayPriority())
+				.replayed(replay.getReplayed())
+				.delayed(replay.getDelayed())
+				.backlogUntil(backlogUntil > 0 ? Instant.ofEpochMilli(backlogUntil) : null)
+				.groupBacklogUntil(groupBacklogUntil)
+				.build();
+	}
+
+	private TimingWheelThreadPool workerPool() {
+		String schedulerName = schedulerName();
+		if (schedulerName == null) {
+			return null;
+		}
+		FireTimeThreadPool threadPool = QuartzRuntime.threadPool(schedulerName);
+		if (!(threadPool instanceof TimingWheelThreadPool)) {
+			log.warn("Scheduler {} does not use the resizable timing wheel thread pool", schedulerName);
+			return null;
+		}
+		return (TimingWheelThreadPool) threadPool;
+	}
+
+	private String schedulerName() {
+		try {
+			return scheduler.getSchedulerName();
+		} catch (SchedulerException e) {
+			log.error("Error reading scheduler name: {}", e.getMessage());
+			return null;
+		}
+	}
+}
@@ -16,6 +16,9 @@ public class SchedulerIntializer {
 	
 	@Autowired
 	private CustomSchedulerRepository schedulerRepository;
+
+	@Autowired
+	private SchedulerService schedulerService;
 	
 	@PostConstruct
 	public void schedule() {
@@ -25,6 +28,7 @@ public class SchedulerIntializer {
 		}catch (Exception e) {
 			log.error(e.toString());
 		}
+		schedulerService.scheduleHorizonRefillJob();
 	}
 	
 	@PreDestroy
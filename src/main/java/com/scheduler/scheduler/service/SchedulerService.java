@@ -6,10 +6,23 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongUnaryOperator;
 
 import org.quartz.Job;
 import org.quartz.JobBuilder;
@@ -17,13 +30,21 @@ import org.quartz.JobDataMap;
 import org.quartz.JobDetail;
 import org.quartz.JobKey;
 import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
 import org.quartz.SimpleScheduleBuilder;
 import org.quartz.Trigger;
 import org.quartz.TriggerBuilder;
+import org.quartz.TriggerKey;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.spi.OperableTrigger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scheduler.scheduler.kafka.SlotPayloadTemplates;
+import com.scheduler.scheduler.model.dto.FireTimeCursor;
+import com.scheduler.scheduler.model.dto.FireTimesPage;
 import com.scheduler.scheduler.model.dto.GenericScheduleRequest;
 import com.scheduler.scheduler.model.dto.JobScheduleRequest;
 import com.scheduler.scheduler.model.dto.JobScheduleRequest.RecurrenceFrequency;
@@ -31,7 +52,10 @@ import com.scheduler.scheduler.model.dto.ScheduleResponse;
 import com.scheduler.scheduler.model.dto.SlotAddRequest;
 import com.scheduler.scheduler.model.dto.SlotScheduleRequest;
 import com.scheduler.scheduler.model.dto.SlotScheduleRequest.SlotType;
+import com.scheduler.scheduler.quartz.QuartzRuntime;
+import com.scheduler.scheduler.quartz.SchedulerJobStore;
 import com.scheduler.scheduler.util.Constants;
+import com.scheduler.scheduler.util.EpochMillisBuffer;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -47,102 +71,495 @@ public class SchedulerService {
 	@Autowired
 	private ObjectMapper objectMapper;
 
+	@Autowired
+	private SlotPayloadTemplates slotPayloadTemplates;
+
+	@Value("${scheduler.slot.horizon.refill-interval-minutes:15}")
+	private int horizonRefillIntervalMinutes;
+
+	@Value("${scheduler.persistence.chunk-size:5000}")
+	private int persistenceChunkSize;
+
+	@Value("${scheduler.bulk.max-triggers-per-transaction:20000}")
+	private int bulkMaxTriggersPerTransaction;
+
 	/**
 	 * Schedules slot visibility based on SlotAddRequest.
 	 * Creates triggers at the start of each visibility window (daysOfWeek + timeSlots, excluding exclusionDates).
 	 */
 	public ScheduleResponse scheduleSlotVisibility(SlotAddRequest request) {
+		return scheduleSlotVisibility(request, true);
+	}
+
+	/**
+	 * @param includeScheduledTimes whether the response lists every scheduled time; without them
+	 *        only the count and the first and last fire time are kept while scheduling
+	 */
+	public ScheduleResponse scheduleSlotVisibility(SlotAddRequest request, boolean includeScheduledTimes) {
 		try {
-			ZoneId zoneId = request.getTimezone() != null && !request.getTimezone().isEmpty()
-					? ZoneId.of(request.getTimezone())
-					: ZoneId.of(Constants.DEFAULT_TIMEZONE_UTC);
+			SlotPlan plan = planSlotVisibility(request);
+			if (plan == null) {
+				return slotFailure(request, Constants.MSG_NO_VISIBILITY_WINDOWS);
+			}
 
-			List<ZonedDateTime> visibilityWindows = SlotVisibilityWindowCalculator.calculateVisibilityWindows(
-					request, zoneId);
+			EpochMillisBuffer scheduledMillis = scheduledMillis(includeScheduledTimes);
+			PrimitiveIterator.OfLong windows = plan.windows();
+			StoredWindows stored = reconcileJobWithWindows(
+					plan.jobDetail, windows, plan.windowEnds, "Visibility window ", scheduledMillis);
+			if (stored == null) {
+				stored = storeJobWithWindows(
+						plan.jobDetail, windows, plan.windowEnds, 0, "Visibility window ", true, scheduledMillis);
+			}
 
-			if (visibilityWindows.isEmpty()) {
-				return ScheduleResponse.builder()
-						.jobId(request.getProductCode() + "-" + request.getGameCode())
-						.jobName(Constants.JOB_PREFIX_SLOT + request.getProductCode() + "-" + request.getGameCode())
-						.jobGroup(Constants.JOB_GROUP_PREFIX_SLOTS + request.getGameCode())
-						.success(false)
-						.message(Constants.MSG_NO_VISIBILITY_WINDOWS)
-						.triggerCount(0)
-						.scheduledTimes(new ArrayList<>())
-						.build();
+			log.info("Scheduled slot visibility {} with {} trigger(s), persisted in {} ms",
+					plan.jobDetail.getKey().getName(), stored.triggerCount, stored.persistenceMillis);
+
+			return slotScheduled(plan, stored.triggerCount, scheduledMillis, stored.persistenceMillis);
+		} catch (Exception e) {
+			log.error("Failed to schedule slot visibility: {}", e.getMessage());
+			return slotFailure(request, Constants.MSG_FAILED_TO_SCHEDULE + e.getMessage());
+		}
+	}
+
+	/**
+	 * Builds a slot job and computes its visibility windows without storing anything, so that many
+	 * slots can be prepared in parallel and persisted together (bulk import). The calendar walk
+	 * happens here; storing only turns the computed window millis into triggers.
+	 *
+	 * @return the prepared slot, or null when the schedule has no visibility windows
+	 */
+	PreparedSlot prepareSlotVisibility(SlotAddRequest request) throws Exception {
+		SlotPlan plan = planSlotVisibility(request);
+		return plan != null ? new PreparedSlot(plan) : null;
+	}
+
+	/**
+	 * Stores prepared slots, replacing earlier versions of the jobs. Slots whose job is already
+	 * stored are reconciled with it, so only changed windows are written; new jobs are stored
+	 * together, in as few transactions as the per-transaction trigger cap allows. A slot appearing again stores the batch before it first, so the
+	 * later line wins as it would one by one. When a batch write fails, each of its slots is retried
+	 * on its own so one bad slot does not fail the rest.
+	 *
+	 * @return one response per prepared slot, in the same order
+	 */
+	List<ScheduleResponse> storePreparedSlots(List<PreparedSlot> slots) {
+		ScheduleResponse[] responses = new ScheduleResponse[slots.size()];
+		Set<JobKey> existing = existingJobKeys(slots);
+		Map<JobKey, Integer> batch = new LinkedHashMap<>();
+		for (int i = 0; i < slots.size(); i++) {
+			PreparedSlot slot = slots.get(i);
+			JobKey jobKey = slot.plan.jobDetail.getKey();
+			if (batch.containsKey(jobKey)) {
+				storeSlotBatch(slots, batch.values(), responses);
+				batch.clear();
+				existing.add(jobKey);
+			}
+			if (existing.contains(jobKey)) {
+				responses[i] = reconcilePreparedSlot(slot);
+				if (responses[i] != null) {
+					continue;
+				}
 			}
+			batch.put(jobKey, i);
+		}
+		storeSlotBatch(slots, batch.values(), responses);
+		List<ScheduleResponse> ordered = new ArrayList<>(responses.length);
+		Collections.addAll(ordered, responses);
+		return ordered;
+	}
 
-			String jobId = request.getProductCode() + "-" + request.getGameCode();
-			String jobName = Constants.JOB_PREFIX_SLOT + request.getProductCode() + "-" + request.getGameCode();
-			String jobGroup = Constants.JOB_GROUP_PREFIX_SLOTS + request.getGameCode();
-
-			JobDataMap jobDataMap = new JobDataMap();
-			jobDataMap.put(Constants.KEY_JOB_ID, jobId);
-			jobDataMap.put(Constants.KEY_PRODUCT_CODE, request.getProductCode());
-			jobDataMap.put(Constants.KEY_GAME_CODE, request.getGameCode());
-			jobDataMap.put(Constants.KEY_COUNT, request.getCount());
-			jobDataMap.put(Constants.KEY_SLOT_ADD_REQUEST_JSON, objectMapper.writeValueAsString(request));
-			if (request.getMetadata() != null) {
-				request.getMetadata().forEach((k, v) -> {
-					if (v != null && (v instanceof String || v instanceof Number || v instanceof Boolean)) {
-						jobDataMap.put(k, v);
-					}
-				});
+	/**
+	 * Stores the slots at the given positions in transactions of at most
+	 * {@code bulkMaxTriggersPerTransaction} triggers, so the trigger lock is never held for a whole
+	 * batch of long schedules. A slot with more triggers than that is stored in a transaction of its own.
+	 */
+	private void storeSlotBatch(List<PreparedSlot> allSlots, Collection<Integer> positions, ScheduleResponse[] responses) {
+		List<Integer> group = new ArrayList<>();
+		int groupTriggers = 0;
+		for (int position : positions) {
+			int triggers = allSlots.get(position).windowStarts.length;
+			if (!group.isEmpty() && groupTriggers + triggers > bulkMaxTriggersPerTransaction) {
+				storeSlotGroup(allSlots, group, responses);
+				group.clear();
+				groupTriggers = 0;
 			}
+			group.add(position);
+			groupTriggers += triggers;
+		}
+		storeSlotGroup(allSlots, group, responses);
+	}
 
-			@SuppressWarnings("unchecked")
-			Class<? extends Job> jobClass = (Class<? extends Job>) Class.forName(Constants.SLOT_EXECUTION_JOB_CLASS);
+	private Set<JobKey> existingJobKeys(List<PreparedSlot> slots) {
+		try {
+			SchedulerJobStore jobStore = QuartzRuntime.jobStore(scheduler.getSchedulerName());
+			if (jobStore == null) {
+				return new HashSet<>();
+			}
+			List<JobKey> jobKeys = new ArrayList<>(slots.size());
+			slots.forEach(slot -> jobKeys.add(slot.plan.jobDetail.getKey()));
+			return jobStore.retrieveExistingJobKeys(jobKeys);
+		} catch (SchedulerException e) {
+			// Replacing them as new jobs is still correct, only not minimal
+			log.warn("Couldn't look up existing slot jobs, replacing all of them: {}", e.getMessage());
+			return new HashSet<>();
+		}
+	}
 
-			JobDetail jobDetail = buildJobDetail(
-					jobDataMap,
-					"Slot visibility: " + request.getProductCode(),
-					jobName,
-					jobGroup,
-					jobClass);
+	/**
+	 * Reconciles an already stored slot job with the prepared slot's windows.
+	 *
+	 * @return the response, or null when the job has to be replaced instead
+	 */
+	private ScheduleResponse reconcilePreparedSlot(PreparedSlot slot) {
+		EpochMillisBuffer scheduledMillis = EpochMillisBuffer.summary();
+		try {
+			StoredWindows stored = reconcileJobWithWindows(slot.plan.jobDetail, slot.windows(),
+					slot.windowEnds(), "Visibility window ", scheduledMillis);
+			return stored != null ? slotScheduled(slot.plan, stored.triggerCount, scheduledMillis, stored.persistenceMillis) : null;
+		} catch (SchedulerException e) {
+			log.error("Failed to reconcile slot job {}: {}", slot.plan.jobDetail.getKey(), e.getMessage());
+			return slotFailure(slot.plan.request, Constants.MSG_FAILED_TO_SCHEDULE + e.getMessage());
+		}
+	}
 
-			JobKey jobKey = new JobKey(jobName, jobGroup);
-			if (scheduler.checkExists(jobKey)) {
-				scheduler.deleteJob(jobKey);
+	/**
+	 * Stores the slots at the given positions, whose job keys are distinct, in one transaction and
+	 * sets their responses. Each slot's precomputed windows are turned into triggers while the group
+	 * is written, one chunk at a time; after a failed group each slot is stored on its own. Without
+	 * {@link SchedulerJobStore} the group's triggers are built up front and stored through {@link #replaceJobs}.
+	 */
+	private void storeSlotGroup(List<PreparedSlot> allSlots, Collection<Integer> positions, ScheduleResponse[] responses) {
+		if (positions.isEmpty()) {
+			return;
+		}
+		try {
+			SchedulerJobStore jobStore = QuartzRuntime.jobStore(scheduler.getSchedulerName());
+			List<JobDetail> jobs = new ArrayList<>(positions.size());
+			Map<JobKey, WindowTriggerChunks> chunksByJob = new HashMap<>();
+			for (int position : positions) {
+				PreparedSlot slot = allSlots.get(position);
+				jobs.add(slot.plan.jobDetail);
+				chunksByJob.put(slot.plan.jobDetail.getKey(), new WindowTriggerChunks(slot.plan.jobDetail, slot.windows(),
+						slot.windowEnds(), 0, "Visibility window ", EpochMillisBuffer.summary()));
 			}
-			scheduler.addJob(jobDetail, true);
+			long started = System.nanoTime();
+			if (jobStore != null) {
+				jobStore.replaceJobs(jobs, chunksByJob);
+			} else {
+				Map<JobDetail, Set<? extends Trigger>> triggersByJob = new LinkedHashMap<>();
+				jobs.forEach(job -> triggersByJob.put(job, allTriggers(chunksByJob.get(job.getKey()))));
+				replaceJobs(triggersByJob);
+			}
+			long persistenceMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+			for (int position : positions) {
+				SlotPlan plan = allSlots.get(position).plan;
+				WindowTriggerChunks chunks = chunksByJob.get(plan.jobDetail.getKey());
+				responses[position] = slotScheduled(plan, chunks.triggerIndex, chunks.scheduledMillis, persistenceMillis);
+			}
+			log.info("Stored {} slot job(s) in one batch in {} ms", jobs.size(), persistenceMillis);
+			return;
+		} catch (SchedulerException e) {
+			log.warn("Batch store of {} slot job(s) failed, storing them one by one: {}", positions.size(), e.getMessage());
+		}
+		for (int position : positions) {
+			PreparedSlot slot = allSlots.get(position);
+			try {
+				EpochMillisBuffer scheduledMillis = EpochMillisBuffer.summary();
+				StoredWindows stored = storeJobWithWindows(slot.plan.jobDetail, slot.windows(),
+						slot.windowEnds(), 0, "Visibility window ", true, scheduledMillis);
+				responses[position] = slotScheduled(slot.plan, stored.triggerCount, scheduledMillis, stored.persistenceMillis);
+			} catch (SchedulerException e) {
+				log.error("Failed to store slot job {}: {}", slot.plan.jobDetail.getKey(), e.getMessage());
+				responses[position] = slotFailure(slot.plan.request, Constants.MSG_FAILED_TO_SCHEDULE + e.getMessage());
+			}
+		}
+	}
 
-			List<String> scheduledTimes = new ArrayList<>();
-			int triggerIndex = 0;
-			for (ZonedDateTime windowStart : visibilityWindows) {
-				String triggerName = jobName + Constants.TRIGGER_NAME_SUFFIX + triggerIndex++;
-				Trigger trigger = buildJobTrigger(
-						jobDetail,
-						"Visibility window " + triggerIndex,
-						triggerName,
-						jobGroup + Constants.JOB_GROUP_SUFFIX_TRIGGERS,
-						windowStart);
-				scheduler.scheduleJob(trigger);
-				scheduledTimes.add(windowStart.format(ISO_FORMATTER));
+	ScheduleResponse slotFailure(SlotAddRequest request, String message) {
+		return ScheduleResponse.builder()
+				.jobId(request.getProductCode() + "-" + request.getGameCode())
+				.jobName(Constants.JOB_PREFIX_SLOT + request.getProductCode() + "-" + request.getGameCode())
+				.jobGroup(Constants.JOB_GROUP_PREFIX_SLOTS + request.getGameCode())
+				.success(false)
+				.message(message)
+				.triggerCount(0)
+				.scheduledTimes(new ArrayList<>())
+				.build();
+	}
+
+	private ScheduleResponse slotScheduled(SlotPlan plan, int triggerCount, EpochMillisBuffer scheduledMillis,
+			long persistenceMillis) {
+		return ScheduleResponse.builder()
+				.jobId(plan.jobDetail.getJobDataMap().getString(Constants.KEY_JOB_ID))
+				.jobName(plan.jobDetail.getKey().getName())
+				.jobGroup(plan.jobDetail.getKey().getGroup())
+				.success(true)
+				.message(String.format(Constants.MSG_SLOT_VISIBILITY_SCHEDULED, triggerCount))
+				.triggerCount(triggerCount)
+				.scheduledMillis(scheduledMillis)
+				.zoneId(plan.zoneId)
+				.persistenceMillis(persistenceMillis)
+				.build();
+	}
+
+	/**
+	 * Builds the slot job detail and its (lazy) visibility windows.
+	 *
+	 * @return the plan, or null when there is nothing to schedule now or later
+	 */
+	private SlotPlan planSlotVisibility(SlotAddRequest request) throws Exception {
+		ZoneId zoneId = slotZone(request);
+		ZonedDateTime now = ZonedDateTime.now(zoneId);
+		ZonedDateTime horizonEnd = horizonEnd(request, now);
+
+		boolean hasWindows = SlotVisibilityWindowCalculator.visibilityWindowMillis(request, zoneId, now, horizonEnd).hasNext();
+		boolean refillPending = horizonEnd != null
+				&& SlotVisibilityWindowCalculator.extendsBeyond(request, zoneId, horizonEnd);
+		if (!hasWindows && !refillPending) {
+			return null;
+		}
+
+		String jobId = request.getProductCode() + "-" + request.getGameCode();
+		String jobName = Constants.JOB_PREFIX_SLOT + request.getProductCode() + "-" + request.getGameCode();
+		String jobGroup = Constants.JOB_GROUP_PREFIX_SLOTS + request.getGameCode();
+
+		JobDataMap jobDataMap = new JobDataMap();
+		jobDataMap.put(Constants.KEY_JOB_ID, jobId);
+		jobDataMap.put(Constants.KEY_PRODUCT_CODE, request.getProductCode());
+		jobDataMap.put(Constants.KEY_GAME_CODE, request.getGameCode());
+		jobDataMap.put(Constants.KEY_COUNT, request.getCount());
+		jobDataMap.put(Constants.KEY_SLOT_ADD_REQUEST_JSON, objectMapper.writeValueAsString(request));
+		if (request.getPriority() != null) {
+			jobDataMap.put(Constants.KEY_TRIGGER_PRIORITY, request.getPriority().intValue());
+		}
+		if (horizonEnd != null) {
+			jobDataMap.put(Constants.KEY_MATERIALIZED_UNTIL, horizonEnd.toInstant().toEpochMilli());
+			jobDataMap.put(Constants.KEY_NEXT_TRIGGER_INDEX, 0);
+			// Lets the refiller tell whether the horizon needs extending without parsing the request
+			jobDataMap.put(Constants.KEY_HORIZON_MILLIS, TimeUnit.HOURS.toMillis(request.getSchedule().getHorizonHours()));
+			jobDataMap.put(Constants.KEY_VALID_UNTIL, SlotVisibilityWindowCalculator.validToMillis(request, zoneId));
+		}
+		if (request.getMetadata() != null) {
+			request.getMetadata().forEach((k, v) -> {
+				if (v != null && (v instanceof String || v instanceof Number || v instanceof Boolean)) {
+					jobDataMap.put(k, v);
+				}
+			});
+		}
+		// Tells fire-time payload caches that this schedule replaced any earlier one for the job
+		jobDataMap.put(Constants.KEY_PAYLOAD_VERSION, System.currentTimeMillis());
+
+		@SuppressWarnings("unchecked")
+		Class<? extends Job> jobClass = (Class<? extends Job>) Class.forName(Constants.SLOT_EXECUTION_JOB_CLASS);
+
+		JobDetail jobDetail = buildJobDetail(
+				jobDataMap,
+				"Slot visibility: " + request.getProductCode(),
+				jobName,
+				jobGroup,
+				jobClass);
+		if (slotPayloadTemplates.isEnabled()) {
+			slotPayloadTemplates.template(jobDetail);
+		}
+		return new SlotPlan(request, jobDetail, SlotVisibilityWindowCalculator.visibilityWindowEnds(request, zoneId),
+				zoneId, now, horizonEnd);
+	}
+
+	private static final class SlotPlan {
+		private final SlotAddRequest request;
+		private final JobDetail jobDetail;
+		private final LongUnaryOperator windowEnds;
+		private final ZoneId zoneId;
+		private final ZonedDateTime now;
+		private final ZonedDateTime horizonEnd;
+
+		private SlotPlan(SlotAddRequest request, JobDetail jobDetail, LongUnaryOperator windowEnds, ZoneId zoneId,
+				ZonedDateTime now, ZonedDateTime horizonEnd) {
+			this.request = request;
+			this.jobDetail = jobDetail;
+			this.windowEnds = windowEnds;
+			this.zoneId = zoneId;
+			this.now = now;
+			this.horizonEnd = horizonEnd;
+		}
+
+		/**
+		 * @return a fresh lazy iterator over the plan's windows, the same ones on every call
+		 */
+		private PrimitiveIterator.OfLong windows() {
+			return SlotVisibilityWindowCalculator.visibilityWindowMillis(request, zoneId, now, horizonEnd);
+		}
+	}
+
+	/**
+	 * A planned slot job with its windows computed, ready to be stored; its triggers are built from
+	 * the window millis while storing.
+	 */
+	static final class PreparedSlot {
+		private final SlotPlan plan;
+		private final long[] windowStarts;
+		private final long[] windowEnds;
+
+		private PreparedSlot(SlotPlan plan) {
+			this.plan = plan;
+			EpochMillisBuffer starts = new EpochMillisBuffer();
+			plan.windows().forEachRemaining((long start) -> starts.add(start));
+			this.windowStarts = starts.toArray();
+			this.windowEnds = new long[windowStarts.length];
+			for (int i = 0; i < windowStarts.length; i++) {
+				windowEnds[i] = plan.windowEnds.applyAsLong(windowStarts[i]);
 			}
+		}
 
-			log.info("Scheduled slot visibility {} with {} trigger(s)", jobName, visibilityWindows.size());
+		private PrimitiveIterator.OfLong windows() {
+			return Arrays.stream(windowStarts).iterator();
+		}
 
-			return ScheduleResponse.builder()
-					.jobId(jobId)
-					.jobName(jobName)
-					.jobGroup(jobGroup)
-					.success(true)
-					.message(String.format(Constants.MSG_SLOT_VISIBILITY_SCHEDULED, visibilityWindows.size()))
-					.triggerCount(visibilityWindows.size())
-					.scheduledTimes(scheduledTimes)
+		/**
+		 * Window starts come in ascending order, and a window's end depends only on its start.
+		 */
+		private LongUnaryOperator windowEnds() {
+			return windowStart -> {
+				int index = Arrays.binarySearch(windowStarts, windowStart);
+				return index >= 0 ? windowEnds[index] : plan.windowEnds.applyAsLong(windowStart);
+			};
+		}
+	}
+
+	/**
+	 * Extends every rolling-horizon slot job (schedule.horizonHours) so that its windows are
+	 * materialized up to now + horizon. Runs periodically via {@link #scheduleHorizonRefillJob()}.
+	 */
+	public void refillSlotHorizons() {
+		try {
+			for (String jobGroup : scheduler.getJobGroupNames()) {
+				if (!jobGroup.startsWith(Constants.JOB_GROUP_PREFIX_SLOTS)) {
+					continue;
+				}
+				for (JobKey jobKey : scheduler.getJobKeys(GroupMatcher.jobGroupEquals(jobGroup))) {
+					try {
+						refillSlotHorizon(jobKey);
+					} catch (Exception e) {
+						log.error("Failed to refill slot horizon for {}: {}", jobKey, e.getMessage());
+					}
+				}
+			}
+		} catch (SchedulerException e) {
+			log.error("Failed to list slot jobs for horizon refill: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * Materializes the job's windows from where the last refill stopped up to now + horizon. Jobs
+	 * whose horizon is still ahead, or whose schedule is fully materialized, are skipped from their
+	 * job data without parsing the request. The new triggers are only stored while the job's
+	 * payload version and materialized-until are the ones read here, so a schedule replaced in the
+	 * meantime is left alone. Without {@link SchedulerJobStore} the check is a separate read before
+	 * the job update and its new triggers are stored in one scheduleJob call.
+	 */
+	private void refillSlotHorizon(JobKey jobKey) throws Exception {
+		JobDetail jobDetail = scheduler.getJobDetail(jobKey);
+		if (jobDetail == null || !jobDetail.getJobDataMap().containsKey(Constants.KEY_MATERIALIZED_UNTIL)) {
+			return;
+		}
+		JobDataMap dataMap = jobDetail.getJobDataMap();
+		long materializedUntilMillis = dataMap.getLong(Constants.KEY_MATERIALIZED_UNTIL);
+		if (dataMap.containsKey(Constants.KEY_HORIZON_MILLIS)
+				&& (System.currentTimeMillis() + dataMap.getLong(Constants.KEY_HORIZON_MILLIS) <= materializedUntilMillis
+						|| materializedUntilMillis > dataMap.getLong(Constants.KEY_VALID_UNTIL))) {
+			return;
+		}
+		SlotAddRequest request = objectMapper.readValue(
+				dataMap.getString(Constants.KEY_SLOT_ADD_REQUEST_JSON), SlotAddRequest.class);
+
+		ZoneId zoneId = slotZone(request);
+		ZonedDateTime now = ZonedDateTime.now(zoneId);
+		ZonedDateTime horizonEnd = horizonEnd(request, now);
+		ZonedDateTime materializedUntil = ZonedDateTime.ofInstant(Instant.ofEpochMilli(materializedUntilMillis), zoneId);
+		if (horizonEnd == null || !horizonEnd.isAfter(materializedUntil)) {
+			return;
+		}
+
+		ZonedDateTime from = materializedUntil.isAfter(now) ? materializedUntil : now;
+		PrimitiveIterator.OfLong windows = SlotVisibilityWindowCalculator.visibilityWindowMillis(
+				request, zoneId, from, horizonEnd);
+
+		JobDetail refreshed = jobDetail.getJobBuilder()
+				.usingJobData(Constants.KEY_MATERIALIZED_UNTIL, horizonEnd.toInstant().toEpochMilli())
+				.build();
+		Map<String, Object> expected = new HashMap<>();
+		expected.put(Constants.KEY_PAYLOAD_VERSION, dataMap.get(Constants.KEY_PAYLOAD_VERSION));
+		expected.put(Constants.KEY_MATERIALIZED_UNTIL, dataMap.get(Constants.KEY_MATERIALIZED_UNTIL));
+		WindowTriggerChunks chunks = new WindowTriggerChunks(refreshed, windows,
+				SlotVisibilityWindowCalculator.visibilityWindowEnds(request, zoneId),
+				dataMap.getInt(Constants.KEY_NEXT_TRIGGER_INDEX), "Visibility window ", EpochMillisBuffer.summary());
+
+		// Job detail update and new triggers go to the store together, after the version check
+		SchedulerJobStore jobStore = QuartzRuntime.jobStore(scheduler.getSchedulerName());
+		if (jobStore != null) {
+			if (!jobStore.storeJobWithTriggerChunksIfUnchanged(refreshed, expected, chunks)) {
+				log.info("Skipped slot horizon refill of {}: it was rescheduled meanwhile", jobKey);
+				return;
+			}
+		} else {
+			JobDetail current = scheduler.getJobDetail(jobKey);
+			if (current == null || !expected.entrySet().stream().allMatch(
+					entry -> Objects.equals(current.getJobDataMap().get(entry.getKey()), entry.getValue()))) {
+				log.info("Skipped slot horizon refill of {}: it was rescheduled meanwhile", jobKey);
+				return;
+			}
+			scheduler.scheduleJob(refreshed, allTriggers(chunks), true);
+		}
+
+		log.info("Extended slot horizon {} to {} with {} trigger(s)", jobKey, horizonEnd,
+				chunks.triggerIndex - dataMap.getInt(Constants.KEY_NEXT_TRIGGER_INDEX));
+	}
+
+	/**
+	 * Registers (or re-registers) the internal job that keeps rolling-horizon slot jobs topped up.
+	 */
+	public void scheduleHorizonRefillJob() {
+		try {
+			@SuppressWarnings("unchecked")
+			Class<? extends Job> jobClass = (Class<? extends Job>) Class.forName(Constants.SLOT_HORIZON_REFILL_JOB_CLASS);
+			JobDetail jobDetail = buildJobDetail(
+					new JobDataMap(),
+					"Slot visibility horizon refill",
+					Constants.HORIZON_REFILL_JOB_NAME,
+					Constants.JOB_GROUP_INTERNAL,
+					jobClass);
+			Trigger trigger = TriggerBuilder.newTrigger()
+					.forJob(jobDetail)
+					.withIdentity(Constants.HORIZON_REFILL_JOB_NAME + Constants.TRIGGER_NAME_SUFFIX + 0,
+							Constants.JOB_GROUP_INTERNAL + Constants.JOB_GROUP_SUFFIX_TRIGGERS)
+					.withDescription("Slot visibility horizon refill")
+					.startNow()
+					.withSchedule(SimpleScheduleBuilder.simpleSchedule()
+							.withIntervalInMinutes(horizonRefillIntervalMinutes)
+							.repeatForever()
+							.withMisfireHandlingInstructionNextWithRemainingCount())
 					.build();
+			scheduler.scheduleJob(jobDetail, Collections.singleton(trigger), true);
+			log.info("Scheduled slot horizon refill every {} minute(s)", horizonRefillIntervalMinutes);
 		} catch (Exception e) {
-			log.error("Failed to schedule slot visibility: {}", e.getMessage());
-			return ScheduleResponse.builder()
-					.jobId(request.getProductCode() + "-" + request.getGameCode())
-					.jobName(Constants.JOB_PREFIX_SLOT + request.getProductCode() + "-" + request.getGameCode())
-					.jobGroup(Constants.JOB_GROUP_PREFIX_SLOTS + request.getGameCode())
-					.success(false)
-					.message(Constants.MSG_FAILED_TO_SCHEDULE + e.getMessage())
-					.triggerCount(0)
-					.scheduledTimes(new ArrayList<>())
-					.build();
+			log.error("Failed to schedule slot horizon refill: {}", e.getMessage());
+		}
+	}
+
+	private ZoneId slotZone(SlotAddRequest request) {
+		return request.getTimezone() != null && !request.getTimezone().isEmpty()
+				? ZoneId.of(request.getTimezone())
+				: ZoneId.of(Constants.DEFAULT_TIMEZONE_UTC);
+	}
+
+	/**
+	 * End of the rolling horizon for the request, or null when every window is materialized up front.
+	 */
+	private ZonedDateTime horizonEnd(SlotAddRequest request, ZonedDateTime now) {
+		if (request.getSchedule() == null || request.getSchedule().getHorizonHours() == null) {
+			return null;
 		}
+		return now.plusHours(request.getSchedule().getHorizonHours());
 	}
 
 	/**
@@ -150,6 +567,13 @@ public class SchedulerService {
 	 * Slots can be daily, weekly, or monthly based on campaign.
 	 */
 	public ScheduleResponse scheduleSlot(SlotScheduleRequest request) {
+		return scheduleSlot(request, true);
+	}
+
+	/**
+	 * @param includeScheduledTimes see {@link #scheduleSlotVisibility(SlotAddRequest, boolean)}
+	 */
+	public ScheduleResponse scheduleSlot(SlotScheduleRequest request, boolean includeScheduledTimes) {
 		String jobId = request.getCampaignId() + "-" + request.getProductSlotId();
 		String jobName = Constants.JOB_PREFIX_SLOT + request.getCampaignId() + "-" + request.getProductSlotId();
 		String jobGroup = Constants.JOB_GROUP_PREFIX_SLOTS + (request.getGameType() != null ? request.getGameType() : Constants.DEFAULT_JOB_GROUP);
@@ -176,9 +600,11 @@ public class SchedulerService {
 				.pauseDurationMinutes(request.getPauseBetweenSlotsMinutes())
 				.endOnDateChange(request.isEndOnDateChange())
 				.timezone(request.getTimezone())
+				.compactTriggers(request.isCompactTriggers())
+				.priority(request.getPriority())
 				.build();
 
-		return scheduleJob(jobRequest);
+		return scheduleJob(jobRequest, includeScheduledTimes);
 	}
 
 	private RecurrenceFrequency mapSlotTypeToRecurrence(SlotType slotType) {
@@ -195,6 +621,13 @@ public class SchedulerService {
 	 * Generic scheduler - schedules any type of job with full control over timing and recurrence.
 	 */
 	public ScheduleResponse scheduleGeneric(GenericScheduleRequest request) {
+		return scheduleGeneric(request, true);
+	}
+
+	/**
+	 * @param includeScheduledTimes see {@link #scheduleSlotVisibility(SlotAddRequest, boolean)}
+	 */
+	public ScheduleResponse scheduleGeneric(GenericScheduleRequest request, boolean includeScheduledTimes) {
 		JobScheduleRequest jobRequest = JobScheduleRequest.builder()
 				.jobId(request.getJobId())
 				.jobName(request.getJobName() != null ? request.getJobName() : request.getJobId())
@@ -209,8 +642,10 @@ public class SchedulerService {
 				.pauseDurationMinutes(request.getPauseDurationMinutes())
 				.endOnDateChange(request.isEndOnDateChange())
 				.timezone(request.getTimezone())
+				.compactTriggers(request.isCompactTriggers())
+				.priority(request.getPriority())
 				.build();
-		return scheduleJob(jobRequest);
+		return scheduleJob(jobRequest, includeScheduledTimes);
 	}
 
 	private RecurrenceFrequency mapRecurrenceType(GenericScheduleRequest.RecurrenceType type) {
@@ -227,6 +662,13 @@ public class SchedulerService {
 	 * and work/pause cycles (e.g., work 2hr, pause 1hr, work 2hr until end).
 	 */
 	public ScheduleResponse scheduleJob(JobScheduleRequest request) {
+		return scheduleJob(request, true);
+	}
+
+	/**
+	 * @param includeScheduledTimes see {@link #scheduleSlotVisibility(SlotAddRequest, boolean)}
+	 */
+	public ScheduleResponse scheduleJob(JobScheduleRequest request, boolean includeScheduledTimes) {
 		try {
 			ZoneId zoneId = parseTimezone(request.getTimezone());
 			ZonedDateTime startTime = parseDateTime(request.getStartTime(), zoneId);
@@ -234,16 +676,25 @@ public class SchedulerService {
 
 			validateScheduleTimes(startTime, endTime);
 
-			List<ZonedDateTime> workWindows;
+			if (request.isCompactTriggers()) {
+				ScheduleResponse compactResponse = scheduleCompactJob(request, startTime, endTime, zoneId,
+						includeScheduledTimes);
+				if (compactResponse != null) {
+					return compactResponse;
+				}
+				log.info("Job {} has no fixed calendar interval, scheduling one trigger per window", request.getJobName());
+			}
+
+			PrimitiveIterator.OfLong workWindows;
 			if (request.isRecurring()) {
-				workWindows = ScheduleWindowCalculator.calculateRecurringWorkWindows(
+				workWindows = ScheduleWindowCalculator.recurringWorkWindowMillis(
 						request, startTime, endTime, zoneId);
 			} else {
-				workWindows = ScheduleWindowCalculator.calculateWorkWindows(
+				workWindows = ScheduleWindowCalculator.workWindowMillis(
 						request, startTime, endTime);
 			}
 
-			if (workWindows.isEmpty()) {
+			if (!workWindows.hasNext()) {
 				return ScheduleResponse.builder()
 						.jobId(request.getJobId())
 						.jobName(request.getJobName())
@@ -255,53 +706,27 @@ public class SchedulerService {
 						.build();
 			}
 
-			@SuppressWarnings("unchecked")
-			Class<? extends Job> jobClass = (Class<? extends Job>) Class.forName(request.getJobClassName());
-
-			JobDataMap jobDataMap = new JobDataMap();
-			if (request.getJobDetails() != null) {
-				request.getJobDetails().forEach(jobDataMap::put);
-			}
-			jobDataMap.put(Constants.KEY_JOB_ID, request.getJobId());
-
-			JobDetail jobDetail = buildJobDetail(
-					jobDataMap,
-					"Scheduled job: " + request.getJobName(),
-					request.getJobName(),
-					request.getJobGroup(),
-					jobClass);
+			JobDetail jobDetail = buildRequestJobDetail(request);
 
-			JobKey jobKey = new JobKey(request.getJobName(), request.getJobGroup());
-			if (scheduler.checkExists(jobKey)) {
-				scheduler.deleteJob(jobKey);
+			EpochMillisBuffer scheduledMillis = scheduledMillis(includeScheduledTimes);
+			StoredWindows stored = reconcileJobWithWindows(jobDetail, workWindows, null, "Work window ", scheduledMillis);
+			if (stored == null) {
+				stored = storeJobWithWindows(jobDetail, workWindows, null, 0, "Work window ", true, scheduledMillis);
 			}
-			scheduler.addJob(jobDetail, true);
 
-			List<String> scheduledTimes = new ArrayList<>();
-			int triggerIndex = 0;
-			for (ZonedDateTime windowStart : workWindows) {
-				String triggerName = request.getJobName() + Constants.TRIGGER_NAME_SUFFIX + triggerIndex++;
-				Trigger trigger = buildJobTrigger(
-						jobDetail,
-						"Work window " + triggerIndex,
-						triggerName,
-						request.getJobGroup() + Constants.JOB_GROUP_SUFFIX_TRIGGERS,
-						windowStart);
-				scheduler.scheduleJob(trigger);
-				scheduledTimes.add(windowStart.format(ISO_FORMATTER));
-			}
-
-			log.info("Scheduled job {} with {} trigger(s) between {} and {}",
-					request.getJobName(), workWindows.size(), startTime, endTime);
+			log.info("Scheduled job {} with {} trigger(s) between {} and {}, persisted in {} ms",
+					request.getJobName(), stored.triggerCount, startTime, endTime, stored.persistenceMillis);
 
 			return ScheduleResponse.builder()
 					.jobId(request.getJobId())
 					.jobName(request.getJobName())
 					.jobGroup(request.getJobGroup())
 					.success(true)
-					.message(String.format(Constants.MSG_JOB_SCHEDULED, workWindows.size()))
-					.triggerCount(workWindows.size())
-					.scheduledTimes(scheduledTimes)
+					.message(String.format(Constants.MSG_JOB_SCHEDULED, stored.triggerCount))
+					.triggerCount(stored.triggerCount)
+					.scheduledMillis(scheduledMillis)
+					.zoneId(startTime.getZone())
+					.persistenceMillis(stored.persistenceMillis)
 					.build();
 		} catch (ClassNotFoundException e) {
 			log.error("Job class not found: {}", request.getJobClassName());
@@ -328,6 +753,284 @@ public class SchedulerService {
 		}
 	}
 
+	/**
+	 * Schedules the request as a few native interval triggers (see {@link CompactTriggerCompiler}).
+	 *
+	 * @return the response, or null when the request has to be expanded window by window
+	 */
+	private ScheduleResponse scheduleCompactJob(JobScheduleRequest request, ZonedDateTime startTime,
+			ZonedDateTime endTime, ZoneId zoneId, boolean includeScheduledTimes) throws ClassNotFoundException, SchedulerException {
+		JobDetail jobDetail = buildRequestJobDetail(request);
+		List<Trigger> triggers = CompactTriggerCompiler.compile(request, jobDetail, startTime, endTime, zoneId);
+		if (triggers == null) {
+			return null;
+		}
+		if (triggers.isEmpty()) {
+			return ScheduleResponse.builder()
+					.jobId(request.getJobId())
+					.jobName(request.getJobName())
+					.jobGroup(request.getJobGroup())
+					.success(false)
+					.message(Constants.MSG_NO_WORK_WINDOWS)
+					.triggerCount(0)
+					.scheduledTimes(new ArrayList<>())
+					.build();
+		}
+
+		// Trigger starts are in window order; the last fire is the latest final fire of any trigger
+		EpochMillisBuffer scheduledMillis = includeScheduledTimes
+				? new EpochMillisBuffer(triggers.size()) : EpochMillisBuffer.summary();
+		long lastFireMillis = Long.MIN_VALUE;
+		for (Trigger trigger : triggers) {
+			scheduledMillis.add(trigger.getStartTime().getTime());
+			Date finalFire = trigger.getFinalFireTime();
+			lastFireMillis = Math.max(lastFireMillis, finalFire != null ? finalFire.getTime() : trigger.getStartTime().getTime());
+		}
+
+		long persistenceMillis = storeJobWithTriggers(jobDetail, new LinkedHashSet<>(triggers));
+
+		log.info("Scheduled job {} with {} compact trigger(s) between {} and {}, persisted in {} ms",
+				request.getJobName(), triggers.size(), startTime, endTime, persistenceMillis);
+
+		return ScheduleResponse.builder()
+				.jobId(request.getJobId())
+				.jobName(request.getJobName())
+				.jobGroup(request.getJobGroup())
+				.success(true)
+				.message(String.format(Constants.MSG_JOB_SCHEDULED_COMPACT, triggers.size()))
+				.triggerCount(triggers.size())
+				.scheduledMillis(scheduledMillis)
+				.zoneId(zoneId)
+				.lastFireTime(ZonedDateTime.ofInstant(Instant.ofEpochMilli(lastFireMillis), zoneId).format(ISO_FORMATTER))
+				.persistenceMillis(persistenceMillis)
+				.build();
+	}
+
+	/**
+	 * Buffer for the fire times of a response: every one of them only when the client asked to see them.
+	 */
+	private static EpochMillisBuffer scheduledMillis(boolean includeScheduledTimes) {
+		return includeScheduledTimes ? new EpochMillisBuffer() : EpochMillisBuffer.summary();
+	}
+
+	private JobDetail buildRequestJobDetail(JobScheduleRequest request) throws ClassNotFoundException {
+		@SuppressWarnings("unchecked")
+		Class<? extends Job> jobClass = (Class<? extends Job>) Class.forName(request.getJobClassName());
+
+		JobDataMap jobDataMap = new JobDataMap();
+		if (request.getJobDetails() != null) {
+			request.getJobDetails().forEach(jobDataMap::put);
+		}
+		jobDataMap.put(Constants.KEY_JOB_ID, request.getJobId());
+		if (request.getPriority() != null) {
+			jobDataMap.put(Constants.KEY_TRIGGER_PRIORITY, request.getPriority().intValue());
+		}
+
+		return buildJobDetail(
+				jobDataMap,
+				"Scheduled job: " + request.getJobName(),
+				request.getJobName(),
+				request.getJobGroup(),
+				jobClass);
+	}
+
+	/**
+	 * Answers how many triggers a job request would create, and lists the first windows,
+	 * without generating the schedule or touching the job store.
+	 */
+	public ScheduleResponse previewJob(JobScheduleRequest request, int limit) {
+		try {
+			ZoneId zoneId = parseTimezone(request.getTimezone());
+			ZonedDateTime startTime = parseDateTime(request.getStartTime(), zoneId);
+			ZonedDateTime endTime = parseDateTime(request.getEndTime(), zoneId);
+
+			validateScheduleTimes(startTime, endTime);
+
+			ScheduleWindowArithmetic windows = ScheduleWindowArithmetic.of(request, startTime, endTime, zoneId);
+			List<String> scheduledTimes = new ArrayList<>();
+			for (long n = 0; n < Math.min(limit, windows.count()); n++) {
+				scheduledTimes.add(windows.nth(n).format(ISO_FORMATTER));
+			}
+
+			return ScheduleResponse.builder()
+					.jobId(request.getJobId())
+					.jobName(request.getJobName())
+					.jobGroup(request.getJobGroup())
+					.success(windows.count() > 0)
+					.message(windows.count() > 0
+							? String.format(Constants.MSG_JOB_PREVIEW, windows.count())
+							: Constants.MSG_NO_WORK_WINDOWS)
+					.triggerCount((int) Math.min(windows.count(), Integer.MAX_VALUE))
+					.scheduledTimes(scheduledTimes)
+					.firstFireTime(windows.count() > 0 ? windows.nth(0).format(ISO_FORMATTER) : null)
+					.lastFireTime(windows.count() > 0 ? windows.nth(windows.count() - 1).format(ISO_FORMATTER) : null)
+					.build();
+		} catch (Exception e) {
+			log.error("Failed to preview job {}: {}", request.getJobName(), e.getMessage());
+			return ScheduleResponse.builder()
+					.jobId(request.getJobId())
+					.jobName(request.getJobName())
+					.jobGroup(request.getJobGroup())
+					.success(false)
+					.message(Constants.MSG_FAILED_TO_SCHEDULE + e.getMessage())
+					.triggerCount(0)
+					.scheduledTimes(new ArrayList<>())
+					.build();
+		}
+	}
+
+	/**
+	 * Lists a job's upcoming fire times page by page. Nothing is materialized up front: each trigger
+	 * read contributes its next fire time to a queue ordered by time, and the earliest is taken and
+	 * replaced by that trigger's following fire until the page is full. Triggers are read from the job
+	 * store by next fire time, a page at a time and only as far as the queue reaches, so a page of a
+	 * job with many triggers does not load them all. One-shot and compact interval triggers are handled
+	 * alike, and calendars attached to triggers are honoured.
+	 *
+	 * @param cursor  position returned by a previous page or by the schedule summary; null starts at the next fire
+	 * @param limit   page size, capped at {@link Constants#MAX_FIRE_TIMES_PAGE_SIZE}
+	 * @param timezone zone used to format the fire times; null means the system default
+	 */
+	public FireTimesPage listFireTimes(String jobName, String jobGroup, String cursor, int limit, String timezone) {
+		JobKey jobKey = new JobKey(jobName, jobGroup);
+		try {
+			if (!scheduler.checkExists(jobKey)) {
+				return FireTimesPage.builder()
+						.jobName(jobName)
+						.jobGroup(jobGroup)
+						.success(false)
+						.message(Constants.MSG_JOB_KEY_NOT_EXIST)
+						.fireTimes(new ArrayList<>())
+						.build();
+			}
+			ZoneId zoneId = parseTimezone(timezone);
+			FireTimeCursor start = cursor != null && !cursor.isEmpty()
+					? FireTimeCursor.decode(cursor)
+					: new FireTimeCursor(Long.MIN_VALUE, 0);
+			int pageSize = Math.max(1, Math.min(limit, Constants.MAX_FIRE_TIMES_PAGE_SIZE));
+
+			long from = start.getFireTimeMillis();
+			SchedulerJobStore jobStore = QuartzRuntime.jobStore(scheduler.getSchedulerName());
+			Map<String, org.quartz.Calendar> calendars = new HashMap<>();
+			PriorityQueue<PendingFire> pending = new PriorityQueue<>();
+			addPendingFires(pending, jobStore != null
+					? jobStore.retrieveTriggersRepeatingPast(jobKey, from)
+					: scheduler.getTriggersOfJob(jobKey), from, calendars);
+			// Triggers next due at or after the cursor are read a page at a time, in order of that time,
+			// whenever the earliest pending fire could come from one not read yet
+			boolean unread = jobStore != null;
+			long readUpTo = from;
+			TriggerKey lastRead = null;
+
+			List<String> fireTimes = new ArrayList<>(pageSize);
+			int toSkip = start.getSkip();
+			long lastMillis = from;
+			int firesAtLast = toSkip;
+			while (true) {
+				while (unread && (pending.isEmpty() || pending.peek().fireTime.getTime() >= readUpTo)) {
+					List<OperableTrigger> read = jobStore.retrieveTriggersByNextFireTime(jobKey, readUpTo, lastRead, pageSize);
+					unread = read.size() == pageSize;
+					if (!read.isEmpty()) {
+						OperableTrigger last = read.get(read.size() - 1);
+						readUpTo = last.getNextFireTime().getTime();
+						lastRead = last.getKey();
+					}
+					addPendingFires(pending, read, from, calendars);
+				}
+				if (pending.isEmpty() || fireTimes.size() >= pageSize) {
+					break;
+				}
+				PendingFire fire = pending.poll();
+				Date following = nextIncludedFireTime(fire.trigger, fire.calendar, fire.fireTime);
+				if (following != null) {
+					pending.add(new PendingFire(fire.trigger, fire.calendar, following));
+				}
+				long millis = fire.fireTime.getTime();
+				if (millis == from && toSkip > 0) {
+					toSkip--;
+					continue;
+				}
+				fireTimes.add(ZonedDateTime.ofInstant(fire.fireTime.toInstant(), zoneId).format(ISO_FORMATTER));
+				firesAtLast = millis == lastMillis ? firesAtLast + 1 : 1;
+				lastMillis = millis;
+			}
+
+			return FireTimesPage.builder()
+					.jobName(jobName)
+					.jobGroup(jobGroup)
+					.success(true)
+					.fireTimes(fireTimes)
+					.nextCursor(pending.isEmpty() ? null : new FireTimeCursor(lastMillis, firesAtLast).encode())
+					.build();
+		} catch (Exception e) {
+			log.error("Failed to list fire times of {}: {}", jobKey, e.getMessage());
+			return FireTimesPage.builder()
+					.jobName(jobName)
+					.jobGroup(jobGroup)
+					.success(false)
+					.message(e.getMessage())
+					.fireTimes(new ArrayList<>())
+					.build();
+		}
+	}
+
+	private void addPendingFires(PriorityQueue<PendingFire> pending, List<? extends Trigger> triggers, long fromMillis,
+			Map<String, org.quartz.Calendar> calendars) throws SchedulerException {
+		for (Trigger trigger : triggers) {
+			org.quartz.Calendar calendar = null;
+			if (trigger.getCalendarName() != null) {
+				calendar = calendars.get(trigger.getCalendarName());
+				if (calendar == null) {
+					calendar = scheduler.getCalendar(trigger.getCalendarName());
+					calendars.put(trigger.getCalendarName(), calendar);
+				}
+			}
+			Date first = firstFireAtOrAfter(trigger, calendar, fromMillis);
+			if (first != null) {
+				pending.add(new PendingFire(trigger, calendar, first));
+			}
+		}
+	}
+
+	/**
+	 * First fire of the trigger at or after fromMillis that it has not fired yet.
+	 */
+	private Date firstFireAtOrAfter(Trigger trigger, org.quartz.Calendar calendar, long fromMillis) {
+		Date next = trigger.getNextFireTime();
+		if (next != null && next.getTime() < fromMillis) {
+			next = trigger.getFireTimeAfter(new Date(fromMillis - 1));
+		}
+		while (next != null && calendar != null && !calendar.isTimeIncluded(next.getTime())) {
+			next = trigger.getFireTimeAfter(next);
+		}
+		return next;
+	}
+
+	private Date nextIncludedFireTime(Trigger trigger, org.quartz.Calendar calendar, Date after) {
+		Date next = trigger.getFireTimeAfter(after);
+		while (next != null && calendar != null && !calendar.isTimeIncluded(next.getTime())) {
+			next = trigger.getFireTimeAfter(next);
+		}
+		return next;
+	}
+
+	private static final class PendingFire implements Comparable<PendingFire> {
+		private final Trigger trigger;
+		private final org.quartz.Calendar calendar;
+		private final Date fireTime;
+
+		private PendingFire(Trigger trigger, org.quartz.Calendar calendar, Date fireTime) {
+			this.trigger = trigger;
+			this.calendar = calendar;
+			this.fireTime = fireTime;
+		}
+
+		@Override
+		public int compareTo(PendingFire other) {
+			return fireTime.compareTo(other.fireTime);
+		}
+	}
+
 	private int getInt(Map<String, Object> map, String key, int defaultValue) {
 		Object val = map.get(key);
 		if (val == null) return defaultValue;
@@ -403,12 +1106,234 @@ public class SchedulerService {
 
 
 
-	private Trigger buildJobTrigger(JobDetail jobDetail,String description,String name,String group, ZonedDateTime dateTime) {
+	/**
+	 * Replaces the job and all of its triggers in one transaction (and one TRIGGER_ACCESS lock)
+	 * instead of one per trigger. Triggers of an older schedule that are not in the new set are
+	 * removed in the same transaction, so a failed store leaves the previous version in place.
+	 * Without {@link SchedulerJobStore} (outside the performance profile) see {@link #replaceJobs}.
+	 *
+	 * @return time spent persisting, in milliseconds
+	 */
+	private long storeJobWithTriggers(JobDetail jobDetail, Set<? extends Trigger> triggers) throws SchedulerException {
+		SchedulerJobStore jobStore = QuartzRuntime.jobStore(scheduler.getSchedulerName());
+		long started = System.nanoTime();
+		if (jobStore != null) {
+			List<OperableTrigger> operable = new ArrayList<>(triggers.size());
+			triggers.forEach(trigger -> operable.add((OperableTrigger) trigger));
+			jobStore.replaceJob(jobDetail, operable);
+		} else {
+			replaceJobs(Collections.singletonMap(jobDetail, triggers));
+		}
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+	}
+
+	/**
+	 * Replaces jobs through the plain Quartz API, for job stores other than {@link SchedulerJobStore}.
+	 * Each job is stored with all of its new triggers in one scheduleJobs call, which overwrites
+	 * triggers with the same keys in one transaction, so the job is never without its triggers and
+	 * a failure keeps the old version. Triggers of the old version beyond the new set are
+	 * unscheduled afterwards, in a second transaction.
+	 */
+	private void replaceJobs(Map<JobDetail, Set<? extends Trigger>> triggersByJob) throws SchedulerException {
+		List<TriggerKey> stale = new ArrayList<>();
+		for (Map.Entry<JobDetail, Set<? extends Trigger>> entry : triggersByJob.entrySet()) {
+			Set<TriggerKey> replaced = new HashSet<>();
+			entry.getValue().forEach(trigger -> replaced.add(trigger.getKey()));
+			for (Trigger existing : scheduler.getTriggersOfJob(entry.getKey().getKey())) {
+				if (!replaced.contains(existing.getKey())) {
+					stale.add(existing.getKey());
+				}
+			}
+		}
+		scheduler.scheduleJobs(triggersByJob, true);
+		if (!stale.isEmpty()) {
+			scheduler.unscheduleJobs(stale);
+		}
+	}
+
+	/**
+	 * Drains the chunks into one trigger set, for the plain Quartz API that takes a job's triggers
+	 * in one call.
+	 */
+	private static Set<Trigger> allTriggers(Iterator<List<OperableTrigger>> chunks) {
+		Set<Trigger> triggers = new LinkedHashSet<>();
+		while (chunks.hasNext()) {
+			triggers.addAll(chunks.next());
+		}
+		return triggers;
+	}
+
+	/**
+	 * Streams windows into the store in chunks of {@code persistenceChunkSize} triggers so that
+	 * only one chunk is held in memory however long the schedule is. All chunks are written in one
+	 * job-store transaction; with replaceJob the job's triggers from an earlier version are removed
+	 * in it too, so readers never see the job without triggers and a failure keeps the old version.
+	 * When the job tracks {@link Constants#KEY_NEXT_TRIGGER_INDEX}, it is updated with the triggers.
+	 * Windows are epoch millis; stored fire times are appended to scheduledMillis unformatted.
+	 * Without {@link SchedulerJobStore} all triggers are built first and stored through {@link #replaceJobs},
+	 * or in one scheduleJob call when the job is not replaced.
+	 */
+	private StoredWindows storeJobWithWindows(JobDetail jobDetail, PrimitiveIterator.OfLong windows,
+			LongUnaryOperator windowEnds, int firstTriggerIndex, String description, boolean replaceJob, EpochMillisBuffer scheduledMillis)
+			throws SchedulerException {
+		SchedulerJobStore jobStore = QuartzRuntime.jobStore(scheduler.getSchedulerName());
+		WindowTriggerChunks chunks = new WindowTriggerChunks(jobDetail, windows, windowEnds, firstTriggerIndex,
+				description, scheduledMillis);
+
+		long started = System.nanoTime();
+		if (jobStore != null) {
+			jobStore.storeJobWithTriggerChunks(jobDetail, chunks, replaceJob);
+		} else if (replaceJob) {
+			replaceJobs(Collections.singletonMap(jobDetail, allTriggers(chunks)));
+		} else {
+			scheduler.scheduleJob(jobDetail, allTriggers(chunks), true);
+		}
+		long persistenceMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+		return new StoredWindows(chunks.triggerIndex - firstTriggerIndex, persistenceMillis);
+	}
+
+	/**
+	 * Turns windows into triggers {@code persistenceChunkSize} at a time, as the job store pulls them.
+	 * A job without windows is still stored with one empty chunk.
+	 */
+	private final class WindowTriggerChunks implements Iterator<List<OperableTrigger>> {
+		private final JobDetail jobDetail;
+		private final PrimitiveIterator.OfLong windows;
+		private final LongUnaryOperator windowEnds;
+		private final String description;
+		private final EpochMillisBuffer scheduledMillis;
+		private int triggerIndex;
+		private boolean firstChunk = true;
+
+		private WindowTriggerChunks(JobDetail jobDetail, PrimitiveIterator.OfLong windows, LongUnaryOperator windowEnds,
+				int firstTriggerIndex, String description, EpochMillisBuffer scheduledMillis) {
+			this.jobDetail = jobDetail;
+			this.windows = windows;
+			this.windowEnds = windowEnds;
+			this.triggerIndex = firstTriggerIndex;
+			this.description = description;
+			this.scheduledMillis = scheduledMillis;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return firstChunk || windows.hasNext();
+		}
+
+		@Override
+		public List<OperableTrigger> next() {
+			Set<Trigger> chunk = new LinkedHashSet<>();
+			triggerIndex = addWindowTriggers(jobDetail, windows, windowEnds, triggerIndex, persistenceChunkSize,
+					description, chunk, scheduledMillis);
+			firstChunk = false;
+			List<OperableTrigger> operable = new ArrayList<>(chunk.size());
+			chunk.forEach(trigger -> operable.add((OperableTrigger) trigger));
+			return operable;
+		}
+	}
+
+	/**
+	 * Brings an existing job's one-shot window triggers in line with the new windows instead of
+	 * deleting and recreating them: triggers whose fire time (and window end and priority) is still wanted are kept, missing windows
+	 * get new triggers and the rest are removed, together with the job detail update in one transaction.
+	 * Writes are proportional to the change, and the job is never left without its triggers.
+	 *
+	 * @return the result, or null before any window is consumed when the job has to be replaced
+	 *         instead (not stored yet, has compact triggers, or the job store cannot reconcile)
+	 */
+	private StoredWindows reconcileJobWithWindows(JobDetail jobDetail, PrimitiveIterator.OfLong windows,
+			LongUnaryOperator windowEnds, String description, EpochMillisBuffer scheduledMillis) throws SchedulerException {
+		SchedulerJobStore jobStore = QuartzRuntime.jobStore(scheduler.getSchedulerName());
+		JobKey jobKey = jobDetail.getKey();
+		if (jobStore == null || !scheduler.checkExists(jobKey)) {
+			return null;
+		}
+
+		WindowTriggerDiff diff = WindowTriggerDiff.of(jobKey, jobStore.retrieveTriggerStarts(jobKey));
+		if (diff == null) {
+			return null;
+		}
+
+		String triggerGroup = jobKey.getGroup() + Constants.JOB_GROUP_SUFFIX_TRIGGERS;
+		int priority = CompactTriggerCompiler.triggerPriority(jobDetail);
+		List<OperableTrigger> added = new ArrayList<>();
+		int kept = 0;
+		while (windows.hasNext()) {
+			long windowStart = windows.nextLong();
+			long windowEnd = windowEnds != null ? windowEnds.applyAsLong(windowStart) : 0L;
+			scheduledMillis.add(windowStart);
+			if (diff.keep(windowStart, windowEnd, priority)) {
+				kept++;
+				continue;
+			}
+			String triggerName = diff.nextTriggerName();
+			added.add((OperableTrigger) buildJobTrigger(
+					jobDetail, description + diff.nextTriggerIndex(), triggerName, triggerGroup, windowStart, windowEnd));
+		}
+		List<TriggerKey> removed = diff.leftover();
+		if (jobDetail.getJobDataMap().containsKey(Constants.KEY_NEXT_TRIGGER_INDEX)) {
+			jobDetail.getJobDataMap().put(Constants.KEY_NEXT_TRIGGER_INDEX, diff.nextTriggerIndex());
+		}
+
+		long started = System.nanoTime();
+		jobStore.storeJobAndReplaceTriggers(jobDetail, added, removed);
+		long persistenceMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+		log.info("Reconciled job {}: kept {}, added {}, removed {} trigger(s) in {} ms",
+				jobKey, kept, added.size(), removed.size(), persistenceMillis);
+		return new StoredWindows(kept + added.size(), persistenceMillis);
+	}
+
+	/**
+	 * Turns up to maxTriggers windows into one-shot triggers named by their index, ending at the
+	 * window end when windowEnds gives one. When the windows run out and the job tracks
+	 * {@link Constants#KEY_NEXT_TRIGGER_INDEX}, the index is recorded on it.
+	 *
+	 * @return the index of the next trigger
+	 */
+	private int addWindowTriggers(JobDetail jobDetail, PrimitiveIterator.OfLong windows, LongUnaryOperator windowEnds,
+			int triggerIndex, int maxTriggers, String description, Set<Trigger> triggers, EpochMillisBuffer scheduledMillis) {
+		JobKey jobKey = jobDetail.getKey();
+		String triggerGroup = jobKey.getGroup() + Constants.JOB_GROUP_SUFFIX_TRIGGERS;
+		int added = 0;
+		while (windows.hasNext() && added++ < maxTriggers) {
+			long windowStart = windows.nextLong();
+			String triggerName = jobKey.getName() + Constants.TRIGGER_NAME_SUFFIX + triggerIndex++;
+			long windowEnd = windowEnds != null ? windowEnds.applyAsLong(windowStart) : 0L;
+			triggers.add(buildJobTrigger(jobDetail, description + triggerIndex, triggerName, triggerGroup,
+					windowStart, windowEnd));
+			scheduledMillis.add(windowStart);
+		}
+		if (!windows.hasNext() && jobDetail.getJobDataMap().containsKey(Constants.KEY_NEXT_TRIGGER_INDEX)) {
+			jobDetail.getJobDataMap().put(Constants.KEY_NEXT_TRIGGER_INDEX, triggerIndex);
+		}
+		return triggerIndex;
+	}
+
+	private static final class StoredWindows {
+		private final int triggerCount;
+		private final long persistenceMillis;
+
+		private StoredWindows(int triggerCount, long persistenceMillis) {
+			this.triggerCount = triggerCount;
+			this.persistenceMillis = persistenceMillis;
+		}
+	}
+
+	/**
+	 * One-shot trigger for a window; a window end after the start becomes the trigger's end time,
+	 * which the job store's window-aware misfire handling reads.
+	 */
+	private Trigger buildJobTrigger(JobDetail jobDetail,String description,String name,String group, long startMillis,
+			long endMillis) {
 		return TriggerBuilder.newTrigger()
                 .forJob(jobDetail)
                 .withIdentity(name, group)
                 .withDescription(description)
-                .startAt(Date.from(dateTime.toInstant()))
+                .startAt(new Date(startMillis))
+                .endAt(endMillis > startMillis ? new Date(endMillis) : null)
+                .withPriority(CompactTriggerCompiler.triggerPriority(jobDetail))
                 .withSchedule(SimpleScheduleBuilder.simpleSchedule().withMisfireHandlingInstructionFireNow())
                 .build();
 	}
@@ -0,0 +1,173 @@
+package com.scheduler.scheduler.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scheduler.scheduler.model.dto.ScheduleResponse;
+import com.scheduler.scheduler.model.dto.SlotAddRequest;
+import com.scheduler.scheduler.util.Constants;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Imports many slots from one NDJSON stream (one {@link SlotAddRequest} per line).
+ *
+ * Requests are parsed incrementally and grouped into batches. Every slot in a batch is planned and
+ * its windows computed in parallel on the bulk executor while the previous batch is written to the
+ * job store, in transactions of at most {@code scheduler.bulk.max-triggers-per-transaction}
+ * triggers; the computed window millis become triggers while they are written, one chunk at a time.
+ * One {@link ScheduleResponse} line is written back per input line, in input order, as soon as its
+ * batch has been stored.
+ */
+@Slf4j
+@Service
+public class SlotBulkImportService {
+
+	private static final byte[] LINE_SEPARATOR = {'\n'};
+
+	@Autowired
+	private SchedulerService schedulerService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	@Qualifier(Constants.BEAN_SLOT_BULK_EXECUTOR)
+	private ThreadPoolTaskExecutor executor;
+
+	@Value("${scheduler.bulk.batch-size:200}")
+	private int batchSize;
+
+	public void importSlots(InputStream ndjson, OutputStream results) throws IOException {
+		long started = System.currentTimeMillis();
+		int itemCount = 0;
+		Batch pending = null;
+		Batch current = new Batch();
+		try (MappingIterator<SlotAddRequest> items = objectMapper.readerFor(SlotAddRequest.class).readValues(ndjson)) {
+			while (true) {
+				SlotAddRequest request;
+				try {
+					if (!items.hasNextValue()) {
+						break;
+					}
+					request = items.nextValue();
+				} catch (JsonProcessingException e) {
+					// The parser cannot resynchronize after malformed input, so the import ends here
+					Batch last = current.submit();
+					finish(pending, results);
+					finish(last, results);
+					pending = null;
+					current = new Batch();
+					writeLine(results, ScheduleResponse.builder()
+							.success(false)
+							.message(String.format(Constants.MSG_BULK_MALFORMED_ITEM, itemCount, e.getOriginalMessage()))
+							.build());
+					break;
+				}
+				itemCount++;
+
+				// A slot appearing twice in one batch would be stored once; start a new batch instead
+				if (current.size() >= batchSize || !current.add(request)) {
+					Batch full = current.submit();
+					finish(pending, results);
+					pending = full;
+					current = new Batch();
+					current.add(request);
+				}
+			}
+			Batch last = current.submit();
+			finish(pending, results);
+			finish(last, results);
+		}
+		log.info("Bulk slot import of {} item(s) finished in {} ms", itemCount, System.currentTimeMillis() - started);
+	}
+
+	/**
+	 * Waits for the batch's windows, stores its slots and writes one result line per slot.
+	 */
+	private void finish(Batch batch, OutputStream results) throws IOException {
+		if (batch == null || batch.size() == 0) {
+			return;
+		}
+		ScheduleResponse[] responses = new ScheduleResponse[batch.size()];
+		List<SchedulerService.PreparedSlot> toStore = new ArrayList<>(batch.size());
+		List<Integer> storedPositions = new ArrayList<>(batch.size());
+		for (int i = 0; i < batch.size(); i++) {
+			SlotAddRequest request = batch.requests.get(i);
+			try {
+				SchedulerService.PreparedSlot prepared = batch.prepared.get(i).get();
+				if (prepared == null) {
+					responses[i] = schedulerService.slotFailure(request, Constants.MSG_NO_VISIBILITY_WINDOWS);
+				} else {
+					toStore.add(prepared);
+					storedPositions.add(i);
+				}
+			} catch (ExecutionException e) {
+				responses[i] = schedulerService.slotFailure(request,
+						Constants.MSG_FAILED_TO_SCHEDULE + e.getCause().getMessage());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Bulk slot import interrupted");
+			}
+		}
+
+		List<ScheduleResponse> stored = schedulerService.storePreparedSlots(toStore);
+		for (int i = 0; i < stored.size(); i++) {
+			responses[storedPositions.get(i)] = stored.get(i);
+		}
+		for (ScheduleResponse response : responses) {
+			writeLine(results, response);
+		}
+		results.flush();
+	}
+
+	private void writeLine(OutputStream results, ScheduleResponse response) throws IOException {
+		results.write(objectMapper.writeValueAsBytes(response));
+		results.write(LINE_SEPARATOR);
+	}
+
+	private final class Batch {
+		private final List<SlotAddRequest> requests = new ArrayList<>();
+		private final Set<String> jobIds = new HashSet<>();
+		private final List<Future<SchedulerService.PreparedSlot>> prepared = new ArrayList<>();
+
+		/**
+		 * @return false when the batch already holds a request for the same slot
+		 */
+		private boolean add(SlotAddRequest request) {
+			if (!jobIds.add(request.getProductCode() + "-" + request.getGameCode())) {
+				return false;
+			}
+			requests.add(request);
+			return true;
+		}
+
+		private int size() {
+			return requests.size();
+		}
+
+		private Batch submit() {
+			for (SlotAddRequest request : requests) {
+				prepared.add(executor.submit(() -> schedulerService.prepareSlotVisibility(request)));
+			}
+			return this;
+		}
+	}
+}
@@ -4,17 +4,29 @@ import com.scheduler.scheduler.model.dto.SlotAddRequest;
 import com.scheduler.scheduler.util.Constants;
 
 import java.time.DayOfWeek;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneRules;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.PrimitiveIterator;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongUnaryOperator;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 /**
  * Calculates slot visibility windows based on SlotAddRequest schedule config.
@@ -42,60 +54,129 @@ public class SlotVisibilityWindowCalculator {
     public static List<ZonedDateTime> calculateVisibilityWindows(
             SlotAddRequest request,
             ZoneId zoneId) {
+        return calculateVisibilityWindows(request, zoneId, ZonedDateTime.now(zoneId), null);
+    }
+
+    /**
+     * Calculates the visibility window start times falling in [from, until).
+     *
+     * @param request the slot add request
+     * @param zoneId  timezone for date/time handling
+     * @param from    earliest window start to include
+     * @param until   window starts at or after this are excluded; null means up to validTo
+     * @return list of ZonedDateTime when each visibility window starts
+     */
+    public static List<ZonedDateTime> calculateVisibilityWindows(
+            SlotAddRequest request,
+            ZoneId zoneId,
+            ZonedDateTime from,
+            ZonedDateTime until) {
+        return WindowIterators.toList(visibilityWindowIterator(request, zoneId, from, until));
+    }
+
+    /**
+     * Lazily yields the visibility window start times falling in [from, until),
+     * in the same order as {@link #calculateVisibilityWindows}. Memory use is independent
+     * of the length of the validFrom/validTo range.
+     */
+    public static Iterator<ZonedDateTime> visibilityWindowIterator(
+            SlotAddRequest request,
+            ZoneId zoneId,
+            ZonedDateTime from,
+            ZonedDateTime until) {
+        return WindowIterators.atZone(visibilityWindowMillis(request, zoneId, from, until), zoneId);
+    }
+
+    /**
+     * Visibility window start times as epoch millis in [from, until); all of them share zoneId.
+     */
+    public static PrimitiveIterator.OfLong visibilityWindowMillis(
+            SlotAddRequest request,
+            ZoneId zoneId,
+            ZonedDateTime from,
+            ZonedDateTime until) {
 
         SlotAddRequest.SlotScheduleConfig schedule = request.getSchedule();
         if (schedule == null || schedule.getValidFrom() == null || schedule.getValidTo() == null) {
-            return Collections.emptyList();
+            return LongStream.empty().iterator();
         }
 
         ZonedDateTime validFromRaw = parseZonedDateTime(schedule.getValidFrom(), zoneId);
         ZonedDateTime validToRaw = parseZonedDateTime(schedule.getValidTo(), zoneId);
         if (validFromRaw == null || validToRaw == null) {
-            return Collections.emptyList();
+            return LongStream.empty().iterator();
         }
         ZonedDateTime validFrom = validFromRaw.withZoneSameInstant(zoneId);
         ZonedDateTime validTo = validToRaw.withZoneSameInstant(zoneId);
         if (validFrom.isAfter(validTo)) {
-            return Collections.emptyList();
+            return LongStream.empty().iterator();
         }
+        return new VisibilityWindowIterator(schedule, zoneId, validFrom, validTo, from, until);
+    }
+
+    /**
+     * Maps a window start yielded by {@link #visibilityWindowMillis} to the end of that window: the
+     * end of the time slot starting then (on the next day when the slot runs past midnight), never
+     * after validTo. Yields 0 when the slot has no usable end.
+     */
+    public static LongUnaryOperator visibilityWindowEnds(SlotAddRequest request, ZoneId zoneId) {
+        SlotAddRequest.SlotScheduleConfig schedule = request.getSchedule();
+        if (schedule == null) {
+            return windowStart -> 0L;
+        }
+        ZonedDateTime validTo = parseZonedDateTime(schedule.getValidTo(), zoneId);
+        long validToMillis = validTo != null ? validTo.toInstant().toEpochMilli() : Long.MAX_VALUE;
 
-        Set<DayOfWeek> allowedDays = parseDaysOfWeek(schedule.getDaysOfWeek());
-        Set<LocalDate> exclusionDates = parseExclusionDates(schedule.getExclusionDates());
         List<SlotAddRequest.TimeSlot> timeSlots = schedule.getTimeSlots();
         if (timeSlots == null || timeSlots.isEmpty()) {
             timeSlots = defaultTimeSlots();
         }
+        TreeMap<LocalTime, LocalTime> slotEnds = new TreeMap<>();
+        for (SlotAddRequest.TimeSlot ts : timeSlots) {
+            slotEnds.putIfAbsent(parseTimeSlotStart(ts.getStart()), parseTimeSlotEnd(ts.getEnd()));
+        }
 
-        List<ZonedDateTime> windows = new ArrayList<>();
-        LocalDate currentDate = validFrom.toLocalDate();
-        LocalDate endDate = validTo.toLocalDate();
-
-        ZonedDateTime now = ZonedDateTime.now(zoneId);
-
-        while (!currentDate.isAfter(endDate)) {
-            if (exclusionDates.contains(currentDate)) {
-                currentDate = currentDate.plusDays(1);
-                continue;
-            }
-            if (!allowedDays.isEmpty() && !allowedDays.contains(currentDate.getDayOfWeek())) {
-                currentDate = currentDate.plusDays(1);
-                continue;
+        return windowStart -> {
+            ZonedDateTime start = Instant.ofEpochMilli(windowStart).atZone(zoneId);
+            // A start in a daylight saving gap was shifted forward, past its slot's start time
+            Map.Entry<LocalTime, LocalTime> slot = slotEnds.floorEntry(start.toLocalTime());
+            if (slot == null || slot.getValue() == null) {
+                return 0L;
             }
+            LocalDate endDate = slot.getValue().isAfter(slot.getKey())
+                    ? start.toLocalDate() : start.toLocalDate().plusDays(1);
+            long windowEnd = Math.min(endDate.atTime(slot.getValue()).atZone(zoneId).toInstant().toEpochMilli(),
+                    validToMillis);
+            return windowEnd > windowStart ? windowEnd : 0L;
+        };
+    }
 
-            for (SlotAddRequest.TimeSlot ts : timeSlots) {
-                ZonedDateTime windowStart = parseTimeSlotStart(currentDate, ts.getStart(), zoneId);
-                if (windowStart.isBefore(validFrom) || windowStart.isAfter(validTo)) {
-                    continue;
-                }
-                if (!windowStart.isBefore(now)) {
-                    windows.add(windowStart);
-                }
-            }
+    public static Stream<ZonedDateTime> streamVisibilityWindows(
+            SlotAddRequest request,
+            ZoneId zoneId,
+            ZonedDateTime from,
+            ZonedDateTime until) {
+        return WindowIterators.stream(visibilityWindowIterator(request, zoneId, from, until));
+    }
 
-            currentDate = currentDate.plusDays(1);
-        }
+    /**
+     * Returns true when the schedule's validTo lies after the given instant,
+     * i.e. windows may still exist beyond it.
+     */
+    public static boolean extendsBeyond(SlotAddRequest request, ZoneId zoneId, ZonedDateTime instant) {
+        SlotAddRequest.SlotScheduleConfig schedule = request.getSchedule();
+        if (schedule == null) return false;
+        ZonedDateTime validTo = parseZonedDateTime(schedule.getValidTo(), zoneId);
+        return validTo != null && validTo.isAfter(instant);
+    }
 
-        return windows;
+    /**
+     * Returns the schedule's validTo as epoch millis, or Long.MAX_VALUE when it has none.
+     */
+    public static long validToMillis(SlotAddRequest request, ZoneId zoneId) {
+        SlotAddRequest.SlotScheduleConfig schedule = request.getSchedule();
+        ZonedDateTime validTo = schedule != null ? parseZonedDateTime(schedule.getValidTo(), zoneId) : null;
+        return validTo != null ? validTo.toInstant().toEpochMilli() : Long.MAX_VALUE;
     }
 
     private static ZonedDateTime parseZonedDateTime(String value, ZoneId zoneId) {
@@ -154,15 +235,130 @@ public class SlotVisibilityWindowCalculator {
                 .collect(Collectors.toSet());
     }
 
-    private static ZonedDateTime parseTimeSlotStart(LocalDate date, String timeStr, ZoneId zoneId) {
+    /**
+     * Parses a time slot start; blank or unparsable values mean midnight.
+     */
+    private static LocalTime parseTimeSlotStart(String timeStr) {
         if (timeStr == null || timeStr.isEmpty()) {
-            return date.atStartOfDay(zoneId);
+            return LocalTime.MIDNIGHT;
         }
         try {
-            LocalTime time = LocalTime.parse(timeStr.trim(), TIME_FORMAT);
-            return date.atTime(time).atZone(zoneId);
+            return LocalTime.parse(timeStr.trim(), TIME_FORMAT);
         } catch (Exception e) {
-            return date.atStartOfDay(zoneId);
+            return LocalTime.MIDNIGHT;
+        }
+    }
+
+    /**
+     * Parses a time slot end; blank or unparsable values mean the slot has no known end.
+     */
+    private static LocalTime parseTimeSlotEnd(String timeStr) {
+        if (timeStr == null || timeStr.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalTime.parse(timeStr.trim(), TIME_FORMAT);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Smallest epoch milli not before the instant, so millisecond windows compare exactly against it.
+     */
+    private static long ceilMillis(ZonedDateTime instant) {
+        long millis = instant.toInstant().toEpochMilli();
+        return instant.getNano() % 1_000_000 == 0 ? millis : millis + 1;
+    }
+
+    /**
+     * Walks the allowed dates one day at a time, yielding each time slot's start on that day.
+     */
+    private static final class VisibilityWindowIterator extends WindowIterators.LookaheadLongIterator {
+
+        private final ZoneId zoneId;
+        private final ZoneRules rules;
+        private final long validFromMillis;
+        private final long validToMillis;
+        private final long fromMillis;
+        private final long untilMillis;
+        private final Set<DayOfWeek> allowedDays;
+        private final Set<LocalDate> exclusionDates;
+        private final List<LocalTime> slotStarts = new ArrayList<>();
+        private final LocalDate endDate;
+        private LocalDate currentDate;
+        private int slotIndex;
+
+        VisibilityWindowIterator(SlotAddRequest.SlotScheduleConfig schedule, ZoneId zoneId,
+                ZonedDateTime validFrom, ZonedDateTime validTo, ZonedDateTime from, ZonedDateTime until) {
+            this.zoneId = zoneId;
+            this.rules = zoneId.getRules();
+            this.validFromMillis = ceilMillis(validFrom);
+            this.validToMillis = validTo.toInstant().toEpochMilli();
+            this.fromMillis = ceilMillis(from);
+            this.untilMillis = until == null ? Long.MAX_VALUE : ceilMillis(until);
+            this.allowedDays = parseDaysOfWeek(schedule.getDaysOfWeek());
+            this.exclusionDates = parseExclusionDates(schedule.getExclusionDates());
+
+            List<SlotAddRequest.TimeSlot> timeSlots = schedule.getTimeSlots();
+            if (timeSlots == null || timeSlots.isEmpty()) {
+                timeSlots = defaultTimeSlots();
+            }
+            for (SlotAddRequest.TimeSlot ts : timeSlots) {
+                slotStarts.add(parseTimeSlotStart(ts.getStart()));
+            }
+
+            LocalDate startDate = validFrom.toLocalDate();
+            LocalDate fromDate = from.withZoneSameInstant(zoneId).toLocalDate();
+            this.currentDate = fromDate.isAfter(startDate) ? fromDate : startDate;
+
+            LocalDate lastDate = validTo.toLocalDate();
+            if (until != null && until.withZoneSameInstant(zoneId).toLocalDate().isBefore(lastDate)) {
+                lastDate = until.withZoneSameInstant(zoneId).toLocalDate();
+            }
+            this.endDate = lastDate;
+            skipDisallowedDates();
+        }
+
+        @Override
+        protected long computeNext() {
+            while (!currentDate.isAfter(endDate)) {
+                while (slotIndex < slotStarts.size()) {
+                    long windowStart = toEpochMillis(currentDate.atTime(slotStarts.get(slotIndex++)));
+                    if (windowStart < validFromMillis || windowStart > validToMillis) {
+                        continue;
+                    }
+                    if (windowStart < fromMillis || windowStart >= untilMillis) {
+                        continue;
+                    }
+                    return windowStart;
+                }
+                currentDate = currentDate.plusDays(1);
+                slotIndex = 0;
+                skipDisallowedDates();
+            }
+            return DONE;
+        }
+
+        /**
+         * Resolves a local slot start with the zone's offset; only daylight saving gaps need the
+         * full ZonedDateTime resolution (which shifts the time forward by the gap length).
+         */
+        private long toEpochMillis(LocalDateTime localStart) {
+            ZoneOffset offset = rules.getOffset(localStart);
+            if (!rules.isValidOffset(localStart, offset)) {
+                return localStart.atZone(zoneId).toInstant().toEpochMilli();
+            }
+            return TimeUnit.SECONDS.toMillis(localStart.toEpochSecond(offset))
+                    + TimeUnit.NANOSECONDS.toMillis(localStart.getNano());
+        }
+
+        private void skipDisallowedDates() {
+            while (!currentDate.isAfter(endDate)
+                    && (exclusionDates.contains(currentDate)
+                        || (!allowedDays.isEmpty() && !allowedDays.contains(currentDate.getDayOfWeek())))) {
+                currentDate = currentDate.plusDays(1);
+            }
         }
     }
 
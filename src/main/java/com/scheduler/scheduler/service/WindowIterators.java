@@ -0,0 +1,134 @@
+package com.scheduler.scheduler.service;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Helpers shared by the window calculators for lazily produced window start times.
+ */
+public final class WindowIterators {
+
+    private WindowIterators() {
+    }
+
+    /**
+     * Wraps a window iterator as a sequential, ordered stream.
+     */
+    public static Stream<ZonedDateTime> stream(Iterator<ZonedDateTime> windows) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(windows,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+    }
+
+    /**
+     * Bounded lookahead: yields windows from the source until the first one at or after {@code until}.
+     * Only valid for sources that produce windows in ascending order.
+     */
+    public static Iterator<ZonedDateTime> until(Iterator<ZonedDateTime> windows, ZonedDateTime until) {
+        return new LookaheadIterator() {
+            @Override
+            protected ZonedDateTime computeNext() {
+                if (!windows.hasNext()) {
+                    return null;
+                }
+                ZonedDateTime next = windows.next();
+                return next.isBefore(until) ? next : null;
+            }
+        };
+    }
+
+    /**
+     * Views epoch-millis windows as ZonedDateTime values in the given zone.
+     */
+    public static Iterator<ZonedDateTime> atZone(PrimitiveIterator.OfLong windows, ZoneId zoneId) {
+        return new Iterator<ZonedDateTime>() {
+            @Override
+            public boolean hasNext() {
+                return windows.hasNext();
+            }
+
+            @Override
+            public ZonedDateTime next() {
+                return ZonedDateTime.ofInstant(Instant.ofEpochMilli(windows.nextLong()), zoneId);
+            }
+        };
+    }
+
+    public static List<ZonedDateTime> toList(Iterator<ZonedDateTime> windows) {
+        List<ZonedDateTime> result = new ArrayList<>();
+        windows.forEachRemaining(result::add);
+        return result;
+    }
+
+    /**
+     * Primitive counterpart of {@link LookaheadIterator} for epoch-millis windows;
+     * {@link #computeNext()} returns {@link #DONE} when exhausted.
+     */
+    abstract static class LookaheadLongIterator implements PrimitiveIterator.OfLong {
+
+        static final long DONE = Long.MIN_VALUE;
+
+        private long next = DONE;
+        private boolean done;
+
+        protected abstract long computeNext();
+
+        @Override
+        public boolean hasNext() {
+            if (next == DONE && !done) {
+                next = computeNext();
+                done = next == DONE;
+            }
+            return next != DONE;
+        }
+
+        @Override
+        public long nextLong() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            long result = next;
+            next = DONE;
+            return result;
+        }
+    }
+
+    /**
+     * Iterator that computes one element ahead; {@link #computeNext()} returns null when exhausted.
+     */
+    abstract static class LookaheadIterator implements Iterator<ZonedDateTime> {
+
+        private ZonedDateTime next;
+        private boolean done;
+
+        protected abstract ZonedDateTime computeNext();
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !done) {
+                next = computeNext();
+                done = next == null;
+            }
+            return next != null;
+        }
+
+        @Override
+        public ZonedDateTime next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ZonedDateTime result = next;
+            next = null;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.scheduler.scheduler.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.quartz.JobKey;
+import org.quartz.TriggerKey;
+
+import com.scheduler.scheduler.quartz.TriggerStart;
+import com.scheduler.scheduler.util.Constants;
+
+/**
+ * Diff of a job's stored one-shot window triggers against its new windows: each window either
+ * keeps a stored trigger with the same start, end and priority or needs a new one, and the
+ * stored triggers no window kept are left over to be removed.
+ */
+final class WindowTriggerDiff {
+
+	private final JobKey jobKey;
+	private final Map<Long, Deque<TriggerStart>> existingByStart = new HashMap<>();
+	private int nextTriggerIndex;
+
+	private WindowTriggerDiff(JobKey jobKey) {
+		this.jobKey = jobKey;
+	}
+
+	/**
+	 * @return the diff, or null when a stored trigger is not a one-shot window trigger and the job
+	 *         has to be replaced instead
+	 */
+	static WindowTriggerDiff of(JobKey jobKey, Collection<TriggerStart> existing) {
+		WindowTriggerDiff diff = new WindowTriggerDiff(jobKey);
+		for (TriggerStart start : existing) {
+			if (!Constants.QUARTZ_TRIGGER_TYPE_SIMPLE.equals(start.getType())) {
+				return null;
+			}
+			diff.existingByStart.computeIfAbsent(start.getStartMillis(), millis -> new ArrayDeque<>()).add(start);
+			diff.nextTriggerIndex = Math.max(diff.nextTriggerIndex, windowTriggerIndex(jobKey, start.getKey()) + 1);
+		}
+		return diff;
+	}
+
+	/**
+	 * Takes one of the stored triggers starting at the window start whose window end (0 for none)
+	 * and priority match.
+	 *
+	 * @return true when the window keeps that trigger, false when it needs a new one
+	 */
+	boolean keep(long windowStart, long windowEnd, int priority) {
+		Deque<TriggerStart> sameStart = existingByStart.get(windowStart);
+		if (sameStart == null) {
+			return false;
+		}
+		for (Iterator<TriggerStart> it = sameStart.iterator(); it.hasNext();) {
+			TriggerStart existing = it.next();
+			if (existing.getEndMillis() == windowEnd && existing.getPriority() == priority) {
+				it.remove();
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the name of the next new trigger; indexes continue after the highest stored one
+	 */
+	String nextTriggerName() {
+		return jobKey.getName() + Constants.TRIGGER_NAME_SUFFIX + nextTriggerIndex++;
+	}
+
+	int nextTriggerIndex() {
+		return nextTriggerIndex;
+	}
+
+	/**
+	 * @return the stored triggers no window kept
+	 */
+	List<TriggerKey> leftover() {
+		List<TriggerKey> leftover = new ArrayList<>();
+		existingByStart.values().forEach(sameStart -> sameStart.forEach(existing -> leftover.add(existing.getKey())));
+		return leftover;
+	}
+
+	/**
+	 * Index encoded in a window trigger name (job name + suffix + index), or -1 for other names.
+	 */
+	private static int windowTriggerIndex(JobKey jobKey, TriggerKey triggerKey) {
+		String prefix = jobKey.getName() + Constants.TRIGGER_NAME_SUFFIX;
+		if (!triggerKey.getName().startsWith(prefix)) {
+			return -1;
+		}
+		try {
+			return Integer.parseInt(triggerKey.getName().substring(prefix.length()));
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+}
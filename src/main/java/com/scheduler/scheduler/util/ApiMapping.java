@@ -11,7 +11,16 @@ public final class ApiMapping {
     public static final String BASE_PATH = "/api/v1/schedule";
     public static final String GENERIC = "";
     public static final String SLOTS = "/slots";
+    public static final String SLOTS_BULK = "/slots/bulk";
     public static final String SLOT = "/slot";
     public static final String JOB = "/job";
+    public static final String JOB_PREVIEW = "/job/preview";
+    public static final String JOB_FIRE_TIMES = "/job/fire-times/{name}/{group}";
+    public static final String TICKETS = "/tickets";
+    public static final String TICKET = "/tickets/{id}";
+    public static final String ADMIN_ACQUISITION = "/admin/acquisition";
+    public static final String ADMIN_FIRE_LAG = "/admin/fire-lag";
+    public static final String ADMIN_WORKER_POOL = "/admin/worker-pool";
+    public static final String ADMIN_MISFIRE_REPLAY = "/admin/misfire-replay";
     public static final String DELETE_JOB = "/delete-job/{name}/{group}";
 }
@@ -7,6 +7,7 @@ public final class Constants {
 
     // ─── Job Classes ───────────────────────────────────────────────────────────
     public static final String SLOT_EXECUTION_JOB_CLASS = "com.scheduler.scheduler.job.SlotExecutionJob";
+    public static final String SLOT_HORIZON_REFILL_JOB_CLASS = "com.scheduler.scheduler.job.SlotHorizonRefillJob";
 
     // ─── JobDataMap Keys ───────────────────────────────────────────────────────
     public static final String KEY_JOB_ID = "jobId";
@@ -33,6 +34,12 @@ public final class Constants {
     public static final String KEY_EXECUTION_TIME = "executionTime";
     public static final String KEY_ACTION = "action";
     public static final String KEY_COUNT = "count";
+    public static final String KEY_MATERIALIZED_UNTIL = "materializedUntil";
+    public static final String KEY_NEXT_TRIGGER_INDEX = "nextTriggerIndex";
+    public static final String KEY_HORIZON_MILLIS = "horizonMillis";
+    public static final String KEY_VALID_UNTIL = "validUntil";
+    public static final String KEY_PAYLOAD_VERSION = "payloadVersion";
+    public static final String KEY_TRIGGER_PRIORITY = "triggerPriority";
 
     // ─── Job Naming & Groups ───────────────────────────────────────────────────
     public static final String JOB_PREFIX_SLOT = "slot-";
@@ -41,6 +48,8 @@ public final class Constants {
     public static final String TRIGGER_NAME_SUFFIX = "-trigger-";
     public static final String JOB_PREFIX_LEGACY = "job-";
     public static final String DEFAULT_JOB_GROUP = "default";
+    public static final String JOB_GROUP_INTERNAL = "scheduler-internal";
+    public static final String HORIZON_REFILL_JOB_NAME = "slot-horizon-refill";
 
     // ─── Kafka ─────────────────────────────────────────────────────────────────
     public static final String KAFKA_TOPIC_PREFIX_SLOT_SCHEDULE = "slot-schedule-";
@@ -52,6 +61,7 @@ public final class Constants {
     // ─── Default Values ────────────────────────────────────────────────────────
     public static final String DEFAULT_TIMEZONE_UTC = "UTC";
     public static final String DEFAULT_GAME_TYPE_WHEEL_OF_FORTUNE = "WHEEL_OF_FORTUNE";
+    public static final int MAX_FIRE_TIMES_PAGE_SIZE = 1000;
 
     // ─── Recurrence Frequency Strings ──────────────────────────────────────────
     public static final String RECURRENCE_DAILY = "DAILY";
@@ -81,6 +91,10 @@ public final class Constants {
     public static final String MSG_FAILED_TO_SCHEDULE = "Failed to schedule: ";
     public static final String MSG_SLOT_VISIBILITY_SCHEDULED = "Slot visibility scheduled with %d execution(s)";
     public static final String MSG_JOB_SCHEDULED = "Job scheduled successfully with %d execution(s)";
+    public static final String MSG_JOB_PREVIEW = "Job would be scheduled with %d execution(s)";
+    public static final String MSG_TICKET_QUEUE_FULL = "Too many pending scheduling requests, retry later";
+    public static final String MSG_BULK_MALFORMED_ITEM = "Malformed slot request at item %d, import stopped: %s";
+    public static final String MSG_JOB_SCHEDULED_COMPACT = "Job scheduled successfully with %d compact trigger(s)";
     public static final String MSG_DATETIME_CANNOT_BE_NULL = "Date/time value cannot be null";
     public static final String MSG_START_BEFORE_END = "Start time must be before end time";
     public static final String MSG_START_IN_FUTURE = "Start time must be in the future";
@@ -92,7 +106,11 @@ public final class Constants {
     // ─── Scheduler Config ──────────────────────────────────────────────────────
     public static final String QUARTZ_DRIVER_DELEGATE = "org.quartz.jobStore.driverDelegateClass";
     public static final String QUARTZ_POSTGRESQL_DELEGATE = "org.quartz.impl.jdbcjobstore.PostgreSQLDelegate";
+    public static final String QUARTZ_TRIGGER_TYPE_SIMPLE = "SIMPLE";
     public static final String BEAN_SCHEDULER = "scheduler";
+    public static final String BEAN_SLOT_BULK_EXECUTOR = "slotBulkExecutor";
+    public static final String BEAN_SCHEDULE_TICKET_EXECUTOR = "scheduleTicketExecutor";
+    public static final String BEAN_OUTBOX_RELAY_EXECUTOR = "outboxRelayExecutor";
 
     // ─── Legacy (keep for backward compatibility) ──────────────────────────────
     public static final String DEFAULT_DATA_SOURCE = "fb8c0b81-1062-43c1-a341-6677e8687c32";
@@ -0,0 +1,124 @@
+package com.scheduler.scheduler.util;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Growable buffer of epoch-millisecond timestamps, used instead of a List of date objects
+ * on the bulk scheduling path. All values share the zone supplied when formatting.
+ * A {@link #summary()} buffer keeps only the count and the earliest and latest value, for
+ * responses that do not list the scheduled times.
+ */
+public final class EpochMillisBuffer {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] values;
+    private int size;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    public EpochMillisBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public EpochMillisBuffer(int initialCapacity) {
+        this.values = new long[Math.max(1, initialCapacity)];
+    }
+
+    private EpochMillisBuffer(long[] values) {
+        this.values = values;
+    }
+
+    /**
+     * A buffer that counts its values and tracks the earliest and latest without keeping them.
+     */
+    public static EpochMillisBuffer summary() {
+        return new EpochMillisBuffer((long[]) null);
+    }
+
+    public void add(long epochMillis) {
+        if (values != null) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size] = epochMillis;
+        }
+        size++;
+        min = Math.min(min, epochMillis);
+        max = Math.max(max, epochMillis);
+    }
+
+    /**
+     * @return false for a {@link #summary()} buffer, whose values cannot be read back
+     */
+    public boolean retainsValues() {
+        return values != null;
+    }
+
+    public long get(int index) {
+        requireValues();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " of " + size);
+        }
+        return values[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Earliest value; the buffer is not kept in order.
+     */
+    public long min() {
+        requireNotEmpty();
+        return min;
+    }
+
+    /**
+     * Latest value; the buffer is not kept in order.
+     */
+    public long max() {
+        requireNotEmpty();
+        return max;
+    }
+
+    public long[] toArray() {
+        requireValues();
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Formats every value in the given zone; only called when a client needs the strings.
+     */
+    public List<String> format(ZoneId zoneId, DateTimeFormatter formatter) {
+        requireValues();
+        List<String> formatted = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            formatted.add(ZonedDateTime.ofInstant(Instant.ofEpochMilli(values[i]), zoneId).format(formatter));
+        }
+        return formatted;
+    }
+
+    private void requireNotEmpty() {
+        if (size == 0) {
+            throw new IndexOutOfBoundsException("Index 0 of 0");
+        }
+    }
+
+    private void requireValues() {
+        if (values == null) {
+            throw new IllegalStateException("Summary buffer does not keep its values");
+        }
+    }
+}
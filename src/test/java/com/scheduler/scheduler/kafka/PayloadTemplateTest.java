@@ -0,0 +1,82 @@
+package com.scheduler.scheduler.kafka;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PayloadTemplateTest {
+
+	private static final DateTimeFormatter ISO_MILLIS = DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss.SSS'Z'")
+			.withZone(ZoneOffset.UTC);
+
+	@Test
+	void writesFixedWidthUtcTimestamps() {
+		long[] epochs = {
+				0L,
+				1L,
+				-1L,
+				1_767_261_600_000L,
+				Instant.parse("2024-02-29T23:59:59.999Z").toEpochMilli(),
+				Instant.parse("2000-03-01T00:00:00Z").toEpochMilli(),
+				Instant.parse("2100-02-28T12:00:00.010Z").toEpochMilli(),
+				Instant.parse("1900-01-01T00:00:00Z").toEpochMilli(),
+				Instant.parse("0001-01-01T00:00:00Z").toEpochMilli(),
+				Instant.parse("9999-12-31T23:59:59.999Z").toEpochMilli()
+		};
+		for (long epochMillis : epochs) {
+			assertEquals(ISO_MILLIS.format(Instant.ofEpochMilli(epochMillis)), timestamp(epochMillis));
+		}
+	}
+
+	@Test
+	void matchesTheFormatterOnEveryDayOfFourCenturies() {
+		// One 400-year era covers every leap year rule
+		LocalDate day = LocalDate.of(1970, 1, 1);
+		LocalDate end = LocalDate.of(2370, 1, 1);
+		long offsetMillis = 12_345_678L;
+		while (day.isBefore(end)) {
+			long epochMillis = day.toEpochDay() * 86_400_000L + offsetMillis;
+			assertEquals(ISO_MILLIS.format(Instant.ofEpochMilli(epochMillis)), timestamp(epochMillis));
+			day = day.plusDays(1);
+			offsetMillis = (offsetMillis * 31 + 7) % 86_400_000L;
+		}
+	}
+
+	@Test
+	void alwaysWritesMilliseconds() {
+		assertEquals("2026-01-01T10:00:00.000Z", timestamp(Instant.parse("2026-01-01T10:00:00Z").toEpochMilli()));
+	}
+
+	@Test
+	void appendsTheExecutionTimeAsLastField() {
+		PayloadTemplate template = new PayloadTemplate("{\"slotId\":\"s-1\",\"count\":3}"
+				.getBytes(StandardCharsets.UTF_8), "executionTime");
+
+		String json = new String(template.render(0L), StandardCharsets.UTF_8);
+
+		assertEquals("{\"slotId\":\"s-1\",\"count\":3,\"executionTime\":\"1970-01-01T00:00:00.000Z\"}", json);
+	}
+
+	@Test
+	void rendersAnEmptyObjectWithoutComma() {
+		PayloadTemplate template = new PayloadTemplate("{}".getBytes(StandardCharsets.UTF_8), "executionTime");
+
+		String json = new String(template.render(0L), StandardCharsets.UTF_8);
+
+		assertEquals("{\"executionTime\":\"1970-01-01T00:00:00.000Z\"}", json);
+	}
+
+	private static String timestamp(long epochMillis) {
+		byte[] out = new byte[26];
+		PayloadTemplate.writeTimestamp(out, 1, epochMillis);
+		assertEquals(0, out[0]);
+		assertEquals(0, out[25]);
+		return new String(out, 1, 24, StandardCharsets.US_ASCII);
+	}
+}
@@ -0,0 +1,130 @@
+package com.scheduler.scheduler.outbox;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.scheduler.scheduler.support.InMemoryJdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutboxRelayTest {
+
+	private static final long XMIN = 100L;
+
+	private final InMemoryJdbcTemplate jdbcTemplate = new InMemoryJdbcTemplate();
+	private final OutboxRelay relay = new OutboxRelay();
+	private boolean lockAvailable = true;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		jdbcTemplate.answer("SELECT pg_try_advisory_xact_lock(?)", args -> lockAvailable);
+		jdbcTemplate.expression("txid_snapshot_xmin(txid_current_snapshot())", () -> XMIN);
+		set("jdbcTemplate", jdbcTemplate);
+		set("transactionTemplate", new TransactionTemplate() {
+			@Override
+			public <T> T execute(TransactionCallback<T> action) {
+				return action.doInTransaction(null);
+			}
+		});
+		set("batchSize", 2);
+		set("sendTimeoutMillis", 50L);
+	}
+
+	@Test
+	void publishesTheOldestCommittedRowsInIdOrderAndMarksThem() throws Exception {
+		MockProducer<String, Object> producer = producer(true);
+		event(3, XMIN - 1);
+		event(1, XMIN - 5);
+		event(2, XMIN - 3);
+
+		assertEquals(2, relay.publishBatch());
+
+		assertEquals("[1, 2]", producer.history().stream().map(ProducerRecord::key).collect(Collectors.toList()).toString());
+		assertEquals("{\"id\":1}", new String((byte[]) producer.history().get(0).value(), StandardCharsets.UTF_8));
+		assertNotNull(row(1).get("published_at"));
+		assertNotNull(row(2).get("published_at"));
+		assertNull(row(3).get("published_at"));
+
+		assertEquals(1, relay.publishBatch());
+		assertEquals(0, relay.publishBatch());
+	}
+
+	@Test
+	void rowsOfTransactionsStillRunningAtTheWatermarkWait() throws Exception {
+		MockProducer<String, Object> producer = producer(true);
+		event(1, XMIN);
+		event(2, XMIN - 1);
+
+		assertEquals(1, relay.publishBatch());
+
+		assertEquals("2", producer.history().get(0).key());
+		assertNull(row(1).get("published_at"));
+	}
+
+	@Test
+	void publishesNothingWhileAnotherNodeHoldsTheLock() throws Exception {
+		MockProducer<String, Object> producer = producer(true);
+		event(1, XMIN - 1);
+		lockAvailable = false;
+
+		assertEquals(0, relay.publishBatch());
+
+		assertTrue(producer.history().isEmpty());
+		assertNull(row(1).get("published_at"));
+	}
+
+	@Test
+	void unacknowledgedBatchStaysUnpublished() throws Exception {
+		producer(false);
+		event(1, XMIN - 1);
+
+		assertThrows(IllegalStateException.class, relay::publishBatch);
+
+		assertNull(row(1).get("published_at"));
+	}
+
+	private MockProducer<String, Object> producer(boolean autoComplete) throws Exception {
+		MockProducer<String, Object> producer = new MockProducer<String, Object>(autoComplete, new StringSerializer(),
+				(topic, value) -> (byte[]) value) {
+			// The template closes the producer after each send, as it would a shared one's proxy
+			@Override
+			public void close(Duration timeout) {
+			}
+		};
+		set("kafkaTemplate", new KafkaTemplate<String, Object>(() -> producer));
+		return producer;
+	}
+
+	private void event(long id, long txId) {
+		jdbcTemplate.insert(Outbox.TABLE, "id", id, "topic", "slot-events", "message_key", String.valueOf(id),
+				"payload", "{\"id\":" + id + "}", "value_type", null, "tx_id", txId, "published_at", null);
+	}
+
+	private Map<String, Object> row(long id) {
+		List<Map<String, Object>> rows = jdbcTemplate.rows(Outbox.TABLE);
+		return rows.stream().filter(row -> row.get("id").equals(id)).findFirst().get();
+	}
+
+	private void set(String name, Object value) throws Exception {
+		Field field = OutboxRelay.class.getDeclaredField(name);
+		field.setAccessible(true);
+		field.set(relay, value);
+	}
+}
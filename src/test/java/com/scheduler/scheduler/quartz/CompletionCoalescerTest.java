@@ -0,0 +1,91 @@
+package com.scheduler.scheduler.quartz;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompletionCoalescerTest {
+
+	@Test
+	void writesALoneItemOnTheSubmittingThread() {
+		List<List<Integer>> batches = new ArrayList<>();
+		CompletionCoalescer<Integer> coalescer = new CompletionCoalescer<>(8, batches::add);
+
+		coalescer.submit(1);
+		coalescer.submit(2);
+
+		assertEquals(2, batches.size());
+		assertEquals(Collections.singletonList(1), batches.get(0));
+	}
+
+	@Test
+	void writerFailureIsRethrownToItsSubmitter() {
+		IllegalStateException failure = new IllegalStateException("database down");
+		CompletionCoalescer<Integer> coalescer = new CompletionCoalescer<>(8, values -> {
+			throw failure;
+		});
+
+		assertSame(failure, assertThrows(IllegalStateException.class, () -> coalescer.submit(1)));
+	}
+
+	@Test
+	void failedBatchIsReportedToEveryWaitingSubmitter() throws Exception {
+		CountDownLatch firstWriting = new CountDownLatch(1);
+		CountDownLatch releaseFirst = new CountDownLatch(1);
+		List<List<Integer>> batches = Collections.synchronizedList(new ArrayList<>());
+		CompletionCoalescer<Integer> coalescer = new CompletionCoalescer<>(8, values -> {
+			batches.add(new ArrayList<>(values));
+			if (values.contains(0)) {
+				firstWriting.countDown();
+				await(releaseFirst);
+				return;
+			}
+			throw new IllegalStateException("batch of " + values.size() + " failed");
+		});
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			Future<?> first = executor.submit(() -> coalescer.submit(0));
+			assertTrue(firstWriting.await(5, TimeUnit.SECONDS));
+			List<Future<?>> waiting = new ArrayList<>();
+			for (int i = 1; i <= 3; i++) {
+				int item = i;
+				waiting.add(executor.submit(() -> coalescer.submit(item)));
+			}
+			// The three submitters queue behind the blocked writer and form the next batch
+			Thread.sleep(100);
+			releaseFirst.countDown();
+
+			first.get(5, TimeUnit.SECONDS);
+			for (Future<?> future : waiting) {
+				ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+				assertTrue(e.getCause() instanceof IllegalStateException);
+			}
+			assertEquals(2, batches.size());
+			assertEquals(3, batches.get(1).size());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
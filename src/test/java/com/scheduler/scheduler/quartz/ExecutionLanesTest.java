@@ -0,0 +1,245 @@
+package com.scheduler.scheduler.quartz;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExecutionLanesTest {
+
+	private static final int POOL_SIZE = 10;
+
+	@Test
+	void parsesLaneSettings() {
+		ExecutionLanes lanes = lanes("slots:match=slots-*|com.example.SlotJob,weight=2,max=50%,groupMax=4;"
+				+ " bulk : match=bulk , max=3 ;");
+
+		List<ExecutionLaneStatus> status = lanes.status();
+		assertEquals(3, status.size());
+		ExecutionLaneStatus slots = status.get(0);
+		assertEquals("slots", slots.getName());
+		assertEquals("slots-*|com.example.SlotJob", slots.getMatch());
+		assertEquals(2, slots.getWeight());
+		assertEquals(5, slots.getMaxConcurrency());
+		assertEquals(4, slots.getGroupMaxConcurrency());
+		ExecutionLaneStatus bulk = status.get(1);
+		assertEquals("bulk", bulk.getName());
+		assertEquals(1, bulk.getWeight());
+		assertEquals(3, bulk.getMaxConcurrency());
+		ExecutionLaneStatus other = status.get(2);
+		assertEquals(ExecutionLanes.CATCH_ALL_LANE, other.getName());
+		assertEquals("", other.getMatch());
+		assertEquals(0, other.getMaxConcurrency());
+	}
+
+	@Test
+	void withoutSpecEverythingRunsInTheCatchAllLane() {
+		for (String spec : new String[] { null, "", "  ;" }) {
+			List<ExecutionLaneStatus> status = lanes(spec).status();
+			assertEquals(1, status.size());
+			assertEquals(ExecutionLanes.CATCH_ALL_LANE, status.get(0).getName());
+		}
+	}
+
+	@Test
+	void laneWithoutMatchReplacesTheImplicitCatchAll() {
+		List<ExecutionLaneStatus> status = lanes("bulk:match=bulk;rest:weight=3").status();
+
+		assertEquals(2, status.size());
+		assertEquals("rest", status.get(1).getName());
+		assertEquals(3, status.get(1).getWeight());
+	}
+
+	@Test
+	void percentageLimitFollowsThePoolSize() {
+		int[] poolSize = { 10 };
+		ExecutionLanes lanes = new ExecutionLanes("bulk:match=bulk,max=25%", 0, () -> poolSize[0]);
+		assertEquals(2, lanes.status().get(0).getMaxConcurrency());
+
+		poolSize[0] = 40;
+		assertEquals(10, lanes.status().get(0).getMaxConcurrency());
+
+		// Never below one worker
+		poolSize[0] = 1;
+		assertEquals(1, lanes.status().get(0).getMaxConcurrency());
+	}
+
+	@Test
+	void rejectsMalformedSpecs() {
+		String[] malformed = {
+				"bulk:match=bulk,colour=red",
+				"bulk:weight=two",
+				"bulk:max=x%",
+				"bulk:match",
+				"bulk:match=a;bulk:match=b",
+				":weight=1",
+				"bulk:match=bulk,weight=0",
+				"bulk:match=bulk,max=-1",
+				"bulk:match=bulk,max=101%",
+				"bulk:match=bulk,groupMax=-2",
+				"a:weight=1;b:weight=2"
+		};
+		for (String spec : malformed) {
+			assertThrows(IllegalArgumentException.class, () -> lanes(spec), spec);
+		}
+	}
+
+	@Test
+	void routesByGroupOrClassPattern() {
+		ExecutionLanes lanes = lanes("slots:match=slots-*;jobs:match=com.example.ReportJob");
+
+		lanes.admit(entry(), "slots-eu", "com.example.SlotJob", 5);
+		lanes.admit(entry(), "reports", "com.example.ReportJob", 5);
+		lanes.admit(entry(), "reports", "com.example.OtherJob", 5);
+		lanes.admit(entry(), null, "java.lang.Thread", 5);
+
+		List<ExecutionLaneStatus> status = lanes.status();
+		assertEquals(1, status.get(0).getPending());
+		assertEquals(1, status.get(1).getPending());
+		assertEquals(2, status.get(2).getPending());
+	}
+
+	@Test
+	void admitTakeFinishedAccounting() {
+		// At most 2 at once, 1 more may wait before each further job counts as busy
+		ExecutionLanes lanes = new ExecutionLanes("bulk:match=bulk,max=2", 1, () -> POOL_SIZE);
+		TimingWheel.Entry[] entries = new TimingWheel.Entry[4];
+		int[] changes = new int[entries.length];
+		for (int i = 0; i < entries.length; i++) {
+			entries[i] = entry();
+			changes[i] = lanes.admit(entries[i], "bulk", "com.example.BulkJob", 5);
+		}
+		// The last one is still waiting for its fire time
+		for (int i = 0; i < 3; i++) {
+			lanes.add(entries[i]);
+		}
+		assertEquals(1, changes[0]);
+		assertEquals(1, changes[1]);
+		assertEquals(0, changes[2]);
+		assertEquals(1, changes[3]);
+		assertEquals(3, lanes.getQueuedCount());
+		assertEquals(2, lanes.getStartableCount());
+
+		int busy = 3;
+		assertSame(entries[0], take(lanes));
+		assertSame(entries[1], take(lanes));
+		assertNull(take(lanes));
+		assertEquals(1, lanes.getQueuedCount());
+		assertEquals(0, lanes.getStartableCount());
+		ExecutionLaneStatus bulk = lanes.status().get(0);
+		assertEquals(2, bulk.getRunning());
+		assertEquals(4, bulk.getPending());
+		assertEquals(2, bulk.getStarted());
+
+		busy += lanes.finished(entries[0], true);
+		assertEquals(2, busy);
+		assertSame(entries[2], take(lanes));
+		busy += lanes.finished(entries[1], true);
+		busy += lanes.finished(entries[2], true);
+		assertEquals(1, busy);
+		// Dropped before it became due
+		busy += lanes.finished(entries[3], false);
+		assertEquals(0, busy);
+
+		bulk = lanes.status().get(0);
+		assertEquals(0, bulk.getRunning());
+		assertEquals(0, bulk.getQueued());
+		assertEquals(0, bulk.getPending());
+	}
+
+	@Test
+	void startsByPriorityThenInArrivalOrder() {
+		ExecutionLanes lanes = lanes(null);
+		TimingWheel.Entry first = entry();
+		TimingWheel.Entry urgent = entry();
+		TimingWheel.Entry second = entry();
+		lanes.admit(first, "g", "com.example.Job", 5);
+		lanes.admit(urgent, "g", "com.example.Job", 9);
+		lanes.admit(second, "g", "com.example.Job", 5);
+		lanes.add(second);
+		lanes.add(first);
+		lanes.add(urgent);
+
+		assertSame(urgent, take(lanes));
+		assertSame(first, take(lanes));
+		assertSame(second, take(lanes));
+	}
+
+	@Test
+	void groupMaxTakesFromGroupsRoundRobin() {
+		ExecutionLanes lanes = lanes("slots:match=slots-*,groupMax=1");
+		TimingWheel.Entry a1 = entry();
+		TimingWheel.Entry a2 = entry();
+		TimingWheel.Entry b1 = entry();
+		lanes.admit(a1, "slots-a", "com.example.SlotJob", 5);
+		lanes.admit(a2, "slots-a", "com.example.SlotJob", 5);
+		lanes.admit(b1, "slots-b", "com.example.SlotJob", 5);
+		lanes.add(a1);
+		lanes.add(a2);
+		lanes.add(b1);
+
+		assertSame(a1, take(lanes));
+		assertSame(b1, take(lanes));
+		// Group slots-a is at its limit
+		assertNull(take(lanes));
+		lanes.finished(a1, true);
+		assertSame(a2, take(lanes));
+	}
+
+	@Test
+	void freeWorkersGoToTheLaneWithFewestRunningPerWeight() {
+		ExecutionLanes lanes = lanes("heavy:match=heavy,weight=3;light:match=light,weight=1");
+		for (int i = 0; i < 8; i++) {
+			String group = i % 2 == 0 ? "heavy" : "light";
+			TimingWheel.Entry entry = entry();
+			lanes.admit(entry, group, "com.example.Job", 5);
+			lanes.add(entry);
+		}
+
+		for (int i = 0; i < 4; i++) {
+			take(lanes);
+		}
+		List<ExecutionLaneStatus> status = lanes.status();
+		assertEquals(3, status.get(0).getRunning());
+		assertEquals(1, status.get(1).getRunning());
+	}
+
+	@Test
+	void laneAtItsLimitDoesNotBlockOtherLanes() {
+		ExecutionLanes lanes = lanes("bulk:match=bulk,max=1");
+		TimingWheel.Entry bulk1 = entry();
+		TimingWheel.Entry bulk2 = entry();
+		TimingWheel.Entry other = entry();
+		lanes.admit(bulk1, "bulk", "com.example.Job", 5);
+		lanes.admit(bulk2, "bulk", "com.example.Job", 5);
+		lanes.admit(other, "reports", "com.example.Job", 5);
+		lanes.add(bulk1);
+		lanes.add(bulk2);
+		lanes.add(other);
+
+		assertSame(bulk1, take(lanes));
+		assertSame(other, take(lanes));
+		assertNull(take(lanes));
+	}
+
+	private static ExecutionLanes lanes(String spec) {
+		return new ExecutionLanes(spec, 1_000, () -> POOL_SIZE);
+	}
+
+	private static TimingWheel.Entry take(ExecutionLanes lanes) {
+		try {
+			return lanes.take(0);
+		} catch (InterruptedException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static TimingWheel.Entry entry() {
+		return new TimingWheel.Entry(() -> {
+		}, 0L);
+	}
+}
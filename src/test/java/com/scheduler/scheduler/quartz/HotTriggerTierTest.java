@@ -0,0 +1,141 @@
+package com.scheduler.scheduler.quartz;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.quartz.JobKey;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.quartz.spi.OperableTrigger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HotTriggerTierTest {
+
+	private static final long HORIZON = 60_000L;
+
+	@Test
+	void fullTierDisplacesItsLatestTriggerForASoonerStoredOne() {
+		long now = System.currentTimeMillis();
+		HotTriggerTier tier = new HotTriggerTier(HORIZON, 3, 5_000L);
+		OperableTrigger latest = trigger("c", now + 30_000L);
+		tier.beginPromotion(now);
+		tier.promote(Arrays.asList(trigger("a", now + 10_000L), trigger("b", now + 20_000L), latest));
+
+		tier.triggerStored(trigger("new", now + 5_000L), now);
+
+		assertTrue(tier.promotionDue(now));
+		assertEquals(Collections.singletonList(latest), tier.displaceForStored());
+		assertEquals(1, tier.beginPromotion(now));
+	}
+
+	@Test
+	void storedTriggerDueAfterEverythingHeldDisplacesNothing() {
+		long now = System.currentTimeMillis();
+		HotTriggerTier tier = new HotTriggerTier(HORIZON, 2, 5_000L);
+		tier.beginPromotion(now);
+		tier.promote(Arrays.asList(trigger("a", now + 10_000L), trigger("b", now + 20_000L)));
+
+		tier.triggerStored(trigger("new", now + 40_000L), now);
+
+		assertTrue(tier.displaceForStored().isEmpty());
+		assertEquals(0, tier.beginPromotion(now));
+	}
+
+	@Test
+	void tierWithRoomDisplacesNothing() {
+		long now = System.currentTimeMillis();
+		HotTriggerTier tier = new HotTriggerTier(HORIZON, 10, 5_000L);
+		tier.beginPromotion(now);
+		tier.promote(Arrays.asList(trigger("a", now + 10_000L), trigger("b", now + 20_000L)));
+
+		tier.triggerStored(trigger("new", now + 5_000L), now);
+
+		assertTrue(tier.displaceForStored().isEmpty());
+		assertEquals(8, tier.beginPromotion(now));
+	}
+
+	@Test
+	void storedTriggersBeyondTheHorizonDoNotMakeThePromotionDue() {
+		long now = System.currentTimeMillis();
+		HotTriggerTier tier = new HotTriggerTier(HORIZON, 2, 5_000L);
+		tier.beginPromotion(now);
+		tier.promote(Collections.singletonList(trigger("a", now + 10_000L)));
+
+		tier.triggerStored(trigger("far", now + HORIZON + 1_000L), now);
+
+		assertFalse(tier.promotionDue(now));
+		assertTrue(tier.promotionDue(now + 5_000L));
+	}
+
+	@Test
+	void takeBatchesTriggersWithinTheTimeWindowOfTheFirst() {
+		long now = System.currentTimeMillis();
+		HotTriggerTier tier = new HotTriggerTier(HORIZON, 10, 5_000L);
+		OperableTrigger first = trigger("a", now + 1_000L);
+		OperableTrigger second = trigger("b", now + 1_500L);
+		tier.promote(Arrays.asList(first, second, trigger("c", now + 9_000L)));
+
+		assertTrue(tier.take(now, 10, 2_000L).isEmpty());
+		assertEquals(Arrays.asList(first, second), tier.take(now + 1_000L, 10, 2_000L));
+		assertEquals(1, tier.size());
+	}
+
+	@Test
+	void triggerEvictedAfterItWasHandedOutIsNotFired() {
+		long now = System.currentTimeMillis();
+		HotTriggerTier tier = new HotTriggerTier(HORIZON, 10, 5_000L);
+		OperableTrigger trigger = trigger("a", now);
+		tier.promote(Collections.singletonList(trigger));
+		List<OperableTrigger> taken = tier.take(now, 10, 0L);
+
+		assertEquals(trigger, tier.evict(trigger.getKey()));
+		assertFalse(tier.claim(taken.get(0)));
+		// Already released together with the store's change
+		assertFalse(tier.released(taken.get(0)));
+	}
+
+	@Test
+	void evictJobDropsQueuedTriggersOfThatJobOnly() {
+		long now = System.currentTimeMillis();
+		HotTriggerTier tier = new HotTriggerTier(HORIZON, 10, 5_000L);
+		OperableTrigger other = trigger("other", "job-2", now + 2_000L);
+		tier.promote(Arrays.asList(trigger("a", now + 1_000L), other));
+
+		assertEquals(1, tier.evictJob(new JobKey("job-1", "tests")).size());
+		assertEquals(Collections.singletonList(other), tier.take(now + 5_000L, 10, 0L));
+	}
+
+	@Test
+	void lateTriggersExpireUnlessTheyIgnoreMisfires() {
+		long now = System.currentTimeMillis();
+		HotTriggerTier tier = new HotTriggerTier(HORIZON, 10, 5_000L);
+		OperableTrigger late = trigger("late", now - 120_000L);
+		OperableTrigger ignoring = trigger("ignoring", now - 110_000L);
+		ignoring.setMisfireInstruction(Trigger.MISFIRE_INSTRUCTION_IGNORE_MISFIRE_POLICY);
+		tier.promote(Arrays.asList(late, ignoring, trigger("on-time", now + 1_000L)));
+
+		assertEquals(Collections.singletonList(late), tier.expire(now - 60_000L));
+		assertEquals(2, tier.size());
+	}
+
+	private static OperableTrigger trigger(String name, long fireTime) {
+		return trigger(name, "job-1", fireTime);
+	}
+
+	private static OperableTrigger trigger(String name, String jobName, long fireTime) {
+		OperableTrigger trigger = (OperableTrigger) TriggerBuilder.newTrigger()
+				.withIdentity(name, "tests")
+				.forJob(jobName, "tests")
+				.startAt(new Date(fireTime))
+				.build();
+		trigger.setNextFireTime(new Date(fireTime));
+		trigger.setFireInstanceId(name + "-" + fireTime);
+		return trigger;
+	}
+}
@@ -0,0 +1,137 @@
+package com.scheduler.scheduler.quartz;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.quartz.SimpleScheduleBuilder;
+import org.quartz.TriggerBuilder;
+import org.quartz.spi.OperableTrigger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MisfireReplayControllerTest {
+
+	private static final long NOW = 1_000_000L;
+
+	@Test
+	void backlogBeyondTheBurstIsReleasedAtTheRateOldestFirst() {
+		MisfireReplayController controller = controller(10, 2, 0, ReplayOrder.OLDEST_FIRST);
+		MissedFire newest = oneShot("c", "g1", NOW - 1_000L);
+		MissedFire oldest = oneShot("a", "g1", NOW - 3_000L);
+		MissedFire middle = oneShot("b", "g1", NOW - 2_000L);
+		List<MissedFire> replays = new ArrayList<>(Arrays.asList(newest, oldest, middle));
+
+		controller.plan(replays, NOW);
+
+		assertEquals(Arrays.asList(oldest, middle, newest), replays);
+		assertEquals(Arrays.asList(NOW, NOW, NOW + 100L), releases(replays));
+		assertEquals(3, controller.getReplayed());
+		assertEquals(1, controller.getDelayed());
+		assertTrue(controller.getBacklogUntil(NOW) > NOW);
+	}
+
+	@Test
+	void newestFirstReleasesTheLatestMissedFireFirst() {
+		MisfireReplayController controller = controller(10, 1, 0, ReplayOrder.NEWEST_FIRST);
+		MissedFire older = oneShot("a", "g1", NOW - 3_000L);
+		MissedFire newer = oneShot("b", "g1", NOW - 1_000L);
+		List<MissedFire> replays = new ArrayList<>(Arrays.asList(older, newer));
+
+		controller.plan(replays, NOW);
+
+		assertEquals(Arrays.asList(newer, older), replays);
+		assertEquals(Arrays.asList(NOW, NOW + 100L), releases(replays));
+	}
+
+	@Test
+	void slowGroupDoesNotHoldUpTheOthers() {
+		MisfireReplayController controller = new MisfireReplayController(0, 1, 0,
+				MisfireReplayController.parseGroupRates("slow=1"), ReplayOrder.OLDEST_FIRST, 1);
+		MissedFire slowFirst = oneShot("a", "slow", NOW - 3_000L);
+		MissedFire slowSecond = oneShot("b", "slow", NOW - 2_000L);
+		MissedFire other = oneShot("c", "fast", NOW - 1_000L);
+		List<MissedFire> replays = new ArrayList<>(Arrays.asList(slowFirst, slowSecond, other));
+
+		controller.plan(replays, NOW);
+
+		assertEquals(Arrays.asList(slowFirst, other, slowSecond), replays);
+		assertEquals(NOW + 1_000L, slowSecond.releaseAt);
+		assertEquals(Collections.singletonMap("slow", NOW + 1_000L), controller.getGroupBacklogUntil(NOW));
+	}
+
+	@Test
+	void repeatingTriggersAreNotPaced() {
+		MisfireReplayController controller = controller(1, 1, 0, ReplayOrder.OLDEST_FIRST);
+		MissedFire repeating = repeating("r", "g1", NOW - 5_000L);
+		MissedFire first = oneShot("a", "g1", NOW - 4_000L);
+		MissedFire second = oneShot("b", "g1", NOW - 3_000L);
+		List<MissedFire> replays = new ArrayList<>(Arrays.asList(repeating, first, second));
+
+		controller.plan(replays, NOW);
+
+		// Left to fire when its misfire instruction said, so none of its regular fires are swallowed
+		assertEquals(Arrays.asList(first, second), replays);
+		assertEquals(Arrays.asList(NOW, NOW + 1_000L), releases(replays));
+		assertEquals(2, controller.getReplayed());
+	}
+
+	@Test
+	void groupRatesMatchExactlyOrByTheLongestPrefix() {
+		Map<String, Double> rates = MisfireReplayController.parseGroupRates("slots-*=20, slots-G1*=5,internal=1");
+		MisfireReplayController controller = new MisfireReplayController(0, 1, 2, rates, ReplayOrder.OLDEST_FIRST, 1);
+
+		assertEquals(1, controller.groupRate("internal"));
+		assertEquals(5, controller.groupRate("slots-G12"));
+		assertEquals(20, controller.groupRate("slots-G2"));
+		assertEquals(2, controller.groupRate("other"));
+		assertTrue(MisfireReplayController.parseGroupRates(" ").isEmpty());
+	}
+
+	@Test
+	void malformedGroupRatesAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> MisfireReplayController.parseGroupRates("slots-*"));
+		assertThrows(IllegalArgumentException.class, () -> MisfireReplayController.parseGroupRates("slots-*=fast"));
+	}
+
+	private static MisfireReplayController controller(double rate, int burst, double groupRate, ReplayOrder order) {
+		return new MisfireReplayController(rate, burst, groupRate, Collections.emptyMap(), order, 1);
+	}
+
+	private static List<Long> releases(List<MissedFire> replays) {
+		List<Long> releases = new ArrayList<>();
+		replays.forEach(replay -> releases.add(replay.releaseAt));
+		return releases;
+	}
+
+	static MissedFire oneShot(String name, String group, long dueMillis) {
+		return oneShot(name, group, dueMillis, null);
+	}
+
+	static MissedFire oneShot(String name, String group, long dueMillis, Long windowEnd) {
+		TriggerBuilder<?> builder = TriggerBuilder.newTrigger()
+				.withIdentity(name, group + "-triggers")
+				.forJob(name.substring(0, 1) + "-job", group)
+				.startAt(new Date(dueMillis));
+		if (windowEnd != null) {
+			builder.endAt(new Date(windowEnd));
+		}
+		return new MissedFire((OperableTrigger) builder.build(), dueMillis, true);
+	}
+
+	private static MissedFire repeating(String name, String group, long dueMillis) {
+		OperableTrigger trigger = (OperableTrigger) TriggerBuilder.newTrigger()
+				.withIdentity(name, group + "-triggers")
+				.forJob(name + "-job", group)
+				.startAt(new Date(dueMillis))
+				.withSchedule(SimpleScheduleBuilder.repeatSecondlyForever(60))
+				.build();
+		return new MissedFire(trigger, dueMillis, false);
+	}
+}
@@ -0,0 +1,205 @@
+package com.scheduler.scheduler.quartz;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quartz.TriggerKey;
+import org.quartz.simpl.SimpleClassLoadHelper;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the statements the delegate prepares, on a connection that records them and answers
+ * every query with the same rows.
+ */
+class SchedulerPostgreSQLDelegateTest {
+
+	private final SchedulerPostgreSQLDelegate delegate = new SchedulerPostgreSQLDelegate();
+	private final List<String> statements = new ArrayList<>();
+	private final Map<Integer, Object> parameters = new HashMap<>();
+	private final List<TriggerKey> rows = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() throws Exception {
+		delegate.initialize(LoggerFactory.getLogger(getClass()), "QRTZ_", "test-scheduler", "node-1",
+				new SimpleClassLoadHelper(), false, null);
+	}
+
+	@Test
+	void acquisitionUsesQuartzsQueryUntilSkipLockedIsOn() throws Exception {
+		rows.add(new TriggerKey("t1", "g1"));
+
+		delegate.selectTriggerToAcquire(connection(), 2_000L, 1_000L, 5);
+
+		assertFalse(statements.get(0).contains("SKIP LOCKED"));
+	}
+
+	@Test
+	void skipLockedAcquisitionLocksTheSelectedRowsInFireOrder() throws Exception {
+		rows.add(new TriggerKey("t1", "g1"));
+		rows.add(new TriggerKey("t2", "g2"));
+		delegate.setSkipLocked(true);
+
+		List<TriggerKey> keys = delegate.selectTriggerToAcquire(connection(), 2_000L, 1_000L, 5);
+
+		String sql = statements.get(0);
+		assertTrue(sql.contains("QRTZ_TRIGGERS"));
+		assertTrue(sql.contains("'test-scheduler'"));
+		assertTrue(sql.contains("ORDER BY NEXT_FIRE_TIME ASC, PRIORITY DESC LIMIT ? FOR UPDATE SKIP LOCKED"));
+		assertFalse(sql.contains("hashtext"));
+		assertEquals("WAITING", parameters.get(1));
+		assertEquals(new BigDecimal("2000"), parameters.get(2));
+		assertEquals(new BigDecimal("1000"), parameters.get(3));
+		assertEquals(5, parameters.get(4));
+		assertEquals(rows, keys);
+	}
+
+	@Test
+	void shardedAcquisitionFiltersOnTheOwnedBuckets() throws Exception {
+		delegate.setSkipLocked(true);
+		delegate.setOwnedShards(8, new int[] {1, 5});
+
+		delegate.selectTriggerToAcquire(connection(), 2_000L, 1_000L, 0);
+
+		String sql = statements.get(0);
+		assertTrue(sql.contains("AND mod(abs(hashtext(JOB_GROUP)::bigint), ?) = ANY(?) ORDER BY"));
+		assertEquals(8, parameters.get(4));
+		assertArrayEquals(new Object[] {1, 5}, (Object[]) ((Array) parameters.get(5)).getArray());
+		// A non-positive batch size still asks for one row
+		assertEquals(1, parameters.get(6));
+	}
+
+	@Test
+	void nodeOwningNoBucketsAcquiresNothingWithoutQuerying() throws Exception {
+		rows.add(new TriggerKey("t1", "g1"));
+		delegate.setSkipLocked(true);
+		delegate.setOwnedShards(8, new int[0]);
+
+		assertTrue(delegate.selectTriggerToAcquire(connection(), 2_000L, 1_000L, 5).isEmpty());
+		assertTrue(statements.isEmpty());
+
+		delegate.setOwnedShards(8, null);
+		assertEquals(rows, delegate.selectTriggerToAcquire(connection(), 2_000L, 1_000L, 5));
+		assertFalse(statements.get(0).contains("hashtext"));
+	}
+
+	@Test
+	void misfireSelectionLocksOneRowPastTheLimitToReportMore() throws Exception {
+		rows.addAll(Arrays.asList(new TriggerKey("t1", "g1"), new TriggerKey("t2", "g1"), new TriggerKey("t3", "g1")));
+		delegate.setSkipLocked(true);
+		List<TriggerKey> misfired = new ArrayList<>();
+
+		assertTrue(delegate.hasMisfiredTriggersInState(connection(), "WAITING", 1_000L, 2, misfired));
+
+		assertTrue(statements.get(0).endsWith("LIMIT ? FOR UPDATE SKIP LOCKED"));
+		assertEquals(new BigDecimal("1000"), parameters.get(1));
+		assertEquals("WAITING", parameters.get(2));
+		assertEquals(3, parameters.get(3));
+		assertEquals(rows.subList(0, 2), misfired);
+	}
+
+	@Test
+	void unlimitedMisfireSelectionTakesEveryRow() throws Exception {
+		rows.addAll(Arrays.asList(new TriggerKey("t1", "g1"), new TriggerKey("t2", "g1")));
+		delegate.setSkipLocked(true);
+		List<TriggerKey> misfired = new ArrayList<>();
+
+		assertFalse(delegate.hasMisfiredTriggersInState(connection(), "WAITING", 1_000L, -1, misfired));
+
+		assertTrue(parameters.containsKey(3));
+		assertNull(parameters.get(3));
+		assertEquals(rows, misfired);
+	}
+
+	@Test
+	void misfireSelectionUsesQuartzsQueryUntilSkipLockedIsOn() throws Exception {
+		delegate.hasMisfiredTriggersInState(connection(), "WAITING", 1_000L, 2, new ArrayList<>());
+
+		assertFalse(statements.get(0).contains("SKIP LOCKED"));
+	}
+
+	private Connection connection() {
+		statements.clear();
+		parameters.clear();
+		return proxy(Connection.class, (method, args) -> {
+			switch (method.getName()) {
+				case "prepareStatement":
+					statements.add((String) args[0]);
+					return preparedStatement();
+				case "createArrayOf":
+					return array((Object[]) args[1]);
+				default:
+					return null;
+			}
+		});
+	}
+
+	private PreparedStatement preparedStatement() {
+		return proxy(PreparedStatement.class, (method, args) -> {
+			if (method.getName().equals("executeQuery")) {
+				return resultSet();
+			}
+			if (method.getName().equals("setNull")) {
+				parameters.put((Integer) args[0], null);
+			} else if (method.getName().startsWith("set") && args != null && args.length == 2
+					&& args[0] instanceof Integer) {
+				parameters.put((Integer) args[0], args[1]);
+			}
+			return null;
+		});
+	}
+
+	private ResultSet resultSet() {
+		int[] row = {-1};
+		return proxy(ResultSet.class, (method, args) -> {
+			switch (method.getName()) {
+				case "next":
+					return ++row[0] < rows.size();
+				case "getString":
+					TriggerKey key = rows.get(row[0]);
+					return args[0].equals("TRIGGER_NAME") ? key.getName() : key.getGroup();
+				default:
+					return null;
+			}
+		});
+	}
+
+	private static Array array(Object[] elements) {
+		return proxy(Array.class, (method, args) -> method.getName().equals("getArray") ? elements : null);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> type, Handler handler) {
+		return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+			Object result = handler.handle(method, args);
+			if (result == null && method.getReturnType() == boolean.class) {
+				return false;
+			}
+			if (result == null && method.getReturnType() == int.class) {
+				return 0;
+			}
+			return result;
+		});
+	}
+
+	private interface Handler {
+		Object handle(Method method, Object[] args) throws Exception;
+	}
+}
@@ -0,0 +1,98 @@
+package com.scheduler.scheduler.quartz;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardAssignmentTest {
+
+	private static final int SHARDS = 256;
+
+	@Test
+	void singleInstanceOwnsEveryBucket() {
+		int[] owned = ShardAssignment.ownedBuckets(Collections.singletonList("node-a"), "node-a", 8);
+
+		assertArrayEquals(new int[] { 0, 1, 2, 3, 4, 5, 6, 7 }, owned);
+	}
+
+	@Test
+	void selfCountsEvenWhenMissingFromTheLiveList() {
+		int[] owned = ShardAssignment.ownedBuckets(Collections.emptyList(), "node-a", 4);
+
+		assertArrayEquals(new int[] { 0, 1, 2, 3 }, owned);
+	}
+
+	@Test
+	void bucketsArePartitionedBetweenLiveInstances() {
+		List<String> live = Arrays.asList("node-a", "node-b", "node-c", "node-d");
+		Set<Integer> seen = new HashSet<>();
+		for (String self : live) {
+			int[] owned = ShardAssignment.ownedBuckets(live, self, SHARDS);
+			assertTrue(owned.length > 0, self + " owns no bucket");
+			for (int i = 0; i < owned.length; i++) {
+				if (i > 0) {
+					assertTrue(owned[i - 1] < owned[i], "buckets not ascending");
+				}
+				assertTrue(owned[i] >= 0 && owned[i] < SHARDS);
+				assertTrue(seen.add(owned[i]), "bucket " + owned[i] + " owned twice");
+			}
+		}
+		assertEquals(SHARDS, seen.size());
+	}
+
+	@Test
+	void everyInstanceComputesTheSameAssignment() {
+		List<String> live = Arrays.asList("node-a", "node-b", "node-c");
+		List<String> reordered = Arrays.asList("node-c", "node-a", "node-b");
+
+		for (String self : live) {
+			assertArrayEquals(ShardAssignment.ownedBuckets(live, self, SHARDS),
+					ShardAssignment.ownedBuckets(reordered, self, SHARDS));
+		}
+	}
+
+	@Test
+	void onlyTheBucketsOfALeavingInstanceMove() {
+		List<String> before = Arrays.asList("node-a", "node-b", "node-c");
+		List<String> after = Arrays.asList("node-a", "node-b");
+		Set<Integer> leaving = toSet(ShardAssignment.ownedBuckets(before, "node-c", SHARDS));
+
+		for (String self : after) {
+			Set<Integer> owned = toSet(ShardAssignment.ownedBuckets(before, self, SHARDS));
+			Set<Integer> ownedAfter = toSet(ShardAssignment.ownedBuckets(after, self, SHARDS));
+			assertTrue(ownedAfter.containsAll(owned), self + " lost a bucket it kept owning");
+			ownedAfter.removeAll(owned);
+			assertTrue(leaving.containsAll(ownedAfter), self + " took a bucket that did not move");
+		}
+	}
+
+	@Test
+	void aJoiningInstanceOnlyTakesBuckets() {
+		List<String> before = Arrays.asList("node-a", "node-b");
+		List<String> after = Arrays.asList("node-a", "node-b", "node-c");
+
+		for (String self : before) {
+			Set<Integer> owned = toSet(ShardAssignment.ownedBuckets(before, self, SHARDS));
+			Set<Integer> ownedAfter = toSet(ShardAssignment.ownedBuckets(after, self, SHARDS));
+			assertTrue(owned.containsAll(ownedAfter), self + " gained a bucket when a node joined");
+			assertFalse(ownedAfter.isEmpty());
+		}
+	}
+
+	private static Set<Integer> toSet(int[] buckets) {
+		Set<Integer> set = new HashSet<>();
+		for (int bucket : buckets) {
+			set.add(bucket);
+		}
+		return set;
+	}
+}
@@ -0,0 +1,184 @@
+package com.scheduler.scheduler.quartz;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+	// 3 levels of 4 slots: level 0 spans 4 ticks, level 1 16, level 2 64; later deadlines overflow
+	private static final int LEVELS = 3;
+	private static final int BITS = 2;
+
+	@Test
+	void rejectsDeadlinesThatAreAlreadyDue() {
+		TimingWheel wheel = new TimingWheel(LEVELS, BITS, 10);
+
+		assertFalse(wheel.add(entry(), 10));
+		assertFalse(wheel.add(entry(), 3));
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void returnsEveryEntryAtItsDeadlineAcrossLevelsAndOverflow() {
+		for (long start : new long[] { 0, 5, 63, 250 }) {
+			TimingWheel wheel = new TimingWheel(LEVELS, BITS, start);
+			Map<TimingWheel.Entry, Long> deadlines = new HashMap<>();
+			for (long deadline = start + 1; deadline <= start + 300; deadline += 3) {
+				TimingWheel.Entry entry = entry();
+				assertTrue(wheel.add(entry, deadline));
+				deadlines.put(entry, deadline);
+			}
+			int added = deadlines.size();
+
+			int returned = 0;
+			while (wheel.currentTick() < start + 300) {
+				List<TimingWheel.Entry> due = collect(wheel.advance());
+				for (TimingWheel.Entry entry : due) {
+					assertEquals(deadlines.get(entry).longValue(), wheel.currentTick(), "start " + start);
+				}
+				returned += due.size();
+				assertEquals(added - returned, wheel.size());
+			}
+			assertEquals(added, returned);
+		}
+	}
+
+	@Test
+	void cascadesAnEntryDownOneLevelAtATime() {
+		TimingWheel wheel = new TimingWheel(LEVELS, BITS, 0);
+		TimingWheel.Entry entry = entry();
+		wheel.add(entry, 37);
+
+		// Level 2 slot [32, 48), then level 1 slot [36, 40), then level 0 slot 37
+		assertEquals(32, wheel.nextEventTick());
+		advanceTo(wheel, 32);
+		assertEquals(36, wheel.nextEventTick());
+		advanceTo(wheel, 36);
+		assertEquals(37, wheel.nextEventTick());
+		assertSame(entry, wheel.advance());
+		assertEquals(Long.MAX_VALUE, wheel.nextEventTick());
+	}
+
+	@Test
+	void nextEventTickIsTheEarliestOccupiedSlot() {
+		TimingWheel wheel = new TimingWheel(LEVELS, BITS, 0);
+		assertEquals(Long.MAX_VALUE, wheel.nextEventTick());
+
+		wheel.add(entry(), 100);
+		// Overflow waits for the next rotation of the top level
+		assertEquals(64, wheel.nextEventTick());
+
+		wheel.add(entry(), 21);
+		assertEquals(16, wheel.nextEventTick());
+
+		wheel.add(entry(), 2);
+		assertEquals(2, wheel.nextEventTick());
+	}
+
+	@Test
+	void overflowIsPlacedAgainOnTopLevelRotation() {
+		TimingWheel wheel = new TimingWheel(LEVELS, BITS, 0);
+		TimingWheel.Entry late = entry();
+		wheel.add(late, 200);
+
+		assertEquals(64, wheel.nextEventTick());
+		advanceTo(wheel, 64);
+		assertEquals(128, wheel.nextEventTick());
+		advanceTo(wheel, 128);
+		assertEquals(192, wheel.nextEventTick());
+		// 200 lies in this rotation and moves straight on to level 1 slot [200, 204)
+		advanceTo(wheel, 192);
+		assertEquals(200, wheel.nextEventTick());
+		advanceTo(wheel, 199);
+		assertSame(late, wheel.advance());
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void skipStopsBeforeTheNextEvent() {
+		TimingWheel wheel = new TimingWheel(LEVELS, BITS, 0);
+		TimingWheel.Entry entry = entry();
+		wheel.add(entry, 37);
+
+		wheel.skip(1_000);
+		assertEquals(31, wheel.currentTick());
+		assertNull(wheel.advance());
+
+		wheel.skip(1_000);
+		assertEquals(35, wheel.currentTick());
+		assertNull(wheel.advance());
+
+		wheel.skip(1_000);
+		assertEquals(36, wheel.currentTick());
+		assertSame(entry, wheel.advance());
+
+		// Empty: moves straight to the requested tick, never backwards
+		wheel.skip(1_000);
+		assertEquals(1_000, wheel.currentTick());
+		wheel.skip(10);
+		assertEquals(1_000, wheel.currentTick());
+	}
+
+	@Test
+	void skipThenAdvanceDeliversLikeStepping() {
+		TimingWheel wheel = new TimingWheel(LEVELS, BITS, 0);
+		Map<TimingWheel.Entry, Long> deadlines = new HashMap<>();
+		for (long deadline : new long[] { 3, 17, 64, 65, 130, 500, 4_097 }) {
+			TimingWheel.Entry entry = entry();
+			wheel.add(entry, deadline);
+			deadlines.put(entry, deadline);
+		}
+
+		int returned = 0;
+		while (wheel.size() > 0) {
+			wheel.skip(Long.MAX_VALUE);
+			for (TimingWheel.Entry entry : collect(wheel.advance())) {
+				assertEquals(deadlines.get(entry).longValue(), wheel.currentTick());
+				returned++;
+			}
+		}
+		assertEquals(deadlines.size(), returned);
+	}
+
+	@Test
+	void drainRemovesEverything() {
+		TimingWheel wheel = new TimingWheel(LEVELS, BITS, 0);
+		wheel.add(entry(), 1);
+		wheel.add(entry(), 20);
+		wheel.add(entry(), 1_000);
+
+		assertEquals(3, collect(wheel.drain()).size());
+		assertEquals(0, wheel.size());
+		assertEquals(Long.MAX_VALUE, wheel.nextEventTick());
+		assertNull(wheel.advance());
+	}
+
+	private static void advanceTo(TimingWheel wheel, long tick) {
+		while (wheel.currentTick() < tick) {
+			assertNull(wheel.advance());
+		}
+	}
+
+	private static List<TimingWheel.Entry> collect(TimingWheel.Entry list) {
+		List<TimingWheel.Entry> entries = new ArrayList<>();
+		for (TimingWheel.Entry e = list; e != null; e = e.next) {
+			entries.add(e);
+		}
+		return entries;
+	}
+
+	private static TimingWheel.Entry entry() {
+		return new TimingWheel.Entry(() -> {
+		}, 0L);
+	}
+}
@@ -0,0 +1,140 @@
+package com.scheduler.scheduler.quartz;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.quartz.SchedulerConfigException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelThreadPoolTest {
+
+	private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+	private TimingWheelThreadPool pool;
+
+	@AfterEach
+	void shutdown() {
+		if (pool != null) {
+			pool.shutdown(true);
+		}
+	}
+
+	@Test
+	void rejectsInvalidSettings() {
+		TimingWheelThreadPool noThreads = newPool();
+		noThreads.setThreadCount(0);
+		assertThrows(SchedulerConfigException.class, noThreads::initialize);
+
+		TimingWheelThreadPool wideWheel = newPool();
+		wideWheel.setWheelBits(16);
+		wideWheel.setWheelLevels(4);
+		assertThrows(SchedulerConfigException.class, wideWheel::initialize);
+
+		TimingWheelThreadPool badLanes = newPool();
+		badLanes.setLanes("bulk:weight=0");
+		assertThrows(SchedulerConfigException.class, badLanes::initialize);
+	}
+
+	@Test
+	void runsTasksWithoutFireTimeOnHandOver() throws Exception {
+		pool = newPool();
+		pool.setThreadCount(2);
+		pool.initialize();
+
+		CountDownLatch done = new CountDownLatch(5);
+		for (int i = 0; i < 5; i++) {
+			assertTrue(pool.runInThread(done::countDown));
+		}
+
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		assertEquals(0, pool.getHeldCount());
+		assertTrue(pool.blockForAvailableThreads() > 0);
+	}
+
+	@Test
+	void laneLimitHoldsBackTheRestOfItsJobs() throws Exception {
+		pool = newPool();
+		pool.setThreadCount(4);
+		pool.setLanes("limited:match=" + LimitedTask.class.getName() + ",max=1");
+		pool.initialize();
+
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+		CountDownLatch done = new CountDownLatch(4);
+		for (int i = 0; i < 4; i++) {
+			pool.runInThread(new LimitedTask(running, maxRunning, done));
+		}
+
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		assertEquals(1, maxRunning.get());
+	}
+
+	@Test
+	void manualResizeIsClampedAndRecorded() throws Exception {
+		pool = newPool();
+		pool.setThreadCount(2);
+		pool.setMaxThreadCount(4);
+		pool.initialize();
+		assertTrue(pool.isAutoscale());
+
+		pool.setPoolSize(10);
+
+		assertEquals(4, pool.getPoolSize());
+		assertEquals(1, pool.getDecisions().size());
+		assertEquals("manual", pool.getDecisions().get(0).getReason());
+		assertEquals(2, pool.getDecisions().get(0).getFromSize());
+	}
+
+	@Test
+	void refusesTasksAfterShutdown() throws Exception {
+		TimingWheelThreadPool stopped = newPool();
+		stopped.initialize();
+		stopped.shutdown(true);
+
+		assertFalse(stopped.runInThread(() -> {
+		}));
+	}
+
+	private static TimingWheelThreadPool newPool() {
+		TimingWheelThreadPool pool = new TimingWheelThreadPool();
+		pool.setInstanceName("TimingWheelThreadPoolTest-" + INSTANCES.incrementAndGet());
+		pool.setMakeThreadsDaemons(true);
+		return pool;
+	}
+
+	/**
+	 * Holds its worker briefly and records how many tasks of its kind ran at once.
+	 */
+	private static final class LimitedTask implements Runnable {
+		private final AtomicInteger running;
+		private final AtomicInteger maxRunning;
+		private final CountDownLatch done;
+
+		LimitedTask(AtomicInteger running, AtomicInteger maxRunning, CountDownLatch done) {
+			this.running = running;
+			this.maxRunning = maxRunning;
+			this.done = done;
+		}
+
+		@Override
+		public void run() {
+			int now = running.incrementAndGet();
+			maxRunning.accumulateAndGet(now, Math::max);
+			try {
+				Thread.sleep(20);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				running.decrementAndGet();
+				done.countDown();
+			}
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package com.scheduler.scheduler.quartz;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+	@Test
+	void burstIsAvailableAtOnceThenOneTokenPerInterval() {
+		TokenBucket bucket = new TokenBucket(10, 3);
+
+		for (int i = 0; i < 3; i++) {
+			assertEquals(1_000, bucket.availableAt(1_000));
+			bucket.take(1_000);
+		}
+		assertEquals(1_100, bucket.availableAt(1_000));
+		bucket.take(1_100);
+		assertEquals(1_200, bucket.availableAt(1_000));
+	}
+
+	@Test
+	void backlogIsReleasedAtTheRate() {
+		TokenBucket bucket = new TokenBucket(10, 1);
+
+		long[] releases = new long[5];
+		for (int i = 0; i < releases.length; i++) {
+			releases[i] = bucket.availableAt(0);
+			bucket.take(releases[i]);
+		}
+
+		assertEquals(0, releases[0]);
+		assertEquals(100, releases[1]);
+		assertEquals(400, releases[4]);
+		assertEquals(400, bucket.drainedAt());
+	}
+
+	@Test
+	void availableAtIsNeverInThePast() {
+		TokenBucket bucket = new TokenBucket(2, 1);
+		bucket.take(0);
+
+		assertEquals(500, bucket.availableAt(100));
+		assertEquals(10_000, bucket.availableAt(10_000));
+	}
+
+	@Test
+	void fullBucketAgainAfterIdling() {
+		TokenBucket bucket = new TokenBucket(10, 3);
+		for (int i = 0; i < 3; i++) {
+			bucket.take(bucket.availableAt(1_000));
+		}
+		assertTrue(bucket.drainedAt() < 5_000);
+
+		for (int i = 0; i < 3; i++) {
+			assertEquals(5_000, bucket.availableAt(5_000));
+			bucket.take(5_000);
+		}
+		assertEquals(5_100, bucket.availableAt(5_000));
+	}
+
+	@Test
+	void burstBelowOneActsAsOne() {
+		TokenBucket bucket = new TokenBucket(4, 0);
+		bucket.take(bucket.availableAt(0));
+
+		assertEquals(250, bucket.availableAt(0));
+	}
+}
@@ -0,0 +1,83 @@
+package com.scheduler.scheduler.quartz;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.quartz.TriggerBuilder;
+import org.quartz.spi.OperableTrigger;
+
+import static com.scheduler.scheduler.quartz.MisfireReplayControllerTest.oneShot;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WindowMisfirePolicyTest {
+
+	private static final long NOW = 1_000_000L;
+
+	@Test
+	void windowsThatAlreadyEndedAreDropped() {
+		WindowMisfirePolicy policy = new WindowMisfirePolicy();
+		MissedFire ended = oneShot("a1", "g1", NOW - 5_000L, NOW - 1_000L);
+		MissedFire open = oneShot("b1", "g1", NOW - 5_000L, NOW + 1_000L);
+		List<MissedFire> missed = new ArrayList<>(Arrays.asList(ended, open));
+
+		assertEquals(Collections.singletonList(ended), policy.apply(missed, NOW));
+
+		assertEquals(Collections.singletonList(open), missed);
+		assertEquals(1, policy.getStaleDropped());
+		assertEquals(1, policy.getCaughtUp());
+	}
+
+	@Test
+	void openWindowsOfOneJobCollapseIntoTheLatest() {
+		WindowMisfirePolicy policy = new WindowMisfirePolicy();
+		MissedFire earliest = oneShot("a1", "g1", NOW - 3_000L, NOW + 10_000L);
+		MissedFire latest = oneShot("a3", "g1", NOW - 1_000L, NOW + 10_000L);
+		MissedFire middle = oneShot("a2", "g1", NOW - 2_000L, NOW + 10_000L);
+		List<MissedFire> missed = new ArrayList<>(Arrays.asList(earliest, latest, middle));
+
+		List<MissedFire> dropped = policy.apply(missed, NOW);
+
+		assertEquals(Collections.singletonList(latest), missed);
+		assertEquals(2, dropped.size());
+		assertEquals(2, policy.getCollapsed());
+	}
+
+	@Test
+	void firesWithoutAWindowAreLeftToTheirMisfireInstruction() {
+		WindowMisfirePolicy policy = new WindowMisfirePolicy();
+		MissedFire noEnd = oneShot("a1", "g1", NOW - 5_000L);
+		OperableTrigger repeating = (OperableTrigger) TriggerBuilder.newTrigger()
+				.withIdentity("r", "g1-triggers")
+				.forJob("r-job", "g1")
+				.startAt(new Date(NOW - 5_000L))
+				.endAt(new Date(NOW - 1_000L))
+				.build();
+		MissedFire repeatingFire = new MissedFire(repeating, NOW - 5_000L, false);
+		List<MissedFire> missed = new ArrayList<>(Arrays.asList(noEnd, repeatingFire));
+
+		assertTrue(policy.apply(missed, NOW).isEmpty());
+		assertEquals(2, missed.size());
+	}
+
+	@Test
+	void pacedFireReleasedOnlyAfterItsWindowEndedIsDropped() {
+		WindowMisfirePolicy policy = new WindowMisfirePolicy();
+		MissedFire inTime = oneShot("a1", "g1", NOW - 5_000L, NOW + 1_000L);
+		MissedFire tooLate = oneShot("b1", "g1", NOW - 5_000L, NOW + 1_000L);
+		List<MissedFire> missed = new ArrayList<>(Arrays.asList(inTime, tooLate));
+		policy.apply(missed, NOW);
+		inTime.releaseAt = NOW + 999L;
+		tooLate.releaseAt = NOW + 1_000L;
+
+		assertEquals(Collections.singletonList(tooLate), policy.dropReleasedAfterEnd(missed));
+
+		assertEquals(Collections.singletonList(inTime), missed);
+		assertEquals(1, policy.getStaleDropped());
+		assertEquals(1, policy.getCaughtUp());
+	}
+}
@@ -0,0 +1,111 @@
+package com.scheduler.scheduler.quartz;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class WorkerPoolAutoscalerTest {
+
+	private static final long SECOND = 1_000_000_000L;
+	private static final long LAG_THRESHOLD_MILLIS = 100;
+
+	@Test
+	void firstEvaluationOnlySamples() {
+		WorkerPoolAutoscaler autoscaler = new WorkerPoolAutoscaler(LAG_THRESHOLD_MILLIS);
+
+		assertNull(autoscaler.evaluate(0, 0, 0, 0, 0, 0, 50, 10, 5, 40));
+	}
+
+	@Test
+	void growsByHalfWhenJobsAreQueued() {
+		PoolSizeDecision decision = secondInterval(0, 0, 0, false, 3, 10, 5, 40);
+
+		assertEquals("queue", decision.getReason());
+		assertEquals(10, decision.getFromSize());
+		assertEquals(15, decision.getToSize());
+		assertEquals(3, decision.getQueued());
+	}
+
+	@Test
+	void doublesWhenSaturatedAndStartingLate() {
+		// 10 fires, 500 ms late on average
+		PoolSizeDecision decision = secondInterval(10, 5_000, 0, true, 0, 10, 5, 40);
+
+		assertEquals("lag", decision.getReason());
+		assertEquals(20, decision.getToSize());
+		assertEquals(500, decision.getMeanLagMillis(), 1e-9);
+	}
+
+	@Test
+	void lateStartsWithoutSaturationAreNotTheSchedulersFault() {
+		assertNull(secondInterval(10, 5_000, 5 * SECOND, false, 0, 10, 5, 40));
+	}
+
+	@Test
+	void growsWhenBusyAboveTargetUtilization() {
+		// 8 worker-seconds in one second on 10 workers
+		PoolSizeDecision decision = secondInterval(0, 0, 8 * SECOND, false, 0, 10, 5, 40);
+
+		assertEquals("utilization", decision.getReason());
+		assertEquals(0.8, decision.getUtilization(), 1e-9);
+		assertEquals(15, decision.getToSize());
+	}
+
+	@Test
+	void growsToWhatTheMeasuredRunTimeNeeds() {
+		// 30 worker-seconds per second need 40 workers at 75% utilization
+		PoolSizeDecision decision = secondInterval(0, 0, 30 * SECOND, false, 0, 10, 5, 64);
+
+		assertEquals(40, decision.getToSize());
+	}
+
+	@Test
+	void growthIsCappedAtMaxSize() {
+		assertEquals(12, secondInterval(0, 0, 0, false, 3, 10, 5, 12).getToSize());
+		assertNull(secondInterval(0, 0, 0, false, 3, 12, 5, 12));
+	}
+
+	@Test
+	void shrinksByAQuarterWhenIdle() {
+		// 1 worker-second per second on 10 workers; 2 are still needed
+		PoolSizeDecision decision = secondInterval(0, 0, SECOND, false, 0, 10, 5, 40);
+
+		assertEquals("idle", decision.getReason());
+		assertEquals(8, decision.getToSize());
+	}
+
+	@Test
+	void neverShrinksBelowMinSize() {
+		assertEquals(5, secondInterval(0, 0, 0, false, 0, 6, 5, 40).getToSize());
+		assertNull(secondInterval(0, 0, 0, false, 0, 5, 5, 40));
+	}
+
+	@Test
+	void keepsTheSizeBetweenTheThresholds() {
+		// 50% utilization, saturated but on time
+		assertNull(secondInterval(10, 100, 5 * SECOND, true, 0, 10, 5, 40));
+	}
+
+	@Test
+	void evaluatesOnlyTheLoadSinceTheLastSample() {
+		WorkerPoolAutoscaler autoscaler = new WorkerPoolAutoscaler(LAG_THRESHOLD_MILLIS);
+		autoscaler.evaluate(0, 0, 0, 0, 0, 0, 0, 10, 5, 40);
+		assertEquals("utilization", autoscaler.evaluate(SECOND, 0, 0, 80, 8 * SECOND, 0, 0, 10, 5, 40).getReason());
+
+		// Same totals a second later: nothing ran in between
+		assertEquals("idle", autoscaler.evaluate(2 * SECOND, 0, 0, 80, 8 * SECOND, 0, 0, 10, 5, 40).getReason());
+	}
+
+	/**
+	 * Samples an idle pool, then evaluates one second with the given load.
+	 */
+	private static PoolSizeDecision secondInterval(long fires, long lagSumMillis, long runNanos, boolean saturated,
+			int queued, int size, int minSize, int maxSize) {
+		WorkerPoolAutoscaler autoscaler = new WorkerPoolAutoscaler(LAG_THRESHOLD_MILLIS);
+		autoscaler.evaluate(0, 0, 0, 0, 0, 0, 0, size, minSize, maxSize);
+		long runs = runNanos > 0 ? 10 : 0;
+		return autoscaler.evaluate(SECOND, fires, lagSumMillis, runs, runNanos, saturated ? 1 : 0, queued, size,
+				minSize, maxSize);
+	}
+}
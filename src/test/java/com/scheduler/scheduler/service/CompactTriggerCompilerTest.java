@@ -0,0 +1,183 @@
+package com.scheduler.scheduler.service;
+
+import com.scheduler.scheduler.model.dto.JobScheduleRequest;
+import com.scheduler.scheduler.model.dto.JobScheduleRequest.RecurrenceFrequency;
+import com.scheduler.scheduler.util.Constants;
+import org.junit.jupiter.api.Test;
+import org.quartz.CalendarIntervalTrigger;
+import org.quartz.Job;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.SimpleTrigger;
+import org.quartz.Trigger;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the compact triggers fire exactly at the windows {@link ScheduleWindowCalculator}
+ * expands for the same request.
+ */
+class CompactTriggerCompilerTest {
+
+    private static final ZoneId UTC = ZoneId.of("UTC");
+    private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+
+    @Test
+    void dailyCyclesBecomeOneTriggerPerWindowOfTheFirstDay() {
+        JobScheduleRequest request = request(true, RecurrenceFrequency.DAILY, 120, 60, true);
+        ZonedDateTime start = at(UTC, "2026-05-01T06:00");
+        ZonedDateTime end = at(UTC, "2026-05-31T18:00");
+
+        List<Trigger> triggers = CompactTriggerCompiler.compile(request, job(null), start, end, UTC);
+
+        // 06:00, 09:00, ... 21:00 on the first day
+        assertEquals(6, triggers.size());
+        assertTrue(triggers.get(0) instanceof CalendarIntervalTrigger);
+        assertEquals(expanded(request, start, end, UTC), fireTimes(triggers));
+    }
+
+    @Test
+    void weeklyTriggersKeepTheirWallClockTimeAcrossDaylightSaving() {
+        JobScheduleRequest request = request(true, RecurrenceFrequency.WEEKLY, 60, 30, true);
+        ZonedDateTime start = at(NEW_YORK, "2026-02-22T09:00");
+        ZonedDateTime end = at(NEW_YORK, "2026-04-30T23:00");
+
+        List<Trigger> triggers = CompactTriggerCompiler.compile(request, job(null), start, end, NEW_YORK);
+
+        assertEquals(expanded(request, start, end, NEW_YORK), fireTimes(triggers));
+    }
+
+    @Test
+    void oneTimeCyclesBecomeOneMinuteIntervalTrigger() {
+        JobScheduleRequest request = request(false, RecurrenceFrequency.DAILY, 50, 10, false);
+        ZonedDateTime start = at(UTC, "2026-05-01T00:00");
+        ZonedDateTime end = at(UTC, "2026-05-03T00:00");
+
+        List<Trigger> triggers = CompactTriggerCompiler.compile(request, job(null), start, end, UTC);
+
+        assertEquals(1, triggers.size());
+        assertEquals(expanded(request, start, end, UTC), fireTimes(triggers));
+        assertEquals(48, fireTimes(triggers).size());
+    }
+
+    @Test
+    void windowStartingAtTheLastPossibleTimeStillFires() {
+        JobScheduleRequest request = request(true, RecurrenceFrequency.DAILY, 0, 0, false);
+        ZonedDateTime start = at(UTC, "2026-05-01T06:00");
+        ZonedDateTime end = at(UTC, "2026-05-10T06:00");
+
+        List<Instant> fireTimes = fireTimes(CompactTriggerCompiler.compile(request, job(null), start, end, UTC));
+
+        assertEquals(expanded(request, start, end, UTC), fireTimes);
+        assertEquals(end.toInstant(), fireTimes.get(fireTimes.size() - 1));
+    }
+
+    @Test
+    void singleWindowIsAOneShotTrigger() {
+        JobScheduleRequest request = request(false, RecurrenceFrequency.DAILY, 60, 0, false);
+        ZonedDateTime start = at(UTC, "2026-05-01T10:00");
+
+        List<Trigger> triggers = CompactTriggerCompiler.compile(request, job(null), start, start.plusMinutes(60), UTC);
+
+        assertEquals(1, triggers.size());
+        assertTrue(triggers.get(0) instanceof SimpleTrigger);
+        assertEquals(Collections.singletonList(start.toInstant()), fireTimes(triggers));
+    }
+
+    @Test
+    void noWindowInTheRangeCompilesToNoTriggers() {
+        JobScheduleRequest request = request(false, RecurrenceFrequency.DAILY, 120, 0, false);
+        ZonedDateTime start = at(UTC, "2026-05-01T10:00");
+
+        assertTrue(CompactTriggerCompiler.compile(request, job(null), start, start.plusMinutes(60), UTC).isEmpty());
+    }
+
+    @Test
+    void overlappingRecurringCyclesCannotBeCompiled() {
+        JobScheduleRequest request = request(true, RecurrenceFrequency.DAILY, 60, 60, false);
+
+        assertNull(CompactTriggerCompiler.compile(request, job(null),
+                at(UTC, "2026-05-01T06:00"), at(UTC, "2026-05-10T06:00"), UTC));
+    }
+
+    @Test
+    void triggersTakeThePriorityFromTheJobData() {
+        JobScheduleRequest request = request(true, RecurrenceFrequency.DAILY, 0, 0, false);
+
+        List<Trigger> triggers = CompactTriggerCompiler.compile(request, job(9),
+                at(UTC, "2026-05-01T06:00"), at(UTC, "2026-05-10T06:00"), UTC);
+
+        assertEquals(9, triggers.get(0).getPriority());
+        assertEquals(Trigger.DEFAULT_PRIORITY, CompactTriggerCompiler.triggerPriority(job(null)));
+    }
+
+    private static List<Instant> expanded(JobScheduleRequest request, ZonedDateTime start, ZonedDateTime end,
+            ZoneId zoneId) {
+        List<ZonedDateTime> windows = request.isRecurring()
+                ? ScheduleWindowCalculator.calculateRecurringWorkWindows(request, start, end, zoneId)
+                : ScheduleWindowCalculator.calculateWorkWindows(request, start, end);
+        List<Instant> instants = new ArrayList<>();
+        for (ZonedDateTime window : windows) {
+            instants.add(window.toInstant());
+        }
+        Collections.sort(instants);
+        return instants;
+    }
+
+    private static List<Instant> fireTimes(List<Trigger> triggers) {
+        List<Instant> fireTimes = new ArrayList<>();
+        for (Trigger trigger : triggers) {
+            Date fire = trigger.getStartTime();
+            while (fire != null) {
+                fireTimes.add(fire.toInstant());
+                fire = trigger.getFireTimeAfter(fire);
+            }
+        }
+        Collections.sort(fireTimes);
+        return fireTimes;
+    }
+
+    private static JobDetail job(Integer priority) {
+        JobBuilder builder = JobBuilder.newJob(NoOpJob.class).withIdentity("window-test", "tests");
+        if (priority != null) {
+            builder.usingJobData(Constants.KEY_TRIGGER_PRIORITY, priority);
+        }
+        return builder.build();
+    }
+
+    private static JobScheduleRequest request(boolean recurring, RecurrenceFrequency frequency, int workMinutes,
+            int pauseMinutes, boolean endOnDateChange) {
+        return JobScheduleRequest.builder()
+                .jobId("job-1")
+                .jobName("window-test")
+                .jobGroup("tests")
+                .recurring(recurring)
+                .recurrenceFrequency(frequency)
+                .workDurationMinutes(workMinutes)
+                .pauseDurationMinutes(pauseMinutes)
+                .endOnDateChange(endOnDateChange)
+                .build();
+    }
+
+    private static ZonedDateTime at(ZoneId zoneId, String localDateTime) {
+        return LocalDateTime.parse(localDateTime).atZone(zoneId);
+    }
+
+    public static class NoOpJob implements Job {
+        @Override
+        public void execute(JobExecutionContext context) {
+        }
+    }
+}
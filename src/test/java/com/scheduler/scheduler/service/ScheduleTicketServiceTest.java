@@ -0,0 +1,99 @@
+package com.scheduler.scheduler.service;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scheduler.scheduler.model.dto.ScheduleResponse;
+import com.scheduler.scheduler.model.dto.ScheduleTicket;
+import com.scheduler.scheduler.support.InMemoryJdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ScheduleTicketServiceTest {
+
+	private static final long RETENTION_MINUTES = 60;
+
+	private final InMemoryJdbcTemplate jdbcTemplate = new InMemoryJdbcTemplate();
+	private final List<Runnable> queued = new ArrayList<>();
+	private final ScheduleTicketService service = new ScheduleTicketService();
+
+	@BeforeEach
+	void setUp() throws Exception {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor() {
+			@Override
+			public void execute(Runnable task) {
+				queued.add(task);
+			}
+		};
+		set("executor", executor);
+		set("jdbcTemplate", jdbcTemplate);
+		set("objectMapper", new ObjectMapper());
+		set("retentionMinutes", RETENTION_MINUTES);
+	}
+
+	@Test
+	void evictsFinishedTicketsPastTheRetention() {
+		long now = System.currentTimeMillis();
+		long expired = now - TimeUnit.MINUTES.toMillis(RETENTION_MINUTES + 1);
+		long recent = now - TimeUnit.MINUTES.toMillis(RETENTION_MINUTES - 1);
+		ticket("old-succeeded", ScheduleTicket.Status.SUCCEEDED, expired, expired);
+		ticket("old-failed", ScheduleTicket.Status.FAILED, expired, expired);
+		ticket("recent", ScheduleTicket.Status.SUCCEEDED, expired, recent);
+
+		service.evictExpired();
+
+		assertEquals(1, jdbcTemplate.rows(ScheduleTicketService.TABLE).size());
+		assertNotNull(service.getTicket("recent"));
+		assertNull(service.getTicket("old-succeeded"));
+	}
+
+	@Test
+	void keepsUnfinishedTicketsHoweverOld() {
+		long longAgo = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(RETENTION_MINUTES * 10);
+		ticket("queued", ScheduleTicket.Status.QUEUED, longAgo, null);
+		ticket("running", ScheduleTicket.Status.RUNNING, longAgo, null);
+
+		service.evictExpired();
+
+		assertEquals(2, jdbcTemplate.rows(ScheduleTicketService.TABLE).size());
+		assertEquals(ScheduleTicket.Status.RUNNING, service.getTicket("running").getStatus());
+	}
+
+	@Test
+	void longRunningTicketStillRecordsItsResult() {
+		ScheduleTicket ticket = service.submit(() -> ScheduleResponse.builder().success(true).triggerCount(3).build());
+		assertEquals(1, queued.size());
+		// The request waited in the queue for longer than the retention
+		Map<String, Object> row = jdbcTemplate.rows(ScheduleTicketService.TABLE).get(0);
+		row.put("submitted_at", System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(RETENTION_MINUTES * 2));
+		service.evictExpired();
+
+		queued.get(0).run();
+
+		ScheduleTicket done = service.getTicket(ticket.getTicketId());
+		assertEquals(ScheduleTicket.Status.SUCCEEDED, done.getStatus());
+		assertEquals(3, done.getResponse().getTriggerCount());
+		assertNotNull(done.getCompletedAt());
+	}
+
+	private void ticket(String id, ScheduleTicket.Status status, long submittedAt, Long completedAt) {
+		jdbcTemplate.insert(ScheduleTicketService.TABLE, "ticket_id", id, "status", status.name(),
+				"submitted_at", submittedAt, "completed_at", completedAt);
+	}
+
+	private void set(String name, Object value) throws Exception {
+		Field field = ScheduleTicketService.class.getDeclaredField(name);
+		field.setAccessible(true);
+		field.set(service, value);
+	}
+}
@@ -0,0 +1,211 @@
+package com.scheduler.scheduler.service;
+
+import com.scheduler.scheduler.model.dto.JobScheduleRequest;
+import com.scheduler.scheduler.model.dto.JobScheduleRequest.RecurrenceFrequency;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the closed-form windows against the windows {@link ScheduleWindowCalculator} generates,
+ * around the 2026 daylight saving transitions of New York (Mar 8 02:00 gap, Nov 1 01:00 overlap)
+ * and London (Mar 29 01:00 gap, Oct 25 01:00 overlap).
+ */
+class ScheduleWindowArithmeticTest {
+
+    private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+    private static final ZoneId LONDON = ZoneId.of("Europe/London");
+
+    @Test
+    void dailyRunsAcrossSpringForward() {
+        assertMatchesCalculator(request(true, RecurrenceFrequency.DAILY, 120, 60, true),
+                at(NEW_YORK, "2026-03-01T00:30"), at(NEW_YORK, "2026-03-15T23:00"), NEW_YORK);
+    }
+
+    @Test
+    void dailyRunsAcrossFallBack() {
+        assertMatchesCalculator(request(true, RecurrenceFrequency.DAILY, 45, 15, true),
+                at(NEW_YORK, "2026-10-25T00:00"), at(NEW_YORK, "2026-11-08T23:59"), NEW_YORK);
+    }
+
+    @Test
+    void dailyStartInsideTheSpringForwardGap() {
+        // 02:30 does not exist on Mar 8 and is shifted to 03:30 for that day only
+        JobScheduleRequest request = request(true, RecurrenceFrequency.DAILY, 30, 30, true);
+        ScheduleWindowArithmetic windows = assertMatchesCalculator(request,
+                at(NEW_YORK, "2026-03-06T02:30"), at(NEW_YORK, "2026-03-10T23:00"), NEW_YORK);
+
+        assertTrue(contains(windows, at(NEW_YORK, "2026-03-08T03:30")));
+        assertTrue(contains(windows, at(NEW_YORK, "2026-03-09T02:30")));
+    }
+
+    @Test
+    void dailyStartInsideTheFallBackOverlap() {
+        assertMatchesCalculator(request(true, RecurrenceFrequency.DAILY, 20, 10, true),
+                at(NEW_YORK, "2026-10-30T01:30"), at(NEW_YORK, "2026-11-03T23:00"), NEW_YORK);
+    }
+
+    @Test
+    void dailyWithoutCycleIsOneWindowPerDay() {
+        ScheduleWindowArithmetic windows = assertMatchesCalculator(request(true, RecurrenceFrequency.DAILY, 0, 0, false),
+                at(LONDON, "2026-03-20T01:30"), at(LONDON, "2026-04-05T01:30"), LONDON);
+
+        assertEquals(17, windows.count());
+    }
+
+    @Test
+    void weeklyKeepsTheShiftedTimeAfterAGap() {
+        assertMatchesCalculator(request(true, RecurrenceFrequency.WEEKLY, 60, 30, true),
+                at(NEW_YORK, "2026-03-01T02:30"), at(NEW_YORK, "2026-04-30T23:00"), NEW_YORK);
+    }
+
+    @Test
+    void weeklyAcrossLondonAutumn() {
+        assertMatchesCalculator(request(true, RecurrenceFrequency.WEEKLY, 0, 0, false),
+                at(LONDON, "2026-10-04T01:30"), at(LONDON, "2026-11-30T00:00"), LONDON);
+    }
+
+    @Test
+    void monthlyOccurrences() {
+        assertMatchesCalculator(request(true, RecurrenceFrequency.MONTHLY, 90, 30, true),
+                at(NEW_YORK, "2026-01-31T22:00"), at(NEW_YORK, "2026-12-31T23:59"), NEW_YORK);
+    }
+
+    @Test
+    void overlappingCyclesWithoutEndOnDateChange() {
+        ScheduleWindowArithmetic windows = assertMatchesCalculator(request(true, RecurrenceFrequency.DAILY, 60, 60, false),
+                at(LONDON, "2026-03-27T22:00"), at(LONDON, "2026-03-31T06:00"), LONDON);
+
+        assertFalse(windows.isSorted());
+    }
+
+    @Test
+    void oneTimeCyclesSpanningTheGap() {
+        // Minute offsets are exact on the time-line: 24 hours of 50 + 10 minute cycles on a 23-hour day
+        ScheduleWindowArithmetic windows = assertMatchesCalculator(request(false, RecurrenceFrequency.DAILY, 50, 10, false),
+                at(NEW_YORK, "2026-03-08T00:00"), at(NEW_YORK, "2026-03-09T00:00"), NEW_YORK);
+
+        assertEquals(23, windows.count());
+    }
+
+    @Test
+    void oneTimeEndOnDateChangeSpanningTheOverlap() {
+        assertMatchesCalculator(request(false, RecurrenceFrequency.DAILY, 50, 10, true),
+                at(NEW_YORK, "2026-11-01T00:00"), at(NEW_YORK, "2026-11-03T00:00"), NEW_YORK);
+    }
+
+    @Test
+    void yearLongDailyScheduleIsASmallNumberOfSegments() {
+        ScheduleWindowArithmetic windows = assertMatchesCalculator(request(true, RecurrenceFrequency.DAILY, 25, 5, true),
+                at(NEW_YORK, "2026-01-01T06:00"), at(NEW_YORK, "2026-12-31T20:00"), NEW_YORK);
+
+        assertTrue(windows.isSorted());
+        assertEquals(at(NEW_YORK, "2026-01-01T06:00").toInstant(), windows.nth(0).toInstant());
+    }
+
+    @Test
+    void nthOutsideTheScheduleIsRejected() {
+        ScheduleWindowArithmetic windows = ScheduleWindowArithmetic.of(request(false, RecurrenceFrequency.DAILY, 60, 0, false),
+                at(LONDON, "2026-01-01T00:00"), at(LONDON, "2026-01-01T03:00"), LONDON);
+
+        assertEquals(3, windows.count());
+        assertThrows(IndexOutOfBoundsException.class, () -> windows.nth(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> windows.nth(-1));
+    }
+
+    @Test
+    void startAfterEndHasNoWindows() {
+        ScheduleWindowArithmetic windows = ScheduleWindowArithmetic.of(request(true, RecurrenceFrequency.DAILY, 60, 0, true),
+                at(LONDON, "2026-01-02T00:00"), at(LONDON, "2026-01-01T00:00"), LONDON);
+
+        assertEquals(0, windows.count());
+        assertFalse(windows.windowsBetween(at(LONDON, "2025-01-01T00:00"), at(LONDON, "2027-01-01T00:00")).hasNext());
+    }
+
+    /**
+     * Compares count, every nth window, and countBetween/windowsBetween over ranges whose edges fall
+     * on, just before and just after generated windows.
+     */
+    private static ScheduleWindowArithmetic assertMatchesCalculator(JobScheduleRequest request, ZonedDateTime start,
+            ZonedDateTime end, ZoneId zoneId) {
+        List<Instant> expected = new ArrayList<>();
+        List<ZonedDateTime> generated = request.isRecurring()
+                ? ScheduleWindowCalculator.calculateRecurringWorkWindows(request, start, end, zoneId)
+                : ScheduleWindowCalculator.calculateWorkWindows(request, start, end);
+        for (ZonedDateTime window : generated) {
+            expected.add(window.toInstant());
+        }
+
+        ScheduleWindowArithmetic windows = ScheduleWindowArithmetic.of(request, start, end, zoneId);
+        assertEquals(expected.size(), windows.count());
+        for (int n = 0; n < expected.size(); n++) {
+            assertEquals(expected.get(n), windows.nth(n).toInstant(), "window " + n);
+        }
+
+        List<Instant> edges = new ArrayList<>();
+        edges.add(start.toInstant().minusSeconds(86_400));
+        edges.add(end.toInstant().plusSeconds(86_400));
+        for (int n = 0; n < expected.size(); n += Math.max(1, expected.size() / 7)) {
+            edges.add(expected.get(n));
+            edges.add(expected.get(n).plusSeconds(1));
+            edges.add(expected.get(n).minusSeconds(1));
+        }
+        for (Instant from : edges) {
+            for (Instant to : edges) {
+                List<Instant> between = new ArrayList<>();
+                for (Instant window : expected) {
+                    if (!window.isBefore(from) && window.isBefore(to)) {
+                        between.add(window);
+                    }
+                }
+                ZonedDateTime fromTime = from.atZone(zoneId);
+                ZonedDateTime toTime = to.atZone(zoneId);
+                assertEquals(between.size(), windows.countBetween(fromTime, toTime), "from " + from + " to " + to);
+                List<Instant> iterated = new ArrayList<>();
+                for (Iterator<ZonedDateTime> it = windows.windowsBetween(fromTime, toTime); it.hasNext(); ) {
+                    iterated.add(it.next().toInstant());
+                }
+                assertEquals(between, iterated, "from " + from + " to " + to);
+            }
+        }
+        return windows;
+    }
+
+    private static boolean contains(ScheduleWindowArithmetic windows, ZonedDateTime time) {
+        for (long n = 0; n < windows.count(); n++) {
+            if (windows.nth(n).toInstant().equals(time.toInstant())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static JobScheduleRequest request(boolean recurring, RecurrenceFrequency frequency, int workMinutes,
+            int pauseMinutes, boolean endOnDateChange) {
+        return JobScheduleRequest.builder()
+                .jobId("job-1")
+                .jobName("window-test")
+                .jobGroup("tests")
+                .recurring(recurring)
+                .recurrenceFrequency(frequency)
+                .workDurationMinutes(workMinutes)
+                .pauseDurationMinutes(pauseMinutes)
+                .endOnDateChange(endOnDateChange)
+                .build();
+    }
+
+    private static ZonedDateTime at(ZoneId zoneId, String localDateTime) {
+        return LocalDateTime.parse(localDateTime).atZone(zoneId);
+    }
+}
@@ -0,0 +1,98 @@
+package com.scheduler.scheduler.service;
+
+import java.lang.reflect.Field;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.Trigger;
+import org.quartz.impl.StdSchedulerFactory;
+
+import com.scheduler.scheduler.model.dto.JobScheduleRequest;
+import com.scheduler.scheduler.model.dto.ScheduleResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Scheduling through the plain Quartz API, as outside the performance profile, on an in-memory
+ * job store.
+ */
+class SchedulerServiceFallbackTest {
+
+	private static final JobKey JOB = new JobKey("fallback-job", "tests");
+
+	private final SchedulerService service = new SchedulerService();
+	private Scheduler scheduler;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		Properties properties = new Properties();
+		properties.setProperty(StdSchedulerFactory.PROP_SCHED_INSTANCE_NAME, "fallback-test");
+		properties.setProperty(StdSchedulerFactory.PROP_JOB_STORE_CLASS, "org.quartz.simpl.RAMJobStore");
+		properties.setProperty("org.quartz.threadPool.threadCount", "1");
+		scheduler = new StdSchedulerFactory(properties).getScheduler();
+		set("scheduler", scheduler);
+		set("persistenceChunkSize", 4);
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		scheduler.shutdown();
+	}
+
+	@Test
+	void rescheduleReplacesEveryTriggerOfTheEarlierVersion() throws Exception {
+		ZonedDateTime start = ZonedDateTime.now().plusDays(1).withNano(0);
+
+		ScheduleResponse first = service.scheduleJob(request(start, start.plusHours(10)), false);
+		ScheduleResponse second = service.scheduleJob(request(start.plusMinutes(30), start.plusHours(3)), false);
+
+		assertTrue(first.isSuccess());
+		assertEquals(10, first.getTriggerCount());
+		assertTrue(second.isSuccess());
+		List<? extends Trigger> triggers = scheduler.getTriggersOfJob(JOB);
+		assertEquals(second.getTriggerCount(), triggers.size());
+		for (Trigger trigger : triggers) {
+			assertFalse(trigger.getStartTime().before(Date.from(start.plusMinutes(30).toInstant())));
+		}
+	}
+
+	@Test
+	void rescheduleWithMoreWindowsKeepsThemAll() throws Exception {
+		ZonedDateTime start = ZonedDateTime.now().plusDays(1).withNano(0);
+
+		service.scheduleJob(request(start, start.plusHours(2)), false);
+		ScheduleResponse longer = service.scheduleJob(request(start, start.plusHours(9)), false);
+
+		assertEquals(9, longer.getTriggerCount());
+		assertEquals(9, scheduler.getTriggersOfJob(JOB).size());
+	}
+
+	private static JobScheduleRequest request(ZonedDateTime start, ZonedDateTime end) {
+		return JobScheduleRequest.builder()
+				.jobId("job-1")
+				.jobName(JOB.getName())
+				.jobGroup(JOB.getGroup())
+				.jobClassName(CompactTriggerCompilerTest.NoOpJob.class.getName())
+				.startTime(start.toInstant().toEpochMilli())
+				.endTime(end.toInstant().toEpochMilli())
+				.recurring(false)
+				.workDurationMinutes(60)
+				.pauseDurationMinutes(0)
+				.build();
+	}
+
+	private void set(String name, Object value) throws Exception {
+		Field field = SchedulerService.class.getDeclaredField(name);
+		field.setAccessible(true);
+		field.set(service, value);
+	}
+}
@@ -0,0 +1,88 @@
+package com.scheduler.scheduler.service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Test;
+import org.quartz.JobKey;
+import org.quartz.TriggerKey;
+
+import com.scheduler.scheduler.quartz.TriggerStart;
+import com.scheduler.scheduler.util.Constants;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WindowTriggerDiffTest {
+
+	private static final JobKey JOB = new JobKey("slot-P1-G1", "slots-G1");
+
+	@Test
+	void keepsUnchangedWindowsAndLeavesTheRestOver() {
+		WindowTriggerDiff diff = WindowTriggerDiff.of(JOB, Arrays.asList(
+				start(0, 1_000L, 2_000L, 5),
+				start(1, 3_000L, 4_000L, 5),
+				start(2, 5_000L, 6_000L, 5)));
+
+		assertTrue(diff.keep(1_000L, 2_000L, 5));
+		assertTrue(diff.keep(5_000L, 6_000L, 5));
+		assertFalse(diff.keep(7_000L, 8_000L, 5));
+
+		assertEquals(Collections.singletonList(key(1)), diff.leftover());
+	}
+
+	@Test
+	void changedEndOrPriorityNeedsANewTrigger() {
+		WindowTriggerDiff diff = WindowTriggerDiff.of(JOB, Arrays.asList(
+				start(0, 1_000L, 2_000L, 5),
+				start(1, 3_000L, 4_000L, 5)));
+
+		assertFalse(diff.keep(1_000L, 2_500L, 5));
+		assertFalse(diff.keep(3_000L, 4_000L, 7));
+
+		assertEquals(new HashSet<>(Arrays.asList(key(0), key(1))), new HashSet<>(diff.leftover()));
+	}
+
+	@Test
+	void eachStoredTriggerIsKeptByOneWindowOnly() {
+		WindowTriggerDiff diff = WindowTriggerDiff.of(JOB, Arrays.asList(
+				start(0, 1_000L, 0L, 5),
+				start(1, 1_000L, 0L, 5)));
+
+		assertTrue(diff.keep(1_000L, 0L, 5));
+		assertTrue(diff.keep(1_000L, 0L, 5));
+		assertFalse(diff.keep(1_000L, 0L, 5));
+		assertTrue(diff.leftover().isEmpty());
+	}
+
+	@Test
+	void newTriggerNamesContinueAfterTheHighestStoredIndex() {
+		WindowTriggerDiff diff = WindowTriggerDiff.of(JOB, Arrays.asList(
+				start(4, 1_000L, 0L, 5),
+				start(11, 2_000L, 0L, 5),
+				new TriggerStart(new TriggerKey("manual", "slots-G1-triggers"), Constants.QUARTZ_TRIGGER_TYPE_SIMPLE,
+						3_000L, 0L, 5)));
+
+		assertEquals(12, diff.nextTriggerIndex());
+		assertEquals(JOB.getName() + Constants.TRIGGER_NAME_SUFFIX + 12, diff.nextTriggerName());
+		assertEquals(13, diff.nextTriggerIndex());
+	}
+
+	@Test
+	void jobWithOtherTriggerTypesIsReplacedInstead() {
+		assertNull(WindowTriggerDiff.of(JOB, Arrays.asList(
+				start(0, 1_000L, 0L, 5),
+				new TriggerStart(key(1), "CAL_INT", 2_000L, 0L, 5))));
+	}
+
+	private static TriggerStart start(int index, long startMillis, long endMillis, int priority) {
+		return new TriggerStart(key(index), Constants.QUARTZ_TRIGGER_TYPE_SIMPLE, startMillis, endMillis, priority);
+	}
+
+	private static TriggerKey key(int index) {
+		return new TriggerKey(JOB.getName() + Constants.TRIGGER_NAME_SUFFIX + index, "slots-G1-triggers");
+	}
+}
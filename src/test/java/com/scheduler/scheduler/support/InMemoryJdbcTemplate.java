@@ -0,0 +1,476 @@
+package com.scheduler.scheduler.support;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * JdbcTemplate over in-memory tables, for testing the SQL of services without a database.
+ *
+ * It understands the statement shapes the services use: INSERT with a column list, UPDATE ... SET,
+ * DELETE and single-table SELECT with WHERE, ORDER BY and LIMIT. Conditions combine
+ * {@code column op value} (=, <>, <, <=, >, >=) and {@code IS [NOT] NULL} with AND, OR and parentheses.
+ * Values are parameters, numbers, NULL or database function calls answered by {@link #expression};
+ * whole statements such as lock queries can be answered by {@link #answer}.
+ */
+public class InMemoryJdbcTemplate extends JdbcTemplate {
+
+	private static final Pattern TOKEN = Pattern.compile(
+			"\\s*(<>|<=|>=|[=<>(),?*]|[A-Za-z_][A-Za-z0-9_.]*|-?[0-9]+|'[^']*')");
+
+	private final Map<String, List<Map<String, Object>>> tables = new HashMap<>();
+	private final Map<String, Supplier<Object>> expressions = new HashMap<>();
+	private final Map<String, Function<Object[], Object>> answers = new HashMap<>();
+
+	/**
+	 * Answers a function call such as {@code txid_current()} wherever it appears as a value.
+	 */
+	public void expression(String call, Supplier<Object> value) {
+		expressions.put(normalize(call), value);
+	}
+
+	/**
+	 * Answers a whole single-value query instead of evaluating it.
+	 */
+	public void answer(String sql, Function<Object[], Object> value) {
+		answers.put(normalize(sql), value);
+	}
+
+	/**
+	 * Inserts a row given as column, value pairs.
+	 */
+	public Map<String, Object> insert(String table, Object... columnsAndValues) {
+		Map<String, Object> row = new LinkedHashMap<>();
+		for (int i = 0; i < columnsAndValues.length; i += 2) {
+			row.put(((String) columnsAndValues[i]).toLowerCase(Locale.ROOT), columnsAndValues[i + 1]);
+		}
+		rows(table).add(row);
+		return row;
+	}
+
+	/**
+	 * @return the live rows of the table, in insertion order
+	 */
+	public List<Map<String, Object>> rows(String table) {
+		return tables.computeIfAbsent(table.toLowerCase(Locale.ROOT), name -> new ArrayList<>());
+	}
+
+	@Override
+	public int update(String sql, Object... args) {
+		return new Statement(sql, args).execute();
+	}
+
+	@Override
+	public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+		int[] counts = new int[batchArgs.size()];
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = update(sql, batchArgs.get(i));
+		}
+		return counts;
+	}
+
+	@Override
+	public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+		List<T> results = new ArrayList<>();
+		Selection selection = new Statement(sql, args).select();
+		try {
+			for (int i = 0; i < selection.rows.size(); i++) {
+				results.add(rowMapper.mapRow(resultSet(selection.columns, selection.rows.get(i)), i));
+			}
+		} catch (SQLException e) {
+			throw new IllegalStateException(e);
+		}
+		return results;
+	}
+
+	@Override
+	public void query(String sql, RowCallbackHandler rch, Object... args) {
+		Selection selection = new Statement(sql, args).select();
+		try {
+			for (Map<String, Object> row : selection.rows) {
+				rch.processRow(resultSet(selection.columns, row));
+			}
+		} catch (SQLException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public <T> T queryForObject(String sql, Class<T> requiredType, Object... args) {
+		Function<Object[], Object> answer = answers.get(normalize(sql));
+		if (answer != null) {
+			return requiredType.cast(answer.apply(args));
+		}
+		Selection selection = new Statement(sql, args).select();
+		if (selection.rows.size() != 1) {
+			throw new IllegalStateException("Expected one row but got " + selection.rows.size() + ": " + sql);
+		}
+		return requiredType.cast(selection.rows.get(0).get(selection.columns.get(0)));
+	}
+
+	private static String normalize(String sql) {
+		StringBuilder normalized = new StringBuilder();
+		for (String token : tokenize(sql)) {
+			normalized.append(token.toLowerCase(Locale.ROOT)).append(' ');
+		}
+		return normalized.toString().trim();
+	}
+
+	private static List<String> tokenize(String sql) {
+		List<String> tokens = new ArrayList<>();
+		Matcher matcher = TOKEN.matcher(sql);
+		int position = 0;
+		while (matcher.find(position) && matcher.start() == position) {
+			tokens.add(matcher.group(1));
+			position = matcher.end();
+		}
+		if (!sql.substring(position).trim().isEmpty()) {
+			throw new IllegalArgumentException("Cannot read SQL at '" + sql.substring(position) + "': " + sql);
+		}
+		return tokens;
+	}
+
+	private static ResultSet resultSet(List<String> columns, Map<String, Object> row) {
+		Object[] lastValue = new Object[1];
+		return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] {ResultSet.class},
+				(proxy, method, args) -> {
+					if (method.getName().equals("wasNull")) {
+						return lastValue[0] == null;
+					}
+					if (!method.getName().startsWith("get") || args == null || args.length != 1) {
+						throw new UnsupportedOperationException(method.getName());
+					}
+					String column = args[0] instanceof Integer
+							? columns.get((Integer) args[0] - 1) : ((String) args[0]).toLowerCase(Locale.ROOT);
+					Object value = row.get(column);
+					lastValue[0] = value;
+					switch (method.getName()) {
+						case "getLong":
+							return value != null ? ((Number) value).longValue() : 0L;
+						case "getInt":
+							return value != null ? ((Number) value).intValue() : 0;
+						case "getBoolean":
+							return value != null && (Boolean) value;
+						case "getString":
+							return value != null ? value.toString() : null;
+						case "getObject":
+							return value;
+						default:
+							throw new UnsupportedOperationException(method.getName());
+					}
+				});
+	}
+
+	private static final class Selection {
+		private final List<String> columns;
+		private final List<Map<String, Object>> rows;
+
+		private Selection(List<String> columns, List<Map<String, Object>> rows) {
+			this.columns = columns;
+			this.rows = rows;
+		}
+	}
+
+	/**
+	 * One statement being parsed; parameters are consumed in the order their markers appear.
+	 */
+	private final class Statement {
+		private final String sql;
+		private final List<String> tokens;
+		private final Object[] args;
+		private int position;
+		private int argIndex;
+
+		private Statement(String sql, Object[] args) {
+			this.sql = sql;
+			this.tokens = tokenize(sql);
+			this.args = args != null ? args : new Object[0];
+		}
+
+		private int execute() {
+			String verb = next();
+			if (verb.equalsIgnoreCase("INSERT")) {
+				return insertRow();
+			}
+			if (verb.equalsIgnoreCase("UPDATE")) {
+				return updateRows();
+			}
+			if (verb.equalsIgnoreCase("DELETE")) {
+				expect("FROM");
+				List<Map<String, Object>> table = rows(next());
+				Predicate<Map<String, Object>> where = where();
+				int before = table.size();
+				table.removeIf(where);
+				return before - table.size();
+			}
+			throw unsupported();
+		}
+
+		private int insertRow() {
+			expect("INTO");
+			String table = next();
+			expect("(");
+			List<String> columns = identifiers();
+			expect("VALUES");
+			expect("(");
+			Map<String, Object> row = new LinkedHashMap<>();
+			for (int i = 0; i < columns.size(); i++) {
+				if (i > 0) {
+					expect(",");
+				}
+				row.put(columns.get(i), value().get());
+			}
+			expect(")");
+			end();
+			rows(table).add(row);
+			return 1;
+		}
+
+		private int updateRows() {
+			List<Map<String, Object>> table = rows(next());
+			expect("SET");
+			Map<String, Supplier<Object>> assignments = new LinkedHashMap<>();
+			do {
+				String column = next().toLowerCase(Locale.ROOT);
+				expect("=");
+				assignments.put(column, value());
+			} while (accept(","));
+			Predicate<Map<String, Object>> where = where();
+			int updated = 0;
+			for (Map<String, Object> row : table) {
+				if (where.test(row)) {
+					assignments.forEach((column, value) -> row.put(column, value.get()));
+					updated++;
+				}
+			}
+			return updated;
+		}
+
+		private Selection select() {
+			expect("SELECT");
+			List<String> columns = new ArrayList<>();
+			do {
+				columns.add(next().toLowerCase(Locale.ROOT));
+			} while (accept(","));
+			expect("FROM");
+			List<Map<String, Object>> table = rows(next());
+			Predicate<Map<String, Object>> where = optionalWhere();
+			Comparator<Map<String, Object>> order = null;
+			if (accept("ORDER")) {
+				expect("BY");
+				do {
+					String column = next().toLowerCase(Locale.ROOT);
+					Comparator<Map<String, Object>> byColumn = (a, b) -> compare(a.get(column), b.get(column));
+					if (accept("DESC")) {
+						byColumn = byColumn.reversed();
+					} else {
+						accept("ASC");
+					}
+					order = order == null ? byColumn : order.thenComparing(byColumn);
+				} while (accept(","));
+			}
+			long limit = Long.MAX_VALUE;
+			if (accept("LIMIT")) {
+				limit = ((Number) value().get()).longValue();
+			}
+			end();
+			List<Map<String, Object>> selected = new ArrayList<>();
+			for (Map<String, Object> row : table) {
+				if (where.test(row)) {
+					selected.add(row);
+				}
+			}
+			if (order != null) {
+				selected.sort(order);
+			}
+			List<Map<String, Object>> result = new ArrayList<>();
+			for (Map<String, Object> row : selected) {
+				if (result.size() >= limit) {
+					break;
+				}
+				Map<String, Object> copy = new LinkedHashMap<>();
+				for (String column : columns) {
+					copy.put(column, row.get(column));
+				}
+				result.add(copy);
+			}
+			return new Selection(columns, result);
+		}
+
+		/**
+		 * Reads a WHERE clause that ends the statement.
+		 */
+		private Predicate<Map<String, Object>> where() {
+			Predicate<Map<String, Object>> where = optionalWhere();
+			end();
+			return where;
+		}
+
+		private Predicate<Map<String, Object>> optionalWhere() {
+			if (!accept("WHERE")) {
+				return row -> true;
+			}
+			return or();
+		}
+
+		private Predicate<Map<String, Object>> or() {
+			Predicate<Map<String, Object>> left = and();
+			while (accept("OR")) {
+				left = left.or(and());
+			}
+			return left;
+		}
+
+		private Predicate<Map<String, Object>> and() {
+			Predicate<Map<String, Object>> left = condition();
+			while (accept("AND")) {
+				left = left.and(condition());
+			}
+			return left;
+		}
+
+		private Predicate<Map<String, Object>> condition() {
+			if (accept("(")) {
+				Predicate<Map<String, Object>> inner = or();
+				expect(")");
+				return inner;
+			}
+			String column = next().toLowerCase(Locale.ROOT);
+			if (accept("IS")) {
+				boolean not = accept("NOT");
+				expect("NULL");
+				return row -> (row.get(column) == null) != not;
+			}
+			String operator = next();
+			Supplier<Object> value = value();
+			return row -> {
+				Object actual = row.get(column);
+				Object expected = value.get();
+				if (actual == null || expected == null) {
+					return false;
+				}
+				int comparison = compare(actual, expected);
+				switch (operator) {
+					case "=":
+						return comparison == 0;
+					case "<>":
+						return comparison != 0;
+					case "<":
+						return comparison < 0;
+					case "<=":
+						return comparison <= 0;
+					case ">":
+						return comparison > 0;
+					case ">=":
+						return comparison >= 0;
+					default:
+						throw unsupported();
+				}
+			};
+		}
+
+		private Supplier<Object> value() {
+			String token = next();
+			if (token.equals("?")) {
+				Object arg = args[argIndex++];
+				return () -> arg;
+			}
+			if (token.equalsIgnoreCase("NULL")) {
+				return () -> null;
+			}
+			if (token.startsWith("'")) {
+				String literal = token.substring(1, token.length() - 1);
+				return () -> literal;
+			}
+			if (Character.isDigit(token.charAt(0)) || token.startsWith("-")) {
+				long number = Long.parseLong(token);
+				return () -> number;
+			}
+			// A function call, answered by a registered expression
+			StringBuilder call = new StringBuilder(token.toLowerCase(Locale.ROOT));
+			int depth = 0;
+			do {
+				String part = next();
+				if (part.equals("?")) {
+					argIndex++;
+				}
+				depth += part.equals("(") ? 1 : part.equals(")") ? -1 : 0;
+				call.append(' ').append(part.toLowerCase(Locale.ROOT));
+			} while (depth > 0);
+			Supplier<Object> expression = expressions.get(call.toString());
+			if (expression == null) {
+				throw new IllegalArgumentException("No expression registered for " + call + ": " + sql);
+			}
+			return expression;
+		}
+
+		private List<String> identifiers() {
+			List<String> identifiers = new ArrayList<>();
+			do {
+				identifiers.add(next().toLowerCase(Locale.ROOT));
+			} while (accept(","));
+			expect(")");
+			return identifiers;
+		}
+
+		private String next() {
+			if (position >= tokens.size()) {
+				throw unsupported();
+			}
+			return tokens.get(position++);
+		}
+
+		private boolean accept(String token) {
+			if (position < tokens.size() && tokens.get(position).equalsIgnoreCase(token)) {
+				position++;
+				return true;
+			}
+			return false;
+		}
+
+		private void expect(String token) {
+			if (!accept(token)) {
+				throw unsupported();
+			}
+		}
+
+		private void end() {
+			if (position != tokens.size()) {
+				throw unsupported();
+			}
+		}
+
+		private IllegalArgumentException unsupported() {
+			return new IllegalArgumentException("Unsupported SQL at token " + position + " of "
+					+ Arrays.toString(tokens.toArray()) + ": " + sql);
+		}
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static int compare(Object a, Object b) {
+		if (a == null || b == null) {
+			return a == null ? (b == null ? 0 : -1) : 1;
+		}
+		if (a instanceof Number && b instanceof Number) {
+			return Double.compare(((Number) a).doubleValue(), ((Number) b).doubleValue());
+		}
+		return ((Comparable) a).compareTo(b);
+	}
+}
@@ -0,0 +1,54 @@
+package com.scheduler.scheduler.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EpochMillisBufferTest {
+
+    @Test
+    void keepsEveryValueAndTracksTheRange() {
+        EpochMillisBuffer buffer = new EpochMillisBuffer(1);
+        buffer.add(3_000L);
+        buffer.add(1_000L);
+        buffer.add(2_000L);
+
+        assertTrue(buffer.retainsValues());
+        assertEquals(3, buffer.size());
+        assertEquals(1_000L, buffer.min());
+        assertEquals(3_000L, buffer.max());
+        assertArrayEquals(new long[] {3_000L, 1_000L, 2_000L}, buffer.toArray());
+    }
+
+    @Test
+    void summaryCountsAndTracksTheRangeWithoutKeepingValues() {
+        EpochMillisBuffer buffer = EpochMillisBuffer.summary();
+        for (long millis = 100_000L; millis > 0; millis -= 1_000L) {
+            buffer.add(millis);
+        }
+
+        assertFalse(buffer.retainsValues());
+        assertEquals(100, buffer.size());
+        assertEquals(1_000L, buffer.min());
+        assertEquals(100_000L, buffer.max());
+        assertThrows(IllegalStateException.class, () -> buffer.get(0));
+        assertThrows(IllegalStateException.class,
+                () -> buffer.format(ZoneOffset.UTC, DateTimeFormatter.ISO_DATE_TIME));
+    }
+
+    @Test
+    void emptyBufferHasNoRange() {
+        EpochMillisBuffer buffer = EpochMillisBuffer.summary();
+
+        assertTrue(buffer.isEmpty());
+        assertThrows(IndexOutOfBoundsException.class, buffer::min);
+        assertThrows(IndexOutOfBoundsException.class, buffer::max);
+    }
+}